@@ -21,7 +21,10 @@ import eu.binjr.common.javafx.controls.TimeRange;
 import eu.binjr.common.javafx.controls.TreeViewUtils;
 import eu.binjr.common.logging.Logger;
 import eu.binjr.core.data.adapters.DataAdapter;
+import eu.binjr.core.data.adapters.FetchResolution;
+import eu.binjr.core.data.adapters.FetchSink;
 import eu.binjr.core.data.adapters.ReloadPolicy;
+import eu.binjr.core.data.adapters.SampleConsumer;
 import eu.binjr.core.data.adapters.SourceBinding;
 import eu.binjr.core.data.adapters.TimeSeriesBinding;
 import eu.binjr.core.data.exceptions.DataAdapterException;
@@ -45,6 +48,7 @@ import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -228,6 +232,17 @@ public class JfrChartsDataAdapter extends BaseJfrDataAdapter<Double> {
                                                                               Instant end,
                                                                               List<TimeSeriesInfo<Double>> seriesInfo,
                                                                               boolean bypassCache) throws DataAdapterException {
+        return fetchData(path, begin, end, seriesInfo, bypassCache, FetchResolution.FULL, FetchSink.none());
+    }
+
+    @Override
+    public Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> fetchData(String path,
+                                                                              Instant begin,
+                                                                              Instant end,
+                                                                              List<TimeSeriesInfo<Double>> seriesInfo,
+                                                                              boolean bypassCache,
+                                                                              FetchResolution resolution,
+                                                                              FetchSink<Double> sink) throws DataAdapterException {
         try {
             ensureIndexed(seriesInfo.stream().map(info -> info.getBinding().getPath()).collect(Collectors.toSet()), ReloadPolicy.UNLOADED);
             Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> series = new HashMap<>();
@@ -239,7 +254,9 @@ public class JfrChartsDataAdapter extends BaseJfrDataAdapter<Double> {
                     end.toEpochMilli(),
                     series,
                     getTimeZoneId(),
-                    bypassCache);
+                    bypassCache,
+                    resolution,
+                    sink);
             logger.debug(() -> "Retrieved " + nbHits + " hits");
             return series;
         } catch (Exception e) {
@@ -247,6 +264,29 @@ public class JfrChartsDataAdapter extends BaseJfrDataAdapter<Double> {
         }
     }
 
+    @Override
+    public boolean isFullResolution(FetchResolution resolution) {
+        // Index hits are only reduced when a lower resolution was requested
+        return resolution.isFull();
+    }
+
+    @Override
+    public long forEachSample(String path,
+                              Instant begin,
+                              Instant end,
+                              List<TimeSeriesInfo<Double>> seriesInfo,
+                              SampleConsumer<Double> consumer,
+                              BooleanSupplier isCancelled) throws DataAdapterException, IOException {
+        try {
+            ensureIndexed(seriesInfo.stream().map(info -> info.getBinding().getPath()).collect(Collectors.toSet()), ReloadPolicy.UNLOADED);
+            return index.forEachSample(begin.toEpochMilli(), end.toEpochMilli(), seriesInfo, getTimeZoneId(), consumer, isCancelled);
+        } catch (IOException | DataAdapterException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataAdapterException("Error fetching data from " + path, e);
+        }
+    }
+
 
     @Override
     public String getSourceName() {
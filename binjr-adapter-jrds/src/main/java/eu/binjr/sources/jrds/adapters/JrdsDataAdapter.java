@@ -147,6 +147,12 @@ public class JrdsDataAdapter extends HttpDataAdapter<Double> {
         );
     }
 
+    @Override
+    protected boolean isAggregatedAtSource(FetchResolution resolution) {
+        // JRDS serves values from the round robin archive that best fits the requested time range
+        return true;
+    }
+
     @Override
     public String getSourceName() {
         return "[JRDS] " +
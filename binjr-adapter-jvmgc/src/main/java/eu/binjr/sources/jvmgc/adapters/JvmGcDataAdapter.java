@@ -242,6 +242,11 @@ public class JvmGcDataAdapter extends BaseDataAdapter<Double> {
         return true;
     }
 
+    @Override
+    public boolean isFullResolution() {
+        return true;
+    }
+
     @Override
     public String getSourceName() {
         return "[GC Logs] " + (gcLogPath != null ? gcLogPath.getFileName() : "???" + (detectRollingLogs ? "(rolling)" : ""));
@@ -30,6 +30,7 @@ import eu.binjr.core.data.workspace.TimeSeriesInfo;
 import eu.binjr.core.preferences.UserPreferences;
 import eu.binjr.sources.netdata.api.Chart;
 import eu.binjr.sources.netdata.api.ChartSummary;
+import eu.binjr.sources.netdata.api.GroupingMethod;
 import org.eclipse.fx.ui.controls.tree.FilterableTreeItem;
 
 import java.net.URI;
@@ -88,11 +89,14 @@ public class NetdataAdapter extends HttpDataAdapter<Double> {
 
     @Override
     protected URI craftFetchUri(String path, Instant begin, Instant end) throws DataAdapterException {
+        return craftFetchUri(path, begin, end, FetchResolution.FULL);
+    }
+
+    @Override
+    protected URI craftFetchUri(String path, Instant begin, Instant end, FetchResolution resolution) throws DataAdapterException {
         var params = new ArrayList<NameValuePair>();
-        params.add(UriParameter.of("points",
-                (userPrefs.downSamplingEnabled.get() && !adapterPrefs.disableServerSideDownsampling.get()
-                        ? userPrefs.downSamplingThreshold.get() : adapterPrefs.maxSamplesAllowed.get())));
-        params.add(UriParameter.of("group", adapterPrefs.groupingMethod.get()));
+        params.add(UriParameter.of("points", getRequestedPoints(resolution)));
+        params.add(UriParameter.of("group", getGroupingMethod(resolution)));
         params.add(UriParameter.of("gtime", adapterPrefs.groupingTime.get()));
         if (adapterPrefs.disableTimeFrameAlignment.get()) {
             params.add(UriParameter.of("options", "unaligned"));
@@ -105,6 +109,35 @@ public class NetdataAdapter extends HttpDataAdapter<Double> {
         return craftRequestUri(path, params);
     }
 
+    @Override
+    protected String getResolutionCacheKey(FetchResolution resolution) {
+        // Only the number of points requested from the server and how they are grouped affect the payload
+        return getRequestedPoints(resolution) + "/" + getGroupingMethod(resolution);
+    }
+
+    @Override
+    protected boolean isAggregatedAtSource(FetchResolution resolution) {
+        // Netdata groups samples so that there are never more than the requested number of points in a response
+        return true;
+    }
+
+    private Number getRequestedPoints(FetchResolution resolution) {
+        if (userPrefs.downSamplingEnabled.get() && !adapterPrefs.disableServerSideDownsampling.get()) {
+            // Only ask for as many points as can be displayed, when known
+            return resolution.isFull() ? userPrefs.downSamplingThreshold.get() :
+                    Math.min(resolution.maxPoints(), adapterPrefs.maxSamplesAllowed.get().intValue());
+        }
+        return adapterPrefs.maxSamplesAllowed.get();
+    }
+
+    private GroupingMethod getGroupingMethod(FetchResolution resolution) {
+        if (resolution.isFull() || !adapterPrefs.groupLikeDownSampling.get()) {
+            return adapterPrefs.groupingMethod.get();
+        }
+        // Netdata only returns one value per group, so the largest one stands for the extremes
+        return resolution.aggregation() == FetchResolution.Aggregation.AVERAGE ? GroupingMethod.AVERAGE : GroupingMethod.MAX;
+    }
+
     @Override
     public boolean isSortingRequired() {
         return true;
@@ -43,6 +43,12 @@ public class NetdataAdapterPreferences extends DataAdapterPreferences {
      */
     public ObservablePreference<GroupingMethod> groupingMethod = enumPreference(GroupingMethod.class, "groupingMethod", GroupingMethod.AVERAGE);
 
+    /**
+     * Set to true to have Netdata group samples by their average or their largest value, depending on how the
+     * down-sampling algorithm used to display them aggregates samples, rather than with the grouping method above.
+     */
+    public ObservablePreference<Boolean> groupLikeDownSampling = booleanPreference("groupLikeDownSampling", true);
+
     /**
      * The grouping number of seconds.
      * This is used in conjunction with group=average to change the units of metrics
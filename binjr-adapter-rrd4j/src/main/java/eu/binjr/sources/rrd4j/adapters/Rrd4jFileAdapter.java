@@ -19,6 +19,7 @@ package eu.binjr.sources.rrd4j.adapters;
 import eu.binjr.common.javafx.controls.TimeRange;
 import eu.binjr.common.logging.Logger;
 import eu.binjr.core.data.adapters.BaseDataAdapter;
+import eu.binjr.core.data.adapters.FetchResolution;
 import eu.binjr.core.data.adapters.SourceBinding;
 import eu.binjr.core.data.adapters.TimeSeriesBinding;
 import eu.binjr.core.data.exceptions.DataAdapterException;
@@ -137,15 +138,24 @@ public class Rrd4jFileAdapter extends BaseDataAdapter<Double> {
     public Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> fetchData(String path, Instant begin, Instant
             end, List<TimeSeriesInfo<Double>> seriesInfo, boolean bypassCache)
             throws DataAdapterException {
+        return fetchData(path, begin, end, seriesInfo, bypassCache, FetchResolution.FULL);
+    }
+
+    @Override
+    public Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> fetchData(String path, Instant begin, Instant
+            end, List<TimeSeriesInfo<Double>> seriesInfo, boolean bypassCache, FetchResolution resolution)
+            throws DataAdapterException {
         if (this.isClosed()) {
             throw new IllegalStateException("An attempt was made to fetch data from a closed adapter");
         }
         Path dsPath = Path.of(path);
         try {
+            // Let rrd4j pick the archive whose step best matches the interval between displayed samples
             FetchRequest request = rrdDbMap.get(dsPath.getParent()).createFetchRequest(
                     ConsolFun.valueOf(dsPath.getFileName().toString()),
                     begin.getEpochSecond(),
-                    end.getEpochSecond());
+                    end.getEpochSecond(),
+                    Math.max(1L, resolution.getInterval(begin, end).toSeconds()));
             request.setFilter(seriesInfo.stream().map(s -> s.getBinding().getLabel()).toArray(String[]::new));
             FetchData data = request.fetchData();
             Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> series = new HashMap<>();
@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.kernels;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and vectorized implementations of {@link DoubleKernels} on a series with a few NaN values.
+ * <p>Run with {@code ./gradlew :binjr-core:jmh}, on the JDK the application ships with, since the performance of the
+ * incubating Vector API varies significantly between releases.</p>
+ *
+ * @author Frederic Thevenet
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DoubleKernelsBenchmark {
+    @Param({"scalar", "vector"})
+    public String implementation;
+
+    @Param({"1000003"})
+    public int size;
+
+    @Param({"0.01"})
+    public double nanRate;
+
+    @Param({"1000"})
+    public int threshold;
+
+    private DoubleKernels kernels;
+    private long[] timestamps;
+    private double[] values;
+    private long[] prunedTimestamps;
+    private double[] prunedValues;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        kernels = switch (implementation) {
+            case "scalar" -> new ScalarDoubleKernels();
+            case "vector" -> VectorDoubleKernels.create();
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+        if (kernels == null) {
+            throw new IllegalStateException("Vector kernels are not supported on this platform");
+        }
+        var rnd = new Random(42);
+        timestamps = new long[size];
+        values = new double[size];
+        long t = 1_700_000_000_000_000_000L;
+        for (int i = 0; i < size; i++) {
+            t += 1_000_000_000L + rnd.nextInt(1000);
+            timestamps[i] = t;
+            values[i] = rnd.nextDouble() < nanRate ? Double.NaN : rnd.nextGaussian() * 100;
+        }
+        prunedTimestamps = new long[size];
+        prunedValues = new double[size];
+    }
+
+    @Benchmark
+    public double min() {
+        return kernels.min(values, 0, size);
+    }
+
+    @Benchmark
+    public double max() {
+        return kernels.max(values, 0, size);
+    }
+
+    @Benchmark
+    public double sum() {
+        return kernels.sum(values, 0, size);
+    }
+
+    @Benchmark
+    public int pruneNaN() {
+        // Pruning happens in place, so start each invocation from a fresh copy of the samples
+        System.arraycopy(timestamps, 0, prunedTimestamps, 0, size);
+        System.arraycopy(values, 0, prunedValues, 0, size);
+        return kernels.pruneNaN(prunedTimestamps, prunedValues, size);
+    }
+
+    @Benchmark
+    public int largestTriangleThreeBuckets() {
+        // Same bucket walk as LargestTriangleThreeBucketsTransform, without building the reduced columns
+        double every = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        int checksum = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            int avgRangeStart = (int) (Math.floor((i + 1) * every) + 1);
+            int avgRangeEnd = Math.min((int) (Math.floor((i + 2) * every) + 1), size);
+            int avgRangeLength = avgRangeEnd - avgRangeStart;
+            double avgX = kernels.sumOfOffsets(timestamps, avgRangeStart, avgRangeEnd, timestamps[a]) / avgRangeLength;
+            double avgY = kernels.sum(values, avgRangeStart, avgRangeEnd) / avgRangeLength;
+            int rangeOffs = (int) (Math.floor(i * every) + 1);
+            int rangeTo = (int) (Math.floor((i + 1) * every) + 1);
+            int idx = kernels.indexOfLargestTriangle(timestamps, values, rangeOffs, rangeTo,
+                    timestamps[a], Double.isNaN(values[a]) ? 0.0 : values[a], avgX, avgY);
+            if (idx >= 0) {
+                a = idx;
+            }
+            checksum += a;
+        }
+        return checksum;
+    }
+}
@@ -16,6 +16,7 @@
 
 package eu.binjr.common.function;
 
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -66,6 +67,27 @@ public final class CheckedLambdas {
 //        };
 //    }
 
+    /**
+     * Wraps a {@link CheckedBiConsumer} inside a {@link BiConsumer} and rethrow the
+     * original exception.
+     *
+     * @param consumer the {@link BiConsumer} to wrap.
+     * @param <T>      the type for the consumer's first parameter.
+     * @param <U>      the type for the consumer's second parameter.
+     * @param <E>      the type for the checked exception.
+     * @return a {@link BiConsumer} instance.
+     * @throws E the checked exception thrown in the lambda.
+     */
+    public static <T, U, E extends Exception> BiConsumer<T, U> wrap(CheckedBiConsumer<T, U, E> consumer) throws E {
+        return (t, u) -> {
+            try {
+                consumer.accept(t, u);
+            } catch (Exception exception) {
+                throw throwActualException(exception);
+            }
+        };
+    }
+
     /**
      * Wraps a {@link CheckedRunnable} inside a {@link Runnable} and rethrow the
      * original exception.
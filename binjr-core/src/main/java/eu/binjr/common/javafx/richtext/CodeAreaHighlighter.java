@@ -46,6 +46,7 @@ public class CodeAreaHighlighter {
     private static final int GROUP_EQUAL_SYMBOL = 2;
     private static final int GROUP_ATTRIBUTE_VALUE = 3;
     public static final String SEARCH_RESULT_HIGHLIGHT = "search-result-highlight";
+    public static final String QUERY_MATCH_HIGHLIGHT = "query-match-highlight";
 
     public static class SearchHitRange {
         private final int start;
@@ -56,6 +57,10 @@ public class CodeAreaHighlighter {
             this.end = end;
         }
 
+        public static SearchHitRange of(int start, int end) {
+            return new SearchHitRange(start, end);
+        }
+
         public int getStart() {
             return start;
         }
@@ -124,6 +129,29 @@ public class CodeAreaHighlighter {
         return new SearchHighlightResults(hits, spansBuilder.create());
     }
 
+    /**
+     * Computes the style spans for a set of ranges that have already been located in a text, without scanning
+     * through the text.
+     *
+     * @param textLength the length of the highlighted text.
+     * @param ranges     the ranges to highlight, sorted by start position and non overlapping.
+     * @param styleClass the style class to apply to the ranges.
+     * @return the ranges and their style spans.
+     */
+    public static SearchHighlightResults computeRangesHighlighting(int textLength,
+                                                                   List<SearchHitRange> ranges,
+                                                                   String styleClass) {
+        int lastKwEnd = 0;
+        StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
+        for (var range : ranges) {
+            spansBuilder.add(Collections.emptyList(), range.getStart() - lastKwEnd);
+            spansBuilder.add(Collections.singleton(styleClass), range.getEnd() - range.getStart());
+            lastKwEnd = range.getEnd();
+        }
+        spansBuilder.add(Collections.emptyList(), textLength - lastKwEnd);
+        return new SearchHighlightResults(ranges, spansBuilder.create());
+    }
+
     public static StyleSpans<Collection<String>> computeLogsSyntaxHighlighting(String text) {
         Matcher matcher = LOGS_SEVERITY.matcher(text);
         int lastKwEnd = 0;
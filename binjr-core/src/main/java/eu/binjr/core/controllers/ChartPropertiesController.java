@@ -22,6 +22,7 @@ import eu.binjr.common.logging.Logger;
 import eu.binjr.core.data.workspace.Chart;
 import eu.binjr.core.data.workspace.ChartType;
 import eu.binjr.core.data.workspace.XYChartsWorksheet;
+import eu.binjr.core.preferences.DownSamplingAlgorithm;
 import eu.binjr.core.preferences.UserPreferences;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
@@ -97,6 +98,8 @@ public class ChartPropertiesController implements Initializable, Closeable {
     private LabelWithInlineHelp durationUnitLabel;
     @FXML
     private ChoiceBox<ChronoUnit> durationUnitChoiceBox;
+    @FXML
+    private ChoiceBox<DownSamplingAlgorithm> downSamplingChoiceBox;
 
     public ChartPropertiesController(XYChartsWorksheet worksheet, Chart chart) {
         this.worksheet = worksheet;
@@ -213,6 +216,20 @@ public class ChartPropertiesController implements Initializable, Closeable {
                 return durationUnitChoiceBox.getValue();
             }
         });
+        this.downSamplingChoiceBox.getItems().add(null);
+        this.downSamplingChoiceBox.getItems().addAll(DownSamplingAlgorithm.values());
+        this.downSamplingChoiceBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(DownSamplingAlgorithm o) {
+                return o != null ? o.getName() : "Default (from settings)";
+            }
+
+            @Override
+            public DownSamplingAlgorithm fromString(String s) {
+                return downSamplingChoiceBox.getValue();
+            }
+        });
+        bindingManager.bindBidirectional(downSamplingChoiceBox.valueProperty(), worksheet.downSamplingAlgorithmProperty());
     }
 
     private void adaptToChartType(ChartType chartType) {
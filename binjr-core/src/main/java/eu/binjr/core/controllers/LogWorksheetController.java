@@ -37,6 +37,7 @@ import eu.binjr.core.appearance.BuiltInChartColorPalettes;
 import eu.binjr.core.data.adapters.*;
 import eu.binjr.core.data.async.AsyncTaskManager;
 import eu.binjr.core.data.exceptions.DataAdapterException;
+import eu.binjr.core.data.export.LogEventsExportTask;
 import eu.binjr.core.data.exceptions.NoAdapterFoundException;
 import eu.binjr.core.data.indexes.*;
 import eu.binjr.core.data.indexes.parser.capture.CaptureGroup;
@@ -99,6 +100,7 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -106,6 +108,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -124,12 +127,18 @@ public class LogWorksheetController extends WorksheetController {
     public static final double AXIS_HEIGHT = 15.0;
     private final LogWorksheet worksheet;
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicBoolean warmUpRequested = new AtomicBoolean(false);
+    private final AtomicBoolean warmUpScheduled = new AtomicBoolean(false);
+    private int resultPageCount = 0;
     private final UserPreferences userPrefs = UserPreferences.getInstance();
     private final Property<Collection<FacetEntry>> pathFacetEntries = new SimpleObjectProperty<>();
     private final MostRecentlyUsedList<String> mostRecentLogFilters = UserHistory.getInstance().mostRecentLogFilters;
     private final MostRecentlyUsedList<String> favoriteLogFilters = userPrefs.getFavorites().favoriteLogFilters;
     private StyleSpans<Collection<String>> syntaxHighlightStyleSpans;
     private RingIterator<CodeAreaHighlighter.SearchHitRange> searchHitIterator = RingIterator.of(Collections.emptyList());
+    private CodeAreaHighlighter.SearchHighlightResults queryMatches = null;
+    private List<SearchHit> currentPageHits = Collections.emptyList();
+    private int pendingFocusParagraph = -1;
     private final BooleanProperty filterApplied = new SimpleBooleanProperty(true);
     private final BooleanProperty controllerBusy = new SimpleBooleanProperty(false);
     private Path tmpCssPath;
@@ -140,6 +149,8 @@ public class LogWorksheetController extends WorksheetController {
     @FXML
     private ToggleButton wordWrapButton;
     @FXML
+    private Button exportButton;
+    @FXML
     private Button refreshButton;
     @FXML
     private Button backButton;
@@ -335,6 +346,7 @@ public class LogWorksheetController extends WorksheetController {
             }
         });
         refreshButton.setOnMouseClicked(getBindingManager().registerHandler(event -> refresh(event.isControlDown())));
+        exportButton.setOnAction(getBindingManager().registerHandler(event -> exportMatchingEvents()));
         // TimeRange Picker initialization
         timeRangePicker.setReferenceEndDateSupplier(() -> worksheet.getInitialTimeRange().getEnd());
         getBindingManager().bindBidirectional(timeRangePicker.timeRangeLinkedProperty(), worksheet.timeRangeLinkedProperty());
@@ -627,12 +639,17 @@ public class LogWorksheetController extends WorksheetController {
                 });
 
         prevOccurrenceButton.setOnAction(getBindingManager().registerHandler(event -> {
-            if (searchHitIterator.hasPrevious()) {
+            if (!searchTextField.getText().isEmpty() && pager.getPageCount() > 1 && searchHitIterator.peekCurrentIndex() <= 0) {
+                locateOnOtherPages(false);
+            } else if (searchHitIterator.hasPrevious()) {
                 focusOnSearchHit(searchHitIterator.previous());
             }
         }));
         nextOccurrenceButton.setOnAction(getBindingManager().registerHandler(event -> {
-            if (searchHitIterator.hasNext()) {
+            if (!searchTextField.getText().isEmpty() && pager.getPageCount() > 1 &&
+                    searchHitIterator.peekCurrentIndex() >= searchHitIterator.peekLastIndex()) {
+                locateOnOtherPages(true);
+            } else if (searchHitIterator.hasNext()) {
                 focusOnSearchHit(searchHitIterator.next());
             }
         }));
@@ -1044,6 +1061,12 @@ public class LogWorksheetController extends WorksheetController {
         refresh(false);
     }
 
+    @Override
+    public void warmUp() {
+        warmUpRequested.set(true);
+        scheduleIndexWarmUpIfNeeded();
+    }
+
     @Override
     public void refresh(boolean force) {
         invalidate(false, false, force ? ReloadPolicy.ALL : ReloadPolicy.UNLOADED, true);
@@ -1077,6 +1100,7 @@ public class LogWorksheetController extends WorksheetController {
                         try {
                             // Reset page number
                             var res = (SearchHitsProcessor) event.getSource().getValue();
+                            currentPageHits = res.getData().stream().map(XYChart.Data::getYValue).toList();
                             pager.setPageCount((int) Math.ceil((double) res.getTotalHits() / res.getHitsPerPage()));
                             pager.setCurrentPageIndex(worksheet.getQueryParameters().getPage());
                             // Update severity facet view
@@ -1122,6 +1146,8 @@ public class LogWorksheetController extends WorksheetController {
                                 var docBuilder = new ReadOnlyStyledDocumentBuilder<Collection<String>, String, Collection<String>>(
                                         SegmentOps.styledTextOps(),
                                         Collections.emptyList());
+                                var queryMatchRanges = new ArrayList<CodeAreaHighlighter.SearchHitRange>();
+                                int paragraphOffset = 0;
                                 for (var data : res.getData()) {
                                     var hit = data.getYValue();
                                     var severity = hit.getSeverity().label();
@@ -1131,16 +1157,31 @@ public class LogWorksheetController extends WorksheetController {
                                             message,
                                             List.of(mapSeverityToCssEntry(severity)),
                                             List.of("file-" + path.hashCode()));
+                                    for (var h : hit.getHighlights()) {
+                                        if (h.start() < message.length()) {
+                                            queryMatchRanges.add(CodeAreaHighlighter.SearchHitRange.of(
+                                                    paragraphOffset + h.start(),
+                                                    paragraphOffset + Math.min(h.end(), message.length())));
+                                        }
+                                    }
+                                    // account for the line separator between paragraphs
+                                    paragraphOffset += message.length() + 1;
                                 }
                                 // Add a dummy paragraph if result set is empty, otherwise doc creation will fail
                                 if (res.getData().isEmpty()) {
                                     docBuilder.addParagraph("", Collections.emptyList(), Collections.emptyList());
                                 }
                                 var doc = docBuilder.build();
-                                syntaxHighlightStyleSpans = doc.getStyleSpans(0, doc.getText().length());
+                                var textLength = doc.getText().length();
+                                queryMatches = CodeAreaHighlighter.computeRangesHighlighting(textLength,
+                                        queryMatchRanges,
+                                        CodeAreaHighlighter.QUERY_MATCH_HIGHLIGHT);
+                                syntaxHighlightStyleSpans = doc.getStyleSpans(0, textLength)
+                                        .overlay(queryMatches.getStyleSpans(), LogWorksheetController::mergeStyles);
                                 logsTextOutput.replace(doc);
+                                logsTextOutput.setStyleSpans(0, syntaxHighlightStyleSpans);
                                 // Reset search highlight
-                                if (!searchTextField.getText().isEmpty()) {
+                                if (!searchTextField.getText().isEmpty() || !queryMatchRanges.isEmpty()) {
                                     doSearchHighlight(searchTextField.getText(),
                                             searchMatchCaseToggle.isSelected(),
                                             searchRegExToggle.isSelected());
@@ -1152,6 +1193,9 @@ public class LogWorksheetController extends WorksheetController {
                             getBindingManager().resume();
                             controllerBusy.setValue(false);
                         }
+                        var res = (SearchHitsProcessor) event.getSource().getValue();
+                        resultPageCount = (int) Math.ceil((double) res.getTotalHits() / res.getHitsPerPage());
+                        scheduleIndexWarmUpIfNeeded();
                     }, event -> {
                         controllerBusy.setValue(false);
                         Dialogs.notifyException("An error occurred while indexing log file: " +
@@ -1418,26 +1462,51 @@ public class LogWorksheetController extends WorksheetController {
         }
     }
 
+    private static Collection<String> mergeStyles(Collection<String> styles1, Collection<String> styles2) {
+        return Stream.concat(styles1.stream(), styles2.stream()).collect(Collectors.toCollection(ArrayList<String>::new));
+    }
+
     private void doSearchHighlight(String searchText, boolean matchCase, boolean regEx) {
         try (var p = Profiler.start("Applying search result highlights", logger::perf)) {
-            var searchResults =
+            // When no search text is entered, navigate through the query matches located by the index
+            // instead of scanning the text.
+            boolean useQueryMatches = (searchText == null || searchText.isEmpty()) &&
+                    queryMatches != null &&
+                    !queryMatches.getSearchHitRanges().isEmpty();
+            var searchResults = useQueryMatches ? queryMatches :
                     CodeAreaHighlighter.computeSearchHitsHighlighting(logsTextOutput.getText(), searchText, matchCase, regEx);
-            prevOccurrenceButton.setDisable(searchResults.getSearchHitRanges().isEmpty());
-            nextOccurrenceButton.setDisable(searchResults.getSearchHitRanges().isEmpty());
+            boolean canSearchOtherPages = !useQueryMatches && searchText != null && !searchText.isEmpty() && pager.getPageCount() > 1;
+            prevOccurrenceButton.setDisable(searchResults.getSearchHitRanges().isEmpty() && !canSearchOtherPages);
+            nextOccurrenceButton.setDisable(searchResults.getSearchHitRanges().isEmpty() && !canSearchOtherPages);
             searchHitIterator = RingIterator.of(searchResults.getSearchHitRanges());
             searchResultsLabel.setText(searchResults.getSearchHitRanges().size() + " results");
-            if (syntaxHighlightStyleSpans != null) {
+            if (useQueryMatches) {
+                // query matches are already part of the syntax highlighting spans
+                logsTextOutput.setStyleSpans(0, syntaxHighlightStyleSpans);
+            } else if (syntaxHighlightStyleSpans != null) {
                 logsTextOutput.setStyleSpans(0, syntaxHighlightStyleSpans.overlay(searchResults.getStyleSpans(),
-                        (strings, strings2) -> Stream.concat(strings.stream(),
-                                strings2.stream()).collect(Collectors.toCollection(ArrayList<String>::new))));
+                        LogWorksheetController::mergeStyles));
             } else {
                 logsTextOutput.setStyleSpans(0, searchResults.getStyleSpans());
             }
-            if (searchHitIterator.hasNext()) {
+            if (pendingFocusParagraph >= 0 && pendingFocusParagraph < logsTextOutput.getParagraphs().size()) {
+                // Focus on the first hit within the paragraph located by the index
+                int paragraphStart = logsTextOutput.getAbsolutePosition(pendingFocusParagraph, 0);
+                CodeAreaHighlighter.SearchHitRange target = null;
+                for (int i = 0; i <= searchHitIterator.peekLastIndex(); i++) {
+                    var range = searchHitIterator.next();
+                    if (range.getStart() >= paragraphStart) {
+                        target = range;
+                        break;
+                    }
+                }
+                focusOnSearchHit(target);
+            } else if (searchHitIterator.hasNext()) {
                 focusOnSearchHit(searchHitIterator.next());
             } else {
                 focusOnSearchHit(null);
             }
+            pendingFocusParagraph = -1;
         } catch (HighlightPatternException e) {
             if (searchRegExToggle.isSelected()) {
                 logger.debug(e.getMessage(), e);
@@ -1447,6 +1516,58 @@ public class LogWorksheetController extends WorksheetController {
         }
     }
 
+    /**
+     * Asks the index for the next (or previous) hit matching the find expression beyond the hits displayed on the
+     * current page, and navigates to the page that contains it.
+     *
+     * @param forward true to locate the next match, false to locate the previous one.
+     */
+    private void locateOnOtherPages(boolean forward) {
+        if (currentPageHits.isEmpty()) {
+            return;
+        }
+        var anchor = forward ? currentPageHits.getLast() : currentPageHits.getFirst();
+        var params = worksheet.getQueryParameters();
+        var facets = buildFacets(params);
+        var findText = searchTextField.getText();
+        var matchCase = searchMatchCaseToggle.isSelected();
+        var regEx = searchRegExToggle.isSelected();
+        searchResultsLabel.setText("Searching...");
+        AsyncTaskManager.getInstance().submit(() -> Indexes.LOG_FILES.get().locate(
+                        params.getTimeRange().getBeginning().toInstant().toEpochMilli(),
+                        params.getTimeRange().getEnd().toInstant().toEpochMilli(),
+                        facets,
+                        params.getFilterQuery(),
+                        findText,
+                        matchCase,
+                        regEx,
+                        anchor,
+                        forward),
+                event -> {
+                    var result = (LocateResult) event.getSource().getValue();
+                    var location = result.location();
+                    if (result.limitReached()) {
+                        // Only finds that can be narrowed down by the index are unbounded, so make the limit explicit
+                        searchResultsLabel.setText(String.format("No match in the %s %d lines",
+                                forward ? "next" : "previous", result.nbScanned()));
+                    } else if (location == null) {
+                        searchResultsLabel.setText(forward ? "No further results" : "No previous results");
+                    } else if (location.page() == pager.getCurrentPageIndex()) {
+                        // The match is on the page already displayed, so there is no need to query it again
+                        pendingFocusParagraph = location.offset();
+                        doSearchHighlight(findText, matchCase, regEx);
+                    } else {
+                        pendingFocusParagraph = location.offset();
+                        pager.setCurrentPageIndex(location.page());
+                    }
+                },
+                event -> {
+                    logger.debug("Failed to locate search hit", event.getSource().getException());
+                    searchResultsLabel.setText(event.getSource().getException() instanceof PatternSyntaxException ?
+                            "Bad pattern" : "Search failed");
+                });
+    }
+
     private TimeSeriesProcessor<SearchHit> fetchDataFromSources(LogQueryParameters filter,
                                                                 ReloadPolicy forceUpdate,
                                                                 boolean ignoreCache) throws DataAdapterException {
@@ -1459,6 +1580,10 @@ public class LogWorksheetController extends WorksheetController {
             }
             return false;
         });
+        if (forceUpdate != ReloadPolicy.UNLOADED || ignoreCache) {
+            // Files may be reloaded into the index, in which case it needs warming up again
+            warmUpScheduled.set(false);
+        }
         var queryArgs = GSON.toJson(filter);
         var bindingsByAdapters =
                 worksheet.getSeriesInfo().stream().collect(groupingBy(o -> o.getBinding().getAdapter()));
@@ -1483,30 +1608,109 @@ public class LogWorksheetController extends WorksheetController {
             worksheet.setQueryParameters(new LogQueryParameters.Builder(filter).setTimeRange(initialRange).build());
             timeRangePicker.updateSelectedRange(initialRange);
         }
-        var start = worksheet.getQueryParameters().getTimeRange().getBeginning().toInstant();
-        var end = worksheet.getQueryParameters().getTimeRange().getEnd().toInstant();
+        var params = worksheet.getQueryParameters();
+        return searchIndex(params, buildFacets(params), params.getPage(), timeRangePicker.getZoneId(), ignoreCache);
+    }
+
+    private void exportMatchingEvents() {
+        var params = worksheet.getQueryParameters();
+        var facets = buildFacets(params);
+        if (facets.get(Index.PATH).isEmpty()) {
+            Dialogs.notifyInfo("Nothing to export", "No log file is selected", Pos.BOTTOM_RIGHT, root);
+            return;
+        }
+        var zoneId = timeRangePicker.getZoneId();
+        exportToFile("Export Log Events", (path, format) -> new LogEventsExportTask(path,
+                format,
+                params.getTimeRange().getBeginning().toInstant().toEpochMilli(),
+                params.getTimeRange().getEnd().toInstant().toEpochMilli(),
+                facets,
+                params.getFilterQuery(),
+                zoneId));
+    }
+
+    private Map<String, Collection<String>> buildFacets(LogQueryParameters params) {
         Map<String, Collection<String>> facets = new HashMap<>();
         facets.put(Index.PATH, worksheet.getSeriesInfo()
                 .stream()
                 .filter(TimeSeriesInfo::isSelected)
                 .map(LogFileSeriesInfo::getPathFacetValue)
                 .collect(Collectors.toList()));
-        var params = worksheet.getQueryParameters();
         facets.put(CaptureGroup.SEVERITY, params.getSeverities());
+        return facets;
+    }
+
+    private TimeSeriesProcessor<SearchHit> searchIndex(LogQueryParameters params,
+                                                       Map<String, Collection<String>> facets,
+                                                       int page,
+                                                       ZoneId zoneId,
+                                                       boolean ignoreCache) throws DataAdapterException {
+        var start = params.getTimeRange().getBeginning().toInstant();
+        var end = params.getTimeRange().getEnd().toInstant();
         try {
             return (facets.get(Index.PATH).isEmpty()) ? new SearchHitsProcessor() :
                     Indexes.LOG_FILES.get().search(start.toEpochMilli(),
                             end.toEpochMilli(),
                             facets,
                             params.getFilterQuery(),
-                            params.getPage(),
-                            timeRangePicker.getZoneId(),
+                            page,
+                            zoneId,
                             ignoreCache);
         } catch (Exception e) {
             throw new DataAdapterException("Error fetching logs from index: " + e.getMessage(), e);
         }
     }
 
+    private void scheduleIndexWarmUpIfNeeded() {
+        // Warm-up only starts once the worksheet was requested to and its current query returned some hits
+        if (userPrefs.enableIndexWarmUp.get() && warmUpRequested.get() && resultPageCount > 0 &&
+                warmUpScheduled.compareAndSet(false, true)) {
+            scheduleIndexWarmUp(resultPageCount);
+        }
+    }
+
+    /**
+     * Pre-executes the current query for the pages a user is most likely to navigate to next, on a low priority
+     * background thread that yields to any user-initiated task.
+     * <p>The doc values of the index, which is shared by all log worksheets, are also read through unless another
+     * worksheet already did since the index last changed.</p>
+     *
+     * @param pageCount the number of pages in the current result set.
+     */
+    private void scheduleIndexWarmUp(int pageCount) {
+        var params = worksheet.getQueryParameters();
+        var facets = buildFacets(params);
+        var zoneId = timeRangePicker.getZoneId();
+        var pages = new LinkedHashSet<Integer>();
+        for (var p : List.of(params.getPage() + 1, params.getPage() - 1, 0, pageCount - 1)) {
+            if (p >= 0 && p < pageCount && p != params.getPage()) {
+                pages.add(p);
+            }
+        }
+        var tasks = AsyncTaskManager.getInstance();
+        tasks.submitBackgroundTask(() -> {
+            try (var p = Profiler.start("Index warm-up for worksheet " + worksheet.getName(), logger::perf)) {
+                for (var page : pages) {
+                    tasks.yieldToForegroundTasks();
+                    if (closed.get()) {
+                        return;
+                    }
+                    searchIndex(params, facets, page, zoneId, false);
+                }
+                Indexes.LOG_FILES.get().warmUpDocValues(() -> {
+                    tasks.yieldToForegroundTasks();
+                    if (closed.get()) {
+                        throw new InterruptedException("Worksheet was closed");
+                    }
+                });
+            } catch (InterruptedException e) {
+                logger.debug(() -> "Index warm-up interrupted: " + e.getMessage());
+            } catch (Exception e) {
+                logger.debug(() -> "Index warm-up failed: " + e.getMessage(), e);
+            }
+        });
+    }
+
     private void makeFilesCss(Collection<LogFileSeriesInfo> info) {
         try {
             Path cssPath = getTmpCssPath();
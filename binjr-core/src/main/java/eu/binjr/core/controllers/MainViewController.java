@@ -108,6 +108,7 @@ public class MainViewController implements Initializable {
     private static TimeRange LINKED_TIME_RANGE_UPDATE = TimeRange.EMPTY;
 
     private final Map<EditableTab, WorksheetController> seriesControllers = new WeakHashMap<>();
+    private boolean loadingWorksheets = false;
     private final Map<TitledPane, Source> sourcesAdapters = new WeakHashMap<>();
     private final BooleanProperty searchBarVisible = new SimpleBooleanProperty(false);
     private final BooleanProperty searchBarHidden = new SimpleBooleanProperty(!searchBarVisible.get());
@@ -866,13 +867,20 @@ public class MainViewController implements Initializable {
 
     private void loadWorksheets(Workspace wsFromfile) {
         try {
-            for (var worksheet : wsFromfile.getWorksheets()) {
-                try {
-                    loadWorksheet(worksheet);
-                } catch (CannotLoadWorksheetException e) {
-                    Dialogs.notifyException(e);
+            loadingWorksheets = true;
+            try {
+                for (var worksheet : wsFromfile.getWorksheets()) {
+                    try {
+                        loadWorksheet(worksheet);
+                    } catch (CannotLoadWorksheetException e) {
+                        Dialogs.notifyException(e);
+                    }
                 }
+            } finally {
+                loadingWorksheets = false;
             }
+            // Warm up every worksheet of the workspace, once they are all loaded
+            seriesControllers.values().forEach(WorksheetController::warmUp);
             workspace.cleanUp();
             UserHistory.getInstance().mostRecentWorkspaces.push(workspace.getPath());
             logger.debug(() -> "Recently loaded workspaces: " +
@@ -1195,6 +1203,9 @@ public class MainViewController implements Initializable {
                 current.setShowPropertiesPane(true);
             }
             newTab.setContextMenu(getTabContextMenu(newTab, worksheet, current.getBindingManager()));
+            if (!loadingWorksheets) {
+                current.warmUp();
+            }
             return current;
         } catch (Throwable e) {
             Throwable toThrow = e;
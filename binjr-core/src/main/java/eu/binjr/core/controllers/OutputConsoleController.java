@@ -30,6 +30,8 @@ import eu.binjr.common.navigation.RingIterator;
 import eu.binjr.common.preferences.ObservablePreference;
 import eu.binjr.core.Binjr;
 import eu.binjr.core.data.adapters.DataAdapterFactory;
+import eu.binjr.core.data.indexes.Indexes;
+import eu.binjr.core.data.memory.MemoryBudget;
 import eu.binjr.core.dialogs.Dialogs;
 import eu.binjr.core.preferences.AppEnvironment;
 import eu.binjr.core.preferences.JvmImplementation;
@@ -329,6 +331,19 @@ public class OutputConsoleController implements Initializable {
         Binjr.runtimeDebuggingFeatures.debug(this::getJvmHeapStats);
     }
 
+    public void handleDebugDumpIndexStats(ActionEvent actionEvent) {
+        var stats = Arrays.stream(Indexes.values())
+                .map(Indexes::getIfPresent)
+                .flatMap(Optional::stream)
+                .map(idx -> idx.getStatistics().dump())
+                .collect(Collectors.joining("\n"));
+        Binjr.runtimeDebuggingFeatures.debug(stats.isEmpty() ? "No index currently open" : stats);
+    }
+
+    public void handleDebugDumpMemoryBudget(ActionEvent actionEvent) {
+        Binjr.runtimeDebuggingFeatures.debug(() -> MemoryBudget.getInstance().dump());
+    }
+
     public void handleDebugDumpThreadsStacks(ActionEvent actionEvent) {
         try {
             Binjr.runtimeDebuggingFeatures.debug(DiagnosticCommand.dumpThreadStacks());
@@ -445,6 +460,8 @@ public class OutputConsoleController implements Initializable {
 
     private void populateDebugCommandMenu() {
         addMenuItem(debugMenuButton, "Dump Heap Stats", "debug-low-icon", this::handleDebugDumpHeapStats, false);
+        addMenuItem(debugMenuButton, "Dump Index Stats", "debug-low-icon", this::handleDebugDumpIndexStats, false);
+        addMenuItem(debugMenuButton, "Dump Memory Budget", "debug-low-icon", this::handleDebugDumpMemoryBudget, false);
         addMenuItem(debugMenuButton, "Dump VM Flags", "debug-low-icon", this::handleDebugDumpVmFlags, true);
         addMenuItem(debugMenuButton, "Dump VM Command Line", "debug-low-icon", this::handleDebugDumpVmCommandLine, true);
         addMenuItem(debugMenuButton, "Dump VM System Properties", "debug-low-icon", this::handleDebugDumpVmSystemProperties, true);
@@ -26,11 +26,15 @@ import eu.binjr.core.appearance.BuiltInChartColorPalettes;
 import eu.binjr.core.appearance.UserInterfaceThemes;
 import eu.binjr.core.data.adapters.DataAdapterFactory;
 import eu.binjr.core.data.adapters.DataAdapterInfo;
+import eu.binjr.core.data.memory.MemoryBudget;
 import eu.binjr.core.data.workspace.ChartType;
 import eu.binjr.core.data.workspace.UnitPrefixes;
 import eu.binjr.core.dialogs.Dialogs;
 import eu.binjr.core.preferences.*;
 import eu.binjr.core.update.UpdateManager;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.animation.TranslateTransition;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
@@ -63,6 +67,7 @@ import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.function.Function;
 import java.util.prefs.BackingStoreException;
+import java.util.stream.Collectors;
 
 /**
  * The controller for the preference view.
@@ -71,6 +76,7 @@ import java.util.prefs.BackingStoreException;
  */
 public class PreferenceDialogController implements Initializable {
     private static final Logger logger = Logger.create(PreferenceDialogController.class);
+    private static final double BYTES_PER_MIB = 1024.0 * 1024.0;
 
     @FXML
     private ToggleSwitch highlightCurrentSwitch;
@@ -139,6 +145,22 @@ public class PreferenceDialogController implements Initializable {
     @FXML
     private TitledPane updatePreferences;
     @FXML
+    private TitledPane memoryPrefsPane;
+    @FXML
+    private ToggleSwitch memoryBudgetToggle;
+    @FXML
+    private LabelWithInlineHelp memoryBudgetLabel;
+    @FXML
+    private Slider memoryBudgetSlider;
+    @FXML
+    private Label memoryBudgetText;
+    @FXML
+    private ProgressBar memoryUsageBar;
+    @FXML
+    private Label memoryUsageText;
+    @FXML
+    private Label memoryConsumersText;
+    @FXML
     private ToggleSwitch fullHeightCrosshair;
     @FXML
     private ChoiceBox<BuiltInChartColorPalettes> chartPaletteChoiceBox;
@@ -385,6 +407,37 @@ public class PreferenceDialogController implements Initializable {
         proxyPasswordTextfield.setTextFormatter(pwdFormatter);
         pwdFormatter.valueProperty().bindBidirectional(userPrefs.httpProxyPassword.property());
 
+        memoryBudgetToggle.selectedProperty().bindBidirectional(userPrefs.memoryBudgetEnabled.property());
+        memoryBudgetSlider.valueProperty().bindBidirectional(userPrefs.memoryBudgetPercentOfMaxHeap.property());
+        memoryBudgetText.textProperty().bind(Bindings.format("%.0f%%", memoryBudgetSlider.valueProperty()));
+        memoryBudgetLabel.disableProperty().bind(memoryBudgetToggle.selectedProperty().not());
+        memoryBudgetSlider.disableProperty().bind(memoryBudgetToggle.selectedProperty().not());
+        // Memory usage is only refreshed while on display
+        var memoryUsageRefresh = new Timeline(new KeyFrame(Duration.seconds(1), event -> refreshMemoryUsage()));
+        memoryUsageRefresh.setCycleCount(Animation.INDEFINITE);
+        memoryPrefsPane.expandedProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue) {
+                refreshMemoryUsage();
+                memoryUsageRefresh.play();
+            } else {
+                memoryUsageRefresh.stop();
+            }
+        });
+    }
+
+    private void refreshMemoryUsage() {
+        var budget = MemoryBudget.getInstance();
+        long used = budget.getUsedBytes();
+        long available = Math.max(1L, budget.getBudgetBytes());
+        memoryUsageBar.setProgress(Math.min(1.0, used / (double) available));
+        memoryUsageText.setText(String.format("%.1f MiB used out of %.1f MiB (%.0f%%)",
+                used / BYTES_PER_MIB,
+                available / BYTES_PER_MIB,
+                used * 100.0 / available));
+        memoryConsumersText.setText(budget.getConsumersUsedBytes().entrySet()
+                .stream()
+                .map(e -> String.format("%s: %.1f MiB", e.getKey(), e.getValue() / BYTES_PER_MIB))
+                .collect(Collectors.joining("\n")));
     }
 
     private void setNodesVisibility(boolean isVisible, Node... nodes) {
@@ -22,6 +22,8 @@ import eu.binjr.common.javafx.controls.TimeRange;
 import eu.binjr.common.javafx.controls.ToolButtonBuilder;
 import eu.binjr.common.logging.Logger;
 import eu.binjr.core.data.adapters.SourceBinding;
+import eu.binjr.core.data.async.AsyncTaskManager;
+import eu.binjr.core.data.export.ExportFormat;
 import eu.binjr.core.data.workspace.Rangeable;
 import eu.binjr.core.data.workspace.TimeSeriesInfo;
 import eu.binjr.core.data.workspace.Worksheet;
@@ -32,6 +34,7 @@ import eu.binjr.core.preferences.UserPreferences;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.Property;
 import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Task;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -53,7 +56,9 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -93,6 +98,13 @@ public abstract class WorksheetController implements Initializable, Closeable {
         refresh();
     }
 
+    /**
+     * Warms up the caches the worksheet relies on in the background, once it is part of a loaded workspace.
+     * <p>The default implementation does nothing.</p>
+     */
+    public void warmUp() {
+    }
+
     public void resetTimeRange() {
         if (getWorksheet() instanceof Rangeable<?> worksheet) {
             selectedRangeProperty().setValue(worksheet.getInitialTimeRange());
@@ -126,6 +138,48 @@ public abstract class WorksheetController implements Initializable, Closeable {
         }
     }
 
+    /**
+     * Prompts the user for a target file and export format, then runs the export task produced by the provided
+     * factory in the background, reporting its progress in a notification that allows cancelling it.
+     *
+     * @param title       the title for the file chooser and progress notification.
+     * @param taskFactory a function that produces an export task for the selected file and format.
+     */
+    protected void exportToFile(String title, BiFunction<Path, ExportFormat, Task<Long>> taskFactory) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        var filters = new EnumMap<ExportFormat, FileChooser.ExtensionFilter>(ExportFormat.class);
+        for (var format : ExportFormat.values()) {
+            var filter = new FileChooser.ExtensionFilter(format.getDescription(), "*." + format.getExtension());
+            filters.put(format, filter);
+            fileChooser.getExtensionFilters().add(filter);
+        }
+        Dialogs.getInitialDir(UserHistory.getInstance().mostRecentSaveFolders).ifPresent(fileChooser::setInitialDirectory);
+        fileChooser.setInitialFileName(String.format("binjr_export_%s", getWorksheet().getName()));
+        File selectedFile = fileChooser.showSaveDialog(NodeUtils.getStage(root));
+        if (selectedFile == null) {
+            return;
+        }
+        if (selectedFile.getParent() != null) {
+            UserHistory.getInstance().mostRecentSaveFolders.push(selectedFile.getParentFile().toPath());
+        }
+        var format = filters.entrySet().stream()
+                .filter(e -> e.getValue() == fileChooser.getSelectedExtensionFilter())
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(ExportFormat.CSV);
+        var target = selectedFile.toPath();
+        if (!selectedFile.getName().contains(".")) {
+            target = target.resolveSibling(selectedFile.getName() + "." + format.getExtension());
+        }
+        var task = taskFactory.apply(target, format);
+        task.setOnSucceeded(event -> Dialogs.notifyInfo(title, task.getMessage(), Pos.BOTTOM_RIGHT, root));
+        task.setOnCancelled(event -> Dialogs.notifyInfo(title, "Export was cancelled", Pos.BOTTOM_RIGHT, root));
+        task.setOnFailed(event -> Dialogs.notifyException("Failed to export data to " + selectedFile, task.getException(), root));
+        Dialogs.notifyProgress(title, task);
+        AsyncTaskManager.getInstance().submit(task);
+    }
+
     public void saveSnapshot() {
         var snapImg = captureSnapshot();
         if (snapImg == null || snapImg.getWidth() == 0 || snapImg.getHeight() == 0) {
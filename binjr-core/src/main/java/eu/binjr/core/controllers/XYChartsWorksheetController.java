@@ -25,11 +25,19 @@ import eu.binjr.common.logging.Profiler;
 import eu.binjr.common.text.*;
 import eu.binjr.core.data.adapters.*;
 import eu.binjr.core.data.async.AsyncTaskManager;
+import eu.binjr.core.data.async.CancellationToken;
+import eu.binjr.core.data.async.TaskPriority;
 import eu.binjr.core.data.exceptions.NoAdapterFoundException;
+import eu.binjr.core.data.export.SeriesExportTask;
+import eu.binjr.core.data.memory.MemoryBudget;
+import eu.binjr.core.data.memory.MemoryConsumer;
+import eu.binjr.core.data.timeseries.DoubleTimeSeriesProcessor;
+import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
 import eu.binjr.core.data.workspace.Chart;
 import eu.binjr.core.data.workspace.*;
 import eu.binjr.core.dialogs.Dialogs;
 import eu.binjr.core.preferences.AppEnvironment;
+import eu.binjr.core.preferences.DownSamplingAlgorithm;
 import eu.binjr.core.preferences.ScalingFactor;
 import eu.binjr.core.preferences.UserPreferences;
 import javafx.animation.PauseTransition;
@@ -71,7 +79,9 @@ import java.net.URL;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -92,10 +102,26 @@ public class XYChartsWorksheetController extends WorksheetController {
     private static final double Y_AXIS_SEPARATION = 10;
     private static final PseudoClass DRAGGED_OVER_PSEUDO_CLASS = PseudoClass.getPseudoClass("draggedover");
     public static final double Y_AXIS_WIDTH = 60.0;
+    // An XYChart.Data with the seven properties it allocates (~330 bytes), its ZonedDateTime (96 bytes), its Double
+    // (16 bytes) and the reference to it held by the series
+    private static final long XY_CHART_DATA_BYTES = 448;
+    // The shape drawn for each sample of scatter, impulse, duration and event charts, along with its bindings
+    private static final long XY_CHART_DATA_NODE_BYTES = 1024;
+    // Releasing memory from plotted series only means trimming the room reserved in their columns
+    private static final double PLOTTED_SERIES_RELOAD_COST = 0.5;
     private final UserPreferences userPrefs = UserPreferences.getInstance();
     private final ToggleGroup editButtonsGroup = new ToggleGroup();
     private final IntegerProperty nbBusyPlotTasks = new SimpleIntegerProperty(0);
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    // The token for the latest plot task of each chart, which is cancelled as soon as a newer one is submitted
+    private final Map<Chart, CancellationToken> plotCancellations = new ConcurrentHashMap<>();
+    // The token for the pending prefetch of each chart, which is cancelled as soon as the chart is plotted again
+    private final Map<Chart, CancellationToken> prefetchCancellations = new ConcurrentHashMap<>();
+    // Only accessed from the JavaFX application thread
+    private final Map<Chart, PrefetchPlanner> prefetchPlanners = new WeakHashMap<>();
+    // The samples plotted on each chart, read by the memory budget
+    private final Map<Chart, PlottedSamples> plottedSamples = Collections.synchronizedMap(new WeakHashMap<>());
+    private final MemoryConsumer plottedSeriesMemoryConsumer = new PlottedSeriesMemoryConsumer();
     @FXML
     public AnchorPane root;
     @FXML
@@ -126,6 +152,8 @@ public class XYChartsWorksheetController extends WorksheetController {
     @FXML
     private Button snapshotButton;
     @FXML
+    private Button exportButton;
+    @FXML
     private ToggleButton vCrosshair;
     @FXML
     private ToggleButton hCrosshair;
@@ -168,6 +196,7 @@ public class XYChartsWorksheetController extends WorksheetController {
                 s.getBinding().setAdapter(da);
             }
         }
+        MemoryBudget.getInstance().register(plottedSeriesMemoryConsumer);
     }
 
     private static String colorToRgbaString(Color c) {
@@ -251,6 +280,10 @@ public class XYChartsWorksheetController extends WorksheetController {
                     refresh();
             }));
             getBindingManager().attachListener(userPrefs.downSamplingAlgorithm.property(), ((observable, oldValue, newValue) -> {
+                if (userPrefs.downSamplingEnabled.get() && worksheet.getDownSamplingAlgorithm() == null)
+                    refresh();
+            }));
+            getBindingManager().attachListener(worksheet.downSamplingAlgorithmProperty(), ((observable, oldValue, newValue) -> {
                 if (userPrefs.downSamplingEnabled.get())
                     refresh();
             }));
@@ -735,11 +768,26 @@ public class XYChartsWorksheetController extends WorksheetController {
         return this.timeRangePicker.selectedRangeProperty();
     }
 
+    private void exportSelectedSeries() {
+        List<TimeSeriesInfo<Double>> series = worksheet.getCharts().stream()
+                .flatMap(c -> c.getSeries().stream())
+                .filter(TimeSeriesInfo::isSelected)
+                .collect(Collectors.toList());
+        if (series.isEmpty()) {
+            Dialogs.notifyInfo("Nothing to export", "No series is selected", Pos.BOTTOM_RIGHT, root);
+            return;
+        }
+        var start = worksheet.getFromDateTime();
+        var end = worksheet.getToDateTime();
+        exportToFile("Export Series", (path, format) -> new SeriesExportTask(path, format, series, start, end));
+    }
+
     private void initNavigationPane() {
         backButton.setOnAction(getBindingManager().registerHandler(this::handleHistoryBack));
         forwardButton.setOnAction(getBindingManager().registerHandler(this::handleHistoryForward));
         refreshButton.setOnMouseClicked(getBindingManager().registerHandler(event -> refresh(event.isControlDown())));
         snapshotButton.setOnAction(getBindingManager().registerHandler(event -> saveSnapshot()));
+        exportButton.setOnAction(getBindingManager().registerHandler(event -> exportSelectedSeries()));
         getBindingManager().bind(backButton.disableProperty(), worksheet.getHistory().backward().emptyProperty());
         getBindingManager().bind(forwardButton.disableProperty(), worksheet.getHistory().forward().emptyProperty());
         addChartButton.setOnAction(getBindingManager().registerHandler(this::handleAddNewChart));
@@ -889,6 +937,21 @@ public class XYChartsWorksheetController extends WorksheetController {
             avgColumn.setPrefWidth(75);
             avgColumn.setCellFactory(alignRightCellFactory);
 
+            TableColumn<TimeSeriesInfo<Double>, String> p50Column = new TableColumn<>("P50");
+            p50Column.setSortable(false);
+            p50Column.setPrefWidth(75);
+            p50Column.setCellFactory(alignRightCellFactory);
+
+            TableColumn<TimeSeriesInfo<Double>, String> p95Column = new TableColumn<>("P95");
+            p95Column.setSortable(false);
+            p95Column.setPrefWidth(75);
+            p95Column.setCellFactory(alignRightCellFactory);
+
+            TableColumn<TimeSeriesInfo<Double>, String> p99Column = new TableColumn<>("P99");
+            p99Column.setSortable(false);
+            p99Column.setPrefWidth(75);
+            p99Column.setCellFactory(alignRightCellFactory);
+
             TableColumn<TimeSeriesInfo<Double>, String> currentColumn = new TableColumn<>("Current");
             currentColumn.setSortable(false);
             currentColumn.setPrefWidth(75);
@@ -928,6 +991,18 @@ public class XYChartsWorksheetController extends WorksheetController {
                     () -> p.getValue().getProcessor() == null ? "NaN" : currentViewPort.getPrefixFormatter().format(p.getValue().getProcessor().getMaxValue()),
                     p.getValue().processorProperty()));
 
+            p50Column.setCellValueFactory(p -> Bindings.createStringBinding(
+                    () -> p.getValue().getProcessor() == null ? "NaN" : currentViewPort.getPrefixFormatter().format(p.getValue().getProcessor().getQuantileValue(0.50)),
+                    p.getValue().processorProperty()));
+
+            p95Column.setCellValueFactory(p -> Bindings.createStringBinding(
+                    () -> p.getValue().getProcessor() == null ? "NaN" : currentViewPort.getPrefixFormatter().format(p.getValue().getProcessor().getQuantileValue(0.95)),
+                    p.getValue().processorProperty()));
+
+            p99Column.setCellValueFactory(p -> Bindings.createStringBinding(
+                    () -> p.getValue().getProcessor() == null ? "NaN" : currentViewPort.getPrefixFormatter().format(p.getValue().getProcessor().getQuantileValue(0.99)),
+                    p.getValue().processorProperty()));
+
             currentColumn.setCellValueFactory(p -> Bindings.createStringBinding(
                     () -> {
                         if (p.getValue().getProcessor() == null) {
@@ -957,6 +1032,9 @@ public class XYChartsWorksheetController extends WorksheetController {
                     minColumn,
                     maxColumn,
                     avgColumn,
+                    p50Column,
+                    p95Column,
+                    p99Column,
                     currentColumn,
                     pathColumn);
             TableViewUtils.autoFillTableWidthWithLastColumn(currentViewPort.getSeriesTable());
@@ -1263,6 +1341,12 @@ public class XYChartsWorksheetController extends WorksheetController {
         super.close();
         if (closed.compareAndSet(false, true)) {
             logger.debug(() -> "Closing worksheetController " + this);
+            plotCancellations.values().forEach(CancellationToken::cancel);
+            plotCancellations.clear();
+            prefetchCancellations.values().forEach(CancellationToken::cancel);
+            prefetchCancellations.clear();
+            MemoryBudget.getInstance().unregister(plottedSeriesMemoryConsumer);
+            plottedSamples.clear();
             currentState.close();
             hCrosshair.selectedProperty().unbindBidirectional(userPrefs.horizontalMarkerOn.property());
             vCrosshair.selectedProperty().unbindBidirectional(userPrefs.verticalMarkerOn.property());
@@ -1432,6 +1516,64 @@ public class XYChartsWorksheetController extends WorksheetController {
         return CompletableFuture.allOf(futurePlots).whenComplete((o, throwable) -> p.close());
     }
 
+    /**
+     * Returns the width in physical pixels of the plot area of the provided chart, or 0 if it has not been laid out yet.
+     */
+    private int getPlotAreaPixelWidth(ChartViewPort viewPort) {
+        var xAxis = viewPort.getChart().getXAxis();
+        var scene = xAxis.getScene();
+        double renderScale = (scene != null && scene.getWindow() != null) ? scene.getWindow().getRenderScaleX() : 1.0;
+        return (int) Math.ceil(xAxis.getWidth() * renderScale);
+    }
+
+    /**
+     * Returns true if the worksheet is currently displayed, i.e. it is attached to a showing window and neither it
+     * nor any of its ancestors is hidden (as is the case for the content of unselected tabs).
+     */
+    private boolean isWorksheetShowing() {
+        if (root == null || root.getScene() == null || root.getScene().getWindow() == null ||
+                !root.getScene().getWindow().isShowing()) {
+            return false;
+        }
+        for (Node n = root; n != null; n = n.getParent()) {
+            if (!n.isVisible()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the time windows the user is likely to navigate to next into the level of detail cache, once the
+     * chart has been left untouched for a while.
+     * <p>Windows are retrieved one after the other, so that prefetching never uses more than a window's worth of
+     * bandwidth at a time.</p>
+     */
+    private void schedulePrefetch(Chart chart, ZonedDateTime start, ZonedDateTime end, DownSamplingAlgorithm algorithm, int pixelWidth) {
+        var windows = prefetchPlanners.computeIfAbsent(chart, c -> new PrefetchPlanner()).plan(start, end);
+        if (!userPrefs.prefetchAdjacentWindows.get() || !userPrefs.levelOfDetailCacheEnabled.get() || windows.isEmpty()) {
+            return;
+        }
+        var cancellation = CancellationToken.create();
+        var superseded = prefetchCancellations.put(chart, cancellation);
+        if (superseded != null) {
+            superseded.cancel();
+        }
+        DelayedAction.run(() -> {
+            if (cancellation.isCancelled() || closed.get()) {
+                return;
+            }
+            logger.debug(() -> "Prefetching " + windows.size() + " time windows for chart " + chart.getName());
+            CompletableFuture<Void> prefetch = CompletableFuture.completedFuture(null);
+            for (var window : windows) {
+                prefetch = prefetch.thenCompose(ignored -> cancellation.isCancelled() ?
+                        CompletableFuture.completedFuture(null) :
+                        chart.prefetchDataFromSources(window.getBeginning(), window.getEnd(), algorithm, pixelWidth, cancellation));
+            }
+            prefetch.whenComplete((ignored, throwable) -> prefetchCancellations.remove(chart, cancellation));
+        }, Duration.millis(userPrefs.prefetchIdleDelayMs.get().doubleValue()));
+    }
+
     public CompletableFuture<?> plotChart(ChartViewPort viewPort, boolean forceRefresh) {
         return plotChart(viewPort, forceRefresh, ReloadPolicy.UNLOADED);
     }
@@ -1443,9 +1585,59 @@ public class XYChartsWorksheetController extends WorksheetController {
         }
         XYChartSelection<ZonedDateTime, Double> currentSelection = currentState.get(viewPort.getDataStore()).get().asSelection();
         logger.debug(() -> "currentSelection=" + (currentSelection == null ? "null" : currentSelection.toString()));
+        var algorithm = Objects.requireNonNullElseGet(worksheet.getDownSamplingAlgorithm(), userPrefs.downSamplingAlgorithm::get);
+        int pixelWidth = getPlotAreaPixelWidth(viewPort);
+        // Navigating the visible worksheet takes precedence over refreshing it, which takes precedence over
+        // worksheets that aren't displayed
+        var priority = !isWorksheetShowing() ? TaskPriority.HIDDEN :
+                forceRefresh ? TaskPriority.VISIBLE_BACKGROUND : TaskPriority.VISIBLE_INTERACTIVE;
+        // Abort any plot task still in flight for this chart, since its result would be overwritten anyway
+        var cancellation = CancellationToken.create();
+        var superseded = plotCancellations.put(viewPort.getDataStore(), cancellation);
+        if (superseded != null) {
+            logger.debug(() -> "Plot task generation " + superseded.getGeneration() + " for chart " +
+                    viewPort.getDataStore().getName() + " superseded by generation " + cancellation.getGeneration());
+            superseded.cancel();
+        }
+        // Leave the bandwidth to the data actually requested
+        var pendingPrefetch = prefetchCancellations.remove(viewPort.getDataStore());
+        if (pendingPrefetch != null) {
+            pendingPrefetch.cancel();
+        }
+        // Samples published by adapters while the fetch is still in progress are plotted as they come, in place
+        // of the ones previously displayed, so that something shows up before the slowest series is retrieved.
+        Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> partialResults = new ConcurrentHashMap<>();
+        var partialPlotPending = new AtomicBoolean(false);
+        FetchSink<Double> partialSink = (partial, progress) -> {
+            partialResults.putAll(partial);
+            if (partialPlotPending.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    partialPlotPending.set(false);
+                    if (!closed.get() && plotCancellations.get(viewPort.getDataStore()) == cancellation) {
+                        logger.debug(() -> "Plotting partial result for chart " + viewPort.getDataStore().getName());
+                        setChartData(viewPort, viewPort.getDataStore().getSeries()
+                                .stream()
+                                .filter(series -> series.isSelected() &&
+                                        (partialResults.containsKey(series) || series.getProcessor() != null))
+                                .map(ts -> makeXYChartSeries(viewPort.getDataStore(), ts,
+                                        partialResults.getOrDefault(ts, ts.getProcessor())))
+                                .toList());
+                    }
+                });
+            }
+        };
         nbBusyPlotTasks.setValue(nbBusyPlotTasks.get() + 1);
         return AsyncTaskManager.getInstance().submit(() -> {
-                    viewPort.getDataStore().fetchDataFromSources(currentSelection.getStartX(), currentSelection.getEndX(), forceRefresh, reloadPolicy);
+                    viewPort.getDataStore().fetchDataFromSources(currentSelection.getStartX(),
+                            currentSelection.getEndX(),
+                            forceRefresh,
+                            reloadPolicy,
+                            algorithm,
+                            pixelWidth,
+                            priority,
+                            cancellation,
+                            partialSink);
+                    cancellation.throwIfCancelled();
                     return viewPort.getDataStore().getSeries()
                             .stream()
                             .filter(series -> {
@@ -1459,49 +1651,67 @@ public class XYChartsWorksheetController extends WorksheetController {
                                 }
                                 return true;
                             })
-                            .map(ts -> makeXYChartSeries(viewPort.getDataStore(), ts))
+                            .map(ts -> makeXYChartSeries(viewPort.getDataStore(), ts, ts.getProcessor()))
                             .collect(Collectors.toList());
                 },
                 event -> {
+                    plotCancellations.remove(viewPort.getDataStore(), cancellation);
                     try {
                         if (!closed.get()) {
                             nbBusyPlotTasks.setValue(nbBusyPlotTasks.get() - 1);
-                            viewPort.getChart().getData().setAll((Collection<? extends XYChart.Series<ZonedDateTime, Double>>) event.getSource().getValue());
-                            for (Node n : viewPort.getChart().getChildrenUnmodifiable()) {
-                                if (n instanceof Legend legend) {
-                                    int i = 0;
-                                    for (Legend.LegendItem legendItem : legend.getItems()) {
-                                        legendItem.getSymbol().setStyle("-fx-background-color: " +
-                                                colorToRgbaString(viewPort.getDataStore()
-                                                        .getSeries()
-                                                        .stream()
-                                                        .filter(TimeSeriesInfo::isSelected)
-                                                        .toList()
-                                                        .get(i)
-                                                        .getDisplayColor()));
-                                        i++;
-                                    }
-                                }
+                            if (cancellation.isCancelled()) {
+                                logger.debug(() -> "Discarding result of superseded plot task generation " + cancellation.getGeneration());
+                                return;
                             }
-                            viewPort.getChart().getXAxis().setAutoRanging(true);
+                            setChartData(viewPort, (Collection<? extends XYChart.Series<ZonedDateTime, Double>>) event.getSource().getValue());
                             if (worksheet.getChartLayout() == ChartLayout.OVERLAID) {
                                 // Force a redraw of the charts and their Y Axis considering their proper width.
                                 new DelayedAction(() -> viewPort.getChart().resize(0.0, 0.0), Duration.millis(50)).submit();
                             }
+                            schedulePrefetch(viewPort.getDataStore(), currentSelection.getStartX(), currentSelection.getEndX(), algorithm, pixelWidth);
                         }
                     } catch (Exception e) {
                         Dialogs.notifyException("Unexpected error while plotting data", e, root);
                     }
                 },
                 event -> {
+                    plotCancellations.remove(viewPort.getDataStore(), cancellation);
                     if (!closed.get()) {
                         nbBusyPlotTasks.setValue(nbBusyPlotTasks.get() - 1);
-                        Dialogs.notifyException("Failed to retrieve data from source", event.getSource().getException(), root);
+                        if (event.getSource().getException() instanceof CancellationException) {
+                            logger.debug(() -> "Plot task generation " + cancellation.getGeneration() + " was cancelled");
+                        } else {
+                            Dialogs.notifyException("Failed to retrieve data from source", event.getSource().getException(), root);
+                        }
                     }
                 });
     }
 
-    private XYChart.Series<ZonedDateTime, Double> makeXYChartSeries(Chart currentChart, TimeSeriesInfo<Double> series) {
+    private void setChartData(ChartViewPort viewPort, Collection<? extends XYChart.Series<ZonedDateTime, Double>> data) {
+        viewPort.getChart().getData().setAll(data);
+        plottedSamples.put(viewPort.getDataStore(), PlottedSamples.of(viewPort.getDataStore(), data));
+        for (Node n : viewPort.getChart().getChildrenUnmodifiable()) {
+            if (n instanceof Legend legend) {
+                int i = 0;
+                for (Legend.LegendItem legendItem : legend.getItems()) {
+                    legendItem.getSymbol().setStyle("-fx-background-color: " +
+                            colorToRgbaString(viewPort.getDataStore()
+                                    .getSeries()
+                                    .stream()
+                                    .filter(TimeSeriesInfo::isSelected)
+                                    .toList()
+                                    .get(i)
+                                    .getDisplayColor()));
+                    i++;
+                }
+            }
+        }
+        viewPort.getChart().getXAxis().setAutoRanging(true);
+    }
+
+    private XYChart.Series<ZonedDateTime, Double> makeXYChartSeries(Chart currentChart,
+                                                                    TimeSeriesInfo<Double> series,
+                                                                    TimeSeriesProcessor<Double> processor) {
         try (Profiler ignored = Profiler.start("Building  XYChart.Series data for" + series.getDisplayName(), logger::perf)) {
             XYChart.Series<ZonedDateTime, Double> newSeries = new XYChart.Series<>();
             newSeries.setName(series.getDisplayName());
@@ -1512,7 +1722,7 @@ public class XYChartsWorksheetController extends WorksheetController {
             r.setBackground(new Background(new BackgroundFill(series.getDisplayColor(), null, null)));
 
             newSeries.setNode(r);
-            newSeries.getData().setAll(series.getProcessor().getData());
+            newSeries.getData().setAll(processor.getData());
             if (currentChart.getChartType() == ChartType.SCATTER) {
                 for (var data : newSeries.getData()) {
                     var c = new Circle();
@@ -1625,4 +1835,75 @@ public class XYChartsWorksheetController extends WorksheetController {
         return viewPorts;
     }
 
+    /**
+     * The processors holding the samples plotted on a chart, along with the memory used by the XYChart.Data instances
+     * built from them for the chart to display.
+     */
+    private record PlottedSamples(List<DoubleTimeSeriesProcessor> processors, long displayedBytes) {
+        private static PlottedSamples of(Chart chart, Collection<? extends XYChart.Series<ZonedDateTime, Double>> data) {
+            var processors = chart.getSeries().stream()
+                    .map(TimeSeriesInfo::getProcessor)
+                    .filter(DoubleTimeSeriesProcessor.class::isInstance)
+                    .map(DoubleTimeSeriesProcessor.class::cast)
+                    .toList();
+            long displayedBytes = 0;
+            for (var series : data) {
+                var samples = series.getData();
+                long bytesPerSample = XY_CHART_DATA_BYTES;
+                if (!samples.isEmpty() && samples.getFirst().getNode() != null) {
+                    bytesPerSample += XY_CHART_DATA_NODE_BYTES;
+                }
+                displayedBytes += samples.size() * bytesPerSample;
+            }
+            return new PlottedSamples(processors, displayedBytes);
+        }
+
+        private long getUsedBytes() {
+            return displayedBytes + processors.stream().mapToLong(DoubleTimeSeriesProcessor::getSizeInBytes).sum();
+        }
+    }
+
+    /**
+     * Accounts for the samples plotted on the charts of the worksheet.
+     * <p>
+     * Displayed samples cannot be discarded, but the room their processors reserved for more samples can.
+     * </p>
+     */
+    private class PlottedSeriesMemoryConsumer implements MemoryConsumer {
+        @Override
+        public String getName() {
+            var ws = worksheet;
+            return "Worksheet [" + (ws != null ? ws.getName() : "closed") + "] series data";
+        }
+
+        @Override
+        public long getUsedBytes() {
+            return getPlottedSamples().stream().mapToLong(PlottedSamples::getUsedBytes).sum();
+        }
+
+        @Override
+        public double getReloadCost() {
+            return PLOTTED_SERIES_RELOAD_COST;
+        }
+
+        @Override
+        public long release(long bytes) {
+            long released = 0;
+            for (var plotted : getPlottedSamples()) {
+                for (var processor : plotted.processors()) {
+                    if (released >= bytes) {
+                        return released;
+                    }
+                    released += processor.trimToSize();
+                }
+            }
+            return released;
+        }
+
+        private List<PlottedSamples> getPlottedSamples() {
+            synchronized (plottedSamples) {
+                return new ArrayList<>(plottedSamples.values());
+            }
+        }
+    }
 }
@@ -20,16 +20,19 @@ import eu.binjr.common.javafx.controls.TimeRange;
 import eu.binjr.core.data.exceptions.DataAdapterException;
 import eu.binjr.core.data.exceptions.NoAdapterFoundException;
 import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
+import eu.binjr.core.data.timeseries.transform.SortTransform;
 import eu.binjr.core.data.workspace.TimeSeriesInfo;
 import eu.binjr.core.data.workspace.XYChartsWorksheet;
 import org.eclipse.fx.ui.controls.tree.FilterableTreeItem;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 /**
  * Provides the means to access a data source to retrieve time series data.
@@ -64,6 +67,109 @@ public interface DataAdapter<T> extends AutoCloseable {
                                                              List<TimeSeriesInfo<T>> seriesInfo,
                                                              boolean bypassCache) throws DataAdapterException;
 
+    /**
+     * Gets decoded data from the source as a map of {@link TimeSeriesProcessor},
+     * for the time interval and {@link TimeSeriesInfo} specified, at no more than the specified resolution.
+     * <p>
+     * Adapters able to aggregate samples at the source should override this method to return no more samples than
+     * described by the provided {@link FetchResolution}; such adapters must not report samples as being at full
+     * resolution. The default implementation ignores the resolution and returns all samples.
+     * </p>
+     *
+     * @param path        the path of the data in the source
+     * @param begin       the start of the time interval.
+     * @param end         the end of the time interval.
+     * @param seriesInfo  the series to get data from.
+     * @param bypassCache true if adapter cache should be bypassed, false otherwise.
+     *                    This parameter is ignored if adapter does not support caching
+     * @param resolution  the level of detail at which the samples are going to be displayed.
+     * @return the output stream in which to return data.
+     * @throws DataAdapterException if an error occurs while retrieving data from the source.
+     */
+    default Map<TimeSeriesInfo<T>, TimeSeriesProcessor<T>> fetchData(String path,
+                                                                     Instant begin,
+                                                                     Instant end,
+                                                                     List<TimeSeriesInfo<T>> seriesInfo,
+                                                                     boolean bypassCache,
+                                                                     FetchResolution resolution) throws DataAdapterException {
+        return fetchData(path, begin, end, seriesInfo, bypassCache);
+    }
+
+    /**
+     * Gets decoded data from the source as a map of {@link TimeSeriesProcessor},
+     * for the time interval and {@link TimeSeriesInfo} specified, at no more than the specified resolution,
+     * while publishing partial results to the provided {@link FetchSink} as they become available.
+     * <p>
+     * Adapters able to deliver samples progressively (per series or per time slice) should override this method,
+     * so that a coarse result can be displayed before the whole request completes. The default implementation
+     * publishes nothing and only returns the complete result.
+     * </p>
+     *
+     * @param path        the path of the data in the source
+     * @param begin       the start of the time interval.
+     * @param end         the end of the time interval.
+     * @param seriesInfo  the series to get data from.
+     * @param bypassCache true if adapter cache should be bypassed, false otherwise.
+     *                    This parameter is ignored if adapter does not support caching
+     * @param resolution  the level of detail at which the samples are going to be displayed.
+     * @param sink        the sink to publish partial results to.
+     * @return the output stream in which to return data.
+     * @throws DataAdapterException if an error occurs while retrieving data from the source.
+     */
+    default Map<TimeSeriesInfo<T>, TimeSeriesProcessor<T>> fetchData(String path,
+                                                                     Instant begin,
+                                                                     Instant end,
+                                                                     List<TimeSeriesInfo<T>> seriesInfo,
+                                                                     boolean bypassCache,
+                                                                     FetchResolution resolution,
+                                                                     FetchSink<T> sink) throws DataAdapterException {
+        return fetchData(path, begin, end, seriesInfo, bypassCache, resolution);
+    }
+
+    /**
+     * Walks through all the samples available at the source for the time interval and {@link TimeSeriesInfo}
+     * specified, in chronological order for each series and without any aggregation.
+     * <p>
+     * Adapters able to read samples from the source a bit at a time should override this method, so that walking
+     * through a large time interval does not require holding all its samples in memory. The default implementation
+     * retrieves all samples at once with {@link FetchResolution#FULL} before visiting them.
+     * </p>
+     *
+     * @param path        the path of the data in the source
+     * @param begin       the start of the time interval.
+     * @param end         the end of the time interval.
+     * @param seriesInfo  the series to get data from.
+     * @param consumer    the action to perform on each sample.
+     * @param isCancelled returns true if the walk should stop.
+     * @return the number of samples visited.
+     * @throws DataAdapterException if an error occurs while retrieving data from the source.
+     * @throws IOException          if an error occurs while performing the action.
+     */
+    default long forEachSample(String path,
+                               Instant begin,
+                               Instant end,
+                               List<TimeSeriesInfo<T>> seriesInfo,
+                               SampleConsumer<T> consumer,
+                               BooleanSupplier isCancelled) throws DataAdapterException, IOException {
+        var data = fetchData(path, begin, end, seriesInfo, false, FetchResolution.FULL);
+        long nbSamples = 0;
+        for (var entry : data.entrySet()) {
+            var proc = entry.getValue();
+            if (isSortingRequired()) {
+                proc.applyTransforms(new SortTransform<>());
+            }
+            for (int i = 0; i < proc.size(); i++) {
+                if (isCancelled.getAsBoolean()) {
+                    return nbSamples;
+                }
+                var sample = proc.getSample(i);
+                consumer.accept(entry.getKey(), sample.getXValue(), sample.getYValue());
+                nbSamples++;
+            }
+        }
+        return nbSamples;
+    }
+
     /**
      * Returns a {@link TimeRange} to initiate a new {@link XYChartsWorksheet} with so that it is
      * set to a relevant period with regard to the chosen data sources.
@@ -173,6 +279,44 @@ public interface DataAdapter<T> extends AutoCloseable {
         return false;
     }
 
+    /**
+     * Return true to indicate that the samples returned by the adapter for a given time range are all the samples
+     * available at the source for that range, false if they may have been aggregated or downsampled.
+     * <p>Samples retrieved at full resolution can be used to plot any narrower time range without querying the
+     * adapter again.</p>
+     *
+     * @return true to indicate that the samples returned by the adapter are all the samples available at the source,
+     * false otherwise.
+     */
+    default boolean isFullResolution() {
+        return false;
+    }
+
+    /**
+     * Return true to indicate that the samples returned by the adapter for a given time range and the provided
+     * resolution are all the samples available at the source for that range, false if they may have been aggregated
+     * or downsampled.
+     * <p>The default implementation ignores the resolution and returns the value of {@link #isFullResolution()}.</p>
+     *
+     * @param resolution the level of detail at which samples were requested.
+     * @return true to indicate that the samples returned by the adapter are all the samples available at the source,
+     * false otherwise.
+     */
+    default boolean isFullResolution(FetchResolution resolution) {
+        return isFullResolution();
+    }
+
+    /**
+     * Returns the name of the remote host the adapter retrieves data from, or null if it doesn't communicate with
+     * a remote host.
+     * <p>The number of concurrent requests sent to the same host is capped, regardless of the adapters sending them.</p>
+     *
+     * @return the name of the remote host the adapter retrieves data from, or null.
+     */
+    default String getSourceHost() {
+        return null;
+    }
+
     @Override
     void close();
 }
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.adapters;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Describes the level of detail at which samples are going to be displayed, so that data adapters able to
+ * aggregate samples at the source can return no more samples than can actually be displayed.
+ *
+ * @param pixelWidth  the width in pixels of the plot area the samples are displayed in, or 0 if unknown.
+ * @param maxPoints   the number of samples that can be displayed for each series, or 0 if all samples are needed.
+ * @param aggregation the aggregation that best preserves the rendering of the series, should samples be aggregated.
+ * @author Frederic Thevenet
+ */
+public record FetchResolution(int pixelWidth, int maxPoints, Aggregation aggregation) {
+    /**
+     * A resolution that requires all samples to be returned.
+     */
+    public static final FetchResolution FULL = new FetchResolution(0, 0, Aggregation.EXTREMES);
+
+    /**
+     * Returns true if all samples are needed, false if they may be aggregated.
+     *
+     * @return true if all samples are needed, false if they may be aggregated.
+     */
+    public boolean isFull() {
+        return maxPoints <= 0;
+    }
+
+    /**
+     * Returns the interval between samples that results in no more than the desired number of points over the
+     * specified time range, or {@link Duration#ZERO} if all samples are needed.
+     *
+     * @param begin the start of the time range.
+     * @param end   the end of the time range.
+     * @return the interval between samples for the specified time range.
+     */
+    public Duration getInterval(Instant begin, Instant end) {
+        if (isFull()) {
+            return Duration.ZERO;
+        }
+        return Duration.between(begin, end).dividedBy(maxPoints);
+    }
+
+    /**
+     * Defines how samples may be aggregated.
+     */
+    public enum Aggregation {
+        /**
+         * Samples are best represented by their average value over an interval.
+         */
+        AVERAGE,
+        /**
+         * Samples are best represented by their extreme values over an interval, so that peaks remain visible.
+         */
+        EXTREMES
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.adapters;
+
+import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
+import eu.binjr.core.data.workspace.TimeSeriesInfo;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Receives the partial results published by a {@link DataAdapter} while samples are still being retrieved, so that
+ * they can be displayed before the whole request completes.
+ * <p>
+ * Each publication holds all the samples retrieved so far for the series it contains, up to the specified point in
+ * time, and supersedes any previous publication for these series. Series absent from a publication are left as they
+ * were. Processors passed to the sink belong to it and are never modified afterwards by the adapter.
+ * </p>
+ *
+ * @param <T> the type of the samples.
+ * @author Frederic Thevenet
+ */
+@FunctionalInterface
+public interface FetchSink<T> {
+    /**
+     * Returns a sink that discards all publications.
+     *
+     * @param <T> the type of the samples.
+     * @return a sink that discards all publications.
+     */
+    static <T> FetchSink<T> none() {
+        return (partial, progress) -> {
+        };
+    }
+
+    /**
+     * Publishes a partial result.
+     *
+     * @param partial  the samples retrieved so far for each series.
+     * @param progress the point in time up to which samples have been retrieved.
+     */
+    void publish(Map<TimeSeriesInfo<T>, TimeSeriesProcessor<T>> partial, Instant progress);
+}
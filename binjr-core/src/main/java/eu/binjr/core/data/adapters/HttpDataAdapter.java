@@ -22,6 +22,7 @@ import eu.binjr.common.io.SSLCustomContextException;
 import eu.binjr.common.logging.Logger;
 import eu.binjr.common.logging.Profiler;
 import eu.binjr.common.preferences.ObfuscatedString;
+import eu.binjr.core.data.async.CancellationToken;
 import eu.binjr.core.data.exceptions.*;
 import eu.binjr.core.dialogs.Dialogs;
 import eu.binjr.core.preferences.AppEnvironment;
@@ -39,6 +40,8 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -104,7 +107,12 @@ public abstract class HttpDataAdapter<T> extends SimpleCachingDataAdapter<T> {
 
     @Override
     public byte[] onCacheMiss(String path, Instant begin, Instant end) throws DataAdapterException {
-        return doHttpGet(craftFetchUri(path, begin, end), r -> BodySubscribers.ofByteArray());
+        return onCacheMiss(path, begin, end, FetchResolution.FULL);
+    }
+
+    @Override
+    public byte[] onCacheMiss(String path, Instant begin, Instant end, FetchResolution resolution) throws DataAdapterException {
+        return doHttpGet(craftFetchUri(path, begin, end, resolution), r -> BodySubscribers.ofByteArray());
     }
 
     @Override
@@ -187,7 +195,7 @@ public abstract class HttpDataAdapter<T> extends SimpleCachingDataAdapter<T> {
                 var authString = basicAuthUserName + ":" + basicAuthPassword.toPlainText();
                 httpGet.header(HEADER_AUTHORIZATION, AUTH_SCHEME_BASIC + Base64.getEncoder().encodeToString(authString.getBytes()));
             }
-            HttpResponse<R> response = httpClient.send(httpGet.build(), bodyHandler);
+            HttpResponse<R> response = send(httpGet.build(), bodyHandler);
             if (userPrefs.autoAttemptBasicAuth.get() &&
                     response.statusCode() == 401 &&
                     response.headers().allValues(HEADER_WWW_AUTHENTICATE).stream().anyMatch(s -> s.startsWith(AUTH_SCHEME_BASIC))) {
@@ -229,7 +237,7 @@ public abstract class HttpDataAdapter<T> extends SimpleCachingDataAdapter<T> {
                 throw new SourceCommunicationException(msg);
             }
             return response.body();
-        } catch (SourceCommunicationException e) {
+        } catch (SourceCommunicationException | CancellationException e) {
             throw e;
         } catch (ConnectException e) {
             throw new SourceCommunicationException(e.getMessage(), e);
@@ -247,6 +255,27 @@ public abstract class HttpDataAdapter<T> extends SimpleCachingDataAdapter<T> {
         }
     }
 
+    /**
+     * Sends the request and waits for the response, aborting the exchange if the {@link CancellationToken} bound
+     * to the current thread is cancelled in the meantime.
+     */
+    private <R> HttpResponse<R> send(HttpRequest request, HttpResponse.BodyHandler<R> bodyHandler) throws IOException, InterruptedException {
+        var cancellation = CancellationToken.current();
+        cancellation.throwIfCancelled();
+        var pending = httpClient.sendAsync(request, bodyHandler);
+        try (var ignored = cancellation.onCancel(() -> pending.cancel(true))) {
+            return pending.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (CancellationException e) {
+            cancellation.throwIfCancelled();
+            throw e;
+        }
+    }
+
     protected HttpClient httpClientFactory() throws CannotInitializeDataAdapterException {
         try {
             var userPrefs = this.userPrefs;
@@ -316,6 +345,44 @@ public abstract class HttpDataAdapter<T> extends SimpleCachingDataAdapter<T> {
 
     protected abstract URI craftFetchUri(String path, Instant begin, Instant end) throws DataAdapterException;
 
+    /**
+     * Returns the URI of the request for the samples of the specified path and time interval, at no more than the
+     * specified resolution.
+     * <p>The default implementation ignores the resolution.</p>
+     *
+     * @param path       the path of the data in the source
+     * @param begin      the start of the time interval.
+     * @param end        the end of the time interval.
+     * @param resolution the level of detail at which the samples are going to be displayed.
+     * @return the URI of the request.
+     * @throws DataAdapterException if an error occurs while building the URI.
+     */
+    protected URI craftFetchUri(String path, Instant begin, Instant end, FetchResolution resolution) throws DataAdapterException {
+        return craftFetchUri(path, begin, end);
+    }
+
+    @Override
+    public boolean isFullResolution(FetchResolution resolution) {
+        return !isAggregatedAtSource(resolution);
+    }
+
+    /**
+     * Returns true if the source may aggregate or downsample the samples it returns for the specified resolution,
+     * false if responses hold all the samples available at the source for the requested time range.
+     * <p>The default implementation returns false.</p>
+     *
+     * @param resolution the level of detail at which samples are requested.
+     * @return true if the source may aggregate or downsample the samples it returns, false otherwise.
+     */
+    protected boolean isAggregatedAtSource(FetchResolution resolution) {
+        return false;
+    }
+
+    @Override
+    public String getSourceHost() {
+        return baseAddress == null ? null : baseAddress.getAuthority();
+    }
+
     /**
      * Returns the source's base address
      *
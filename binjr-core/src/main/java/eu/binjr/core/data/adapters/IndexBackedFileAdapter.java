@@ -46,6 +46,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 public abstract class IndexBackedFileAdapter<F extends EventFormat<InputStream>, P extends ParsingProfile> extends BaseDataAdapter<Double> implements Reloadable<Double> {
@@ -168,6 +169,17 @@ public abstract class IndexBackedFileAdapter<F extends EventFormat<InputStream>,
                                                                               Instant end,
                                                                               List<TimeSeriesInfo<Double>> seriesInfo,
                                                                               boolean bypassCache) throws DataAdapterException {
+        return fetchData(path, begin, end, seriesInfo, bypassCache, FetchResolution.FULL, FetchSink.none());
+    }
+
+    @Override
+    public Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> fetchData(String path,
+                                                                              Instant begin,
+                                                                              Instant end,
+                                                                              List<TimeSeriesInfo<Double>> seriesInfo,
+                                                                              boolean bypassCache,
+                                                                              FetchResolution resolution,
+                                                                              FetchSink<Double> sink) throws DataAdapterException {
         try {
             ensureIndexed(seriesInfo.stream().map(TimeSeriesInfo::getBinding).collect(Collectors.toSet()), ReloadPolicy.UNLOADED);
             Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> series = new HashMap<>();
@@ -179,7 +191,9 @@ public abstract class IndexBackedFileAdapter<F extends EventFormat<InputStream>,
                     end.toEpochMilli(),
                     series,
                     zoneId,
-                    bypassCache);
+                    bypassCache,
+                    resolution,
+                    sink);
             logger.debug(() -> "Retrieved " + nbHits + " hits");
             return series;
         } catch (Exception e) {
@@ -187,6 +201,29 @@ public abstract class IndexBackedFileAdapter<F extends EventFormat<InputStream>,
         }
     }
 
+    @Override
+    public boolean isFullResolution(FetchResolution resolution) {
+        // Index hits are only reduced when a lower resolution was requested
+        return resolution.isFull();
+    }
+
+    @Override
+    public long forEachSample(String path,
+                              Instant begin,
+                              Instant end,
+                              List<TimeSeriesInfo<Double>> seriesInfo,
+                              SampleConsumer<Double> consumer,
+                              BooleanSupplier isCancelled) throws DataAdapterException, IOException {
+        try {
+            ensureIndexed(seriesInfo.stream().map(TimeSeriesInfo::getBinding).collect(Collectors.toSet()), ReloadPolicy.UNLOADED);
+            return index.forEachSample(begin.toEpochMilli(), end.toEpochMilli(), seriesInfo, zoneId, consumer, isCancelled);
+        } catch (IOException | DataAdapterException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataAdapterException("Error fetching data from " + path, e);
+        }
+    }
+
     @Override
     public void reload(String path, List<TimeSeriesInfo<Double>> seriesInfo, ReloadPolicy reloadPolicy, DoubleProperty progress, Property<ReloadStatus> reloadStatus) throws DataAdapterException {
         try {
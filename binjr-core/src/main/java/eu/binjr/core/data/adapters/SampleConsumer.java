@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.adapters;
+
+import eu.binjr.core.data.workspace.TimeSeriesInfo;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+
+/**
+ * Receives the samples of a set of series, one at a time, as they are read from a {@link DataAdapter}.
+ *
+ * @param <T> the type of the samples.
+ * @author Frederic Thevenet
+ */
+@FunctionalInterface
+public interface SampleConsumer<T> {
+    /**
+     * Performs this operation on a sample.
+     *
+     * @param info      the series the sample belongs to.
+     * @param timestamp the timestamp of the sample.
+     * @param value     the value of the sample.
+     * @throws IOException if an error occurs while processing the sample.
+     */
+    void accept(TimeSeriesInfo<T> info, ZonedDateTime timestamp, T value) throws IOException;
+}
@@ -47,13 +47,36 @@ public abstract class SerializedDataAdapter<T> extends BaseDataAdapter<T> {
      */
     public abstract InputStream fetchRawData(String path, Instant begin, Instant end, boolean bypassCache) throws DataAdapterException;
 
+    /**
+     * Gets raw data from the source as an output stream, for the time interval specified, at no more than the
+     * specified resolution.
+     * <p>The default implementation ignores the resolution.</p>
+     *
+     * @param path        the path of the data in the source
+     * @param begin       the start of the time interval.
+     * @param end         the end of the time interval.
+     * @param bypassCache true if adapter cache should be bypassed, false otherwise. This parameter is ignored if adapter does not support caching
+     * @param resolution  the level of detail at which the samples are going to be displayed.
+     * @return the output stream in which to return data.
+     * @throws DataAdapterException if an error occurs while retrieving data from the source.
+     */
+    public InputStream fetchRawData(String path, Instant begin, Instant end, boolean bypassCache, FetchResolution resolution) throws DataAdapterException {
+        return fetchRawData(path, begin, end, bypassCache);
+    }
+
     @Override
     public Map<TimeSeriesInfo<T>, TimeSeriesProcessor<T>> fetchData(String path, Instant begin, Instant end, List<TimeSeriesInfo<T>> seriesInfo, boolean bypassCache)
             throws DataAdapterException {
+        return fetchData(path, begin, end, seriesInfo, bypassCache, FetchResolution.FULL);
+    }
+
+    @Override
+    public Map<TimeSeriesInfo<T>, TimeSeriesProcessor<T>> fetchData(String path, Instant begin, Instant end, List<TimeSeriesInfo<T>> seriesInfo, boolean bypassCache, FetchResolution resolution)
+            throws DataAdapterException {
         if (this.isClosed()) {
             throw new IllegalStateException("An attempt was made to fetch data from a closed adapter");
         }
-        try (InputStream in = this.fetchRawData(path, begin, end, bypassCache)) {
+        try (InputStream in = this.fetchRawData(path, begin, end, bypassCache, resolution)) {
             // Parse raw data obtained from adapter
             return this.getDecoder().decode(in, seriesInfo);
         } catch (IOException e) {
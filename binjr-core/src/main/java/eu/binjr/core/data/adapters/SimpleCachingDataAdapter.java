@@ -21,6 +21,9 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import eu.binjr.common.function.CheckedLambdas;
 import eu.binjr.common.logging.Logger;
 import eu.binjr.core.data.exceptions.DataAdapterException;
+import eu.binjr.core.data.memory.CacheMemoryConsumer;
+import eu.binjr.core.data.memory.MemoryBudget;
+import eu.binjr.core.data.memory.MemoryConsumer;
 import eu.binjr.core.preferences.UserPreferences;
 
 import java.io.ByteArrayInputStream;
@@ -36,7 +39,10 @@ import java.time.Instant;
  */
 public abstract class SimpleCachingDataAdapter<T> extends SerializedDataAdapter<T> {
     private static final Logger logger = Logger.create(SimpleCachingDataAdapter.class);
+    // Payloads can only be rebuilt by a round trip to the source, so they are among the last to go
+    private static final double CACHE_RELOAD_COST = 4.0;
     private final Cache<String, ByteBuffer> cache;
+    private final MemoryConsumer cacheMemoryConsumer;
 
     /**
      * Initializes a new instance of the {@link SimpleCachingDataAdapter} class
@@ -56,16 +62,24 @@ public abstract class SimpleCachingDataAdapter<T> extends SerializedDataAdapter<
                 .maximumWeight(maxCacheSizeInByte)
                 .weigher((String key, ByteBuffer buffer) -> buffer.array().length)
                 .build();
+        this.cacheMemoryConsumer = new CacheMemoryConsumer<>("Adapter fetch cache (" + getClass().getSimpleName() + ")",
+                cache, 1, CACHE_RELOAD_COST);
+        MemoryBudget.getInstance().register(cacheMemoryConsumer);
     }
 
     @Override
     public InputStream fetchRawData(String path, Instant begin, Instant end, boolean bypassCache) throws DataAdapterException {
-        final String cacheEntryKey = String.format("%s%d%d", path, begin.toEpochMilli(), end.toEpochMilli());
+        return fetchRawData(path, begin, end, bypassCache, FetchResolution.FULL);
+    }
+
+    @Override
+    public InputStream fetchRawData(String path, Instant begin, Instant end, boolean bypassCache, FetchResolution resolution) throws DataAdapterException {
+        final String cacheEntryKey = String.format("%s%d%d%s", path, begin.toEpochMilli(), end.toEpochMilli(), getResolutionCacheKey(resolution));
         if (bypassCache) {
             cache.invalidate(cacheEntryKey);
         }
         var is = new ByteArrayInputStream(cache.get(cacheEntryKey, CheckedLambdas.wrap(key -> {
-            var data = onCacheMiss(path, begin, end);
+            var data = onCacheMiss(path, begin, end, resolution);
             logger.perf(() -> String.format(
                     "%s for entry %s %s %s - payload size=%d",
                     bypassCache ? "Cache was explicitly bypassed" : "Cache miss",
@@ -90,9 +104,42 @@ public abstract class SimpleCachingDataAdapter<T> extends SerializedDataAdapter<
      */
     public abstract byte[] onCacheMiss(String path, Instant begin, Instant end) throws DataAdapterException;
 
+    /**
+     * Gets raw data from the source as an output stream, for the time interval specified, at no more than the
+     * specified resolution.
+     * <p>The default implementation ignores the resolution.</p>
+     *
+     * @param path       the path of the data in the source
+     * @param begin      the start of the time interval.
+     * @param end        the end of the time interval.
+     * @param resolution the level of detail at which the samples are going to be displayed.
+     * @return the data to store in the cache.
+     * @throws DataAdapterException if an error occurs while retrieving data from the source.
+     */
+    public byte[] onCacheMiss(String path, Instant begin, Instant end, FetchResolution resolution) throws DataAdapterException {
+        return onCacheMiss(path, begin, end);
+    }
+
+    /**
+     * Returns the part of the key of cache entries that depends on the level of detail at which samples were
+     * requested.
+     * <p>
+     * The default implementation returns an empty string, so that requests for the same time interval share the same
+     * cache entry regardless of the requested resolution. Adapters whose payloads depend on the resolution must
+     * override this method to return a value that only changes when the payload does.
+     * </p>
+     *
+     * @param resolution the level of detail at which the samples are going to be displayed.
+     * @return the part of the key of cache entries that depends on the requested resolution.
+     */
+    protected String getResolutionCacheKey(FetchResolution resolution) {
+        return "";
+    }
+
     @Override
     public void close() {
         try {
+            MemoryBudget.getInstance().unregister(cacheMemoryConsumer);
             this.cache.invalidateAll();
         } catch (Exception e) {
             logger.error("Error closing SimpleCacheAdapter", e);
@@ -24,6 +24,7 @@ import javafx.event.EventHandler;
 
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Defines methods to submit operation to be executed asynchronously to the UI thread, as well as a thread pool to run these tasks.
@@ -34,6 +35,8 @@ public class AsyncTaskManager {
     private static final Logger logger = Logger.create(AsyncTaskManager.class);
     private final ExecutorService mainthreadPool;
     private final ExecutorService subTaskThreadPool;
+    private final ExecutorService backgroundThreadPool;
+    private final AtomicInteger pendingForegroundTasks = new AtomicInteger(0);
 
     private AsyncTaskManager() {
         UserPreferences prefs = UserPreferences.getInstance();
@@ -43,6 +46,13 @@ public class AsyncTaskManager {
         subTaskThreadPool = threadPoolFactory("binjr-sub-tasks",
                 prefs.subTasksThreadPoolPolicy.get(),
                 prefs.maxSubTasksParallelism.get().intValue());
+        backgroundThreadPool = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setName("binjr-background-thread");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
     }
 
     /**
@@ -63,7 +73,7 @@ public class AsyncTaskManager {
      */
     public <V> CompletableFuture<?> submit(Task<V> task) {
         logger.trace("Task {} submitted", task);
-        return CompletableFuture.runAsync(task, mainthreadPool);
+        return trackForeground(CompletableFuture.runAsync(task, mainthreadPool));
     }
 
     /**
@@ -85,7 +95,7 @@ public class AsyncTaskManager {
         t.setOnSucceeded(onSucceeded);
         t.setOnFailed(onFailed);
         logger.trace("Task {} submitted", t);
-        return CompletableFuture.runAsync(t, mainthreadPool);
+        return trackForeground(CompletableFuture.runAsync(t, mainthreadPool));
     }
 
     public CompletableFuture<?> submitSubTask(Runnable action) {
@@ -93,6 +103,51 @@ public class AsyncTaskManager {
         return CompletableFuture.runAsync(action, subTaskThreadPool);
     }
 
+    /**
+     * Submit a low priority action, to be run on a dedicated background thread.
+     * <p>
+     * Background actions are expected to call {@link #yieldToForegroundTasks()} between units of work so that they
+     * never compete with user-initiated tasks for resources.
+     * </p>
+     *
+     * @param action the action to run in the background.
+     * @return the result of the action.
+     */
+    public CompletableFuture<?> submitBackgroundTask(Runnable action) {
+        logger.trace("Submitting runnable on the background thread");
+        return CompletableFuture.runAsync(action, backgroundThreadPool);
+    }
+
+    /**
+     * Returns true if no task submitted to the main thread pool is either queued or running, false otherwise.
+     *
+     * @return true if no task submitted to the main thread pool is either queued or running, false otherwise.
+     */
+    public boolean isForegroundIdle() {
+        return pendingForegroundTasks.get() == 0;
+    }
+
+    /**
+     * Blocks the calling thread for as long as tasks submitted to the main thread pool are either queued or running.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public void yieldToForegroundTasks() throws InterruptedException {
+        long pollNanos = TimeUnit.MILLISECONDS.toNanos(UserPreferences.getInstance().backgroundTaskYieldPollMs.get().longValue());
+        while (!isForegroundIdle()) {
+            LockSupport.parkNanos(pollNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private CompletableFuture<?> trackForeground(CompletableFuture<?> future) {
+        pendingForegroundTasks.incrementAndGet();
+        future.whenComplete((r, t) -> pendingForegroundTasks.decrementAndGet());
+        return future;
+    }
+
     private ExecutorService threadPoolFactory(String name, ThreadPoolPolicy policy, int parallelism) {
         ThreadFactory threadFactory = new ThreadFactory() {
             final AtomicInteger threadNum = new AtomicInteger();
@@ -115,6 +170,11 @@ public class AsyncTaskManager {
                 threadPool = Executors.newWorkStealingPool(parallelism);
                 logger.trace(() -> name + " work stealing pool thread started with parallelism level: " + parallelism);
                 break;
+            case VIRTUAL:
+                // Tasks are mostly blocked on I/O, so a new virtual thread is started for each of them
+                threadPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-vthread-", 1).factory());
+                logger.trace(() -> name + " virtual thread per task executor started");
+                break;
             default:
             case CACHED:
                 threadPool = Executors.newCachedThreadPool(threadFactory);
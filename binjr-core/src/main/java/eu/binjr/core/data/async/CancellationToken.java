@@ -0,0 +1,218 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.async;
+
+import eu.binjr.common.function.CheckedRunnable;
+import eu.binjr.common.function.CheckedSupplier;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token that signals to a unit of work, and all the operations it spawns, that its result is no longer needed
+ * and that it should stop as soon as possible.
+ * <p>
+ * Each token carries a generation id, which increases for every new token, so that results from work started
+ * with an older token can be told apart from newer ones.
+ * </p>
+ * <p>
+ * Since long-running operations (e.g. fetching data from an adapter) do not take a token as a parameter,
+ * a token can be bound to the current thread for the duration of an operation (see {@link #call(CheckedSupplier)}),
+ * and retrieved from within that operation using {@link #current()}.
+ * </p>
+ * <p>
+ * Child tokens (see {@link #createChild()}) delimit the scope of the subtasks spawned by a task: they are cancelled
+ * whenever their parent is, as well as when they are closed, so that no subtask outlives the scope that started it.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public final class CancellationToken implements AutoCloseable {
+    /**
+     * A token that is never cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken(0);
+    private static final AtomicLong generationCounter = new AtomicLong(0);
+    private static final ThreadLocal<CancellationToken> currentToken = new ThreadLocal<>();
+    private final long generation;
+    private final Set<Runnable> callbacks = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+    private volatile Registration parentRegistration;
+
+    private CancellationToken(long generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Returns a new token, with a generation id greater than that of all the tokens created before it.
+     *
+     * @return a new token.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(generationCounter.incrementAndGet());
+    }
+
+    /**
+     * Returns a new token that shares the generation id of this one, and is cancelled when this one is.
+     *
+     * @return a new child token.
+     */
+    public CancellationToken createChild() {
+        var child = new CancellationToken(generation);
+        child.parentRegistration = onCancel(child::cancel);
+        return child;
+    }
+
+    /**
+     * Returns the token bound to the current thread, or {@link #NONE} if there isn't any.
+     *
+     * @return the token bound to the current thread.
+     */
+    public static CancellationToken current() {
+        var token = currentToken.get();
+        return token == null ? NONE : token;
+    }
+
+    /**
+     * Returns the generation id of the token.
+     *
+     * @return the generation id of the token.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns true if the token has been cancelled, false otherwise.
+     *
+     * @return true if the token has been cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the token has been cancelled.
+     *
+     * @throws CancellationException if the token has been cancelled.
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Operation for generation " + generation + " was cancelled");
+        }
+    }
+
+    /**
+     * Cancels the token and runs all registered callbacks.
+     */
+    public void cancel() {
+        if (this == NONE || cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (var callback : callbacks) {
+            if (callbacks.remove(callback)) {
+                callback.run();
+            }
+        }
+    }
+
+    /**
+     * Cancels the token, if it isn't already, and detaches it from its parent.
+     */
+    @Override
+    public void close() {
+        cancel();
+        var registration = parentRegistration;
+        if (registration != null) {
+            registration.close();
+            parentRegistration = null;
+        }
+    }
+
+    /**
+     * Registers a callback to run when the token is cancelled, e.g. to abort a blocking I/O operation.
+     * <p>The callback is run immediately if the token is already cancelled.</p>
+     *
+     * @param callback the callback to run when the token is cancelled.
+     * @return a {@link Registration} that unregisters the callback when closed.
+     */
+    public Registration onCancel(Runnable callback) {
+        if (this == NONE) {
+            return () -> {
+            };
+        }
+        callbacks.add(callback);
+        if (cancelled && callbacks.remove(callback)) {
+            callback.run();
+        }
+        return () -> callbacks.remove(callback);
+    }
+
+    /**
+     * Evaluates the supplied {@link CheckedSupplier} with this token bound to the current thread.
+     *
+     * @param operation the {@link CheckedSupplier} to evaluate.
+     * @param <R>       the return type for the {@link CheckedSupplier}.
+     * @param <E>       the type of the exception thrown by the {@link CheckedSupplier}.
+     * @return the return of the {@link CheckedSupplier}.
+     * @throws E the exception thrown by the {@link CheckedSupplier}.
+     */
+    public <R, E extends Exception> R call(CheckedSupplier<R, E> operation) throws E {
+        var previous = currentToken.get();
+        currentToken.set(this);
+        try {
+            return operation.get();
+        } finally {
+            if (previous == null) {
+                currentToken.remove();
+            } else {
+                currentToken.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs the supplied {@link CheckedRunnable} with this token bound to the current thread.
+     *
+     * @param operation the {@link CheckedRunnable} to run.
+     * @param <E>       the type of the exception thrown by the {@link CheckedRunnable}.
+     * @throws E the exception thrown by the {@link CheckedRunnable}.
+     */
+    public <E extends Exception> void run(CheckedRunnable<E> operation) throws E {
+        call(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "CancellationToken{generation=" + generation + ", cancelled=" + cancelled + "}";
+    }
+
+    /**
+     * The registration of a callback, which unregisters it when closed.
+     */
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
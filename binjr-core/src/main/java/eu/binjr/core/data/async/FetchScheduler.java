@@ -0,0 +1,267 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.async;
+
+import eu.binjr.common.logging.Logger;
+import eu.binjr.core.preferences.UserPreferences;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Schedules tasks fetching data from sources onto the {@link AsyncTaskManager} sub-tasks pool, according to their
+ * {@link TaskPriority} and to limits on the number of concurrent tasks.
+ * <p>
+ * Queued tasks are started in priority order, as long as neither the total number of running tasks, the number of
+ * tasks running against the same adapter, nor the number of tasks running against the same host, exceeds the limits
+ * set in {@link UserPreferences}. Within a priority class, adapters are served in turn, so that a source with
+ * many pending requests cannot hold back the others.
+ * </p>
+ * <p>
+ * The time each task spends waiting in queue is measured and exposed, along with other metrics, as an MXBean on the
+ * platform MBean server.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public final class FetchScheduler implements FetchSchedulerMXBean {
+    private static final Logger logger = Logger.create(FetchScheduler.class);
+    private static final double NANOS_PER_MS = 1_000_000.0;
+    private final UserPreferences userPref = UserPreferences.getInstance();
+    // For each priority class, queued tasks grouped by adapter, in the order in which adapters are to be served
+    private final Map<TaskPriority, LinkedHashMap<Object, ArrayDeque<ScheduledTask>>> queues = new EnumMap<>(TaskPriority.class);
+    private final Map<Object, Integer> runningByAdapter = new HashMap<>();
+    private final Map<String, Integer> runningByHost = new HashMap<>();
+    private final LongAdder completedTasks = new LongAdder();
+    private final WaitMeter queueWait = new WaitMeter();
+    private final WaitMeter interactiveQueueWait = new WaitMeter();
+    private int queuedTasks = 0;
+    private int runningTasks = 0;
+
+    private FetchScheduler() {
+        for (var priority : TaskPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("eu.binjr:type=FetchScheduler"));
+        } catch (JMException e) {
+            logger.warn("Failed to register fetch scheduler MBean: " + e.getMessage());
+            logger.debug(() -> "Stack trace", e);
+        }
+    }
+
+    /**
+     * Returns the singleton instance for {@link FetchScheduler}
+     *
+     * @return the singleton instance for {@link FetchScheduler}
+     */
+    public static FetchScheduler getInstance() {
+        return FetchSchedulerHolder.instance;
+    }
+
+    /**
+     * Queues a task to be run on the sub-tasks pool once the concurrency limits allow it.
+     *
+     * @param priority   the priority class of the task.
+     * @param adapterKey an object identifying the adapter the task fetches data from.
+     * @param host       the host the task sends requests to, or null if it doesn't communicate with a remote host.
+     * @param action     the task to run.
+     * @return a {@link CompletableFuture} that completes when the task does.
+     */
+    public CompletableFuture<Void> submit(TaskPriority priority, Object adapterKey, String host, Runnable action) {
+        var task = new ScheduledTask(priority, adapterKey, host, action, new CompletableFuture<>(), System.nanoTime());
+        synchronized (this) {
+            queues.get(priority).computeIfAbsent(adapterKey, k -> new ArrayDeque<>()).add(task);
+            queuedTasks++;
+        }
+        dispatch();
+        return task.result();
+    }
+
+    private void dispatch() {
+        var toStart = new ArrayList<ScheduledTask>();
+        synchronized (this) {
+            int maxRunning = Math.max(1, userPref.maxConcurrentFetches.get().intValue());
+            int maxPerAdapter = Math.max(1, userPref.maxConcurrentFetchesPerAdapter.get().intValue());
+            int maxPerHost = Math.max(1, userPref.maxConcurrentFetchesPerHost.get().intValue());
+            for (var priority : TaskPriority.values()) {
+                var byAdapter = queues.get(priority);
+                boolean progress = true;
+                while (progress && runningTasks < maxRunning && !byAdapter.isEmpty()) {
+                    progress = false;
+                    // Serve each adapter with queued tasks in turn, starting with the one served least recently
+                    for (var adapterKey : List.copyOf(byAdapter.keySet())) {
+                        if (runningTasks >= maxRunning) {
+                            break;
+                        }
+                        var pending = byAdapter.get(adapterKey);
+                        var task = pending.peek();
+                        if (runningByAdapter.getOrDefault(adapterKey, 0) >= maxPerAdapter ||
+                                (task.host() != null && runningByHost.getOrDefault(task.host(), 0) >= maxPerHost)) {
+                            continue;
+                        }
+                        pending.poll();
+                        // Move the adapter to the back of the line
+                        byAdapter.remove(adapterKey);
+                        if (!pending.isEmpty()) {
+                            byAdapter.put(adapterKey, pending);
+                        }
+                        queuedTasks--;
+                        runningTasks++;
+                        runningByAdapter.merge(adapterKey, 1, Integer::sum);
+                        if (task.host() != null) {
+                            runningByHost.merge(task.host(), 1, Integer::sum);
+                        }
+                        toStart.add(task);
+                        progress = true;
+                    }
+                }
+            }
+        }
+        toStart.forEach(this::start);
+    }
+
+    private void start(ScheduledTask task) {
+        long waitNanos = System.nanoTime() - task.queuedNanos();
+        queueWait.record(waitNanos);
+        if (task.priority() == TaskPriority.VISIBLE_INTERACTIVE) {
+            interactiveQueueWait.record(waitNanos);
+        }
+        logger.perf(() -> String.format("%s fetch task waited %.2fms in queue", task.priority(), waitNanos / NANOS_PER_MS));
+        try {
+            AsyncTaskManager.getInstance().submitSubTask(task.action()).whenComplete((result, throwable) -> {
+                release(task);
+                if (throwable != null) {
+                    task.result().completeExceptionally(throwable);
+                } else {
+                    task.result().complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            release(task);
+            task.result().completeExceptionally(e);
+        }
+    }
+
+    private void release(ScheduledTask task) {
+        synchronized (this) {
+            runningTasks--;
+            runningByAdapter.computeIfPresent(task.adapterKey(), (k, n) -> n > 1 ? n - 1 : null);
+            if (task.host() != null) {
+                runningByHost.computeIfPresent(task.host(), (k, n) -> n > 1 ? n - 1 : null);
+            }
+        }
+        completedTasks.increment();
+        dispatch();
+    }
+
+    @Override
+    public synchronized int getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    @Override
+    public synchronized int getRunningTasks() {
+        return runningTasks;
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return completedTasks.sum();
+    }
+
+    @Override
+    public double getLastQueueWaitMs() {
+        return queueWait.getLastMs();
+    }
+
+    @Override
+    public double getMeanQueueWaitMs() {
+        return queueWait.getMeanMs();
+    }
+
+    @Override
+    public double getMaxQueueWaitMs() {
+        return queueWait.getMaxMs();
+    }
+
+    @Override
+    public double getMeanInteractiveQueueWaitMs() {
+        return interactiveQueueWait.getMeanMs();
+    }
+
+    @Override
+    public void reset() {
+        completedTasks.reset();
+        queueWait.reset();
+        interactiveQueueWait.reset();
+    }
+
+    private record ScheduledTask(TaskPriority priority,
+                                 Object adapterKey,
+                                 String host,
+                                 Runnable action,
+                                 CompletableFuture<Void> result,
+                                 long queuedNanos) {
+    }
+
+    /**
+     * Accumulates count, last, max and total durations of the time spent by tasks waiting in queue.
+     */
+    private static class WaitMeter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong lastNanos = new AtomicLong(0);
+        private final AtomicLong maxNanos = new AtomicLong(0);
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            lastNanos.set(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private double getLastMs() {
+            return lastNanos.get() / NANOS_PER_MS;
+        }
+
+        private double getMaxMs() {
+            return maxNanos.get() / NANOS_PER_MS;
+        }
+
+        private double getMeanMs() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : (totalNanos.sum() / (double) n) / NANOS_PER_MS;
+        }
+
+        private void reset() {
+            count.reset();
+            totalNanos.reset();
+            lastNanos.set(0);
+            maxNanos.set(0);
+        }
+    }
+
+    private static class FetchSchedulerHolder {
+        private static final FetchScheduler instance = new FetchScheduler();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.async;
+
+/**
+ * Defines the management interface exposing live metrics for the {@link FetchScheduler}.
+ *
+ * @author Frederic Thevenet
+ */
+public interface FetchSchedulerMXBean {
+
+    /**
+     * Returns the number of tasks waiting to be run.
+     *
+     * @return the number of tasks waiting to be run.
+     */
+    int getQueuedTasks();
+
+    /**
+     * Returns the number of tasks currently running.
+     *
+     * @return the number of tasks currently running.
+     */
+    int getRunningTasks();
+
+    /**
+     * Returns the number of tasks that have completed.
+     *
+     * @return the number of tasks that have completed.
+     */
+    long getCompletedTasks();
+
+    /**
+     * Returns the time the last task to start spent waiting in queue, in ms.
+     *
+     * @return the time the last task to start spent waiting in queue, in ms.
+     */
+    double getLastQueueWaitMs();
+
+    /**
+     * Returns the mean time tasks spent waiting in queue, in ms.
+     *
+     * @return the mean time tasks spent waiting in queue, in ms.
+     */
+    double getMeanQueueWaitMs();
+
+    /**
+     * Returns the longest time a task spent waiting in queue, in ms.
+     *
+     * @return the longest time a task spent waiting in queue, in ms.
+     */
+    double getMaxQueueWaitMs();
+
+    /**
+     * Returns the mean time tasks of the {@link TaskPriority#VISIBLE_INTERACTIVE} class spent waiting in queue, in ms.
+     *
+     * @return the mean time interactive tasks spent waiting in queue, in ms.
+     */
+    double getMeanInteractiveQueueWaitMs();
+
+    /**
+     * Resets all cumulative counters and latency measurements.
+     */
+    void reset();
+}
@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.async;
+
+/**
+ * Defines the priority classes of the tasks run by the {@link FetchScheduler}, from most to least urgent.
+ *
+ * @author Frederic Thevenet
+ */
+public enum TaskPriority {
+    /**
+     * Tasks the user is actively waiting on, e.g. plotting a chart on the visible worksheet after a zoom or a pan.
+     */
+    VISIBLE_INTERACTIVE,
+    /**
+     * Tasks refreshing content that is visible, but that the user didn't directly interact with.
+     */
+    VISIBLE_BACKGROUND,
+    /**
+     * Tasks refreshing content that isn't currently visible, e.g. a worksheet in an unselected tab.
+     */
+    HIDDEN,
+    /**
+     * Tasks that only serve to improve future responsiveness, e.g. prefetching or warming up caches.
+     */
+    MAINTENANCE
+}
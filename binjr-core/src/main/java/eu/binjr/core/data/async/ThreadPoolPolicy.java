@@ -18,12 +18,17 @@ package eu.binjr.core.data.async;
 
 /**
  * Defines supported policies governing thread pools in {@link AsyncTaskManager}
+ * <p>
+ * The VIRTUAL policy runs each task on a new virtual thread, which suits tasks that spend most of their time
+ * blocked on I/O (e.g. fetching data from remote sources), since their number is not bounded by a pool size.
+ * </p>
  *
  * @author Frederic Thevenet
  */
 public enum ThreadPoolPolicy {
     FIXED,
     CACHED,
-    WORK_STEALING
+    WORK_STEALING,
+    VIRTUAL
 
 }
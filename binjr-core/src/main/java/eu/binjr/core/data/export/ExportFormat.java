@@ -0,0 +1,59 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.export;
+
+/**
+ * An enumeration of the file formats data can be exported to.
+ *
+ * @author Frederic Thevenet
+ */
+public enum ExportFormat {
+    TEXT("Text files", "txt"),
+    CSV("CSV files", "csv"),
+    NDJSON("Newline delimited JSON files", "ndjson");
+
+    private final String description;
+    private final String extension;
+
+    ExportFormat(String description, String extension) {
+        this.description = description;
+        this.extension = extension;
+    }
+
+    /**
+     * Returns a description of the format.
+     *
+     * @return a description of the format.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the file extension for the format.
+     *
+     * @return the file extension for the format.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    @Override
+    public String toString() {
+        return description + " (*." + extension + ")";
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.export;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Writes records to a file one at a time, in any of the supported {@link ExportFormat}.
+ * <p>
+ * Records are written as soon as they are submitted, so that the memory footprint of an export does not depend
+ * on its size.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public class ExportWriter implements Closeable {
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+    private final ExportFormat format;
+    private final String[] columns;
+    private final BufferedWriter writer;
+    private final CSVPrinter csvPrinter;
+
+    /**
+     * Initializes a new instance of the {@link ExportWriter} class.
+     *
+     * @param format  the format to write records in.
+     * @param target  the path of the file to write to.
+     * @param columns the names of the columns of each record.
+     * @throws IOException if an error occurs while opening the file.
+     */
+    public ExportWriter(ExportFormat format, Path target, String... columns) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8);
+        this.csvPrinter = format == ExportFormat.CSV ?
+                new CSVPrinter(writer, CSVFormat.Builder.create().setHeader(columns).get()) :
+                null;
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param values the values of the record, in the same order as the columns.
+     * @throws IOException if an error occurs while writing the record.
+     */
+    public void write(Object... values) throws IOException {
+        switch (format) {
+            case CSV -> csvPrinter.printRecord(values);
+            case NDJSON -> {
+                var json = new JsonObject();
+                for (int i = 0; i < columns.length && i < values.length; i++) {
+                    json.add(columns[i], toJson(values[i]));
+                }
+                writer.write(GSON.toJson(json));
+                writer.newLine();
+            }
+            case TEXT -> {
+                writer.write(Arrays.stream(values).map(String::valueOf).collect(Collectors.joining("\t")));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the JSON representation of a value, in which NaN and infinite numbers, which JSON has no literal for,
+     * are written as null.
+     */
+    private static JsonElement toJson(Object value) {
+        if ((value instanceof Double d && !Double.isFinite(d)) || (value instanceof Float f && !Float.isFinite(f))) {
+            return JsonNull.INSTANCE;
+        }
+        return GSON.toJsonTree(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (csvPrinter != null) {
+            csvPrinter.close(true);
+        } else {
+            writer.close();
+        }
+    }
+}
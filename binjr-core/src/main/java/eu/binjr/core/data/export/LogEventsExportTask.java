@@ -0,0 +1,107 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.export;
+
+import eu.binjr.common.logging.Logger;
+import eu.binjr.common.logging.Profiler;
+import eu.binjr.core.data.indexes.Indexes;
+import javafx.concurrent.Task;
+
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A cancellable {@link Task} that writes all the log events matching a query to a file, in index order.
+ *
+ * @author Frederic Thevenet
+ */
+public class LogEventsExportTask extends Task<Long> {
+    private static final Logger logger = Logger.create(LogEventsExportTask.class);
+    private static final int PROGRESS_UPDATE_INTERVAL = 1000;
+    private final Path target;
+    private final ExportFormat format;
+    private final long start;
+    private final long end;
+    private final Map<String, Collection<String>> facets;
+    private final String query;
+    private final ZoneId zoneId;
+
+    /**
+     * Initializes a new instance of the {@link LogEventsExportTask} class.
+     *
+     * @param target the path of the file to export events to.
+     * @param format the format of the exported file.
+     * @param start  the start of the time range, in ms since epoch.
+     * @param end    the end of the time range, in ms since epoch.
+     * @param facets the facets to drill down into.
+     * @param query  the filter query.
+     * @param zoneId the time zone for exported timestamps.
+     */
+    public LogEventsExportTask(Path target,
+                               ExportFormat format,
+                               long start,
+                               long end,
+                               Map<String, Collection<String>> facets,
+                               String query,
+                               ZoneId zoneId) {
+        this.target = target;
+        this.format = format;
+        this.start = start;
+        this.end = end;
+        this.facets = facets;
+        this.query = query;
+        this.zoneId = zoneId;
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        try (Profiler p = Profiler.start("Exporting log events to " + target, logger::perf)) {
+            var index = Indexes.LOG_FILES.get();
+            updateMessage("Counting matching events...");
+            long total = index.count(start, end, facets, query);
+            long[] nbWritten = new long[]{0};
+            try (var writer = format == ExportFormat.TEXT ?
+                    new ExportWriter(format, target, "text") :
+                    new ExportWriter(format, target, "timestamp", "severity", "path", "line", "text")) {
+                index.forEachHit(start, end, facets, query, zoneId, data -> {
+                    var hit = data.getYValue();
+                    var text = hit.getText().stripTrailing();
+                    if (format == ExportFormat.TEXT) {
+                        writer.write(text);
+                    } else {
+                        writer.write(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(data.getXValue()),
+                                hit.getSeverity().label(),
+                                hit.getPath().label(),
+                                hit.getLineNumber(),
+                                text);
+                    }
+                    if (++nbWritten[0] % PROGRESS_UPDATE_INTERVAL == 0) {
+                        updateProgress(nbWritten[0], total);
+                        updateMessage(String.format("Exported %d of %d events", nbWritten[0], total));
+                    }
+                }, this::isCancelled);
+            }
+            updateProgress(nbWritten[0], Math.max(total, nbWritten[0]));
+            updateMessage(String.format("%s %d events to %s", isCancelled() ? "Cancelled after exporting" : "Exported",
+                    nbWritten[0], target.getFileName()));
+            return nbWritten[0];
+        }
+    }
+}
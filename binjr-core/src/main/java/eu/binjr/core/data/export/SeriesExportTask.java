@@ -0,0 +1,103 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.export;
+
+import eu.binjr.common.logging.Logger;
+import eu.binjr.common.logging.Profiler;
+import eu.binjr.core.data.workspace.TimeSeriesInfo;
+import javafx.concurrent.Task;
+
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.groupingBy;
+
+/**
+ * A cancellable {@link Task} that writes all the samples of a set of series, as returned by their source, to a file.
+ * <p>
+ * All samples are exported, without any aggregation. They are written as soon as they are read from sources,
+ * which stream them whenever they can, so that exporting a large time range doesn't require holding all its samples
+ * in memory.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public class SeriesExportTask extends Task<Long> {
+    private static final Logger logger = Logger.create(SeriesExportTask.class);
+    private final Path target;
+    private final ExportFormat format;
+    private final List<TimeSeriesInfo<Double>> series;
+    private final ZonedDateTime start;
+    private final ZonedDateTime end;
+
+    /**
+     * Initializes a new instance of the {@link SeriesExportTask} class.
+     *
+     * @param target the path of the file to export samples to.
+     * @param format the format of the exported file.
+     * @param series the series to export.
+     * @param start  the start of the time range.
+     * @param end    the end of the time range.
+     */
+    public SeriesExportTask(Path target,
+                            ExportFormat format,
+                            List<TimeSeriesInfo<Double>> series,
+                            ZonedDateTime start,
+                            ZonedDateTime end) {
+        this.target = target;
+        this.format = format;
+        this.series = series;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        try (Profiler p = Profiler.start("Exporting series to " + target, logger::perf);
+             var writer = new ExportWriter(format, target, "timestamp", "series", "value")) {
+            long nbWritten = 0;
+            var byAdapterAndPath = series.stream()
+                    .filter(info -> !info.getBinding().getAdapter().isClosed())
+                    .collect(groupingBy(info -> info.getBinding().getAdapter(),
+                            groupingBy(info -> info.getBinding().getPath())));
+            long total = byAdapterAndPath.values().stream().mapToLong(Map::size).sum();
+            long done = 0;
+            for (var byAdapter : byAdapterAndPath.entrySet()) {
+                var adapter = byAdapter.getKey();
+                for (var byPath : byAdapter.getValue().entrySet()) {
+                    if (isCancelled()) {
+                        return nbWritten;
+                    }
+                    updateMessage("Exporting data from " + byPath.getKey());
+                    nbWritten += adapter.forEachSample(byPath.getKey(),
+                            start.toInstant(),
+                            end.toInstant(),
+                            byPath.getValue(),
+                            (info, timestamp, value) -> writer.write(
+                                    DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(timestamp), info.getDisplayName(), value),
+                            this::isCancelled);
+                    updateProgress(++done, total);
+                }
+            }
+            updateMessage(String.format("Exported %d samples to %s", nbWritten, target.getFileName()));
+            return nbWritten;
+        }
+    }
+}
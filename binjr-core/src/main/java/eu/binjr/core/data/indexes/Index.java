@@ -20,18 +20,28 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import eu.binjr.common.concurrent.ReadWriteLockHelper;
+import eu.binjr.common.function.CheckedConsumer;
 import eu.binjr.common.function.CheckedLambdas;
+import eu.binjr.common.function.CheckedRunnable;
 import eu.binjr.common.io.IOUtils;
 import eu.binjr.common.javafx.controls.TimeRange;
 import eu.binjr.common.logging.Logger;
 import eu.binjr.common.logging.Profiler;
+import eu.binjr.core.data.adapters.FetchResolution;
+import eu.binjr.core.data.adapters.FetchSink;
 import eu.binjr.core.data.adapters.ReloadStatus;
+import eu.binjr.core.data.adapters.SampleConsumer;
+import eu.binjr.core.data.async.AsyncTaskManager;
+import eu.binjr.core.data.async.CancellationToken;
 import eu.binjr.core.data.indexes.parser.*;
+import eu.binjr.core.data.memory.CacheMemoryConsumer;
+import eu.binjr.core.data.memory.MemoryBudget;
+import eu.binjr.core.data.memory.MemoryConsumer;
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import eu.binjr.core.data.timeseries.DoubleTimeSeriesProcessor;
 import eu.binjr.core.data.timeseries.FacetEntry;
+import eu.binjr.core.data.timeseries.M4Accumulator;
 import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
-import eu.binjr.core.data.timeseries.transform.LargestTriangleThreeBucketsTransform;
-import eu.binjr.core.data.timeseries.transform.SortTransform;
 import eu.binjr.core.data.workspace.TimeSeriesInfo;
 import eu.binjr.core.preferences.IndexingTokenizer;
 import eu.binjr.core.preferences.UserPreferences;
@@ -58,15 +68,24 @@ import org.apache.lucene.facet.taxonomy.TaxonomyReader;
 import org.apache.lucene.facet.taxonomy.TaxonomyWriter;
 import org.apache.lucene.facet.taxonomy.directory.DirectoryTaxonomyReader;
 import org.apache.lucene.facet.taxonomy.directory.DirectoryTaxonomyWriter;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.flexible.standard.StandardQueryParser;
 import org.apache.lucene.search.*;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -83,7 +102,10 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -98,6 +120,19 @@ public class Index implements Indexable {
     public static final float SEARCH_HIT_WEIGHT_FACTOR = 2.0f;
     private static final Logger logger = Logger.create(Index.class);
     private static final long PARK_TIME_NANO = 1_000_000L;
+    private static final FieldType CONTENT_FIELD_TYPE = new FieldType(TextField.TYPE_STORED);
+    // Facet results only hold a few counts, so they are accounted for at an assumed size per entry
+    private static final long FACET_RESULT_ENTRY_BYTES = 16 * 1024;
+    private static final double RESULT_CACHE_RELOAD_COST = 1.0;
+    // Releasing the indexing buffer only means writing pending documents out to the index sooner
+    private static final double INDEXING_BUFFER_RELOAD_COST = 0.5;
+
+    static {
+        // Store offsets in postings, so that query matches can be located within the content of search hits
+        CONTENT_FIELD_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        CONTENT_FIELD_TYPE.freeze();
+    }
+
     protected final UserPreferences prefs = UserPreferences.getInstance();
     protected final Directory indexDirectory;
     protected final Directory taxonomyDirectory;
@@ -114,12 +149,20 @@ public class Index implements Indexable {
     protected DirectoryReader indexReader;
     protected IndexSearcher searcher;
     protected TaxonomyReader taxonomyReader;
-
+    // The version of the index reader whose doc values were last warmed up, or -1 if none were
+    private final AtomicLong warmedUpReaderVersion = new AtomicLong(-1);
 
     private final Cache<String, SearchHitsProcessor> facetResultCache;
     private final Cache<String, SearchHitsProcessor> hitResultCache;
+    private final IndexStatistics statistics;
+    private final List<MemoryConsumer> memoryConsumers;
 
     public Index() throws IOException {
+        this("index");
+    }
+
+    public Index(String name) throws IOException {
+        this.statistics = new IndexStatistics(this, name);
         this.parsingThreadsNumber = prefs.parsingThreadNumber.get().intValue() < 1 ?
                 Math.max(1, Runtime.getRuntime().availableProcessors() - 1) :
                 Math.min(Runtime.getRuntime().availableProcessors(), prefs.parsingThreadNumber.get().intValue());
@@ -163,6 +206,15 @@ public class Index implements Indexable {
         IndexWriterConfig iwc = new IndexWriterConfig(new PerFieldAnalyzerWrapper(new StandardAnalyzer(),
                 Map.of(FIELD_CONTENT, getContentFieldAnalyzer())));
         iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        iwc.setMergeScheduler(new ConcurrentMergeScheduler() {
+            @Override
+            protected void doMerge(MergeSource mergeSource, MergePolicy.OneMerge merge) throws IOException {
+                statistics.mergeStarted();
+                try (Profiler ignored = Profiler.start(e -> statistics.mergeEnded(e.getNanos()))) {
+                    super.doMerge(mergeSource, merge);
+                }
+            }
+        });
         this.indexWriter = new IndexWriter(indexDirectory, iwc);
         this.taxonomyWriter = new DirectoryTaxonomyWriter(taxonomyDirectory);
         indexReader = DirectoryReader.open(indexWriter);
@@ -177,6 +229,12 @@ public class Index implements Indexable {
                 .collect(Collectors.joining("\n")));
         // initial commit
         commitIndexAndTaxonomy();
+        statistics.register();
+        this.memoryConsumers = List.of(
+                new CacheMemoryConsumer<>("Index [" + name + "] hit result cache", hitResultCache, 1, RESULT_CACHE_RELOAD_COST),
+                new CacheMemoryConsumer<>("Index [" + name + "] facet result cache", facetResultCache, FACET_RESULT_ENTRY_BYTES, RESULT_CACHE_RELOAD_COST),
+                new IndexingBufferMemoryConsumer("Index [" + name + "] indexing buffer"));
+        memoryConsumers.forEach(MemoryBudget.getInstance()::register);
     }
 
 
@@ -268,6 +326,60 @@ public class Index implements Indexable {
         }
     }
 
+    private Query parseUserQuery(String query) throws Exception {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        logger.trace(() -> "Query text=" + query);
+        Query userQuery;
+        if (prefs.indexingTokenizer.get() == IndexingTokenizer.NGRAMS) {
+            var builder = new BooleanQuery.Builder();
+            var parser = new StandardQueryParser(new Analyzer() {
+                @Override
+                protected TokenStreamComponents createComponents(String fieldName) {
+                    return new Analyzer.TokenStreamComponents(new CharTokenizer() {
+                        @Override
+                        protected boolean isTokenChar(int c) {
+                            return true;
+                        }
+                    });
+                }
+
+                @Override
+                protected TokenStream normalize(String fieldName, TokenStream in) {
+                    return new LowerCaseFilter(in);
+                }
+            });
+            rewriteQuery(parser.parse(query, FIELD_CONTENT), builder, BooleanClause.Occur.FILTER);
+            userQuery = builder.build();
+        } else {
+            var parser = new StandardQueryParser(getContentFieldAnalyzer());
+            userQuery = parser.parse(query, FIELD_CONTENT);
+        }
+        return userQuery;
+    }
+
+    private Query makeFilterQuery(Query rangeQuery, Query userQuery) {
+        if (userQuery == null) {
+            return rangeQuery;
+        }
+        return new BooleanQuery.Builder()
+                .add(rangeQuery, BooleanClause.Occur.FILTER)
+                .add(userQuery, BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    private DrillDownQuery makeDrillDownQuery(Query filterQuery, Map<String, Collection<String>> facets) {
+        var drillDownQuery = new DrillDownQuery(facetsConfig, new ConstantScoreQuery(filterQuery));
+        for (var facet : facets.entrySet()) {
+            for (var label : facet.getValue()) {
+                logger.debug(() -> "Add facet [" + facet.getKey() + "] = " + label);
+                drillDownQuery.add(facet.getKey(), label);
+            }
+        }
+        return drillDownQuery;
+    }
+
     public TimeSeriesProcessor<SearchHit> search(long start,
                                                  long end,
                                                  Map<String, Collection<String>> facets,
@@ -275,56 +387,27 @@ public class Index implements Indexable {
                                                  int page,
                                                  ZoneId zoneId,
                                                  boolean ignoreCache) throws Exception {
+        try (Profiler ignored = Profiler.start(e -> statistics.recordQuery(e.getNanos()))) {
+            return doSearch(start, end, facets, query, page, zoneId, ignoreCache);
+        }
+    }
+
+    private TimeSeriesProcessor<SearchHit> doSearch(long start,
+                                                    long end,
+                                                    Map<String, Collection<String>> facets,
+                                                    String query,
+                                                    int page,
+                                                    ZoneId zoneId,
+                                                    boolean ignoreCache) throws Exception {
         return getIndexMonitor().read().lock(() -> {
             Query rangeQuery = LongPoint.newRangeQuery(TIMESTAMP, start, end);
-            final Query filterQuery;
-            if (query != null && !query.isBlank()) {
-                logger.trace(() -> "Query text=" + query);
-                Query userQuery;
-                if (prefs.indexingTokenizer.get() == IndexingTokenizer.NGRAMS) {
-                    var builder = new BooleanQuery.Builder();
-                    var parser = new StandardQueryParser(new Analyzer() {
-                        @Override
-                        protected TokenStreamComponents createComponents(String fieldName) {
-                            return new Analyzer.TokenStreamComponents(new CharTokenizer() {
-                                @Override
-                                protected boolean isTokenChar(int c) {
-                                    return true;
-                                }
-                            });
-                        }
-
-                        @Override
-                        protected TokenStream normalize(String fieldName, TokenStream in) {
-                            return new LowerCaseFilter(in);
-                        }
-                    });
-                    rewriteQuery(parser.parse(query, FIELD_CONTENT), builder, BooleanClause.Occur.FILTER);
-                    userQuery = builder.build();
-                } else {
-                    var parser = new StandardQueryParser(getContentFieldAnalyzer());
-                    userQuery = parser.parse(query, FIELD_CONTENT);
-                }
-                filterQuery = new BooleanQuery.Builder()
-                        .add(rangeQuery, BooleanClause.Occur.FILTER)
-                        .add(userQuery, BooleanClause.Occur.FILTER)
-                        .build();
-            } else {
-                filterQuery = rangeQuery;
-            }
-
+            final Query highlightQuery = parseUserQuery(query);
+            final Query filterQuery = makeFilterQuery(rangeQuery, highlightQuery);
             var drill = new DrillSideways(searcher, facetsConfig, taxonomyReader);
-            var drillDownQuery = new DrillDownQuery(facetsConfig, new ConstantScoreQuery(filterQuery));
-            for (var facet : facets.entrySet()) {
-                for (var label : facet.getValue()) {
-                    logger.debug(() -> "Add facet [" + facet.getKey() + "] = " + label);
-                    drillDownQuery.add(facet.getKey(), label);
-                }
-            }
+            var drillDownQuery = makeDrillDownQuery(filterQuery, facets);
             var pageSize = prefs.hitsPerPage.get().intValue();
             var skip = page * pageSize;
-            var sort = new Sort(new SortedNumericSortField(TIMESTAMP, SortField.Type.LONG, false),
-                    new SortedNumericSortField(LINE_NUMBER, SortField.Type.LONG, false));
+            var sort = makeHitSort(false);
             var collectorManager = new TopFieldCollectorManager(sort, skip + pageSize, Integer.MAX_VALUE);
             logger.debug(() -> "Query: " + drillDownQuery.toString(FIELD_CONTENT));
             String facetCacheKey = drillDownQuery.toString(FIELD_CONTENT);
@@ -342,15 +425,24 @@ public class Index implements Indexable {
                     var severityFacet = makeFacetResult(SEVERITY, results.facets, facets);
                     var pathFacet = makeFacetResult(PATH, results.facets, facets);
                     var topDocs = TopDocs.merge(skip, pageSize, new TopDocs[]{results.collectorResult});
+                    var leaves = searcher.getIndexReader().leaves();
+                    var highlightWeight = highlightQuery == null ? null :
+                            searcher.createWeight(searcher.rewrite(highlightQuery), ScoreMode.COMPLETE_NO_SCORES, 1.0f);
                     for (var hit : topDocs.scoreDocs) {
                         var doc = searcher.storedFields().document(hit.doc, Set.of(TIMESTAMP, SEVERITY, PATH, FIELD_CONTENT));
                         var severity = severityFacet.get(doc.get(SEVERITY));
                         var path = pathFacet.get(doc.get(PATH));
+                        var timestamp = Long.parseLong(doc.get(TIMESTAMP));
+                        var lineNumber = hit instanceof FieldDoc fieldDoc ? (Long) fieldDoc.fields[1] : 0L;
                         samples.add(new XYChart.Data<>(
-                                ZonedDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(doc.get(TIMESTAMP))), zoneId),
+                                ZonedDateTime.ofInstant(Instant.ofEpochMilli(timestamp), zoneId),
                                 new SearchHit(doc.get(FIELD_CONTENT) + "\n",
                                         severity != null ? severity : new FacetEntry(SEVERITY, "Unknown", 0),
-                                        path != null ? path : new FacetEntry(PATH, "Unknown", 0))));
+                                        path != null ? path : new FacetEntry(PATH, "Unknown", 0),
+                                        timestamp,
+                                        lineNumber,
+                                        hit.doc,
+                                        findHighlights(highlightWeight, leaves, hit.doc))));
                     }
                     proc.addFacetResults(PATH,
                             pathFacet.values()
@@ -392,6 +484,336 @@ public class Index implements Indexable {
     }
 
 
+    /**
+     * Locates the first hit in the result set for the provided time range, facets and query whose text matches
+     * the specified find expression, and which sorts strictly after (or before, when searching backward) the
+     * provided anchor.
+     * <p>
+     * When the index uses n-grams and the find expression is not a regular expression, candidates are narrowed
+     * down by the index, so that locating a match does not depend on how far away from the anchor it is.
+     * Otherwise, the text of every hit beyond the anchor has to be checked, so the search gives up after checking
+     * the number of hits set by the {@code maxLocateScannedHits} preference.
+     * </p>
+     * <p>
+     * Hits are ordered as in {@link #search}; the anchor's doc id only serves to order hits that share the same
+     * timestamp, line number and path.
+     * </p>
+     *
+     * @param start           the start of the time range.
+     * @param end             the end of the time range.
+     * @param facets          the facets to drill down into.
+     * @param query           the filter query.
+     * @param findText        the text to find in hits.
+     * @param matchCase       true if the find expression is case sensitive.
+     * @param regEx           true if the find expression is a regular expression.
+     * @param anchor          the hit to search from.
+     * @param forward         true to search for the next match, false to search for the previous one.
+     * @return the outcome of the search.
+     * @throws Exception if an error occurs while searching the index.
+     */
+    public LocateResult locate(long start,
+                               long end,
+                               Map<String, Collection<String>> facets,
+                               String query,
+                               String findText,
+                               boolean matchCase,
+                               boolean regEx,
+                               SearchHit anchor,
+                               boolean forward) throws Exception {
+        var pattern = Pattern.compile(findText,
+                (regEx ? 0 : Pattern.LITERAL) | (matchCase ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+        try (Profiler ignored = Profiler.start(e -> statistics.recordQuery(e.getNanos()));
+             Profiler p = Profiler.start("Locate " + (forward ? "next" : "previous") + " match", logger::perf);
+             var pinned = pinSearcher()) {
+            var searcher = pinned.searcher();
+            Query rangeQuery = LongPoint.newRangeQuery(TIMESTAMP, start, end);
+            Query filterQuery = makeFilterQuery(rangeQuery, parseUserQuery(query));
+            var candidates = new BooleanQuery.Builder().add(filterQuery, BooleanClause.Occur.FILTER);
+            boolean narrowed = !regEx && prefs.indexingTokenizer.get() == IndexingTokenizer.NGRAMS;
+            if (narrowed) {
+                candidates.add(splitTermToNGrams(new Term(FIELD_CONTENT, findText.toLowerCase()), true), BooleanClause.Occur.FILTER);
+            }
+            var candidatesQuery = makeDrillDownQuery(candidates.build(), facets);
+            var sort = makeHitSort(!forward);
+            int pageSize = prefs.hitsPerPage.get().intValue();
+            long maxScanned = narrowed ? Long.MAX_VALUE : prefs.maxLocateScannedHits.get().longValue();
+            long nbScanned = 0;
+            FieldDoc after = new FieldDoc(anchor.getDocId(), Float.NaN, new Object[]{
+                    anchor.getTimestamp(), anchor.getLineNumber(), new BytesRef(anchor.getPath().label()), anchor.getDocId()});
+            while (true) {
+                var topDocs = searcher.searchAfter(after, candidatesQuery, pageSize, sort);
+                var storedFields = searcher.storedFields();
+                for (var hit : topDocs.scoreDocs) {
+                    if (nbScanned >= maxScanned) {
+                        return new LocateResult(null, nbScanned, true);
+                    }
+                    nbScanned++;
+                    after = (FieldDoc) hit;
+                    var content = storedFields.document(hit.doc, Set.of(FIELD_CONTENT)).get(FIELD_CONTENT);
+                    if (content != null && pattern.matcher(content).find()) {
+                        long rank = countPrecedingHits(searcher, filterQuery, facets, after);
+                        return new LocateResult(new SearchHitLocation((Long) after.fields[0],
+                                (Long) after.fields[1],
+                                rank,
+                                (int) (rank / pageSize),
+                                (int) (rank % pageSize)), nbScanned, false);
+                    }
+                }
+                if (topDocs.scoreDocs.length < pageSize) {
+                    return new LocateResult(null, nbScanned, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of hits in the result set which sort before the provided one, following {@link #makeHitSort}.
+     */
+    private long countPrecedingHits(IndexSearcher searcher,
+                                    Query filterQuery,
+                                    Map<String, Collection<String>> facets,
+                                    FieldDoc hit) throws IOException {
+        long timestamp = (Long) hit.fields[0];
+        long lineNumber = (Long) hit.fields[1];
+        var path = (BytesRef) hit.fields[2];
+        Query sameTimestamp = LongPoint.newExactQuery(TIMESTAMP, timestamp);
+        Query sameLine = SortedNumericDocValuesField.newSlowExactQuery(LINE_NUMBER, lineNumber);
+        var preceding = new BooleanQuery.Builder()
+                .add(LongPoint.newRangeQuery(TIMESTAMP, Long.MIN_VALUE, timestamp - 1), BooleanClause.Occur.SHOULD)
+                .add(new BooleanQuery.Builder()
+                        .add(sameTimestamp, BooleanClause.Occur.FILTER)
+                        .add(SortedNumericDocValuesField.newSlowRangeQuery(LINE_NUMBER, Long.MIN_VALUE, lineNumber - 1),
+                                BooleanClause.Occur.FILTER)
+                        .build(), BooleanClause.Occur.SHOULD)
+                .add(new BooleanQuery.Builder()
+                        .add(sameTimestamp, BooleanClause.Occur.FILTER)
+                        .add(sameLine, BooleanClause.Occur.FILTER)
+                        .add(SortedDocValuesField.newSlowRangeQuery(PATH, null, path, true, false), BooleanClause.Occur.FILTER)
+                        .build(), BooleanClause.Occur.SHOULD)
+                .build();
+        long rank = searcher.count(makeDrillDownQuery(new BooleanQuery.Builder()
+                .add(filterQuery, BooleanClause.Occur.FILTER)
+                .add(preceding, BooleanClause.Occur.FILTER)
+                .build(), facets));
+        // Hits that share the same timestamp, line number and path are ordered by doc id
+        var tiesQuery = makeDrillDownQuery(new BooleanQuery.Builder()
+                .add(filterQuery, BooleanClause.Occur.FILTER)
+                .add(sameTimestamp, BooleanClause.Occur.FILTER)
+                .add(sameLine, BooleanClause.Occur.FILTER)
+                .add(SortedDocValuesField.newSlowExactQuery(PATH, path), BooleanClause.Occur.FILTER)
+                .build(), facets);
+        int nbTies = searcher.count(tiesQuery);
+        if (nbTies > 1) {
+            for (var tie : searcher.search(tiesQuery, nbTies).scoreDocs) {
+                if (tie.doc < hit.doc) {
+                    rank++;
+                }
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the order in which search hits are presented: by timestamp, then line number, then path, then doc id,
+     * so that the position of every hit in the result set is unique.
+     */
+    private static Sort makeHitSort(boolean reverse) {
+        return new Sort(new SortedNumericSortField(TIMESTAMP, SortField.Type.LONG, reverse),
+                new SortedNumericSortField(LINE_NUMBER, SortField.Type.LONG, reverse),
+                new SortField(PATH, SortField.Type.STRING, reverse),
+                new SortField(null, SortField.Type.DOC, reverse));
+    }
+
+    /**
+     * Returns the number of hits in the result set for the provided time range, facets and query.
+     *
+     * @param start  the start of the time range.
+     * @param end    the end of the time range.
+     * @param facets the facets to drill down into.
+     * @param query  the filter query.
+     * @return the number of hits in the result set.
+     * @throws Exception if an error occurs while searching the index.
+     */
+    public long count(long start, long end, Map<String, Collection<String>> facets, String query) throws Exception {
+        return getIndexMonitor().read().lock(() -> (long) searcher.count(
+                makeDrillDownQuery(makeFilterQuery(LongPoint.newRangeQuery(TIMESTAMP, start, end), parseUserQuery(query)), facets)));
+    }
+
+    /**
+     * Walks through all hits in the result set for the provided time range, facets and query, in index order.
+     * <p>
+     * Hits are retrieved one page at a time from a view of the index that stays the same for the whole walk, so
+     * that walking through a large result set neither requires holding it all in memory nor blocks indexing for its
+     * whole duration, and that no hit is skipped or visited twice should the index be refreshed in the meantime.
+     * </p>
+     *
+     * @param start       the start of the time range.
+     * @param end         the end of the time range.
+     * @param facets      the facets to drill down into.
+     * @param query       the filter query.
+     * @param zoneId      the time zone of the hits' timestamps.
+     * @param consumer    the action to perform on each hit.
+     * @param isCancelled returns true if the iteration should stop before the next page.
+     * @return the number of hits visited.
+     * @throws Exception if an error occurs while searching the index or performing the action.
+     */
+    public long forEachHit(long start,
+                           long end,
+                           Map<String, Collection<String>> facets,
+                           String query,
+                           ZoneId zoneId,
+                           CheckedConsumer<XYChart.Data<ZonedDateTime, SearchHit>, ? extends Exception> consumer,
+                           BooleanSupplier isCancelled) throws Exception {
+        var drillDownQuery = makeDrillDownQuery(makeFilterQuery(LongPoint.newRangeQuery(TIMESTAMP, start, end), parseUserQuery(query)), facets);
+        var sort = makeHitSort(false);
+        int pageSize = prefs.numIdxMaxPageSize.get().intValue();
+        long nbHits = 0;
+        FieldDoc after = null;
+        try (var pinned = pinSearcher()) {
+            var searcher = pinned.searcher();
+            while (!isCancelled.getAsBoolean()) {
+                var topDocs = after == null ?
+                        searcher.search(drillDownQuery, pageSize, sort) :
+                        searcher.searchAfter(after, drillDownQuery, pageSize, sort);
+                var storedFields = searcher.storedFields();
+                for (var hit : topDocs.scoreDocs) {
+                    var fieldDoc = (FieldDoc) hit;
+                    var doc = storedFields.document(hit.doc, Set.of(TIMESTAMP, SEVERITY, PATH, FIELD_CONTENT));
+                    long timestamp = (Long) fieldDoc.fields[0];
+                    consumer.accept(new XYChart.Data<>(
+                            ZonedDateTime.ofInstant(Instant.ofEpochMilli(timestamp), zoneId),
+                            new SearchHit(Objects.requireNonNullElse(doc.get(FIELD_CONTENT), ""),
+                                    new FacetEntry(SEVERITY, Objects.requireNonNullElse(doc.get(SEVERITY), "Unknown"), 0),
+                                    new FacetEntry(PATH, Objects.requireNonNullElse(doc.get(PATH), "Unknown"), 0),
+                                    timestamp,
+                                    (Long) fieldDoc.fields[1],
+                                    hit.doc,
+                                    List.of())));
+                }
+                nbHits += topDocs.scoreDocs.length;
+                if (topDocs.scoreDocs.length < pageSize) {
+                    break;
+                }
+                after = (FieldDoc) topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+            }
+        }
+        return nbHits;
+    }
+
+    /**
+     * Walks through all the samples indexed for the provided series over the specified time range, in chronological
+     * order and without any aggregation.
+     * <p>
+     * Samples are retrieved one page of hits at a time from a view of the index that stays the same for the whole
+     * walk, so that the memory used does not depend on the number of samples within the time range.
+     * </p>
+     *
+     * @param start       the start of the time range, in epoch milliseconds.
+     * @param end         the end of the time range, in epoch milliseconds.
+     * @param series      the series to retrieve samples for.
+     * @param zoneId      the time zone of the samples.
+     * @param consumer    the action to perform on each sample.
+     * @param isCancelled returns true if the walk should stop before the next page.
+     * @return the number of samples visited.
+     * @throws Exception if an error occurs while searching the index or performing the action.
+     */
+    public long forEachSample(long start,
+                              long end,
+                              Collection<TimeSeriesInfo<Double>> series,
+                              ZoneId zoneId,
+                              SampleConsumer<Double> consumer,
+                              BooleanSupplier isCancelled) throws Exception {
+        var drillDownQuery = new DrillDownQuery(facetsConfig, LongPoint.newRangeQuery(TIMESTAMP, start, end));
+        series.stream()
+                .map(ts -> ts.getBinding().getPath())
+                .distinct()
+                .forEach(path -> drillDownQuery.add(PATH, path));
+        var sort = new Sort(new SortedNumericSortField(TIMESTAMP, SortField.Type.LONG, false),
+                new SortedNumericSortField(LINE_NUMBER, SortField.Type.LONG, false));
+        var fieldsToLoad = series.stream()
+                .map(k -> k.getBinding().getLabel())
+                .collect(Collectors.toSet());
+        fieldsToLoad.add(TIMESTAMP);
+        int pageSize = prefs.numIdxMaxPageSize.get().intValue();
+        long nbSamples = 0;
+        FieldDoc after = null;
+        try (var pinned = pinSearcher()) {
+            var searcher = pinned.searcher();
+            while (!isCancelled.getAsBoolean()) {
+                var topDocs = after == null ?
+                        searcher.search(drillDownQuery, pageSize, sort) :
+                        searcher.searchAfter(after, drillDownQuery, pageSize, sort);
+                var storedFields = searcher.storedFields();
+                for (var hit : topDocs.scoreDocs) {
+                    var doc = storedFields.document(hit.doc, fieldsToLoad);
+                    var timestamp = ZonedDateTime.ofInstant(
+                            Instant.ofEpochMilli(doc.getField(TIMESTAMP).numericValue().longValue()), zoneId);
+                    for (var info : series) {
+                        var field = doc.getField(info.getBinding().getLabel());
+                        if (field != null && field.numericValue() != null) {
+                            consumer.accept(info, timestamp, field.numericValue().doubleValue());
+                            nbSamples++;
+                        }
+                    }
+                }
+                if (topDocs.scoreDocs.length < pageSize) {
+                    break;
+                }
+                after = (FieldDoc) topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+            }
+        }
+        return nbSamples;
+    }
+
+    /**
+     * Acquires the searcher for the current state of the index, which remains usable until the returned instance
+     * is closed, even if the index is refreshed in the meantime.
+     */
+    private PinnedSearcher pinSearcher() {
+        return getIndexMonitor().read().lock(() -> {
+            indexReader.incRef();
+            return new PinnedSearcher(searcher, indexReader);
+        });
+    }
+
+    private record PinnedSearcher(IndexSearcher searcher, DirectoryReader reader) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            reader.decRef();
+        }
+    }
+
+    private List<SearchHit.Highlight> findHighlights(Weight weight, List<LeafReaderContext> leaves, int docId) throws IOException {
+        if (weight == null) {
+            return List.of();
+        }
+        var leaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
+        var matches = weight.matches(leaf, docId - leaf.docBase);
+        if (matches == null) {
+            return List.of();
+        }
+        var it = matches.getMatches(FIELD_CONTENT);
+        if (it == null) {
+            return List.of();
+        }
+        var highlights = new ArrayList<SearchHit.Highlight>();
+        while (it.next()) {
+            int matchStart = it.startOffset();
+            int matchEnd = it.endOffset();
+            if (matchStart < 0 || matchEnd <= matchStart) {
+                continue;
+            }
+            // Overlapping matches (e.g. from n-grams) are merged into a single highlight
+            if (!highlights.isEmpty() && matchStart <= highlights.getLast().end()) {
+                var last = highlights.removeLast();
+                highlights.add(new SearchHit.Highlight(last.start(), Math.max(last.end(), matchEnd)));
+            } else {
+                highlights.add(new SearchHit.Highlight(matchStart, matchEnd));
+            }
+        }
+        return highlights;
+    }
+
     private SearchHitsProcessor retrieveFacets(long start,
                                                long end,
                                                Map<String, Collection<String>> params,
@@ -468,6 +890,7 @@ public class Index implements Indexable {
                 final AtomicBoolean taskAborted = new AtomicBoolean(false);
                 final BlockingQueue<ParsedEvent> queue = new LinkedBlockingQueue<>(prefs.blockingQueueCapacity.get().intValue());
                 final List<Future<Integer>> results = new ArrayList<>();
+                statistics.queueOpened(queue);
 
                 for (int i = 0; i < parsingThreadsNumber; i++) {
                     results.add(parsingThreadPool.submit(() -> {
@@ -481,12 +904,14 @@ public class Index implements Indexable {
                                 // as is it likely that producer is done.
                                 LockSupport.parkNanos(PARK_TIME_NANO);
                             }
+                            long batchStart = System.nanoTime();
+                            long batchBytes = 0;
                             try {
                                 for (var logEvent : todo) {
                                     String pathFacetValue = computePathFacetValue.apply(path, logEvent);
                                     var doc = new Document();
                                     doc.add(new StringField(DOC_URI, pathFacetValue, Field.Store.NO));
-                                    doc.add(new TextField(FIELD_CONTENT, logEvent.getText(), Field.Store.YES));
+                                    doc.add(new Field(FIELD_CONTENT, logEvent.getText(), CONTENT_FIELD_TYPE));
                                     doc.add(new SortedNumericDocValuesField(LINE_NUMBER, logEvent.getSequence()));
                                     var millis = logEvent.getTimestamp().toInstant().toEpochMilli();
                                     doc.add(new LongPoint(TIMESTAMP, millis));
@@ -494,9 +919,14 @@ public class Index implements Indexable {
                                     doc.add(new StoredField(TIMESTAMP, millis));
                                     doc.add(new FacetField(PATH, pathFacetValue));
                                     doc.add(new StoredField(PATH, pathFacetValue));
+                                    doc.add(new SortedDocValuesField(PATH, new BytesRef(pathFacetValue)));
                                     indexWriter.addDocument(facetsConfig.build(taxonomyWriter, eventToDocumentMapper.apply(doc, logEvent)));
+                                    batchBytes += logEvent.getText().length();
                                     nbEventProcessed++;
                                 }
+                                if (drained > 0) {
+                                    statistics.recordIngested(drained, batchBytes, System.nanoTime() - batchStart);
+                                }
                             } catch (Throwable t) {
                                 // Signal that worker thread was aborted
                                 taskAborted.set(true);
@@ -533,6 +963,7 @@ public class Index implements Indexable {
                 } finally {
                     taskDone.set(true);
                     progress.unbind();
+                    statistics.queueClosed(queue);
                 }
                 for (Future<Integer> f : results) {
                     //signal exceptions that may have happened on thread pool
@@ -557,11 +988,17 @@ public class Index implements Indexable {
 
     public void commitIndexAndTaxonomy() throws IOException {
         indexLock.write().lock(() -> {
-            try (Profiler p = Profiler.start("Commit index", logger::perf)) {
+            try (Profiler p = Profiler.start("Commit index", e -> {
+                logger.perf(e);
+                statistics.recordCommit(e.getNanos());
+            })) {
                 taxonomyWriter.commit();
                 indexWriter.commit();
             }
-            try (Profiler p = Profiler.start("Refresh index reader and searcher", logger::perf)) {
+            try (Profiler p = Profiler.start("Refresh index reader and searcher", e -> {
+                logger.perf(e);
+                statistics.recordRefresh(e.getNanos());
+            })) {
                 var updatedReader = DirectoryReader.openIfChanged(indexReader);
                 if (updatedReader != null) {
                     this.indexReader.close();
@@ -585,6 +1022,76 @@ public class Index implements Indexable {
         return indexLock;
     }
 
+    /**
+     * Returns the live indexing and search metrics for this index.
+     *
+     * @return the live indexing and search metrics for this index.
+     */
+    public IndexStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Reads through the timestamp and line number doc values of every segment in the index, so that subsequent
+     * queries and sorts do not pay for cold reads.
+     * <p>
+     * Doc values are only read once for each version of the index reader: the method returns immediately if they
+     * were already warmed up, or are being warmed up, since the reader was last reopened.
+     * </p>
+     *
+     * @param beforeEachSegment an action invoked before each segment is visited, outside of the index lock,
+     *                          which can be used to throttle or interrupt the warm-up.
+     * @throws IOException          if an error occurs while reading the index.
+     * @throws InterruptedException if the warm-up is interrupted.
+     */
+    public void warmUpDocValues(CheckedRunnable<InterruptedException> beforeEachSegment) throws IOException, InterruptedException {
+        long version = indexLock.read().lock(() -> indexReader.getVersion());
+        long previous = warmedUpReaderVersion.getAndSet(version);
+        if (previous == version) {
+            logger.debug(() -> "Doc values already warmed up for index reader version " + version);
+            return;
+        }
+        boolean completed = false;
+        try (Profiler ignored = Profiler.start("Warm up doc values", logger::perf)) {
+            for (int i = 0; i < getSegmentCount(); i++) {
+                beforeEachSegment.run();
+                final int leafIndex = i;
+                indexLock.read().lock(() -> {
+                    var leaves = indexReader.leaves();
+                    if (leafIndex < leaves.size()) {
+                        var reader = leaves.get(leafIndex).reader();
+                        for (var field : List.of(TIMESTAMP, LINE_NUMBER)) {
+                            SortedNumericDocValues values = DocValues.getSortedNumeric(reader, field);
+                            while (values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+                                for (int j = 0; j < values.docValueCount(); j++) {
+                                    values.nextValue();
+                                }
+                            }
+                        }
+                    }
+                });
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                // Let the next call warm up the doc values the interrupted one did not get to
+                warmedUpReaderVersion.compareAndSet(version, previous);
+            }
+        }
+    }
+
+    int getSegmentCount() {
+        return indexLock.read().lock(() -> indexReader.leaves().size());
+    }
+
+    CacheStats getHitResultCacheStats() {
+        return hitResultCache.stats();
+    }
+
+    CacheStats getFacetResultCacheStats() {
+        return facetResultCache.stats();
+    }
+
     @Override
     public TimeRange getTimeRangeBoundaries(List<String> files, ZoneId zoneId) throws IOException {
         return indexLock.read().lock(() -> {
@@ -598,6 +1105,8 @@ public class Index implements Indexable {
 
     @Override
     public void close() throws IOException {
+        statistics.unregister();
+        memoryConsumers.forEach(MemoryBudget.getInstance()::unregister);
         hitResultCache.invalidateAll();
         facetResultCache.invalidateAll();
         IOUtils.close(taxonomyReader);
@@ -703,6 +1212,46 @@ public class Index implements Indexable {
                        Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> seriesToFill,
                        ZoneId zoneId,
                        boolean ignoreCache) throws Exception {
+        return search(start, end, seriesToFill, zoneId, ignoreCache, FetchResolution.FULL, FetchSink.none());
+    }
+
+    /**
+     * Fills the provided processors with the samples indexed for their series over the specified time range, while
+     * publishing the samples collected so far to the provided {@link FetchSink} as pages of hits are read.
+     * <p>
+     * Partial results are published from the sub-tasks pool of the {@link AsyncTaskManager}, so that the sink never
+     * runs while the index is locked; a publication is skipped if the previous one is still in progress.
+     * </p>
+     *
+     * @param start        the start of the time range, in epoch milliseconds.
+     * @param end          the end of the time range, in epoch milliseconds.
+     * @param seriesToFill the processors to fill, for each series.
+     * @param zoneId       the time zone of the samples.
+     * @param ignoreCache  true if cached results should be ignored.
+     * @param resolution   the level of detail at which the samples are going to be displayed; samples are only
+     *                     reduced if it isn't a full resolution.
+     * @param sink         the sink to publish partial results to.
+     * @return the number of hits collected.
+     * @throws Exception if an error occurs while searching the index.
+     */
+    public long search(long start,
+                       long end,
+                       Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> seriesToFill,
+                       ZoneId zoneId,
+                       boolean ignoreCache,
+                       FetchResolution resolution,
+                       FetchSink<Double> sink) throws Exception {
+        try (Profiler ignored = Profiler.start(e -> statistics.recordQuery(e.getNanos()))) {
+            return doSearch(start, end, seriesToFill, zoneId, resolution, sink);
+        }
+    }
+
+    private long doSearch(long start,
+                          long end,
+                          Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> seriesToFill,
+                          ZoneId zoneId,
+                          FetchResolution resolution,
+                          FetchSink<Double> sink) throws Exception {
         return getIndexMonitor().read().lock(() -> {
             Query rangeQuery = LongPoint.newRangeQuery(TIMESTAMP, start, end);
             var drill = new DrillSideways(searcher, facetsConfig, taxonomyReader);
@@ -714,13 +1263,45 @@ public class Index implements Indexable {
                     .forEach(path -> drillDownQuery.add(PATH, path));
             var sort = new Sort(new SortedNumericSortField(TIMESTAMP, SortField.Type.LONG, false),
                     new SortedNumericSortField(LINE_NUMBER, SortField.Type.LONG, false));
-            var reduceTransform = new LargestTriangleThreeBucketsTransform(userPref.downSamplingThreshold.get().intValue());
-            var sortTransform = new SortTransform<Double>();
+            // Unless the full resolution was requested, samples are reduced on the fly as hits are read, so that
+            // memory use is bounded regardless of how many documents match the query.
+            boolean reduce = !resolution.isFull();
+            boolean average = resolution.aggregation() == FetchResolution.Aggregation.AVERAGE;
+            int nbBuckets = reduce ? getReductionBuckets(resolution) : 1;
+            Supplier<Map<TimeSeriesInfo<Double>, M4Accumulator>> newAccumulators = () -> {
+                Map<TimeSeriesInfo<Double>, M4Accumulator> map = new HashMap<>();
+                for (var info : seriesToFill.keySet()) {
+                    map.put(info, new M4Accumulator(
+                            DoubleColumns.toEpochNanos(Instant.ofEpochMilli(start)),
+                            DoubleColumns.toEpochNanos(Instant.ofEpochMilli(end)),
+                            nbBuckets));
+                }
+                return map;
+            };
+            Supplier<Map<TimeSeriesInfo<Double>, DoubleColumns>> newColumns = () -> {
+                Map<TimeSeriesInfo<Double>, DoubleColumns> map = new HashMap<>();
+                for (var info : seriesToFill.keySet()) {
+                    map.put(info, new DoubleColumns(new long[0], new double[0], 0, zoneId));
+                }
+                return map;
+            };
+            var accumulators = newAccumulators.get();
+            var samples = newColumns.get();
+            var fieldsToLoad = seriesToFill.keySet()
+                    .stream()
+                    .map(k -> k.getBinding().getLabel())
+                    .collect(Collectors.toSet());
+            fieldsToLoad.add(TIMESTAMP);
             AtomicLong hitsCollected = new AtomicLong(0);
             int pageSize = prefs.numIdxMaxPageSize.get().intValue();
             FieldDoc lastHit = null;
+            var cancellation = CancellationToken.current();
+            long publishIntervalNanos = TimeUnit.MILLISECONDS.toNanos(userPref.progressiveRenderingIntervalMs.get().longValue());
+            long lastPublished = System.nanoTime();
+            CompletableFuture<?> publication = CompletableFuture.completedFuture(null);
             try (Profiler p = Profiler.start(() -> "Retrieved " + hitsCollected.get() + " samples for " + seriesToFill.size() + " series", logger::perf)) {
                 for (int pageNumber = 0; true; pageNumber++) {
+                    cancellation.throwIfCancelled();
                     var collectorManager = (lastHit == null) ?
                             new TopFieldCollectorManager(sort, pageSize, Integer.MAX_VALUE) :
                             new TopFieldCollectorManager(sort, pageSize, lastHit, Integer.MAX_VALUE);
@@ -729,63 +1310,108 @@ public class Index implements Indexable {
                     try (Profiler ignored = Profiler.start("Executing query for page " + pageNumber, logger::debug)) {
                         result = drill.search(drillDownQuery, collectorManager);
                     }
-                    var fieldsToLoad = seriesToFill.keySet()
-                            .stream()
-                            .map(k -> k.getBinding().getLabel())
-                            .collect(Collectors.toSet());
-                    fieldsToLoad.add(TIMESTAMP);
-                    Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> pageDataBuffer = new ConcurrentHashMap<>();
-                    // fill the buffer with data for the current page
-                    var nbHits = result.collectorResult.scoreDocs.length;
-                    var lastHitAcc = new FieldDoc[1];
-                    var timestampAcc = new ZonedDateTime[]{ZonedDateTime.of(-999999999, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault())};
-                    Stream<ScoreDoc> scoreDocStream = Arrays.stream(result.collectorResult.scoreDocs);
+                    var scoreDocs = result.collectorResult.scoreDocs;
+                    if (scoreDocs.length == 0) {
+                        break;
+                    }
+                    Stream<ScoreDoc> scoreDocStream = Arrays.stream(scoreDocs);
                     if (prefs.useParallelIndexFetch.get()) {
                         scoreDocStream = scoreDocStream.parallel();
                     }
-                    scoreDocStream.forEach(CheckedLambdas.wrap(scoreDoc -> {
-                        var doc = searcher.storedFields().document(scoreDoc.doc, fieldsToLoad);
-                        var timestamp = ZonedDateTime.ofInstant(Instant.ofEpochMilli(doc.getField(TIMESTAMP).numericValue().longValue()), zoneId);
-                        if (timestamp.isAfter(timestampAcc[0])) {
-                            lastHitAcc[0] = (FieldDoc) scoreDoc;
-                            timestampAcc[0] = timestamp;
-                        }
-                        seriesToFill.forEach((info, proc) -> {
-                            var field = doc.getField(info.getBinding().getLabel());
-                            if (field != null) {
-                                var value = field.numericValue();
-                                if (value != null) {
-                                    pageDataBuffer.computeIfAbsent(info, doubleTimeSeriesInfo -> new DoubleTimeSeriesProcessor(nbHits))
-                                            .addSample(timestamp, value.doubleValue());
-                                }
-                            }
-                        });
-                    }));
-                    lastHit = lastHitAcc[0];
-                    // Apply downsampling to buffered data and append reduced dataset to processor
-                    var entryStream = seriesToFill.entrySet().stream();
-                    if (prefs.useParallelIndexFetch.get()) {
-                        entryStream = entryStream.parallel();
+                    if (reduce) {
+                        // Each thread reduces the hits it reads into accumulators of its own, which are merged afterward
+                        mergeAccumulators(accumulators, scoreDocStream.collect(newAccumulators,
+                                CheckedLambdas.wrap((Map<TimeSeriesInfo<Double>, M4Accumulator> accs, ScoreDoc scoreDoc) ->
+                                        readSamples(scoreDoc, fieldsToLoad, accs, M4Accumulator::add)),
+                                Index::mergeAccumulators));
+                    } else {
+                        // Hits are collected in order, so samples of each page can be appended as they are
+                        appendColumns(samples, scoreDocStream.collect(newColumns,
+                                CheckedLambdas.wrap((Map<TimeSeriesInfo<Double>, DoubleColumns> cols, ScoreDoc scoreDoc) ->
+                                        readSamples(scoreDoc, fieldsToLoad, cols, DoubleColumns::add)),
+                                Index::appendColumns));
                     }
-                    entryStream.forEach(entry -> {
-                        var pageProc = pageDataBuffer.get(entry.getKey());
-                        if (pageProc != null) {
-                            var fullQueryProc = entry.getValue();
-                            pageProc.applyTransforms(sortTransform, reduceTransform);
-                            fullQueryProc.appendData(pageProc);
-                        }
-                    });
-                    hitsCollected.accumulateAndGet(result.collectorResult.scoreDocs.length, Long::sum);
+                    // Hits are sorted, so the next page starts after the last hit of this one
+                    lastHit = (FieldDoc) scoreDocs[scoreDocs.length - 1];
+                    hitsCollected.accumulateAndGet(scoreDocs.length, Long::sum);
                     // End the loop once all hits have been collected
                     if (hitsCollected.get() >= result.collectorResult.totalHits.value()) {
                         break;
                     }
+                    // Hand out what was reduced so far if the query takes long enough for it to be worth displaying
+                    if (userPref.progressiveRenderingEnabled.get() && publication.isDone() &&
+                            System.nanoTime() - lastPublished >= publishIntervalNanos) {
+                        Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> partial = new HashMap<>();
+                        seriesToFill.keySet().forEach(info -> partial.put(info, new DoubleTimeSeriesProcessor(
+                                reduce ? accumulators.get(info).toColumns(zoneId, average) : samples.get(info).copy())));
+                        var progress = Instant.ofEpochMilli((Long) lastHit.fields[0]);
+                        // The sink may take a while to process the partial result, so it must not hold up the index lock
+                        publication = AsyncTaskManager.getInstance().submitSubTask(() -> sink.publish(partial, progress))
+                                .exceptionally(t -> {
+                                    logger.warn("Failed to publish partial result: " + t.getMessage());
+                                    logger.debug(() -> "Stack trace", t);
+                                    return null;
+                                });
+                        lastPublished = System.nanoTime();
+                    }
                 }
             }
+            seriesToFill.forEach((info, proc) -> {
+                var acc = accumulators.get(info);
+                var collected = reduce ? acc.toColumns(zoneId, average) : samples.get(info);
+                proc.appendData(new DoubleTimeSeriesProcessor(collected));
+                if (reduce) {
+                    logger.debug(() -> info.getDisplayName() + ": reduced " + acc.getCount() + " samples to " + collected.size());
+                }
+            });
             return hitsCollected.get();
         });
     }
 
+    private static void mergeAccumulators(Map<TimeSeriesInfo<Double>, M4Accumulator> target,
+                                          Map<TimeSeriesInfo<Double>, M4Accumulator> source) {
+        target.forEach((info, acc) -> acc.merge(source.get(info)));
+    }
+
+    private static void appendColumns(Map<TimeSeriesInfo<Double>, DoubleColumns> target,
+                                      Map<TimeSeriesInfo<Double>, DoubleColumns> source) {
+        target.forEach((info, columns) -> columns.addAll(source.get(info)));
+    }
+
+    private <T> void readSamples(ScoreDoc scoreDoc,
+                                 Set<String> fieldsToLoad,
+                                 Map<TimeSeriesInfo<Double>, T> targets,
+                                 SampleTarget<T> add) throws IOException {
+        var doc = searcher.storedFields().document(scoreDoc.doc, fieldsToLoad);
+        var timestamp = DoubleColumns.toEpochNanos(Instant.ofEpochMilli(doc.getField(TIMESTAMP).numericValue().longValue()));
+        targets.forEach((info, target) -> {
+            var field = doc.getField(info.getBinding().getLabel());
+            if (field != null) {
+                var value = field.numericValue();
+                if (value != null) {
+                    add.add(target, timestamp, value.doubleValue());
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface SampleTarget<T> {
+        void add(T target, long epochNanos, double value);
+    }
+
+    /**
+     * Returns the number of buckets to reduce samples into: one per pixel column when the width of the plot area is
+     * known, since the first, last, smallest and largest samples of each column, or their average, are all it takes
+     * to render it.
+     */
+    private int getReductionBuckets(FetchResolution resolution) {
+        if (resolution.pixelWidth() > 0) {
+            return resolution.pixelWidth();
+        }
+        return Math.max(1, resolution.maxPoints() / 4);
+    }
+
     private ZonedDateTime getTimeRangeBoundary(boolean getMax, List<String> files, ZoneId zoneId) throws IOException {
         return indexLock.read().lock(() -> {
             var drill = new DrillSideways(searcher, facetsConfig, taxonomyReader);
@@ -814,4 +1440,42 @@ public class Index implements Indexable {
     public Map<String, ReloadStatus> getIndexedFiles() {
         return indexedFiles;
     }
+
+    /**
+     * Accounts for the documents buffered in memory by the index writer, which are flushed to the index directory
+     * when memory must be released.
+     */
+    private class IndexingBufferMemoryConsumer implements MemoryConsumer {
+        private final String name;
+
+        private IndexingBufferMemoryConsumer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getUsedBytes() {
+            return indexWriter.isOpen() ? indexWriter.ramBytesUsed() : 0L;
+        }
+
+        @Override
+        public double getReloadCost() {
+            return INDEXING_BUFFER_RELOAD_COST;
+        }
+
+        @Override
+        public long release(long bytes) {
+            long used = getUsedBytes();
+            try {
+                indexWriter.flush();
+            } catch (IOException | AlreadyClosedException e) {
+                logger.debug(() -> "Failed to flush indexing buffer for " + name + ": " + e.getMessage(), e);
+            }
+            return Math.max(0L, used - getUsedBytes());
+        }
+    }
 }
@@ -0,0 +1,376 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.indexes;
+
+import eu.binjr.common.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects live indexing and search metrics for an {@link Index} instance and exposes them
+ * as an MXBean on the platform MBean server.
+ *
+ * @author Frederic Thevenet
+ */
+public class IndexStatistics implements IndexStatisticsMXBean {
+    private static final Logger logger = Logger.create(IndexStatistics.class);
+    private static final double NANOS_PER_MS = 1_000_000.0;
+    private final Index index;
+    private final String indexName;
+    private final RateMeter ingestedEventsRate = new RateMeter();
+    private final RateMeter ingestedBytesRate = new RateMeter();
+    private final RateMeter workersBusyNanosRate = new RateMeter();
+    private final LongAdder ingestedEvents = new LongAdder();
+    private final LongAdder ingestedBytes = new LongAdder();
+    private final Set<Collection<?>> activeQueues = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger runningMerges = new AtomicInteger(0);
+    private final LatencyMeter merges = new LatencyMeter();
+    private final LatencyMeter commits = new LatencyMeter();
+    private final LatencyMeter refreshes = new LatencyMeter();
+    private final LatencyMeter queries = new LatencyMeter();
+    private ObjectName objectName;
+
+    IndexStatistics(Index index, String indexName) {
+        this.index = index;
+        this.indexName = indexName;
+    }
+
+    /**
+     * Registers this instance with the platform MBean server.
+     */
+    void register() {
+        try {
+            var name = new ObjectName("eu.binjr:type=Index,name=" + ObjectName.quote(indexName));
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                logger.debug(() -> "Replacing MBean already registered as " + name);
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            this.objectName = name;
+        } catch (JMException e) {
+            logger.warn("Failed to register index statistics MBean for " + indexName + ": " + e.getMessage());
+            logger.debug(() -> "Stack trace", e);
+        }
+    }
+
+    /**
+     * Removes this instance from the platform MBean server.
+     */
+    void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                logger.debug(() -> "Failed to unregister index statistics MBean " + objectName, e);
+            } finally {
+                objectName = null;
+            }
+        }
+    }
+
+    void recordIngested(long nbEvents, long nbBytes, long busyNanos) {
+        ingestedEvents.add(nbEvents);
+        ingestedBytes.add(nbBytes);
+        ingestedEventsRate.record(nbEvents);
+        ingestedBytesRate.record(nbBytes);
+        workersBusyNanosRate.record(busyNanos);
+    }
+
+    void queueOpened(Collection<?> queue) {
+        activeQueues.add(queue);
+    }
+
+    void queueClosed(Collection<?> queue) {
+        activeQueues.remove(queue);
+    }
+
+    void mergeStarted() {
+        runningMerges.incrementAndGet();
+    }
+
+    void mergeEnded(long nanos) {
+        runningMerges.decrementAndGet();
+        merges.record(nanos);
+    }
+
+    void recordCommit(long nanos) {
+        commits.record(nanos);
+    }
+
+    void recordRefresh(long nanos) {
+        refreshes.record(nanos);
+    }
+
+    void recordQuery(long nanos) {
+        queries.record(nanos);
+    }
+
+    @Override
+    public String getIndexName() {
+        return indexName;
+    }
+
+    @Override
+    public long getIngestedEvents() {
+        return ingestedEvents.sum();
+    }
+
+    @Override
+    public long getIngestedBytes() {
+        return ingestedBytes.sum();
+    }
+
+    @Override
+    public double getIngestedEventsPerSecond() {
+        return ingestedEventsRate.getRatePerSecond();
+    }
+
+    @Override
+    public double getIngestedBytesPerSecond() {
+        return ingestedBytesRate.getRatePerSecond();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return activeQueues.stream().mapToInt(Collection::size).sum();
+    }
+
+    @Override
+    public int getWorkerCount() {
+        return index.parsingThreadsNumber;
+    }
+
+    @Override
+    public double getWorkerUtilization() {
+        return Math.min(1.0, workersBusyNanosRate.getRatePerSecond() / 1_000_000_000.0 / Math.max(1, getWorkerCount()));
+    }
+
+    @Override
+    public int getSegmentCount() {
+        return index.getSegmentCount();
+    }
+
+    @Override
+    public int getRunningMerges() {
+        return runningMerges.get();
+    }
+
+    @Override
+    public long getCompletedMerges() {
+        return merges.getCount();
+    }
+
+    @Override
+    public double getMeanMergeTimeMs() {
+        return merges.getMeanMs();
+    }
+
+    @Override
+    public long getCommitCount() {
+        return commits.getCount();
+    }
+
+    @Override
+    public double getLastCommitLatencyMs() {
+        return commits.getLastMs();
+    }
+
+    @Override
+    public double getMeanCommitLatencyMs() {
+        return commits.getMeanMs();
+    }
+
+    @Override
+    public double getLastRefreshLatencyMs() {
+        return refreshes.getLastMs();
+    }
+
+    @Override
+    public double getMeanRefreshLatencyMs() {
+        return refreshes.getMeanMs();
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queries.getCount();
+    }
+
+    @Override
+    public double getLastQueryLatencyMs() {
+        return queries.getLastMs();
+    }
+
+    @Override
+    public double getMeanQueryLatencyMs() {
+        return queries.getMeanMs();
+    }
+
+    @Override
+    public double getMaxQueryLatencyMs() {
+        return queries.getMaxMs();
+    }
+
+    @Override
+    public double getHitResultCacheHitRate() {
+        return index.getHitResultCacheStats().hitRate();
+    }
+
+    @Override
+    public double getHitResultCacheMissRate() {
+        return index.getHitResultCacheStats().missRate();
+    }
+
+    @Override
+    public long getHitResultCacheEvictionCount() {
+        return index.getHitResultCacheStats().evictionCount();
+    }
+
+    @Override
+    public double getFacetResultCacheHitRate() {
+        return index.getFacetResultCacheStats().hitRate();
+    }
+
+    @Override
+    public double getFacetResultCacheMissRate() {
+        return index.getFacetResultCacheStats().missRate();
+    }
+
+    @Override
+    public long getFacetResultCacheEvictionCount() {
+        return index.getFacetResultCacheStats().evictionCount();
+    }
+
+    @Override
+    public void reset() {
+        ingestedEvents.reset();
+        ingestedBytes.reset();
+        merges.reset();
+        commits.reset();
+        refreshes.reset();
+        queries.reset();
+    }
+
+    /**
+     * Returns a human-readable summary of all metrics, suitable for output to the debug console.
+     *
+     * @return a human-readable summary of all metrics.
+     */
+    public String dump() {
+        return String.format("Index [%s]%n" +
+                        "  Ingestion: events=%d (%.1f/s) bytes=%d (%.1f/s) queueDepth=%d workers=%d utilization=%.1f%%%n" +
+                        "  Segments: count=%d runningMerges=%d completedMerges=%d meanMergeTime=%.2fms%n" +
+                        "  Commits: count=%d last=%.2fms mean=%.2fms - Refreshes: last=%.2fms mean=%.2fms%n" +
+                        "  Queries: count=%d last=%.2fms mean=%.2fms max=%.2fms%n" +
+                        "  %s%n" +
+                        "  %s",
+                indexName,
+                getIngestedEvents(), getIngestedEventsPerSecond(),
+                getIngestedBytes(), getIngestedBytesPerSecond(),
+                getQueueDepth(), getWorkerCount(), getWorkerUtilization() * 100,
+                getSegmentCount(), getRunningMerges(), getCompletedMerges(), getMeanMergeTimeMs(),
+                getCommitCount(), getLastCommitLatencyMs(), getMeanCommitLatencyMs(),
+                getLastRefreshLatencyMs(), getMeanRefreshLatencyMs(),
+                getQueryCount(), getLastQueryLatencyMs(), getMeanQueryLatencyMs(), getMaxQueryLatencyMs(),
+                Index.printCacheStats("Hit result cache", index.getHitResultCacheStats()),
+                Index.printCacheStats("Facet result cache", index.getFacetResultCacheStats()));
+    }
+
+    /**
+     * Accumulates count, last, max and total durations of a recurring operation.
+     */
+    private static class LatencyMeter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong lastNanos = new AtomicLong(0);
+        private final AtomicLong maxNanos = new AtomicLong(0);
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            lastNanos.set(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private long getCount() {
+            return count.sum();
+        }
+
+        private double getLastMs() {
+            return lastNanos.get() / NANOS_PER_MS;
+        }
+
+        private double getMaxMs() {
+            return maxNanos.get() / NANOS_PER_MS;
+        }
+
+        private double getMeanMs() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : (totalNanos.sum() / (double) n) / NANOS_PER_MS;
+        }
+
+        private void reset() {
+            count.reset();
+            totalNanos.reset();
+            lastNanos.set(0);
+            maxNanos.set(0);
+        }
+    }
+
+    /**
+     * Measures the rate of a quantity over a sliding window of one-second buckets.
+     * <p>The bucket for the current second is excluded from the computation, since it is still being filled.</p>
+     */
+    private static class RateMeter {
+        private static final int WINDOW_SECONDS = 10;
+        private final long[] amounts = new long[WINDOW_SECONDS];
+        private final long[] seconds = new long[WINDOW_SECONDS];
+
+        private synchronized void record(long amount) {
+            long now = currentSecond();
+            int i = (int) Math.floorMod(now, WINDOW_SECONDS);
+            if (seconds[i] != now) {
+                seconds[i] = now;
+                amounts[i] = 0;
+            }
+            amounts[i] += amount;
+        }
+
+        private synchronized double getRatePerSecond() {
+            long now = currentSecond();
+            long sum = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (seconds[i] != now && now - seconds[i] < WINDOW_SECONDS) {
+                    sum += amounts[i];
+                }
+            }
+            return sum / (double) (WINDOW_SECONDS - 1);
+        }
+
+        private static long currentSecond() {
+            return Math.floorDiv(System.nanoTime(), 1_000_000_000L);
+        }
+    }
+}
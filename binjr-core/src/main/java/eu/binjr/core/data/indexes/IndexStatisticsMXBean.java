@@ -0,0 +1,219 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.indexes;
+
+/**
+ * Defines the management interface exposing live indexing and search metrics for an {@link Index} instance.
+ *
+ * @author Frederic Thevenet
+ */
+public interface IndexStatisticsMXBean {
+
+    /**
+     * Returns the name of the monitored index.
+     *
+     * @return the name of the monitored index.
+     */
+    String getIndexName();
+
+    /**
+     * Returns the total number of events added to the index.
+     *
+     * @return the total number of events added to the index.
+     */
+    long getIngestedEvents();
+
+    /**
+     * Returns the total number of bytes of event text added to the index.
+     *
+     * @return the total number of bytes of event text added to the index.
+     */
+    long getIngestedBytes();
+
+    /**
+     * Returns the number of events added to the index per second, averaged over the last few seconds.
+     *
+     * @return the number of events added to the index per second.
+     */
+    double getIngestedEventsPerSecond();
+
+    /**
+     * Returns the number of bytes added to the index per second, averaged over the last few seconds.
+     *
+     * @return the number of bytes added to the index per second.
+     */
+    double getIngestedBytesPerSecond();
+
+    /**
+     * Returns the number of parsed events waiting to be picked up by an indexing worker.
+     *
+     * @return the number of parsed events waiting to be picked up by an indexing worker.
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the number of indexing workers.
+     *
+     * @return the number of indexing workers.
+     */
+    int getWorkerCount();
+
+    /**
+     * Returns the fraction of time (between 0 and 1) indexing workers spent adding documents over the last few seconds.
+     *
+     * @return the fraction of time indexing workers spent adding documents.
+     */
+    double getWorkerUtilization();
+
+    /**
+     * Returns the number of segments visible to the current index reader.
+     *
+     * @return the number of segments visible to the current index reader.
+     */
+    int getSegmentCount();
+
+    /**
+     * Returns the number of segment merges currently running.
+     *
+     * @return the number of segment merges currently running.
+     */
+    int getRunningMerges();
+
+    /**
+     * Returns the number of segment merges completed.
+     *
+     * @return the number of segment merges completed.
+     */
+    long getCompletedMerges();
+
+    /**
+     * Returns the mean duration of segment merges, in ms.
+     *
+     * @return the mean duration of segment merges, in ms.
+     */
+    double getMeanMergeTimeMs();
+
+    /**
+     * Returns the number of commits applied to the index.
+     *
+     * @return the number of commits applied to the index.
+     */
+    long getCommitCount();
+
+    /**
+     * Returns the duration of the last commit, in ms.
+     *
+     * @return the duration of the last commit, in ms.
+     */
+    double getLastCommitLatencyMs();
+
+    /**
+     * Returns the mean duration of commits, in ms.
+     *
+     * @return the mean duration of commits, in ms.
+     */
+    double getMeanCommitLatencyMs();
+
+    /**
+     * Returns the duration of the last refresh of the index reader, in ms.
+     *
+     * @return the duration of the last refresh of the index reader, in ms.
+     */
+    double getLastRefreshLatencyMs();
+
+    /**
+     * Returns the mean duration of index reader refreshes, in ms.
+     *
+     * @return the mean duration of index reader refreshes, in ms.
+     */
+    double getMeanRefreshLatencyMs();
+
+    /**
+     * Returns the number of queries executed against the index.
+     *
+     * @return the number of queries executed against the index.
+     */
+    long getQueryCount();
+
+    /**
+     * Returns the duration of the last query, in ms.
+     *
+     * @return the duration of the last query, in ms.
+     */
+    double getLastQueryLatencyMs();
+
+    /**
+     * Returns the mean duration of queries, in ms.
+     *
+     * @return the mean duration of queries, in ms.
+     */
+    double getMeanQueryLatencyMs();
+
+    /**
+     * Returns the longest duration of a query, in ms.
+     *
+     * @return the longest duration of a query, in ms.
+     */
+    double getMaxQueryLatencyMs();
+
+    /**
+     * Returns the hit ratio of the search hits result cache.
+     *
+     * @return the hit ratio of the search hits result cache.
+     */
+    double getHitResultCacheHitRate();
+
+    /**
+     * Returns the miss ratio of the search hits result cache.
+     *
+     * @return the miss ratio of the search hits result cache.
+     */
+    double getHitResultCacheMissRate();
+
+    /**
+     * Returns the number of entries evicted from the search hits result cache.
+     *
+     * @return the number of entries evicted from the search hits result cache.
+     */
+    long getHitResultCacheEvictionCount();
+
+    /**
+     * Returns the hit ratio of the facets result cache.
+     *
+     * @return the hit ratio of the facets result cache.
+     */
+    double getFacetResultCacheHitRate();
+
+    /**
+     * Returns the miss ratio of the facets result cache.
+     *
+     * @return the miss ratio of the facets result cache.
+     */
+    double getFacetResultCacheMissRate();
+
+    /**
+     * Returns the number of entries evicted from the facets result cache.
+     *
+     * @return the number of entries evicted from the facets result cache.
+     */
+    long getFacetResultCacheEvictionCount();
+
+    /**
+     * Resets all cumulative counters and latency measurements.
+     */
+    void reset();
+}
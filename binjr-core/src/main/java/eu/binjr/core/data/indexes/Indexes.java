@@ -17,11 +17,13 @@
 package eu.binjr.core.data.indexes;
 
 import eu.binjr.common.concurrent.CloseableResourceManager;
+import eu.binjr.common.function.CheckedFunction;
 import eu.binjr.common.function.CheckedLambdas;
 import eu.binjr.common.function.CheckedSupplier;
 
 
 import java.io.IOException;
+import java.util.Optional;
 
 public enum Indexes {
     LOG_FILES("log_file_index", Index::new),
@@ -29,16 +31,17 @@ public enum Indexes {
 
     private final CloseableResourceManager<Index> indexManager;
     private final String key;
-    private final CheckedSupplier<Index, IOException> factory;
+    private final CheckedFunction<String, Index, IOException> factory;
 
-    Indexes(String key, CheckedSupplier<Index, IOException> factory) {
+    Indexes(String key, CheckedFunction<String, Index, IOException> factory) {
         this.indexManager = new CloseableResourceManager<>();
         this.key = key;
         this.factory = factory;
     }
 
     public Index acquire() throws IOException {
-        return indexManager.acquire(key, CheckedLambdas.wrap(factory));
+        CheckedSupplier<Index, IOException> supplier = () -> factory.apply(key);
+        return indexManager.acquire(key, CheckedLambdas.wrap(supplier));
     }
 
     public int release() throws Exception {
@@ -49,4 +52,8 @@ public enum Indexes {
         return indexManager.get(key).orElseThrow();
     }
 
+    public Optional<Index> getIfPresent() {
+        return indexManager.get(key);
+    }
+
 }
@@ -0,0 +1,28 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.indexes;
+
+/**
+ * The outcome of locating a search hit whose text matches a find expression.
+ *
+ * @param location     the location of the match in the paged result set, or null if none was found.
+ * @param nbScanned    the number of hits whose text was checked against the find expression.
+ * @param limitReached true if the search gave up after checking the maximum number of hits allowed.
+ * @author Frederic Thevenet
+ */
+public record LocateResult(SearchHitLocation location, long nbScanned, boolean limitReached) {
+}
@@ -18,7 +18,29 @@ package eu.binjr.core.data.indexes;
 
 import eu.binjr.core.data.timeseries.FacetEntry;
 
-public record SearchHit(String getText, FacetEntry getSeverity, FacetEntry getPath) {
+import java.util.List;
+
+public record SearchHit(String getText,
+                        FacetEntry getSeverity,
+                        FacetEntry getPath,
+                        long getTimestamp,
+                        long getLineNumber,
+                        int getDocId,
+                        List<Highlight> getHighlights) {
+
+    public SearchHit(String getText, FacetEntry getSeverity, FacetEntry getPath) {
+        this(getText, getSeverity, getPath, 0L, 0L, -1, List.of());
+    }
+
+    /**
+     * The location of a match for the query that produced a {@link SearchHit} in its text.
+     *
+     * @param start the offset of the first character of the match.
+     * @param end   the offset after the last character of the match.
+     */
+    public record Highlight(int start, int end) {
+    }
+
     @Override
     public String toString() {
         return getText;
@@ -0,0 +1,30 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.indexes;
+
+/**
+ * The position of a search hit within a paged result set.
+ *
+ * @param timestamp  the timestamp of the hit.
+ * @param lineNumber the line number of the hit.
+ * @param rank       the rank of the hit in the result set.
+ * @param page       the page the hit is on.
+ * @param offset     the position of the hit within its page.
+ * @author Frederic Thevenet
+ */
+public record SearchHitLocation(long timestamp, long lineNumber, long rank, int page, int offset) {
+}
@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.memory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import java.util.Optional;
+
+/**
+ * A {@link MemoryConsumer} backed by a bounded {@link Cache}, which releases memory by evicting its least
+ * likely to be reused entries first.
+ *
+ * @param <K> the type of the keys in the cache.
+ * @param <V> the type of the values in the cache.
+ * @author Frederic Thevenet
+ */
+public class CacheMemoryConsumer<K, V> implements MemoryConsumer {
+    private static final int EVICTION_BATCH_SIZE = 64;
+    private final String name;
+    private final Cache<K, V> cache;
+    private final long bytesPerWeightUnit;
+    private final double reloadCost;
+
+    /**
+     * Initializes a new instance of the {@link CacheMemoryConsumer} class.
+     *
+     * @param name               a human-readable name for the cache.
+     * @param cache              the cache to account for.
+     * @param bytesPerWeightUnit the number of bytes a unit of weight stands for, if the cache is bounded by weight,
+     *                           or the estimated size of an entry, in bytes, otherwise.
+     * @param reloadCost         the relative cost of rebuilding a byte of the cache's entries once evicted.
+     */
+    public CacheMemoryConsumer(String name, Cache<K, V> cache, long bytesPerWeightUnit, double reloadCost) {
+        this.name = name;
+        this.cache = cache;
+        this.bytesPerWeightUnit = Math.max(1L, bytesPerWeightUnit);
+        this.reloadCost = reloadCost;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getUsedBytes() {
+        long weight = getEviction()
+                .filter(Policy.Eviction::isWeighted)
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElseGet(cache::estimatedSize);
+        return weight * bytesPerWeightUnit;
+    }
+
+    @Override
+    public double getReloadCost() {
+        return reloadCost;
+    }
+
+    @Override
+    public long release(long bytes) {
+        var eviction = getEviction();
+        long released = 0;
+        while (released < bytes) {
+            var coldest = eviction.map(e -> e.coldest(EVICTION_BATCH_SIZE).keySet())
+                    .orElseGet(cache.asMap()::keySet);
+            if (coldest.isEmpty()) {
+                break;
+            }
+            for (var key : coldest) {
+                long weight = eviction.filter(Policy.Eviction::isWeighted)
+                        .map(e -> e.weightOf(key).orElse(0))
+                        .orElse(1);
+                cache.invalidate(key);
+                released += weight * bytesPerWeightUnit;
+                if (released >= bytes) {
+                    break;
+                }
+            }
+        }
+        return released;
+    }
+
+    private Optional<Policy.Eviction<K, V>> getEviction() {
+        return cache.policy().eviction();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.memory;
+
+import eu.binjr.common.logging.Logger;
+import eu.binjr.core.preferences.UserPreferences;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the combined memory used by caches, indexes and series data within a share of the maximum heap size.
+ * <p>
+ * Components holding on to significant amounts of memory register as {@link MemoryConsumer}s. Their usage is
+ * periodically summed up and, should it exceed the budget set in {@link UserPreferences}, consumers are trimmed
+ * until usage falls back below it, starting with the ones using the most memory relative to the cost of
+ * rebuilding what they hold.
+ * </p>
+ * <p>
+ * Consumers are only weakly referenced, so that they need not outlive the component they belong to. The state of
+ * the budget is exposed as an MXBean on the platform MBean server.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public final class MemoryBudget implements MemoryBudgetMXBean {
+    private static final Logger logger = Logger.create(MemoryBudget.class);
+    private static final double BYTES_PER_MIB = 1024.0 * 1024.0;
+    // Usage is brought down a little below the budget, so that trimming does not have to run again right away
+    private static final double LOW_WATERMARK = 0.9;
+    private final UserPreferences userPref = UserPreferences.getInstance();
+    private final Set<MemoryConsumer> consumers = Collections.newSetFromMap(new WeakHashMap<>());
+    private final LongAdder enforcementCount = new LongAdder();
+    private final LongAdder releasedBytes = new LongAdder();
+
+    private MemoryBudget() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setName("memory-budget");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100L, userPref.memoryBudgetCheckIntervalMs.get().longValue());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                if (userPref.memoryBudgetEnabled.get()) {
+                    enforce();
+                }
+            } catch (Throwable t) {
+                logger.error("Error enforcing memory budget: " + t.getMessage());
+                logger.debug(() -> "Stack trace", t);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("eu.binjr:type=MemoryBudget"));
+        } catch (JMException e) {
+            logger.warn("Failed to register memory budget MBean: " + e.getMessage());
+            logger.debug(() -> "Stack trace", e);
+        }
+    }
+
+    /**
+     * Returns the singleton instance for {@link MemoryBudget}
+     *
+     * @return the singleton instance for {@link MemoryBudget}
+     */
+    public static MemoryBudget getInstance() {
+        return MemoryBudgetHolder.instance;
+    }
+
+    /**
+     * Adds a consumer to the ones accounted for by the budget.
+     *
+     * @param consumer the consumer to add.
+     */
+    public void register(MemoryConsumer consumer) {
+        synchronized (consumers) {
+            consumers.add(consumer);
+        }
+    }
+
+    /**
+     * Removes a consumer from the ones accounted for by the budget.
+     *
+     * @param consumer the consumer to remove.
+     */
+    public void unregister(MemoryConsumer consumer) {
+        synchronized (consumers) {
+            consumers.remove(consumer);
+        }
+    }
+
+    @Override
+    public long getBudgetBytes() {
+        return Math.round(Runtime.getRuntime().maxMemory() *
+                Math.clamp(userPref.memoryBudgetPercentOfMaxHeap.get().doubleValue(), 1.0, 100.0) / 100.0);
+    }
+
+    @Override
+    public long getUsedBytes() {
+        return getConsumers().stream().mapToLong(MemoryConsumer::getUsedBytes).sum();
+    }
+
+    @Override
+    public double getUsage() {
+        return getUsedBytes() / (double) Math.max(1L, getBudgetBytes());
+    }
+
+    @Override
+    public Map<String, Long> getConsumersUsedBytes() {
+        return getConsumers().stream()
+                .collect(Collectors.toMap(MemoryConsumer::getName, MemoryConsumer::getUsedBytes, Long::sum, TreeMap::new));
+    }
+
+    @Override
+    public long getEnforcementCount() {
+        return enforcementCount.sum();
+    }
+
+    @Override
+    public long getReleasedBytes() {
+        return releasedBytes.sum();
+    }
+
+    @Override
+    public synchronized long enforce() {
+        long budget = getBudgetBytes();
+        Map<MemoryConsumer, Long> usage = new HashMap<>();
+        for (var consumer : getConsumers()) {
+            usage.put(consumer, consumer.getUsedBytes());
+        }
+        long used = usage.values().stream().mapToLong(Long::longValue).sum();
+        if (used <= budget) {
+            return 0;
+        }
+        enforcementCount.increment();
+        long toRelease = used - Math.round(budget * LOW_WATERMARK);
+        long released = 0;
+        // Consumers using the most memory relative to the cost of rebuilding what they hold are trimmed first
+        var candidates = usage.entrySet().stream()
+                .filter(e -> e.getValue() > 0 && Double.isFinite(e.getKey().getReloadCost()))
+                .sorted(Comparator.comparingDouble((Map.Entry<MemoryConsumer, Long> e) ->
+                        e.getValue() / Math.max(Double.MIN_VALUE, e.getKey().getReloadCost())).reversed())
+                .toList();
+        for (var candidate : candidates) {
+            if (released >= toRelease) {
+                break;
+            }
+            var consumer = candidate.getKey();
+            long freed = consumer.release(Math.min(toRelease - released, candidate.getValue()));
+            released += freed;
+            logger.debug(() -> String.format("Released %.1fMiB from %s", freed / BYTES_PER_MIB, consumer.getName()));
+        }
+        releasedBytes.add(released);
+        final long totalReleased = released;
+        logger.perf(() -> String.format("Memory budget exceeded (%.1fMiB used out of %.1fMiB): released %.1fMiB",
+                used / BYTES_PER_MIB, budget / BYTES_PER_MIB, totalReleased / BYTES_PER_MIB));
+        return released;
+    }
+
+    /**
+     * Returns a human-readable summary of the state of the budget, suitable for output to the debug console.
+     *
+     * @return a human-readable summary of the state of the budget.
+     */
+    public String dump() {
+        var consumersUsage = getConsumers().stream()
+                .sorted(Comparator.comparing(MemoryConsumer::getName))
+                .map(c -> String.format("  %s: %.1fMB (reload cost=%.2f)", c.getName(), c.getUsedBytes() / BYTES_PER_MIB, c.getReloadCost()))
+                .collect(Collectors.joining("\n"));
+        return String.format("Memory budget: Used=%.1fMB out of %.1fMB (%.2f%%), Max heap=%.0fMB - Released=%.1fMB in %d run(s)%n%s",
+                getUsedBytes() / BYTES_PER_MIB,
+                getBudgetBytes() / BYTES_PER_MIB,
+                getUsage() * 100,
+                Runtime.getRuntime().maxMemory() / BYTES_PER_MIB,
+                getReleasedBytes() / BYTES_PER_MIB,
+                getEnforcementCount(),
+                consumersUsage.isEmpty() ? "  No registered consumer" : consumersUsage);
+    }
+
+    private List<MemoryConsumer> getConsumers() {
+        synchronized (consumers) {
+            return new ArrayList<>(consumers);
+        }
+    }
+
+    private static class MemoryBudgetHolder {
+        private static final MemoryBudget instance = new MemoryBudget();
+    }
+}
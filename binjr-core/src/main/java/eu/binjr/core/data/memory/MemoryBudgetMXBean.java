@@ -0,0 +1,76 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.memory;
+
+import java.util.Map;
+
+/**
+ * Defines the management interface exposing the state of the {@link MemoryBudget}.
+ *
+ * @author Frederic Thevenet
+ */
+public interface MemoryBudgetMXBean {
+
+    /**
+     * Returns the amount of memory that registered consumers may use altogether, in bytes.
+     *
+     * @return the amount of memory that registered consumers may use altogether, in bytes.
+     */
+    long getBudgetBytes();
+
+    /**
+     * Returns the estimated amount of memory used by all registered consumers, in bytes.
+     *
+     * @return the estimated amount of memory used by all registered consumers, in bytes.
+     */
+    long getUsedBytes();
+
+    /**
+     * Returns the fraction of the budget currently in use.
+     *
+     * @return the fraction of the budget currently in use.
+     */
+    double getUsage();
+
+    /**
+     * Returns the estimated amount of memory used by each registered consumer, in bytes, by name.
+     *
+     * @return the estimated amount of memory used by each registered consumer, in bytes, by name.
+     */
+    Map<String, Long> getConsumersUsedBytes();
+
+    /**
+     * Returns the number of times consumers had to be trimmed to keep within budget.
+     *
+     * @return the number of times consumers had to be trimmed to keep within budget.
+     */
+    long getEnforcementCount();
+
+    /**
+     * Returns the estimated amount of memory released by trimming consumers, in bytes.
+     *
+     * @return the estimated amount of memory released by trimming consumers, in bytes.
+     */
+    long getReleasedBytes();
+
+    /**
+     * Trims registered consumers if their combined usage exceeds the budget.
+     *
+     * @return the estimated amount of memory released, in bytes.
+     */
+    long enforce();
+}
@@ -0,0 +1,59 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.memory;
+
+/**
+ * Defines a component holding on to a significant amount of memory on behalf of the application, whose usage is
+ * accounted for, and possibly reduced, by the {@link MemoryBudget}.
+ *
+ * @author Frederic Thevenet
+ */
+public interface MemoryConsumer {
+
+    /**
+     * Returns a human-readable name for the consumer.
+     *
+     * @return a human-readable name for the consumer.
+     */
+    String getName();
+
+    /**
+     * Returns an estimate of the memory currently used by the consumer, in bytes.
+     *
+     * @return an estimate of the memory currently used by the consumer, in bytes.
+     */
+    long getUsedBytes();
+
+    /**
+     * Returns the relative cost of rebuilding a byte of what the consumer holds once released.
+     * <p>
+     * When memory must be freed, consumers that are cheap to rebuild relative to the memory they use are trimmed
+     * first. A consumer whose content cannot be released returns {@link Double#POSITIVE_INFINITY}.
+     * </p>
+     *
+     * @return the relative cost of rebuilding a byte of what the consumer holds.
+     */
+    double getReloadCost();
+
+    /**
+     * Attempts to release at least the specified amount of memory.
+     *
+     * @param bytes the amount of memory to release, in bytes.
+     * @return an estimate of the memory actually released, in bytes.
+     */
+    long release(long bytes);
+}
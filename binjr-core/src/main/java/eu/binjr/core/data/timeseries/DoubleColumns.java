@@ -0,0 +1,593 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import javafx.scene.chart.XYChart;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A growable, columnar store for the samples of a numeric time series, which holds timestamps and values as
+ * primitive arrays rather than as individual {@link XYChart.Data} instances.
+ * <p>
+ * Timestamps are stored as a number of nanoseconds since the epoch, which covers dates between the years 1677 and
+ * 2262; dates beyond those bounds are clamped. The time zone of the series is recorded once, from the first sample
+ * added, and {@link ZonedDateTime} and {@link XYChart.Data} instances are only created on demand.
+ * </p>
+ * <p><b>Remark:</b> This class is not thread safe.</p>
+ *
+ * @author Frederic Thevenet
+ */
+public final class DoubleColumns {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long MAX_SECONDS = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+    private static final long MIN_SECONDS = Long.MIN_VALUE / NANOS_PER_SECOND + 1;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MIN_AVERAGE_RUN_LENGTH = 8;
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+    private ZoneId zoneId;
+
+    /**
+     * Initializes a new, empty instance of the {@link DoubleColumns} class.
+     */
+    public DoubleColumns() {
+        this(0);
+    }
+
+    /**
+     * Initializes a new, empty instance of the {@link DoubleColumns} class.
+     *
+     * @param initialCapacity the number of samples to allocate room for.
+     */
+    public DoubleColumns(int initialCapacity) {
+        this(new long[initialCapacity], new double[initialCapacity], 0, ZoneId.systemDefault());
+    }
+
+    /**
+     * Initializes a new instance of the {@link DoubleColumns} class that wraps the provided arrays.
+     *
+     * @param timestamps the timestamps of the samples, in nanoseconds since the epoch.
+     * @param values     the values of the samples.
+     * @param size       the number of valid samples in the arrays.
+     * @param zoneId     the time zone of the series.
+     */
+    public DoubleColumns(long[] timestamps, double[] values, int size, ZoneId zoneId) {
+        if (timestamps.length < size || values.length < size) {
+            throw new IllegalArgumentException("Columns are shorter than the specified size");
+        }
+        this.timestamps = timestamps;
+        this.values = values;
+        this.size = size;
+        this.zoneId = zoneId;
+    }
+
+    /**
+     * Returns a new {@link DoubleColumns} instance holding the samples from the provided collection.
+     *
+     * @param data the samples to copy.
+     * @return a new {@link DoubleColumns} instance holding the samples from the provided collection.
+     */
+    public static DoubleColumns fromData(Collection<? extends XYChart.Data<ZonedDateTime, Double>> data) {
+        var columns = new DoubleColumns(data.size());
+        for (var sample : data) {
+            columns.add(sample.getXValue(), sample.getYValue());
+        }
+        return columns;
+    }
+
+    /**
+     * Converts an {@link Instant} into a number of nanoseconds since the epoch.
+     *
+     * @param instant the instant to convert.
+     * @return the number of nanoseconds since the epoch.
+     */
+    public static long toEpochNanos(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds > MAX_SECONDS) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds < MIN_SECONDS) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * NANOS_PER_SECOND + instant.getNano();
+    }
+
+    /**
+     * Converts a {@link ZonedDateTime} into a number of nanoseconds since the epoch.
+     *
+     * @param dateTime the date to convert.
+     * @return the number of nanoseconds since the epoch.
+     */
+    public static long toEpochNanos(ZonedDateTime dateTime) {
+        return toEpochNanos(dateTime.toInstant());
+    }
+
+    /**
+     * Converts a number of nanoseconds since the epoch into a number of milliseconds, rounding towards negative infinity.
+     *
+     * @param epochNanos a number of nanoseconds since the epoch.
+     * @return a number of milliseconds since the epoch.
+     */
+    public static long toEpochMillis(long epochNanos) {
+        return Math.floorDiv(epochNanos, NANOS_PER_MILLI);
+    }
+
+    /**
+     * Converts a number of nanoseconds since the epoch into an {@link Instant}.
+     *
+     * @param epochNanos a number of nanoseconds since the epoch.
+     * @return an {@link Instant}.
+     */
+    public static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return the number of samples.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no samples, false otherwise.
+     *
+     * @return true if there are no samples, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the time zone of the series.
+     *
+     * @return the time zone of the series.
+     */
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Returns the timestamp of the sample at the specified index, in nanoseconds since the epoch.
+     *
+     * @param index the index of the sample.
+     * @return the timestamp of the sample at the specified index.
+     */
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    /**
+     * Returns the value of the sample at the specified index.
+     *
+     * @param index the index of the sample.
+     * @return the value of the sample at the specified index.
+     */
+    public double getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Sets the value of the sample at the specified index.
+     *
+     * @param index the index of the sample.
+     * @param value the new value for the sample.
+     */
+    public void setValue(int index, double value) {
+        checkIndex(index);
+        values[index] = value;
+    }
+
+    /**
+     * Returns the timestamp of the sample at the specified index, as a {@link ZonedDateTime}.
+     *
+     * @param index the index of the sample.
+     * @return the timestamp of the sample at the specified index.
+     */
+    public ZonedDateTime getDateTime(int index) {
+        return ZonedDateTime.ofInstant(toInstant(getTimestamp(index)), zoneId);
+    }
+
+    /**
+     * Returns a new {@link XYChart.Data} instance for the sample at the specified index.
+     *
+     * @param index the index of the sample.
+     * @return a new {@link XYChart.Data} instance for the sample at the specified index.
+     */
+    public XYChart.Data<ZonedDateTime, Double> getSample(int index) {
+        return new XYChart.Data<>(getDateTime(index), getValue(index));
+    }
+
+    /**
+     * Returns the memory allocated to the columns, in bytes, including room reserved for samples not yet added.
+     *
+     * @return the memory allocated to the columns, in bytes.
+     */
+    public long getSizeInBytes() {
+        return timestamps.length * (long) Long.BYTES + values.length * (long) Double.BYTES;
+    }
+
+    /**
+     * Releases the room reserved for samples not yet added.
+     *
+     * @return the memory released, in bytes.
+     */
+    public long trimToSize() {
+        long allocated = getSizeInBytes();
+        if (timestamps.length > size || values.length > size) {
+            timestamps = Arrays.copyOf(timestamps, size);
+            values = Arrays.copyOf(values, size);
+        }
+        return allocated - getSizeInBytes();
+    }
+
+    /**
+     * Returns the array backing the timestamps column; only the first {@link #size()} elements are valid.
+     * <p><b>Remark:</b> The returned array is not a copy and is replaced whenever the columns grow.</p>
+     *
+     * @return the array backing the timestamps column.
+     */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * Returns the array backing the values column; only the first {@link #size()} elements are valid.
+     * <p><b>Remark:</b> The returned array is not a copy and is replaced whenever the columns grow.</p>
+     *
+     * @return the array backing the values column.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Appends a sample.
+     *
+     * @param epochNanos the timestamp of the sample, in nanoseconds since the epoch.
+     * @param value      the value of the sample.
+     */
+    public void add(long epochNanos, double value) {
+        ensureCapacity(size + 1);
+        timestamps[size] = epochNanos;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Appends a sample.
+     * <p>A null value is stored as {@link Double#NaN}.</p>
+     *
+     * @param timestamp the timestamp of the sample.
+     * @param value     the value of the sample.
+     */
+    public void add(ZonedDateTime timestamp, Double value) {
+        if (size == 0) {
+            zoneId = timestamp.getZone();
+        }
+        add(toEpochNanos(timestamp), value == null ? Double.NaN : value);
+    }
+
+    /**
+     * Appends all the samples from the provided columns.
+     *
+     * @param other the columns holding the samples to append.
+     */
+    public void addAll(DoubleColumns other) {
+        if (size == 0) {
+            zoneId = other.zoneId;
+        }
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.timestamps, 0, timestamps, size, other.size);
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Returns a new {@link DoubleColumns} instance holding the samples at the specified indexes, in the order they
+     * are provided.
+     *
+     * @param indexes the indexes of the samples to select.
+     * @param count   the number of valid elements in the indexes array.
+     * @return a new {@link DoubleColumns} instance holding the selected samples.
+     */
+    public DoubleColumns select(int[] indexes, int count) {
+        var ts = new long[count];
+        var vs = new double[count];
+        for (int i = 0; i < count; i++) {
+            int idx = indexes[i];
+            checkIndex(idx);
+            ts[i] = timestamps[idx];
+            vs[i] = values[idx];
+        }
+        return new DoubleColumns(ts, vs, count, zoneId);
+    }
+
+    /**
+     * Returns a new {@link DoubleColumns} instance holding a copy of the samples within the specified range of indexes.
+     *
+     * @param from the index of the first sample to copy, inclusive.
+     * @param to   the index of the last sample to copy, exclusive.
+     * @return a new {@link DoubleColumns} instance holding a copy of the samples within the specified range.
+     */
+    public DoubleColumns slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return new DoubleColumns(Arrays.copyOfRange(timestamps, from, to), Arrays.copyOfRange(values, from, to), to - from, zoneId);
+    }
+
+    /**
+     * Removes all samples whose index is equal to or greater than the specified size.
+     *
+     * @param newSize the number of samples to keep.
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Cannot truncate " + size + " samples to " + newSize);
+        }
+        size = newSize;
+    }
+
+    /**
+     * Returns a copy of this instance, with arrays trimmed to the number of samples.
+     *
+     * @return a copy of this instance.
+     */
+    public DoubleColumns copy() {
+        return new DoubleColumns(Arrays.copyOf(timestamps, size), Arrays.copyOf(values, size), size, zoneId);
+    }
+
+    /**
+     * Returns true if timestamps are in ascending order, false otherwise.
+     *
+     * @return true if timestamps are in ascending order, false otherwise.
+     */
+    public boolean isSorted() {
+        for (int i = 1; i < size; i++) {
+            if (timestamps[i] < timestamps[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts samples by ascending timestamps.
+     * <p>
+     * Series are usually either already sorted or made of a few sorted runs (e.g. one per source file or per page of
+     * results), so the columns are first scanned for runs of ascending timestamps: nothing is done if there is a
+     * single one, runs are merged pairwise in O(n log k) if there are k of them and a full sort is only performed if
+     * runs are too short to be worth merging.
+     * </p>
+     * <p>The sort is stable: samples sharing the same timestamp retain their relative order.</p>
+     */
+    public void sortByTimestamp() {
+        int nbRuns = countRuns(size / MIN_AVERAGE_RUN_LENGTH + 1);
+        if (nbRuns <= 1) {
+            return;
+        }
+        if (nbRuns > size / MIN_AVERAGE_RUN_LENGTH) {
+            fullSort();
+        } else {
+            mergeRuns(nbRuns);
+        }
+    }
+
+    /**
+     * Returns the number of runs of ascending timestamps, or a number greater than {@code limit} if the count
+     * exceeds it.
+     */
+    private int countRuns(int limit) {
+        int nbRuns = size > 0 ? 1 : 0;
+        for (int i = 1; i < size && nbRuns <= limit; i++) {
+            if (timestamps[i] < timestamps[i - 1]) {
+                nbRuns++;
+            }
+        }
+        return nbRuns;
+    }
+
+    private void mergeRuns(int nbRuns) {
+        // Boundaries of runs: run i spans [bounds[i], bounds[i + 1])
+        int[] bounds = new int[nbRuns + 1];
+        int n = 1;
+        for (int i = 1; i < size; i++) {
+            if (timestamps[i] < timestamps[i - 1]) {
+                bounds[n++] = i;
+            }
+        }
+        bounds[nbRuns] = size;
+        long[] srcTs = timestamps;
+        double[] srcValues = values;
+        long[] dstTs = new long[size];
+        double[] dstValues = new double[size];
+        while (nbRuns > 1) {
+            int merged = 0;
+            for (int r = 0; r < nbRuns; r += 2) {
+                int lo = bounds[r];
+                if (r + 1 == nbRuns) {
+                    // Odd run out is carried over as is
+                    System.arraycopy(srcTs, lo, dstTs, lo, size - lo);
+                    System.arraycopy(srcValues, lo, dstValues, lo, size - lo);
+                } else {
+                    int mid = bounds[r + 1];
+                    int hi = bounds[r + 2];
+                    int i = lo, j = mid, k = lo;
+                    while (i < mid && j < hi) {
+                        if (srcTs[j] < srcTs[i]) {
+                            dstTs[k] = srcTs[j];
+                            dstValues[k++] = srcValues[j++];
+                        } else {
+                            dstTs[k] = srcTs[i];
+                            dstValues[k++] = srcValues[i++];
+                        }
+                    }
+                    System.arraycopy(srcTs, i, dstTs, k, mid - i);
+                    System.arraycopy(srcValues, i, dstValues, k, mid - i);
+                    k += mid - i;
+                    System.arraycopy(srcTs, j, dstTs, k, hi - j);
+                    System.arraycopy(srcValues, j, dstValues, k, hi - j);
+                }
+                bounds[merged++] = lo;
+            }
+            bounds[merged] = size;
+            nbRuns = merged;
+            var ts = srcTs;
+            srcTs = dstTs;
+            dstTs = ts;
+            var vs = srcValues;
+            srcValues = dstValues;
+            dstValues = vs;
+        }
+        this.timestamps = srcTs;
+        this.values = srcValues;
+    }
+
+    private void fullSort() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        // Stable bottom-up merge sort of indexes by timestamp
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int lo = 0; lo < size - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, size);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    buffer[k++] = timestamps[order[j]] < timestamps[order[i]] ? order[j++] : order[i++];
+                }
+                while (i < mid) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < hi) {
+                    buffer[k++] = order[j++];
+                }
+                System.arraycopy(buffer, lo, order, lo, hi - lo);
+            }
+        }
+        var sorted = select(order, size);
+        this.timestamps = sorted.timestamps;
+        this.values = sorted.values;
+    }
+
+    /**
+     * Returns the index of the first sample whose timestamp is strictly greater than the provided one, or
+     * {@link #size()} if there is none.
+     * <p>Timestamps are assumed to be in ascending order.</p>
+     *
+     * @param epochNanos a timestamp, in nanoseconds since the epoch.
+     * @return the index of the first sample whose timestamp is strictly greater than the provided one.
+     */
+    public int upperBound(long epochNanos) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] <= epochNanos) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns a new {@link DoubleColumns} instance that shares the arrays backing this one, limited to its current
+     * samples.
+     * <p><b>Remark:</b> The returned instance must not be modified, and only reflects the samples of this instance
+     * as long as they are not modified in place; samples appended afterwards are not visible.</p>
+     *
+     * @return a new {@link DoubleColumns} instance that shares the arrays backing this one.
+     */
+    public DoubleColumns view() {
+        return new DoubleColumns(timestamps, values, size, zoneId);
+    }
+
+    /**
+     * Returns a read-only list view of the samples, backed by a {@link #view()} of the columns.
+     * <p>A new {@link XYChart.Data} instance is created each time an element of the list is accessed.</p>
+     *
+     * @return a read-only list view of the samples.
+     */
+    public List<XYChart.Data<ZonedDateTime, Double>> asDataList() {
+        return new DataListView(view());
+    }
+
+    /**
+     * Returns a new list of {@link XYChart.Data} instances for all the samples.
+     *
+     * @return a new list of {@link XYChart.Data} instances for all the samples.
+     */
+    public List<XYChart.Data<ZonedDateTime, Double>> toDataList() {
+        var list = new ArrayList<XYChart.Data<ZonedDateTime, Double>>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(getSample(i));
+        }
+        return list;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        int capacity = Math.min(timestamps.length, values.length);
+        if (minCapacity > capacity) {
+            int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private static final class DataListView extends AbstractList<XYChart.Data<ZonedDateTime, Double>> implements RandomAccess {
+        private final DoubleColumns columns;
+
+        private DataListView(DoubleColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public XYChart.Data<ZonedDateTime, Double> get(int index) {
+            return columns.getSample(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+    }
+}
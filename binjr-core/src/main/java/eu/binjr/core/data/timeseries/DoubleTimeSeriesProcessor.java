@@ -16,51 +16,244 @@
 
 package eu.binjr.core.data.timeseries;
 
+import eu.binjr.core.data.async.CancellationToken;
+import eu.binjr.core.data.timeseries.transform.TimeSeriesTransform;
 import javafx.scene.chart.XYChart;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
 /**
  * This class provides a full implementation of a {@link TimeSeriesProcessor} of {@link Double} values.
+ * <p>
+ * Samples are held in primitive columns (see {@link DoubleColumns}) and {@link XYChart.Data} instances are only
+ * created when they are requested, e.g. when samples are handed over to a chart. Views of the columns can be handed
+ * out without copying them; the processor copies its columns before modifying existing samples in place if a view
+ * was handed out.
+ * </p>
+ * <p>
+ * Summary statistics are served from a {@link SeriesSummary} which is computed once, on first use, and then kept
+ * up to date as samples are appended; it is only discarded when existing samples are replaced or transformed.
+ * Once computed, summary properties are read without acquiring the processor's lock.
+ * </p>
  *
  * @author Frederic Thevenet
  */
 public class DoubleTimeSeriesProcessor extends TimeSeriesProcessor<Double> {
+    private DoubleColumns columns;
+    private volatile SeriesSummary summary;
+    private volatile boolean columnsShared = false;
 
     /**
      * Initializes a new instance of the {@link DoubleTimeSeriesProcessor} class with the provided binding.
      */
     public DoubleTimeSeriesProcessor() {
-        super();
+        this(0);
     }
 
     public DoubleTimeSeriesProcessor(int initialCapacity) {
-        super(initialCapacity);
+        this(new DoubleColumns(initialCapacity));
+    }
+
+    /**
+     * Initializes a new instance of the {@link DoubleTimeSeriesProcessor} class that holds the provided samples.
+     *
+     * @param columns the samples for the processor; the instance is retained and must no longer be modified by the caller.
+     */
+    public DoubleTimeSeriesProcessor(DoubleColumns columns) {
+        super();
+        this.columns = columns;
+    }
+
+    /**
+     * Returns a copy of the columns holding the samples of the processor.
+     *
+     * @return a copy of the columns holding the samples of the processor.
+     */
+    public DoubleColumns getColumns() {
+        return monitor.read().lock(() -> columns.copy());
+    }
+
+    /**
+     * Returns a read-only view of the columns holding the samples of the processor, without copying them.
+     * <p>The view is a snapshot: samples added to the processor afterwards are not visible through it.</p>
+     *
+     * @return a read-only view of the columns holding the samples of the processor.
+     */
+    public DoubleColumns getColumnsView() {
+        return optimisticRead(ignored -> unsyncedShareColumns(), null);
+    }
+
+    /**
+     * Returns the memory allocated to the columns holding the samples of the processor, in bytes.
+     *
+     * @return the memory allocated to the columns holding the samples of the processor, in bytes.
+     */
+    public long getSizeInBytes() {
+        return optimisticRead(ignored -> columns.getSizeInBytes(), null);
+    }
+
+    /**
+     * Releases the room reserved by the processor for samples not yet added.
+     *
+     * @return the memory released, in bytes.
+     */
+    public long trimToSize() {
+        return monitor.write().lock(() -> {
+            long released = columns.trimToSize();
+            if (released > 0) {
+                // Views handed out earlier keep the former arrays, which the trimmed columns no longer share
+                columnsShared = false;
+            }
+            return released;
+        });
+    }
+
+    /**
+     * Returns a copy of the summary of the values held by the processor.
+     *
+     * @return a copy of the summary of the values held by the processor.
+     */
+    public SeriesSummary getSummary() {
+        return monitor.read().lock(() -> {
+            unsyncedPrepareSummary();
+            return summary.copy();
+        });
     }
 
     @Override
     public Double computeMinValue() {
-        return this.data.stream()
-                .map(XYChart.Data::getYValue)
-                .filter(d -> d != null && !Double.isNaN(d))
-                .min(Double::compareTo)
-                .orElse(Double.NaN);
+        return unsyncedGetSummary().getMin();
     }
 
     @Override
     public Double computeAverageValue() {
-       return this.data.stream()
-               .map(XYChart.Data::getYValue)
-               .filter(d -> d != null && !Double.isNaN(d))
-               .mapToDouble(value -> value)
-               .average()
-               .orElse(Double.NaN);
+        return unsyncedGetSummary().getAverage();
     }
 
     @Override
     public Double computeMaxValue() {
-       return this.data.stream()
-               .map(XYChart.Data::getYValue)
-               .filter(d -> d != null && !Double.isNaN(d))
-               .max(Double::compareTo)
-               .orElse(Double.NaN);
+        return unsyncedGetSummary().getMax();
+    }
+
+    @Override
+    protected Double computeQuantileValue(double quantile) {
+        return unsyncedGetSummary().getQuantile(quantile);
+    }
+
+    @Override
+    protected boolean unsyncedIsSummaryAvailable() {
+        return summary != null;
+    }
+
+    @Override
+    protected void unsyncedPrepareSummary() {
+        if (summary == null) {
+            // Concurrent readers may both end up computing the summary, which is harmless since they see the same samples
+            summary = SeriesSummary.of(columns.getValues(), 0, columns.size());
+        }
+    }
+
+    private SeriesSummary unsyncedGetSummary() {
+        var current = summary;
+        if (current == null) {
+            // The summary is only cached within the boundaries of the read lock, see unsyncedPrepareSummary
+            current = SeriesSummary.of(columns.getValues(), 0, columns.size());
+        }
+        return current;
+    }
+
+    private DoubleColumns unsyncedShareColumns() {
+        var view = columns.view();
+        columnsShared = true;
+        return view;
+    }
+
+    /**
+     * Returns a read-only list view of the samples, backed by a view of the columns (see {@link #getColumnsView()}).
+     *
+     * @return a read-only list view of the samples.
+     */
+    @Override
+    protected Collection<XYChart.Data<ZonedDateTime, Double>> unsyncedGetData() {
+        return unsyncedShareColumns().asDataList();
+    }
+
+    @Override
+    protected void unsyncedSetData(Collection<XYChart.Data<ZonedDateTime, Double>> newData) {
+        this.columns = DoubleColumns.fromData(newData);
+        this.columnsShared = false;
+        this.summary = null;
+    }
+
+    @Override
+    protected XYChart.Data<ZonedDateTime, Double> unsyncedGetSample(int index) {
+        return columns.getSample(index);
+    }
+
+    @Override
+    protected int unsyncedSize() {
+        return columns.size();
+    }
+
+    @Override
+    protected void unsyncedAddSample(XYChart.Data<ZonedDateTime, Double> sample) {
+        unsyncedAddSample(sample.getXValue(), sample.getYValue());
+    }
+
+    @Override
+    protected void unsyncedAddSample(ZonedDateTime timestamp, Double value) {
+        columns.add(timestamp, value);
+        if (summary != null) {
+            summary.add(columns.getValue(columns.size() - 1));
+        }
+    }
+
+    @Override
+    protected void unsyncedAppendData(TimeSeriesProcessor<Double> processor) {
+        if (processor instanceof DoubleTimeSeriesProcessor doubleProcessor) {
+            columns.addAll(doubleProcessor.getColumnsView());
+            if (summary != null) {
+                summary.merge(doubleProcessor.getSummary());
+            }
+        } else {
+            for (var sample : processor.getData()) {
+                unsyncedAddSample(sample);
+            }
+        }
+    }
+
+    @Override
+    protected void unsyncedApplyTransforms(TimeSeriesTransform<Double>[] seriesTransforms) {
+        var cancellation = CancellationToken.current();
+        if (columnsShared) {
+            // Transforms may modify samples in place, which must not be visible through views handed out earlier
+            this.columns = columns.copy();
+            this.columnsShared = false;
+        }
+        for (var t : seriesTransforms) {
+            cancellation.throwIfCancelled();
+            this.columns = t.transform(columns);
+        }
+        this.summary = null;
+    }
+
+    @Override
+    protected Double unsyncedGetNearestValue(ZonedDateTime xValue) {
+        if (xValue == null || columns.isEmpty()) {
+            return null;
+        }
+        long x = DoubleColumns.toEpochNanos(xValue);
+        int next = columns.upperBound(x);
+        if (next == 0) {
+            return null;
+        }
+        if (next == columns.size()) {
+            return columns.getValue(next - 1);
+        }
+        if (Math.abs(x - columns.getTimestamp(next - 1)) > Math.abs(columns.getTimestamp(next) - x)) {
+            return columns.getValue(next);
+        }
+        return columns.getValue(next - 1);
     }
 }
@@ -0,0 +1,353 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A multi-resolution representation of a numeric series over a time range, which allows samples to be retrieved for
+ * any sub-range at a given level of detail in time proportional to the number of samples returned.
+ * <p>
+ * On top of the original samples, the pyramid holds a stack of levels that aggregate samples into buckets of equal
+ * width, each level doubling the bucket width of the previous one. For each bucket, the first, last, smallest and
+ * largest samples are retained, along with the average value.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public final class LevelOfDetailPyramid {
+    private static final int MIN_SAMPLES_PER_BUCKET = 4;
+    private static final int MIN_BUCKETS = 16;
+    private final long start;
+    private final long end;
+    private final boolean fullResolution;
+    private final boolean averaged;
+    private final DoubleColumns samples;
+    private final List<Level> levels = new ArrayList<>();
+
+    /**
+     * Builds a new pyramid from the provided samples.
+     *
+     * @param samples        the samples of the series; the instance is retained by the pyramid and must no longer be
+     *                       modified by the caller.
+     * @param start          the start of the time range the samples were retrieved for, in epoch nanoseconds.
+     * @param end            the end of the time range the samples were retrieved for, in epoch nanoseconds.
+     * @param fullResolution true if the samples are all the samples available within the range, false if they are an
+     *                       aggregated or downsampled subset.
+     */
+    public LevelOfDetailPyramid(DoubleColumns samples, long start, long end, boolean fullResolution) {
+        this(samples, start, end, fullResolution, false);
+    }
+
+    /**
+     * Builds a new pyramid from the provided samples.
+     *
+     * @param samples        the samples of the series; the instance is retained by the pyramid and must no longer be
+     *                       modified by the caller.
+     * @param start          the start of the time range the samples were retrieved for, in epoch nanoseconds.
+     * @param end            the end of the time range the samples were retrieved for, in epoch nanoseconds.
+     * @param fullResolution true if the samples are all the samples available within the range, false if they are an
+     *                       aggregated or downsampled subset.
+     * @param averaged       true if the samples are the average values of aggregated samples, false if they were
+     *                       selected among the samples available; ignored for samples at full resolution.
+     */
+    public LevelOfDetailPyramid(DoubleColumns samples, long start, long end, boolean fullResolution, boolean averaged) {
+        this.samples = samples;
+        this.start = start;
+        this.end = end;
+        this.fullResolution = fullResolution;
+        this.averaged = averaged && !fullResolution;
+        samples.sortByTimestamp();
+        int size = samples.size();
+        if (size > MIN_SAMPLES_PER_BUCKET * MIN_BUCKETS) {
+            long span = samples.getTimestamp(size - 1) - samples.getTimestamp(0);
+            long width = ceilPowerOfTwo(Math.max(1L, span / size * MIN_SAMPLES_PER_BUCKET));
+            var level = Level.fromSamples(samples, width);
+            levels.add(level);
+            while (level.nbBuckets > MIN_BUCKETS && level.width < Long.MAX_VALUE / 2) {
+                level = Level.fromLevel(level);
+                levels.add(level);
+            }
+        }
+    }
+
+    /**
+     * Returns the start of the time range covered by the pyramid, in epoch nanoseconds.
+     *
+     * @return the start of the time range covered by the pyramid, in epoch nanoseconds.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end of the time range covered by the pyramid, in epoch nanoseconds.
+     *
+     * @return the end of the time range covered by the pyramid, in epoch nanoseconds.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns true if the pyramid holds all the samples available at the source within its time range.
+     *
+     * @return true if the pyramid holds all the samples available at the source within its time range.
+     */
+    public boolean isFullResolution() {
+        return fullResolution;
+    }
+
+    /**
+     * Returns a new pyramid holding both the samples of this pyramid and the provided ones, and covering the union of
+     * both time ranges.
+     * <p>
+     * The provided samples take precedence over the samples of this pyramid within the range they were retrieved
+     * for, and beyond the range of this pyramid. Both ranges are expected to overlap or be adjacent.
+     * </p>
+     *
+     * @param fresh      the samples to merge.
+     * @param freshStart the start of the time range the provided samples were retrieved for, in epoch nanoseconds.
+     * @param freshEnd   the end of the time range the provided samples were retrieved for, in epoch nanoseconds.
+     * @return a new pyramid covering the union of both time ranges.
+     */
+    public LevelOfDetailPyramid merge(DoubleColumns fresh, long freshStart, long freshEnd) {
+        fresh.sortByTimestamp();
+        int freshFirst = fresh.upperBound(freshStart - 1);
+        int freshLast = fresh.upperBound(freshEnd);
+        var merged = new DoubleColumns(samples.size() + fresh.size());
+        if (freshStart <= start) {
+            merged.addAll(fresh.slice(0, freshFirst));
+        } else {
+            merged.addAll(samples.slice(0, samples.upperBound(freshStart - 1)));
+        }
+        merged.addAll(fresh.slice(freshFirst, freshLast));
+        if (freshEnd >= end) {
+            merged.addAll(fresh.slice(freshLast, fresh.size()));
+        } else {
+            merged.addAll(samples.slice(samples.upperBound(freshEnd), samples.size()));
+        }
+        return new LevelOfDetailPyramid(merged, Math.min(start, freshStart), Math.max(end, freshEnd), fullResolution, averaged);
+    }
+
+    /**
+     * Returns true if the pyramid can provide samples for the specified range at the specified level of detail.
+     * <p>
+     * When the pyramid was built from a subset of the samples available at the source, it can only provide samples at
+     * a level of detail that is not finer than the average interval between the samples it holds, and only with the
+     * same kind of aggregation: averages cannot be told from selected extremes, and vice versa.
+     * </p>
+     *
+     * @param from        the start of the range, in epoch nanoseconds.
+     * @param to          the end of the range, in epoch nanoseconds.
+     * @param bucketWidth the interval, in nanoseconds, below which samples may be aggregated.
+     * @param average     true if the average value of aggregated samples is requested, false if their first, last,
+     *                    smallest and largest samples are.
+     * @return true if the pyramid can provide samples for the specified range at the specified level of detail.
+     */
+    public boolean covers(long from, long to, long bucketWidth, boolean average) {
+        return from >= start && to <= end &&
+                (fullResolution ||
+                        (averaged == average && bucketWidth >= (end - start) / Math.max(1, samples.size())));
+    }
+
+    /**
+     * Returns the samples within the specified range at the specified level of detail, sorted by timestamp.
+     * <p>The samples immediately before and after the range are included, so that values at the boundaries of the
+     * range can be interpolated.</p>
+     *
+     * @param from        the start of the range, in epoch nanoseconds.
+     * @param to          the end of the range, in epoch nanoseconds.
+     * @param bucketWidth the interval, in nanoseconds, below which samples may be aggregated.
+     * @param average     true to return the average value of each bucket, false to return its first, last,
+     *                    smallest and largest samples.
+     * @return the samples within the specified range.
+     */
+    public DoubleColumns query(long from, long to, long bucketWidth, boolean average) {
+        Level level = null;
+        for (var l : levels) {
+            if (l.width > bucketWidth) {
+                break;
+            }
+            level = l;
+        }
+        if (level == null) {
+            int first = Math.max(0, samples.upperBound(from - 1) - 1);
+            int last = Math.min(samples.size(), samples.upperBound(to) + 1);
+            return samples.slice(first, Math.max(first, last));
+        }
+        return level.query(from, to, average, samples.getZoneId());
+    }
+
+    /**
+     * Returns an estimation of the memory used by the pyramid, in bytes.
+     *
+     * @return an estimation of the memory used by the pyramid, in bytes.
+     */
+    public long getSizeInBytes() {
+        long bytes = samples.size() * (long) (Long.BYTES + Double.BYTES);
+        for (var l : levels) {
+            bytes += l.nbBuckets * (long) Level.BYTES_PER_BUCKET;
+        }
+        return bytes;
+    }
+
+    private static long ceilPowerOfTwo(long value) {
+        long highest = Long.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    /**
+     * A level of the pyramid, in which bucket {@code i} spans {@code [origin + i * width, origin + (i + 1) * width)}.
+     */
+    private static final class Level {
+        private static final int FIRST = 0;
+        private static final int MIN = 1;
+        private static final int MAX = 2;
+        private static final int LAST = 3;
+        private static final int BYTES_PER_BUCKET = 4 * Long.BYTES + 5 * Double.BYTES + 2 * Integer.BYTES;
+        private final long origin;
+        private final long width;
+        private final int nbBuckets;
+        // For each bucket b, slot b * 4 + FIRST|MIN|MAX|LAST holds the corresponding sample
+        private final long[] timestamps;
+        private final double[] values;
+        private final double[] sums;
+        private final int[] valueCounts;
+        private final int[] counts;
+
+        private Level(long origin, long width, int nbBuckets) {
+            this.origin = origin;
+            this.width = width;
+            this.nbBuckets = nbBuckets;
+            this.timestamps = new long[nbBuckets * 4];
+            this.values = new double[nbBuckets * 4];
+            this.sums = new double[nbBuckets];
+            this.valueCounts = new int[nbBuckets];
+            this.counts = new int[nbBuckets];
+        }
+
+        private static Level fromSamples(DoubleColumns samples, long width) {
+            int size = samples.size();
+            long origin = Math.floorDiv(samples.getTimestamp(0), width) * width;
+            int nbBuckets = (int) ((samples.getTimestamp(size - 1) - origin) / width) + 1;
+            var level = new Level(origin, width, nbBuckets);
+            var timestamps = samples.getTimestamps();
+            var values = samples.getValues();
+            for (int i = 0; i < size; i++) {
+                int b = (int) ((timestamps[i] - origin) / width);
+                level.accumulate(b, timestamps, values, i, i, i, i,
+                        Double.isNaN(values[i]) ? 0.0 : values[i], Double.isNaN(values[i]) ? 0 : 1, 1);
+            }
+            return level;
+        }
+
+        private static Level fromLevel(Level child) {
+            long width = child.width * 2;
+            long origin = Math.floorDiv(child.origin, width) * width;
+            int shift = (int) ((child.origin - origin) / child.width);
+            var level = new Level(origin, width, (child.nbBuckets + shift + 1) / 2);
+            for (int c = 0; c < child.nbBuckets; c++) {
+                if (child.counts[c] > 0) {
+                    int slot = c * 4;
+                    level.accumulate((c + shift) / 2, child.timestamps, child.values,
+                            slot + FIRST, slot + MIN, slot + MAX, slot + LAST,
+                            child.sums[c], child.valueCounts[c], child.counts[c]);
+                }
+            }
+            return level;
+        }
+
+        /**
+         * Merges samples, provided in chronological order, into bucket {@code b}.
+         */
+        private void accumulate(int b, long[] ts, double[] vs, int first, int min, int max, int last,
+                                double sum, int valueCount, int count) {
+            int slot = b * 4;
+            if (counts[b] == 0) {
+                set(slot + FIRST, ts[first], vs[first]);
+                set(slot + MIN, ts[min], vs[min]);
+                set(slot + MAX, ts[max], vs[max]);
+            } else {
+                if (!Double.isNaN(vs[min]) && (Double.isNaN(values[slot + MIN]) || vs[min] < values[slot + MIN])) {
+                    set(slot + MIN, ts[min], vs[min]);
+                }
+                if (!Double.isNaN(vs[max]) && (Double.isNaN(values[slot + MAX]) || vs[max] > values[slot + MAX])) {
+                    set(slot + MAX, ts[max], vs[max]);
+                }
+            }
+            set(slot + LAST, ts[last], vs[last]);
+            sums[b] += sum;
+            valueCounts[b] += valueCount;
+            counts[b] += count;
+        }
+
+        private void set(int slot, long timestamp, double value) {
+            timestamps[slot] = timestamp;
+            values[slot] = value;
+        }
+
+        private DoubleColumns query(long from, long to, boolean average, ZoneId zoneId) {
+            // Include the closest non-empty buckets on either side of the range
+            int first = Math.clamp(Math.floorDiv(from - origin, width) - 1, 0, nbBuckets - 1);
+            while (first > 0 && counts[first] == 0) {
+                first--;
+            }
+            int last = Math.clamp(Math.floorDiv(to - origin, width) + 2, 0, nbBuckets);
+            while (last > 0 && last < nbBuckets && counts[last - 1] == 0) {
+                last++;
+            }
+            if (first >= last) {
+                return new DoubleColumns(new long[0], new double[0], 0, zoneId);
+            }
+            int capacity = (last - first) * (average ? 1 : 4);
+            var result = new DoubleColumns(new long[capacity], new double[capacity], 0, zoneId);
+            int[] order = new int[4];
+            for (int b = first; b < last; b++) {
+                if (counts[b] == 0) {
+                    continue;
+                }
+                int slot = b * 4;
+                if (average) {
+                    long middle = origin + b * width + width / 2;
+                    result.add(Math.clamp(middle, timestamps[slot + FIRST], timestamps[slot + LAST]),
+                            valueCounts[b] > 0 ? sums[b] / valueCounts[b] : Double.NaN);
+                    continue;
+                }
+                // Sort the bucket's samples by timestamp, and only add samples that hold several roles once
+                for (int i = 0; i < 4; i++) {
+                    int j = i;
+                    while (j > 0 && timestamps[slot + order[j - 1]] > timestamps[slot + i]) {
+                        order[j] = order[j - 1];
+                        j--;
+                    }
+                    order[j] = i;
+                }
+                long previous = Long.MIN_VALUE;
+                for (int i : order) {
+                    if (i == order[0] || timestamps[slot + i] != previous) {
+                        result.add(timestamps[slot + i], values[slot + i]);
+                        previous = timestamps[slot + i];
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
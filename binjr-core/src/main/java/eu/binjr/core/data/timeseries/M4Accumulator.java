@@ -0,0 +1,260 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import java.time.ZoneId;
+
+/**
+ * Reduces a stream of numeric samples on the fly, by keeping only the first, last, smallest and largest samples
+ * within each of a fixed number of equally sized time buckets spanning a given range (M4 aggregation), along with
+ * the average value of each bucket.
+ * <p>
+ * Samples can be added in any order, and the memory used only depends on the number of buckets, regardless of how
+ * many samples are added.
+ * Samples that fall outside the range are accumulated in two extra buckets, before and after it.
+ * </p>
+ * <p>
+ * Instances are not thread-safe: samples produced by concurrent threads should be added to separate instances, which
+ * are then merged together.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public final class M4Accumulator {
+    private static final int FIRST = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+    private static final int LAST = 3;
+    private final long start;
+    private final long end;
+    private final int nbBuckets;
+    private final double bucketsPerNano;
+    // For each bucket b, slot b * 4 + FIRST|MIN|MAX|LAST holds the corresponding sample
+    private final long[] timestamps;
+    private final double[] values;
+    private final boolean[] filled;
+    private final double[] sums;
+    private final long[] valueCounts;
+    private long count = 0;
+
+    /**
+     * Initializes a new instance of the {@link M4Accumulator} class.
+     *
+     * @param start     the start of the time range, in epoch nanoseconds.
+     * @param end       the end of the time range, in epoch nanoseconds.
+     * @param nbBuckets the number of buckets to split the time range into.
+     */
+    public M4Accumulator(long start, long end, int nbBuckets) {
+        this.start = start;
+        this.end = Math.max(start, end);
+        this.nbBuckets = Math.max(1, nbBuckets);
+        this.bucketsPerNano = this.nbBuckets / (double) Math.max(1L, this.end - this.start);
+        int nbSlots = (this.nbBuckets + 2) * 4;
+        this.timestamps = new long[nbSlots];
+        this.values = new double[nbSlots];
+        this.filled = new boolean[this.nbBuckets + 2];
+        this.sums = new double[this.nbBuckets + 2];
+        this.valueCounts = new long[this.nbBuckets + 2];
+    }
+
+    /**
+     * Adds a sample.
+     *
+     * @param timestamp the timestamp of the sample, in epoch nanoseconds.
+     * @param value     the value of the sample.
+     */
+    public void add(long timestamp, double value) {
+        count++;
+        int bucket = bucketOf(timestamp);
+        int slot = bucket * 4;
+        if (!Double.isNaN(value)) {
+            sums[bucket] += value;
+            valueCounts[bucket]++;
+        }
+        if (!filled[bucket]) {
+            filled[bucket] = true;
+            for (int i = FIRST; i <= LAST; i++) {
+                timestamps[slot + i] = timestamp;
+                values[slot + i] = value;
+            }
+            return;
+        }
+        if (timestamp < timestamps[slot + FIRST]) {
+            set(slot + FIRST, timestamp, value);
+        }
+        if (timestamp > timestamps[slot + LAST]) {
+            set(slot + LAST, timestamp, value);
+        }
+        updateExtremes(slot, timestamp, value, timestamp, value);
+    }
+
+    /**
+     * Adds all the samples accumulated by another instance, which must span the same time range with the same number
+     * of buckets.
+     *
+     * @param other the instance to merge samples from.
+     */
+    public void merge(M4Accumulator other) {
+        if (other.start != start || other.end != end || other.nbBuckets != nbBuckets) {
+            throw new IllegalArgumentException("Cannot merge accumulators with different buckets");
+        }
+        count += other.count;
+        for (int b = 0; b < filled.length; b++) {
+            if (!other.filled[b]) {
+                continue;
+            }
+            sums[b] += other.sums[b];
+            valueCounts[b] += other.valueCounts[b];
+            int slot = b * 4;
+            if (!filled[b]) {
+                filled[b] = true;
+                System.arraycopy(other.timestamps, slot, timestamps, slot, 4);
+                System.arraycopy(other.values, slot, values, slot, 4);
+                continue;
+            }
+            if (other.timestamps[slot + FIRST] < timestamps[slot + FIRST]) {
+                set(slot + FIRST, other.timestamps[slot + FIRST], other.values[slot + FIRST]);
+            }
+            if (other.timestamps[slot + LAST] > timestamps[slot + LAST]) {
+                set(slot + LAST, other.timestamps[slot + LAST], other.values[slot + LAST]);
+            }
+            updateExtremes(slot,
+                    other.timestamps[slot + MIN], other.values[slot + MIN],
+                    other.timestamps[slot + MAX], other.values[slot + MAX]);
+        }
+    }
+
+    /**
+     * Returns the number of samples added so far.
+     *
+     * @return the number of samples added so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the reduced series, sorted by timestamp.
+     *
+     * @param zoneId the time zone of the series.
+     * @return the reduced series.
+     */
+    public DoubleColumns toColumns(ZoneId zoneId) {
+        return toColumns(zoneId, false);
+    }
+
+    /**
+     * Returns the reduced series, sorted by timestamp.
+     * <p>When averages are requested, samples before and after the range are represented by the samples closest to
+     * it, so that values at the boundaries of the range can still be interpolated.</p>
+     *
+     * @param zoneId  the time zone of the series.
+     * @param average true to return the average value of each bucket, false to return its first, last, smallest and
+     *                largest samples.
+     * @return the reduced series.
+     */
+    public DoubleColumns toColumns(ZoneId zoneId, boolean average) {
+        if (average) {
+            return toAverageColumns(zoneId);
+        }
+        var reduced = new DoubleColumns(new long[timestamps.length], new double[values.length], 0, zoneId);
+        int[] order = new int[4];
+        for (int b = 0; b < filled.length; b++) {
+            if (!filled[b]) {
+                continue;
+            }
+            int slot = b * 4;
+            // Sort the bucket's samples by timestamp; ties keep the first, min, max, last order.
+            for (int i = 0; i < 4; i++) {
+                int j = i;
+                while (j > 0 && timestamps[slot + order[j - 1]] > timestamps[slot + i]) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = i;
+            }
+            // The same sample can hold several roles; only add it once.
+            for (int i = 0; i < 4; i++) {
+                if (!isDuplicate(slot, order, i)) {
+                    reduced.add(timestamps[slot + order[i]], values[slot + order[i]]);
+                }
+            }
+        }
+        return reduced;
+    }
+
+    private DoubleColumns toAverageColumns(ZoneId zoneId) {
+        var reduced = new DoubleColumns(new long[filled.length], new double[filled.length], 0, zoneId);
+        if (filled[0]) {
+            reduced.add(timestamps[LAST], values[LAST]);
+        }
+        for (int b = 1; b <= nbBuckets; b++) {
+            if (!filled[b]) {
+                continue;
+            }
+            int slot = b * 4;
+            long middle = start + (long) ((b - 0.5) / bucketsPerNano);
+            reduced.add(Math.clamp(middle, timestamps[slot + FIRST], timestamps[slot + LAST]),
+                    valueCounts[b] > 0 ? sums[b] / valueCounts[b] : Double.NaN);
+        }
+        if (filled[nbBuckets + 1]) {
+            int slot = (nbBuckets + 1) * 4;
+            reduced.add(timestamps[slot + FIRST], values[slot + FIRST]);
+        }
+        return reduced;
+    }
+
+    private boolean isDuplicate(int slot, int[] order, int i) {
+        for (int j = 0; j < i; j++) {
+            if (timestamps[slot + order[j]] == timestamps[slot + order[i]] &&
+                    Double.compare(values[slot + order[j]], values[slot + order[i]]) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateExtremes(int slot, long minTimestamp, double min, long maxTimestamp, double max) {
+        if (!Double.isNaN(min)) {
+            double current = values[slot + MIN];
+            if (Double.isNaN(current) || min < current || (min == current && minTimestamp < timestamps[slot + MIN])) {
+                set(slot + MIN, minTimestamp, min);
+            }
+        }
+        if (!Double.isNaN(max)) {
+            double current = values[slot + MAX];
+            if (Double.isNaN(current) || max > current || (max == current && maxTimestamp < timestamps[slot + MAX])) {
+                set(slot + MAX, maxTimestamp, max);
+            }
+        }
+    }
+
+    private void set(int slot, long timestamp, double value) {
+        timestamps[slot] = timestamp;
+        values[slot] = value;
+    }
+
+    private int bucketOf(long timestamp) {
+        if (timestamp < start) {
+            return 0;
+        }
+        if (timestamp > end) {
+            return nbBuckets + 1;
+        }
+        return 1 + (int) Math.min(nbBuckets - 1, (long) ((timestamp - start) * bucketsPerNano));
+    }
+}
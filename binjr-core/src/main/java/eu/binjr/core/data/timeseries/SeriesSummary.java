@@ -0,0 +1,293 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * A mergeable summary of the values of a time series, which holds their count, sum, smallest and largest values, as
+ * well as a sketch of their distribution from which quantiles can be estimated.
+ * <p>
+ * The sketch maps each value to a logarithmically sized bucket, so that any estimated quantile is within a fixed
+ * relative error of an actual value of the series (DDSketch).
+ * A summary can be updated one value at a time as samples are appended, and summaries built from distinct sets of
+ * samples (e.g. successive pages of results or different sources) can be merged together, without having to
+ * revisit any sample.
+ * {@link Double#NaN} values are ignored.
+ * </p>
+ * <p><b>Remark:</b> instances are not thread safe.</p>
+ *
+ * @author Frederic Thevenet
+ */
+public final class SeriesSummary {
+    /**
+     * The relative accuracy of the quantiles estimated by a summary.
+     */
+    public static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_INDEXABLE_VALUE = Double.MIN_NORMAL * GAMMA;
+    private static final int MAX_BUCKETS = 4096;
+    private final BucketStore positives = new BucketStore();
+    private final BucketStore negatives = new BucketStore();
+    private long zeroCount = 0;
+    private long count = 0;
+    private double sum = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Returns a new summary of the values in the specified range of an array.
+     *
+     * @param values the array holding the values.
+     * @param from   the index of the first value to summarize (inclusive).
+     * @param to     the index of the last value to summarize (exclusive).
+     * @return a new summary of the values in the specified range of an array.
+     */
+    public static SeriesSummary of(double[] values, int from, int to) {
+        var summary = new SeriesSummary();
+        for (int i = from; i < to; i++) {
+            summary.add(values[i]);
+        }
+        return summary;
+    }
+
+    /**
+     * Adds a value to the summary.
+     *
+     * @param value the value to add.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        if (value >= MIN_INDEXABLE_VALUE) {
+            positives.add(indexOf(value), 1);
+        } else if (value <= -MIN_INDEXABLE_VALUE) {
+            negatives.add(indexOf(-value), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * Adds all values accounted for by another summary to this one.
+     *
+     * @param other the summary to merge into this one.
+     */
+    public void merge(SeriesSummary other) {
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        zeroCount += other.zeroCount;
+        positives.merge(other.positives);
+        negatives.merge(other.negatives);
+    }
+
+    /**
+     * Returns a copy of the summary.
+     *
+     * @return a copy of the summary.
+     */
+    public SeriesSummary copy() {
+        var copy = new SeriesSummary();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Returns the number of values in the summary.
+     *
+     * @return the number of values in the summary.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the values in the summary.
+     *
+     * @return the sum of the values in the summary.
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the smallest value in the summary, or {@link Double#NaN} if it is empty.
+     *
+     * @return the smallest value in the summary.
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Returns the largest value in the summary, or {@link Double#NaN} if it is empty.
+     *
+     * @return the largest value in the summary.
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Returns the average of the values in the summary, or {@link Double#NaN} if it is empty.
+     *
+     * @return the average of the values in the summary.
+     */
+    public double getAverage() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Returns an estimate of the specified quantile of the values in the summary, or {@link Double#NaN} if it is empty.
+     * <p>The estimate is within {@link #RELATIVE_ACCURACY} of the actual value at that rank.</p>
+     *
+     * @param quantile the quantile to estimate, between 0 and 1 (e.g. 0.95 for the 95th percentile).
+     * @return an estimate of the specified quantile of the values in the summary.
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (quantile == 0) {
+            return min;
+        }
+        if (quantile == 1) {
+            return max;
+        }
+        long rank = (long) (quantile * (count - 1));
+        double estimate;
+        if (rank < negatives.total) {
+            // Negative values are stored by magnitude, so ranks are walked from the largest magnitude down
+            estimate = -valueOf(negatives.indexAtRank(negatives.total - 1 - rank));
+        } else if (rank < negatives.total + zeroCount) {
+            estimate = 0;
+        } else {
+            estimate = valueOf(positives.indexAtRank(rank - negatives.total - zeroCount));
+        }
+        return Math.max(min, Math.min(max, estimate));
+    }
+
+    private static int indexOf(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    private static double valueOf(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    /**
+     * Holds the counts for a contiguous range of bucket indexes.
+     * <p>When the range grows beyond {@link #MAX_BUCKETS}, the lowest buckets are collapsed together, which only
+     * degrades the accuracy for the values of smallest magnitude.</p>
+     */
+    private static final class BucketStore {
+        private long[] counts = new long[0];
+        private int offset = 0;
+        private long total = 0;
+
+        private void add(int index, long n) {
+            int i = ensureIndex(index);
+            counts[i] += n;
+            total += n;
+        }
+
+        private void merge(BucketStore other) {
+            if (other.total == 0) {
+                return;
+            }
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        private int indexAtRank(long rank) {
+            long cumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulated += counts[i];
+                if (cumulated > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        private int ensureIndex(int index) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - counts.length / 2;
+            }
+            if (index < offset) {
+                int shift = Math.min(Math.max(offset - index, counts.length / 2), MAX_BUCKETS - counts.length);
+                if (shift > 0) {
+                    var grown = new long[counts.length + shift];
+                    System.arraycopy(counts, 0, grown, shift, counts.length);
+                    counts = grown;
+                    offset -= shift;
+                }
+                if (index < offset) {
+                    // Collapse into the lowest bucket that is kept
+                    return 0;
+                }
+            } else if (index >= offset + counts.length) {
+                int needed = index - offset + 1;
+                if (needed > MAX_BUCKETS) {
+                    collapseLowest(needed - MAX_BUCKETS);
+                    needed = MAX_BUCKETS;
+                }
+                if (needed > counts.length) {
+                    counts = Arrays.copyOf(counts, Math.min(MAX_BUCKETS, Math.max(needed, counts.length * 2)));
+                }
+            }
+            return index - offset;
+        }
+
+        private void collapseLowest(int nbBuckets) {
+            long collapsed = 0;
+            for (int i = 0; i < Math.min(nbBuckets + 1, counts.length); i++) {
+                collapsed += counts[i];
+            }
+            if (nbBuckets >= counts.length) {
+                Arrays.fill(counts, 0);
+            } else {
+                System.arraycopy(counts, nbBuckets, counts, 0, counts.length - nbBuckets);
+                Arrays.fill(counts, counts.length - nbBuckets, counts.length, 0);
+            }
+            counts[0] = collapsed;
+            offset += nbBuckets;
+        }
+    }
+}
@@ -28,15 +28,25 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * The base class for time series processor classes, which holds raw data points and provides access to summary properties.
+ * <p>
+ * Access to the data store is guarded by a {@link StampedLock}: writers hold it exclusively, while frequent readers
+ * (e.g. looking up the value under the crosshair) first read the data store optimistically, without acquiring the lock,
+ * and only fall back to acquiring it if a write happened while they were reading. The same goes for summary
+ * properties, as long as the processor reports that they can be served without preparing them first.
+ * </p>
  *
  * @author Frederic Thevenet
  */
 public abstract class TimeSeriesProcessor<T> {
     private static final Logger logger = Logger.create(TimeSeriesProcessor.class);
-    private final ReadWriteLockHelper monitor = new ReadWriteLockHelper();
+    private final StampedLock stampedLock = new StampedLock();
+    protected final ReadWriteLockHelper monitor = new ReadWriteLockHelper(stampedLock.asReadWriteLock());
     protected List<XYChart.Data<ZonedDateTime, T>> data;
 
     /**
@@ -56,7 +66,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @return the minimum value for the Y coordinates of the {@link TimeSeriesProcessor}
      */
     public final T getMinValue() {
-        return monitor.read().lock(this::computeMinValue);
+        return summaryRead(this::computeMinValue);
     }
 
     /**
@@ -65,7 +75,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @return the average for all Y coordinates of the {@link TimeSeriesProcessor}
      */
     public final T getAverageValue() {
-        return monitor.read().lock(this::computeAverageValue);
+        return summaryRead(this::computeAverageValue);
     }
 
     /**
@@ -74,18 +84,36 @@ public abstract class TimeSeriesProcessor<T> {
      * @return the maximum value for the Y coordinates of the {@link TimeSeriesProcessor}
      */
     public final T getMaxValue() {
-        return monitor.read().lock(this::computeMaxValue);
+        return summaryRead(this::computeMaxValue);
+    }
+
+    /**
+     * Gets an estimate of the specified quantile of the Y coordinates of the {@link TimeSeriesProcessor}
+     *
+     * @param quantile the quantile to estimate, between 0 and 1 (e.g. 0.95 for the 95th percentile).
+     * @return an estimate of the specified quantile of the Y coordinates, or null if the processor does not support it.
+     */
+    public final T getQuantileValue(double quantile) {
+        return summaryRead(() -> computeQuantileValue(quantile));
     }
 
     /**
      * Try to get the nearest value for the specified time stamp.
      *
-     * <p><b>Remark:</b> If the processor is already being accessed by another thread, returns immediately with Optional.empty</p>
+     * <p><b>Remark:</b> The value is read without acquiring the lock; only if the processor was modified while reading
+     * and the lock is still held by a writer does it return immediately with Optional.empty</p>
      *
      * @param xValue the time stamp to get the value for.
      * @return An {@link Optional} instance that contains tthe value for the time position nearest to the one requested if process could complete and value is non-null.
      */
     public Optional<T> tryGetNearestValue(ZonedDateTime xValue) {
+        long stamp = stampedLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            var result = tryOptimisticRead(stamp, this::unsyncedGetNearestValue, xValue);
+            if (result != null) {
+                return result;
+            }
+        }
         // If the lock is already acquired, just abandon the request and return Optional.empty
         return monitor.read().tryLock(this::unsyncedGetNearestValue, xValue);
     }
@@ -93,27 +121,27 @@ public abstract class TimeSeriesProcessor<T> {
     /**
      * Get the nearest value for the specified time stamp.
      *
-     * <p><b>Remark:</b> If the processor is already being accessed by another thread, waits until lock is released and returns requested value</p>
+     * <p><b>Remark:</b> If the processor is modified by another thread while reading, waits until lock is released and returns requested value</p>
      *
      * @param xValue the time stamp to get the value for.
      * @return the value for the time position nearest to the one requested.
      */
     public T getNearestValue(ZonedDateTime xValue) {
-        return monitor.read().lock(this::unsyncedGetNearestValue, xValue);
+        return optimisticRead(this::unsyncedGetNearestValue, xValue);
     }
 
     /**
      * Gets the data of the {@link TimeSeriesProcessor}
      *
-     * <p><b>Remark:</b> the returned collection is a shallow copy of the the processor's own backing collection,
-     * so it can be iterated through without risking a concurrent access error even if content is being added or
+     * <p><b>Remark:</b> the returned collection is a shallow copy of, or a read-only snapshot view over, the
+     * processor's own backing collection, so it can be iterated through without risking a concurrent access error even if content is being added or
      * removed to the processor on a separate thread. However, the the actual data for individual samples  are
      * not guarded against concurrent access in any capacity.</p>
      *
      * @return the data of the {@link TimeSeriesProcessor}
      */
     public Collection<XYChart.Data<ZonedDateTime, T>> getData() {
-        return monitor.read().lock(() -> new ArrayList<>(data));
+        return optimisticRead(ignored -> unsyncedGetData(), null);
     }
 
     /**
@@ -122,7 +150,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @param newData the list of {@link XYChart.Data} points to use as the {@link TimeSeriesProcessor}' data.
      */
     public void setData(Collection<XYChart.Data<ZonedDateTime, T>> newData) {
-        monitor.write().lock(() -> this.data = new ArrayList<>(newData));
+        monitor.write().lock(this::unsyncedSetData, newData);
     }
 
     /**
@@ -132,7 +160,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @return the data sample at the given index.
      */
     public XYChart.Data<ZonedDateTime, T> getSample(int index) {
-        return monitor.read().lock(() -> this.data.get(index));
+        return optimisticRead(this::unsyncedGetSample, index);
     }
 
     /**
@@ -141,7 +169,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @return the number of elements in the processor's data store
      */
     public int size() {
-        return monitor.read().lock(() -> this.data.size());
+        return optimisticRead(ignored -> unsyncedSize(), null);
     }
 
     /**
@@ -150,7 +178,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @param sample a new sample to add to the processor's data store
      */
     public void addSample(XYChart.Data<ZonedDateTime, T> sample) {
-        monitor.write().lock(() -> this.data.add(sample));
+        monitor.write().lock(() -> unsyncedAddSample(sample));
     }
 
     /**
@@ -159,9 +187,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @param processor the processor holding the samples to append.
      */
     public void appendData(TimeSeriesProcessor<T> processor) {
-        monitor.write().lock(() -> {
-            this.data.addAll(processor.getData());
-        });
+        monitor.write().lock(this::unsyncedAppendData, processor);
     }
 
     /**
@@ -171,7 +197,7 @@ public abstract class TimeSeriesProcessor<T> {
      * @param value     the value of the sample
      */
     public void addSample(ZonedDateTime timestamp, T value) {
-        addSample(new XYChart.Data<>(timestamp, value));
+        monitor.write().lock(() -> unsyncedAddSample(timestamp, value));
     }
 
     /**
@@ -182,23 +208,187 @@ public abstract class TimeSeriesProcessor<T> {
     @SafeVarargs
     public final void applyTransforms(TimeSeriesTransform<T>... seriesTransforms) {
         monitor.write().lock(() -> {
-            if (!data.isEmpty()) {
-                for (var t : seriesTransforms) {
-                    this.data = new ArrayList<>(t.transform(data));
-                }
+            if (unsyncedSize() > 0) {
+                unsyncedApplyTransforms(seriesTransforms);
             } else {
                 logger.trace("Don't apply transform on empty data store");
             }
         });
     }
 
+    /**
+     * Computes a summary property without acquiring the lock if the processor can serve it cheaply
+     * (see {@link #unsyncedIsSummaryAvailable()}), or within the boundaries of the read lock otherwise.
+     *
+     * @param operation the function computing the summary property.
+     * @return the value of the summary property.
+     */
+    private T summaryRead(Supplier<T> operation) {
+        Optional<T> result = optimisticRead(ignored -> unsyncedIsSummaryAvailable() ? Optional.ofNullable(operation.get()) : null, null);
+        if (result != null) {
+            return result.orElse(null);
+        }
+        return monitor.read().lock(() -> {
+            unsyncedPrepareSummary();
+            return operation.get();
+        });
+    }
+
+    /**
+     * Applies the provided function to the data store without acquiring the lock, and falls back to applying it again
+     * within the boundaries of the read lock if the data store was modified in the meantime.
+     * <p><b>Remark:</b> Because the data store can be modified while the function is applied, the function must not
+     * have any side effect and must tolerate observing an inconsistent state, i.e. it must be guaranteed to terminate.
+     * Any {@link RuntimeException} thrown while the state was inconsistent is discarded.</p>
+     *
+     * @param operation the function to apply.
+     * @param u         the parameter to pass the function.
+     * @param <U>       the type of the parameter to pass the function.
+     * @param <R>       the return type for the function.
+     * @return the result of the function.
+     */
+    protected final <U, R> R optimisticRead(Function<U, R> operation, U u) {
+        long stamp = stampedLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            var result = tryOptimisticRead(stamp, operation, u);
+            if (result != null) {
+                return result.orElse(null);
+            }
+        }
+        return monitor.read().lock(operation::apply, u);
+    }
+
+    /**
+     * Returns the result of the function wrapped in an {@link Optional}, or null if the stamp could not be validated.
+     */
+    private <U, R> Optional<R> tryOptimisticRead(long stamp, Function<U, R> operation, U u) {
+        try {
+            R value = operation.apply(u);
+            if (stampedLock.validate(stamp)) {
+                return Optional.ofNullable(value);
+            }
+        } catch (RuntimeException e) {
+            if (stampedLock.validate(stamp)) {
+                throw e;
+            }
+        }
+        // The data store was modified while it was being read
+        return null;
+    }
+
+    /**
+     * Returns a copy of the data store, without acquiring the processor's lock.
+     *
+     * @return a copy of the data store.
+     */
+    protected Collection<XYChart.Data<ZonedDateTime, T>> unsyncedGetData() {
+        return new ArrayList<>(data);
+    }
+
+    /**
+     * Replaces the content of the data store, without acquiring the processor's lock.
+     *
+     * @param newData the new content for the data store.
+     */
+    protected void unsyncedSetData(Collection<XYChart.Data<ZonedDateTime, T>> newData) {
+        this.data = new ArrayList<>(newData);
+    }
+
+    /**
+     * Returns the sample at the given index, without acquiring the processor's lock.
+     *
+     * @param index the index of the sample to retrieve.
+     * @return the sample at the given index.
+     */
+    protected XYChart.Data<ZonedDateTime, T> unsyncedGetSample(int index) {
+        return this.data.get(index);
+    }
+
+    /**
+     * Returns the number of samples in the data store, without acquiring the processor's lock.
+     *
+     * @return the number of samples in the data store.
+     */
+    protected int unsyncedSize() {
+        return this.data.size();
+    }
+
+    /**
+     * Adds a sample to the data store, without acquiring the processor's lock.
+     *
+     * @param sample the sample to add.
+     */
+    protected void unsyncedAddSample(XYChart.Data<ZonedDateTime, T> sample) {
+        this.data.add(sample);
+    }
+
+    /**
+     * Adds a sample to the data store, without acquiring the processor's lock.
+     *
+     * @param timestamp the timestamp of the sample
+     * @param value     the value of the sample
+     */
+    protected void unsyncedAddSample(ZonedDateTime timestamp, T value) {
+        unsyncedAddSample(new XYChart.Data<>(timestamp, value));
+    }
+
+    /**
+     * Appends all samples from a {@link TimeSeriesProcessor} instance, without acquiring the processor's lock.
+     *
+     * @param processor the processor holding the samples to append.
+     */
+    protected void unsyncedAppendData(TimeSeriesProcessor<T> processor) {
+        this.data.addAll(processor.getData());
+    }
+
+    /**
+     * Applies the transformations onto a non-empty data store, without acquiring the processor's lock.
+     *
+     * @param seriesTransforms A list of transformation to apply.
+     */
+    protected void unsyncedApplyTransforms(TimeSeriesTransform<T>[] seriesTransforms) {
+        for (var t : seriesTransforms) {
+            this.data = new ArrayList<>(t.transform(data));
+        }
+    }
+
+    /**
+     * Returns true if summary properties can be computed cheaply, in which case they are computed without acquiring
+     * the processor's lock; returns false if {@link #unsyncedPrepareSummary()} should be invoked first, within the
+     * boundaries of the read lock.
+     * <p>The default implementation returns true.</p>
+     *
+     * @return true if summary properties can be computed without acquiring the processor's lock.
+     */
+    protected boolean unsyncedIsSummaryAvailable() {
+        return true;
+    }
+
+    /**
+     * Prepares the state needed to compute summary properties (e.g. caches intermediate results).
+     * <p>This is invoked within the boundaries of the read lock, possibly by several readers at once.
+     * The default implementation does nothing.</p>
+     */
+    protected void unsyncedPrepareSummary() {
+    }
+
     protected abstract T computeMinValue();
 
     protected abstract T computeAverageValue();
 
     protected abstract T computeMaxValue();
 
-    private T unsyncedGetNearestValue(ZonedDateTime xValue) {
+    protected T computeQuantileValue(double quantile) {
+        return null;
+    }
+
+    /**
+     * Returns the value for the time position nearest to the one requested, without acquiring the processor's lock.
+     *
+     * @param xValue the time stamp to get the value for.
+     * @return the value for the time position nearest to the one requested.
+     */
+    protected T unsyncedGetNearestValue(ZonedDateTime xValue) {
         T value = null;
         if (xValue != null && data != null) {
             var previous = new XYChart.Data<ZonedDateTime, T>(xValue, null);
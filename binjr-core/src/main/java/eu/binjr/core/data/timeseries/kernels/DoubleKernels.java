@@ -0,0 +1,199 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.kernels;
+
+import eu.binjr.common.logging.Logger;
+import eu.binjr.core.preferences.UserPreferences;
+
+/**
+ * Defines numeric kernels that operate on the primitive columns of a time series.
+ * <p>
+ * All kernels operate on the range of elements between {@code from} (inclusive) and {@code to} (exclusive) and
+ * ignore {@link Double#NaN} values, unless specified otherwise.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public interface DoubleKernels {
+
+    /**
+     * Returns the kernels implementation to use; vectorized kernels are returned if they are supported by the
+     * runtime and enabled in the user's preferences, scalar ones otherwise.
+     *
+     * @return the kernels implementation to use.
+     */
+    static DoubleKernels getInstance() {
+        if (KernelsHolder.vector != null && UserPreferences.getInstance().useVectorizedKernels.get()) {
+            return KernelsHolder.vector;
+        }
+        return KernelsHolder.scalar;
+    }
+
+    /**
+     * Returns the area of the triangle formed by point A, a point from the current bucket and the average point of
+     * the next bucket, as used by the Largest-Triangle-Three-Buckets algorithm.
+     * <p>The abscissa of the point and of the average are offsets from point A's timestamp.</p>
+     *
+     * @param ay   the ordinate of point A.
+     * @param x    the abscissa of the point, relative to point A.
+     * @param y    the ordinate of the point.
+     * @param avgX the abscissa of the average point of the next bucket, relative to point A.
+     * @param avgY the ordinate of the average point of the next bucket.
+     * @return the area of the triangle.
+     */
+    static double triangleArea(double ay, double x, double y, double avgX, double avgY) {
+        return Math.abs(-avgX * (y - ay) + x * (avgY - ay)) * 0.5;
+    }
+
+    /**
+     * Returns the smallest value in the range, or {@link Double#NaN} if there are no values.
+     *
+     * @param values the values.
+     * @param from   the index of the first element, inclusive.
+     * @param to     the index of the last element, exclusive.
+     * @return the smallest value in the range.
+     */
+    double min(double[] values, int from, int to);
+
+    /**
+     * Returns the largest value in the range, or {@link Double#NaN} if there are no values.
+     *
+     * @param values the values.
+     * @param from   the index of the first element, inclusive.
+     * @param to     the index of the last element, exclusive.
+     * @return the largest value in the range.
+     */
+    double max(double[] values, int from, int to);
+
+    /**
+     * Returns the sum of the values in the range.
+     *
+     * @param values the values.
+     * @param from   the index of the first element, inclusive.
+     * @param to     the index of the last element, exclusive.
+     * @return the sum of the values in the range.
+     */
+    double sum(double[] values, int from, int to);
+
+    /**
+     * Returns the number of values in the range which are not {@link Double#NaN}.
+     *
+     * @param values the values.
+     * @param from   the index of the first element, inclusive.
+     * @param to     the index of the last element, exclusive.
+     * @return the number of values in the range which are not NaN.
+     */
+    int countNonNaN(double[] values, int from, int to);
+
+    /**
+     * Returns the sum of the differences between each timestamp in the range and the provided origin.
+     *
+     * @param timestamps the timestamps.
+     * @param from       the index of the first element, inclusive.
+     * @param to         the index of the last element, exclusive.
+     * @param origin     the origin to compute differences from.
+     * @return the sum of the differences between each timestamp in the range and the provided origin.
+     */
+    double sumOfOffsets(long[] timestamps, int from, int to, long origin);
+
+    /**
+     * Returns the index of the first occurrence of the smallest value in the range, or -1 if there are no values.
+     *
+     * @param values the values.
+     * @param from   the index of the first element, inclusive.
+     * @param to     the index of the last element, exclusive.
+     * @return the index of the smallest value in the range.
+     */
+    int indexOfMin(double[] values, int from, int to);
+
+    /**
+     * Returns the index of the first occurrence of the largest value in the range, or -1 if there are no values.
+     *
+     * @param values the values.
+     * @param from   the index of the first element, inclusive.
+     * @param to     the index of the last element, exclusive.
+     * @return the index of the largest value in the range.
+     */
+    int indexOfMax(double[] values, int from, int to);
+
+    /**
+     * Returns the index of the sample in the range that forms the largest triangle with point A and the average
+     * point of the next bucket, or -1 if the range is empty.
+     * <p>NaN values are considered to be zero, as per {@link #triangleArea(double, double, double, double, double)}.</p>
+     *
+     * @param timestamps the timestamps.
+     * @param values     the values.
+     * @param from       the index of the first element, inclusive.
+     * @param to         the index of the last element, exclusive.
+     * @param ax         the timestamp of point A.
+     * @param ay         the value of point A.
+     * @param avgX       the abscissa of the average point of the next bucket, relative to point A.
+     * @param avgY       the ordinate of the average point of the next bucket.
+     * @return the index of the sample in the range that forms the largest triangle.
+     */
+    int indexOfLargestTriangle(long[] timestamps, double[] values, int from, int to, long ax, double ay, double avgX, double avgY);
+
+    /**
+     * Removes all the samples whose value is {@link Double#NaN} from the first {@code size} elements of the provided
+     * columns, preserving the order of the remaining samples.
+     *
+     * @param timestamps the timestamps column.
+     * @param values     the values column.
+     * @param size       the number of samples in the columns.
+     * @return the number of samples retained.
+     */
+    int pruneNaN(long[] timestamps, double[] values, int size);
+
+    /**
+     * Returns the name of the implementation.
+     *
+     * @return the name of the implementation.
+     */
+    String getName();
+
+    /**
+     * Holds the available implementations.
+     */
+    final class KernelsHolder {
+        private static final Logger logger = Logger.create(DoubleKernels.class);
+        private static final DoubleKernels scalar = new ScalarDoubleKernels();
+        private static final DoubleKernels vector = loadVectorKernels();
+
+        private KernelsHolder() {
+        }
+
+        private static DoubleKernels loadVectorKernels() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                logger.info("Module jdk.incubator.vector is not available: using scalar kernels for series computations");
+                return null;
+            }
+            try {
+                var kernels = VectorDoubleKernels.create();
+                if (kernels == null) {
+                    logger.info("No hardware support for vector operations on doubles: using scalar kernels for series computations");
+                } else {
+                    logger.info(() -> "Using " + kernels.getName() + " for series computations");
+                }
+                return kernels;
+            } catch (LinkageError e) {
+                logger.warn("Failed to initialize vectorized kernels: " + e.getMessage());
+                logger.debug(() -> "Stack trace", e);
+                return null;
+            }
+        }
+    }
+}
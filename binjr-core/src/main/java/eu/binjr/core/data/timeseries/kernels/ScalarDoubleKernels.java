@@ -0,0 +1,150 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.kernels;
+
+/**
+ * An implementation of {@link DoubleKernels} that processes one element at a time.
+ *
+ * @author Frederic Thevenet
+ */
+final class ScalarDoubleKernels implements DoubleKernels {
+
+    @Override
+    public double min(double[] values, int from, int to) {
+        double min = Double.POSITIVE_INFINITY;
+        boolean found = false;
+        for (int i = from; i < to; i++) {
+            double v = values[i];
+            if (!Double.isNaN(v)) {
+                found = true;
+                if (v < min) {
+                    min = v;
+                }
+            }
+        }
+        return found ? min : Double.NaN;
+    }
+
+    @Override
+    public double max(double[] values, int from, int to) {
+        double max = Double.NEGATIVE_INFINITY;
+        boolean found = false;
+        for (int i = from; i < to; i++) {
+            double v = values[i];
+            if (!Double.isNaN(v)) {
+                found = true;
+                if (v > max) {
+                    max = v;
+                }
+            }
+        }
+        return found ? max : Double.NaN;
+    }
+
+    @Override
+    public double sum(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            double v = values[i];
+            if (!Double.isNaN(v)) {
+                sum += v;
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public int countNonNaN(double[] values, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (!Double.isNaN(values[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public double sumOfOffsets(long[] timestamps, int from, int to, long origin) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += (double) (timestamps[i] - origin);
+        }
+        return sum;
+    }
+
+    @Override
+    public int indexOfMin(double[] values, int from, int to) {
+        int idx = -1;
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            double v = values[i];
+            if (!Double.isNaN(v) && (idx < 0 || v < min)) {
+                min = v;
+                idx = i;
+            }
+        }
+        return idx;
+    }
+
+    @Override
+    public int indexOfMax(double[] values, int from, int to) {
+        int idx = -1;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            double v = values[i];
+            if (!Double.isNaN(v) && (idx < 0 || v > max)) {
+                max = v;
+                idx = i;
+            }
+        }
+        return idx;
+    }
+
+    @Override
+    public int indexOfLargestTriangle(long[] timestamps, double[] values, int from, int to, long ax, double ay, double avgX, double avgY) {
+        int idx = -1;
+        double maxArea = -1;
+        for (int i = from; i < to; i++) {
+            double y = Double.isNaN(values[i]) ? 0.0 : values[i];
+            double area = DoubleKernels.triangleArea(ay, (double) (timestamps[i] - ax), y, avgX, avgY);
+            if (area > maxArea) {
+                maxArea = area;
+                idx = i;
+            }
+        }
+        return idx;
+    }
+
+    @Override
+    public int pruneNaN(long[] timestamps, double[] values, int size) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(values[i])) {
+                timestamps[kept] = timestamps[i];
+                values[kept] = values[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar kernels";
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.kernels;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * An implementation of {@link DoubleKernels} that relies on the incubating Vector API to process several elements
+ * at once, using the widest SIMD registers supported by the platform.
+ * <p>
+ * Elements left over at the end of a range that do not fill a whole vector are processed one at a time.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+final class VectorDoubleKernels implements DoubleKernels {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private final ScalarDoubleKernels scalar = new ScalarDoubleKernels();
+
+    private VectorDoubleKernels() {
+    }
+
+    /**
+     * Returns a new instance of {@link VectorDoubleKernels}, or null if the platform does not support vectors of
+     * more than one double.
+     *
+     * @return a new instance of {@link VectorDoubleKernels}, or null if vectors are not supported.
+     */
+    static VectorDoubleKernels create() {
+        if (DOUBLES.length() < 2 || DOUBLES.length() != LONGS.length()) {
+            return null;
+        }
+        return new VectorDoubleKernels();
+    }
+
+    @Override
+    public double min(double[] values, int from, int to) {
+        var acc = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        int count = 0;
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            var v = DoubleVector.fromArray(DOUBLES, values, i);
+            var nan = v.test(VectorOperators.IS_NAN);
+            count += DOUBLES.length() - nan.trueCount();
+            acc = acc.min(v.blend(Double.POSITIVE_INFINITY, nan));
+        }
+        double min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            double v = values[i];
+            if (!Double.isNaN(v)) {
+                count++;
+                if (v < min) {
+                    min = v;
+                }
+            }
+        }
+        return count > 0 ? min : Double.NaN;
+    }
+
+    @Override
+    public double max(double[] values, int from, int to) {
+        var acc = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int count = 0;
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            var v = DoubleVector.fromArray(DOUBLES, values, i);
+            var nan = v.test(VectorOperators.IS_NAN);
+            count += DOUBLES.length() - nan.trueCount();
+            acc = acc.max(v.blend(Double.NEGATIVE_INFINITY, nan));
+        }
+        double max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            double v = values[i];
+            if (!Double.isNaN(v)) {
+                count++;
+                if (v > max) {
+                    max = v;
+                }
+            }
+        }
+        return count > 0 ? max : Double.NaN;
+    }
+
+    @Override
+    public double sum(double[] values, int from, int to) {
+        var acc = DoubleVector.zero(DOUBLES);
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            var v = DoubleVector.fromArray(DOUBLES, values, i);
+            acc = acc.add(v.blend(0.0, v.test(VectorOperators.IS_NAN)));
+        }
+        return acc.reduceLanes(VectorOperators.ADD) + scalar.sum(values, i, to);
+    }
+
+    @Override
+    public int countNonNaN(double[] values, int from, int to) {
+        int count = 0;
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            count += DoubleVector.fromArray(DOUBLES, values, i).test(VectorOperators.IS_NAN).not().trueCount();
+        }
+        return count + scalar.countNonNaN(values, i, to);
+    }
+
+    @Override
+    public double sumOfOffsets(long[] timestamps, int from, int to, long origin) {
+        var acc = DoubleVector.zero(DOUBLES);
+        int i = from;
+        for (int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+            var offsets = LongVector.fromArray(LONGS, timestamps, i).sub(origin);
+            acc = acc.add((DoubleVector) offsets.convertShape(VectorOperators.L2D, DOUBLES, 0));
+        }
+        return acc.reduceLanes(VectorOperators.ADD) + scalar.sumOfOffsets(timestamps, i, to, origin);
+    }
+
+    @Override
+    public int indexOfMin(double[] values, int from, int to) {
+        double min = min(values, from, to);
+        return Double.isNaN(min) ? -1 : indexOf(values, from, to, min);
+    }
+
+    @Override
+    public int indexOfMax(double[] values, int from, int to) {
+        double max = max(values, from, to);
+        return Double.isNaN(max) ? -1 : indexOf(values, from, to, max);
+    }
+
+    @Override
+    public int indexOfLargestTriangle(long[] timestamps, double[] values, int from, int to, long ax, double ay, double avgX, double avgY) {
+        // Keep track of the largest area, and of the index of the sample it was found at, for each lane.
+        var maxAreas = DoubleVector.broadcast(DOUBLES, -1.0);
+        var maxIndexes = LongVector.broadcast(LONGS, -1L);
+        var laneOffsets = LongVector.zero(LONGS).addIndex(1);
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            var x = (DoubleVector) LongVector.fromArray(LONGS, timestamps, i).sub(ax)
+                    .convertShape(VectorOperators.L2D, DOUBLES, 0);
+            var y = DoubleVector.fromArray(DOUBLES, values, i);
+            y = y.blend(0.0, y.test(VectorOperators.IS_NAN));
+            // area = |-avgX * (y - ay) + x * (avgY - ay)| * 0.5
+            var areas = y.sub(ay).mul(-avgX).add(x.mul(avgY - ay)).abs().mul(0.5);
+            VectorMask<Double> larger = areas.compare(VectorOperators.GT, maxAreas);
+            maxAreas = maxAreas.blend(areas, larger);
+            maxIndexes = maxIndexes.blend(laneOffsets.add(i), larger.cast(LONGS));
+        }
+        // Reduce lanes, retaining the earliest sample among equal areas, as the scalar algorithm does.
+        int idx = -1;
+        double maxArea = -1;
+        for (int lane = 0; lane < DOUBLES.length(); lane++) {
+            double area = maxAreas.lane(lane);
+            int laneIdx = (int) maxIndexes.lane(lane);
+            if (laneIdx >= 0 && (area > maxArea || (area == maxArea && laneIdx < idx))) {
+                maxArea = area;
+                idx = laneIdx;
+            }
+        }
+        for (; i < to; i++) {
+            double y = Double.isNaN(values[i]) ? 0.0 : values[i];
+            double area = DoubleKernels.triangleArea(ay, (double) (timestamps[i] - ax), y, avgX, avgY);
+            if (area > maxArea) {
+                maxArea = area;
+                idx = i;
+            }
+        }
+        return idx;
+    }
+
+    @Override
+    public int pruneNaN(long[] timestamps, double[] values, int size) {
+        int kept = 0;
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(size); i < bound; i += DOUBLES.length()) {
+            var nan = DoubleVector.fromArray(DOUBLES, values, i).test(VectorOperators.IS_NAN);
+            if (!nan.anyTrue()) {
+                // No NaN in this chunk: only move samples if some were dropped earlier.
+                if (kept != i) {
+                    System.arraycopy(timestamps, i, timestamps, kept, DOUBLES.length());
+                    System.arraycopy(values, i, values, kept, DOUBLES.length());
+                }
+                kept += DOUBLES.length();
+            } else {
+                for (int j = i; j < i + DOUBLES.length(); j++) {
+                    if (!Double.isNaN(values[j])) {
+                        timestamps[kept] = timestamps[j];
+                        values[kept] = values[j];
+                        kept++;
+                    }
+                }
+            }
+        }
+        for (; i < size; i++) {
+            if (!Double.isNaN(values[i])) {
+                timestamps[kept] = timestamps[i];
+                values[kept] = values[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public String getName() {
+        return "vectorized kernels (" + DOUBLES.vectorBitSize() + " bits)";
+    }
+
+    private int indexOf(double[] values, int from, int to, double value) {
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            var found = DoubleVector.fromArray(DOUBLES, values, i).eq(value);
+            if (found.anyTrue()) {
+                return i + found.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
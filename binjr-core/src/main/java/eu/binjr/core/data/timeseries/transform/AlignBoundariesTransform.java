@@ -16,6 +16,7 @@
 
 package eu.binjr.core.data.timeseries.transform;
 
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -112,6 +113,110 @@ public class AlignBoundariesTransform extends BaseTimeSeriesTransform<Double> {
         return data;
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        if (columns.isEmpty()) {
+            return columns;
+        }
+        long start = DoubleColumns.toEpochNanos(startTime);
+        long end = DoubleColumns.toEpochNanos(endTime);
+        int size = columns.size();
+        var timestamps = columns.getTimestamps();
+        var values = columns.getValues();
+        // The aligned series is made of up to two leading samples, followed by the samples retained from the
+        // original series, followed by up to two trailing samples; it is computed before being written in place.
+        var head = new Boundary();
+        var tail = new Boundary();
+        //Align the lower (earlier) boundary of the series
+        int first = 0;
+        if (timestamps[0] > start) {
+            // if the first available sample is later than the requested start time,
+            // add a sample 1ns after last sample with a substitute value then another sample at start time in order to
+            // create an abrupt truncation.
+            head.add(start, substituteValue);
+            head.add(timestamps[0] - 1, substituteValue);
+        } else if (timestamps[0] < start) {
+            // skip all samples with timestamps occurring before the requested start time.
+            while (first < size && timestamps[first] < start) {
+                first++;
+            }
+            // use the known sample right before start time to interpolate the value of inserted sample
+            int next = Math.min(first, size - 1);
+            head.add(start, interpolate(timestamps[first - 1], values[first - 1], timestamps[next], values[next], start));
+        }
+        // Samples of the aligned series are addressed as [head..., original[first...]]
+        int alignedSize = head.size + size - first;
+        // Align the higher (later) boundary of the series
+        int last = alignedSize - 1;
+        long lastTimestamp = alignedTimestamp(head, timestamps, first, last);
+        if (lastTimestamp < end) {
+            tail.add(lastTimestamp + 1, substituteValue);
+            tail.add(end, substituteValue);
+        } else if (lastTimestamp > end) {
+            while (last >= 0 && alignedTimestamp(head, timestamps, first, last) > end) {
+                last--;
+            }
+            int next = last + 1;
+            int previous = Math.max(last, 0);
+            tail.add(end, interpolate(alignedTimestamp(head, timestamps, first, previous), alignedValue(head, values, first, previous),
+                    alignedTimestamp(head, timestamps, first, next), alignedValue(head, values, first, next), end));
+            alignedSize = last + 1;
+        }
+        int nbHead = Math.min(head.size, alignedSize);
+        int nbRetained = alignedSize - nbHead;
+        int newSize = alignedSize + tail.size;
+        if (newSize > timestamps.length || newSize > values.length) {
+            var grown = new DoubleColumns(new long[newSize], new double[newSize], newSize, columns.getZoneId());
+            System.arraycopy(timestamps, first, grown.getTimestamps(), nbHead, nbRetained);
+            System.arraycopy(values, first, grown.getValues(), nbHead, nbRetained);
+            timestamps = grown.getTimestamps();
+            values = grown.getValues();
+            columns = grown;
+        } else {
+            System.arraycopy(timestamps, first, timestamps, nbHead, nbRetained);
+            System.arraycopy(values, first, values, nbHead, nbRetained);
+            columns = new DoubleColumns(timestamps, values, newSize, columns.getZoneId());
+        }
+        System.arraycopy(head.timestamps, 0, timestamps, 0, nbHead);
+        System.arraycopy(head.values, 0, values, 0, nbHead);
+        System.arraycopy(tail.timestamps, 0, timestamps, alignedSize, tail.size);
+        System.arraycopy(tail.values, 0, values, alignedSize, tail.size);
+        return columns;
+    }
+
+    private static long alignedTimestamp(Boundary head, long[] timestamps, int first, int index) {
+        return index < head.size ? head.timestamps[index] : timestamps[first + index - head.size];
+    }
+
+    private static double alignedValue(Boundary head, double[] values, int first, int index) {
+        return index < head.size ? head.values[index] : values[first + index - head.size];
+    }
+
+    /**
+     * Holds the (at most two) samples inserted at either end of an aligned series.
+     */
+    private static final class Boundary {
+        private final long[] timestamps = new long[2];
+        private final double[] values = new double[2];
+        private int size = 0;
+
+        private void add(long timestamp, double value) {
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    private double interpolate(long x1, double y1, long x2, double y2, long time) {
+        if (!interpolateBoundaries) {
+            return substituteValue;
+        }
+        double x1Ms = DoubleColumns.toEpochMillis(x1);
+        double x2Ms = DoubleColumns.toEpochMillis(x2);
+        double x3Ms = DoubleColumns.toEpochMillis(time);
+        return (y2 - y1) / (x2Ms - x1Ms) * (x3Ms - x1Ms) + y1;
+    }
+
     private Double interpolate(XYChart.Data<ZonedDateTime, Double> val1, XYChart.Data<ZonedDateTime, Double> val2, ZonedDateTime time) {
         var y1 = val1.getYValue();
         var y2 = val2.getYValue();
@@ -17,6 +17,7 @@
 package eu.binjr.core.data.timeseries.transform;
 
 import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.Duration;
@@ -70,4 +71,37 @@ public final class AverageResamplingTransform extends BaseTimeSeriesTransform<Do
         return data;
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        if (threshold > 0 && columns.size() > threshold) {
+            int dataLength = columns.size();
+            var timestamps = columns.getTimestamps();
+            var values = columns.getValues();
+            var reduced = new DoubleColumns(new long[threshold + 2], new double[threshold + 2], 0, columns.getZoneId());
+            long start = timestamps[0];
+            long end = timestamps[dataLength - 1];
+            double stepNanos = (end - start) / (double) (threshold);
+            reduced.add(start, values[0]);
+            long nextSampleTime = start + (long) Math.floor(stepNanos);
+            double bucketAgg = 0;
+            long bucketSize = 0;
+            for (int i = 1; i < dataLength - 1; i++) {
+                if (timestamps[i] < nextSampleTime) {
+                    bucketAgg += values[i];
+                    bucketSize++;
+                } else {
+                    reduced.add(nextSampleTime, bucketAgg / bucketSize);
+                    //initialize next bucket
+                    nextSampleTime = nextSampleTime + (long) Math.floor(stepNanos);
+                    bucketAgg = values[i];
+                    bucketSize = 1;
+                }
+            }
+            reduced.add(end, values[dataLength - 1]);
+            logger.debug(() -> "Series reduced from " + dataLength + " to " + reduced.size() + " samples.");
+            return reduced;
+        }
+        return columns;
+    }
+
 }
@@ -18,6 +18,7 @@ package eu.binjr.core.data.timeseries.transform;
 
 import eu.binjr.common.logging.Logger;
 import eu.binjr.common.logging.Profiler;
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -51,6 +52,22 @@ public abstract class BaseTimeSeriesTransform<T> implements TimeSeriesTransform<
 
     protected abstract List<XYChart.Data<ZonedDateTime, T>> apply(List<XYChart.Data<ZonedDateTime, T>> data);
 
+    /**
+     * The actual transform implementation for numeric series held in primitive columns.
+     * <p>
+     * The default implementation goes through a list of {@link XYChart.Data} instances and should be overridden by
+     * transforms that can operate on primitive columns directly.
+     * </p>
+     *
+     * @param columns The columns on which the transform should be applied; they may be modified in place.
+     * @return The transformed columns.
+     */
+    @SuppressWarnings("unchecked")
+    protected DoubleColumns apply(DoubleColumns columns) {
+        var result = apply((List<XYChart.Data<ZonedDateTime, T>>) (List<?>) columns.toDataList());
+        return DoubleColumns.fromData((List<XYChart.Data<ZonedDateTime, Double>>) (List<?>) result);
+    }
+
     @Override
     public List<XYChart.Data<ZonedDateTime, T>> transform(List<XYChart.Data<ZonedDateTime, T>> data) {
         if (isEnabled()) {
@@ -63,6 +80,18 @@ public abstract class BaseTimeSeriesTransform<T> implements TimeSeriesTransform<
         return data;
     }
 
+    @Override
+    public DoubleColumns transform(DoubleColumns columns) {
+        if (isEnabled()) {
+            try (Profiler ignored = Profiler.start("Applying transform " + getName(), logger::perf)) {
+                return apply(columns);
+            }
+        } else {
+            logger.debug(() -> "Transform " + getName() + " is disabled.");
+        }
+        return columns;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -17,6 +17,7 @@
 package eu.binjr.core.data.timeseries.transform;
 
 import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -50,6 +51,24 @@ public class DecimationTransform extends BaseTimeSeriesTransform<Double> {
     }
 
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        if (threshold > 0 && columns.size() > threshold) {
+            int dataLength = columns.size();
+            int[] indexes = new int[threshold];
+            double every = (double) (dataLength - 2) / (threshold - 2);
+            indexes[0] = 0; // Always add the first point
+            for (int i = 1; i < threshold - 1; i++) {
+                indexes[i] = Math.min(dataLength - 1, (int) Math.round(i * every));
+            }
+            indexes[threshold - 1] = dataLength - 1;
+            var sampled = columns.select(indexes, threshold);
+            logger.debug(() -> "Series reduced from " + dataLength + " to " + sampled.size() + " samples.");
+            return sampled;
+        }
+        return columns;
+    }
+
     private List<XYChart.Data<ZonedDateTime, Double>> decimate(List<XYChart.Data<ZonedDateTime, Double>> data, int threshold) {
         int dataLength = data.size();
         List<XYChart.Data<ZonedDateTime, Double>> sampled = new ArrayList<>(threshold);
@@ -18,10 +18,12 @@ package eu.binjr.core.data.timeseries.transform;
 
 import eu.binjr.common.concurrent.ReadWriteLockHelper;
 import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -35,8 +37,8 @@ public class FirstPassLttbTransform extends BaseTimeSeriesTransform<Double> {
     private static final Logger logger = Logger.create(FirstPassLttbTransform.class);
     protected final int threshold;
     private final ReadWriteLockHelper rwMonitor = new ReadWriteLockHelper(new ReentrantReadWriteLock());
-    private final List<Double[]> seriesValues;
-    private ZonedDateTime[] timeStamps;
+    private final List<double[]> seriesValues;
+    private long[] timeStamps;
 
     /**
      * Initializes a new instance of the {@link FirstPassLttbTransform} class.
@@ -49,11 +51,11 @@ public class FirstPassLttbTransform extends BaseTimeSeriesTransform<Double> {
         seriesValues = new ArrayList<>();
     }
 
-    public List<Double[]> getSeriesValues() {
+    public List<double[]> getSeriesValues() {
         return seriesValues;
     }
 
-    public ZonedDateTime[] getTimeStamps() {
+    public long[] getTimeStamps() {
         return timeStamps;
     }
 
@@ -61,17 +63,37 @@ public class FirstPassLttbTransform extends BaseTimeSeriesTransform<Double> {
     protected List<XYChart.Data<ZonedDateTime, Double>> apply(List<XYChart.Data<ZonedDateTime, Double>> data) {
         // collect values for second pass
         if (threshold > 0 && data.size() > threshold) {
-            var values = data.stream().map(d -> Double.isNaN(d.getYValue()) ? 0.0 : d.getYValue()).toArray(Double[]::new);
+            var values = data.stream().mapToDouble(d -> Double.isNaN(d.getYValue()) ? 0.0 : d.getYValue()).toArray();
             rwMonitor.write().lock(() -> {
                 seriesValues.add(values);
                 if (timeStamps == null) {
-                    timeStamps = data.stream().map(XYChart.Data::getXValue).toArray(ZonedDateTime[]::new);
+                    timeStamps = data.stream().mapToLong(d -> DoubleColumns.toEpochNanos(d.getXValue())).toArray();
                 }
             });
         }
         return data;
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        // collect values for second pass
+        if (threshold > 0 && columns.size() > threshold) {
+            var values = Arrays.copyOf(columns.getValues(), columns.size());
+            for (int i = 0; i < values.length; i++) {
+                if (Double.isNaN(values[i])) {
+                    values[i] = 0.0;
+                }
+            }
+            rwMonitor.write().lock(() -> {
+                seriesValues.add(values);
+                if (timeStamps == null) {
+                    timeStamps = Arrays.copyOf(columns.getTimestamps(), columns.size());
+                }
+            });
+        }
+        return columns;
+    }
+
     @Override
     public TimeSeriesTransform<Double> getNextPassTransform() {
         return rwMonitor.read().lock(() -> {
@@ -17,6 +17,8 @@
 package eu.binjr.core.data.timeseries.transform;
 
 import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.kernels.DoubleKernels;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -39,7 +41,17 @@ public class LargestTriangleThreeBucketsTransform extends BaseTimeSeriesTransfor
      * @param threshold the maximum number of points to keep following the reduction.
      */
     public LargestTriangleThreeBucketsTransform(final int threshold) {
-        super("LargestTriangleThreeBucketsTransform");
+        this("LargestTriangleThreeBucketsTransform", threshold);
+    }
+
+    /**
+     * Initializes a new instance of a transform derived from {@link LargestTriangleThreeBucketsTransform}.
+     *
+     * @param name      the name of the transform.
+     * @param threshold the maximum number of points to keep following the reduction.
+     */
+    protected LargestTriangleThreeBucketsTransform(String name, final int threshold) {
+        super(name);
         this.threshold = threshold;
     }
 
@@ -51,6 +63,14 @@ public class LargestTriangleThreeBucketsTransform extends BaseTimeSeriesTransfor
         return data;
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        if (threshold > 0 && columns.size() > threshold) {
+            return applyLTTBReduction(columns, threshold);
+        }
+        return columns;
+    }
+
     /**
      * <p>Method implementing the Largest-Triangle-Three-Buckets algorithm.</p>
      * <p>Adapted from <a href="https://gist.github.com/DanielWJudge/63300889f27c7f50eeb7">DanielWJudge/LargestTriangleThreeBuckets.cs</a></p>
@@ -109,6 +129,58 @@ public class LargestTriangleThreeBucketsTransform extends BaseTimeSeriesTransfor
         return sampled;
     }
 
+    /**
+     * <p>Method implementing the Largest-Triangle-Three-Buckets algorithm on primitive columns.</p>
+     * <p>Abscissas are computed as offsets in nanoseconds from point A, so that per-bucket scans can be vectorized.</p>
+     *
+     * @param columns   the columns holding the samples to apply the reduction to.
+     * @param threshold d the maximum number of samples to keep.
+     * @return the columns holding the reduced samples.
+     */
+    private DoubleColumns applyLTTBReduction(DoubleColumns columns, int threshold) {
+        var kernels = DoubleKernels.getInstance();
+        int dataLength = columns.size();
+        var timestamps = columns.getTimestamps();
+        var values = columns.getValues();
+        int[] sampled = new int[threshold];
+        int nbSampled = 0;
+        // Bucket size. Leave room for start and end data points
+        double every = (double) (dataLength - 2) / (threshold - 2);
+        int a = 0;
+        int nextA = 0;
+        int maxAreaPoint = a;
+        sampled[nbSampled++] = a; // Always add the first point
+        for (int i = 0; i < threshold - 2; i++) {
+            // Calculate point average for next bucket (containing c), relative to point a
+            int avgRangeStart = (int) (Math.floor((i + 1) * every) + 1);
+            int avgRangeEnd = (int) (Math.floor((i + 2) * every) + 1);
+            avgRangeEnd = Math.min(avgRangeEnd, dataLength);
+            int avgRangeLength = avgRangeEnd - avgRangeStart;
+            double avgX = kernels.sumOfOffsets(timestamps, avgRangeStart, avgRangeEnd, timestamps[a]) / avgRangeLength;
+            double avgY = kernels.sum(values, avgRangeStart, avgRangeEnd) / avgRangeLength;
+            // Get the range for this bucket
+            int rangeOffs = (int) (Math.floor((i) * every) + 1);
+            int rangeTo = (int) (Math.floor((i + 1) * every) + 1);
+            // Find the point with the largest triangle area over three buckets
+            int idx = kernels.indexOfLargestTriangle(timestamps, values, rangeOffs, rangeTo,
+                    timestamps[a], zeroIfNaN(values[a]), avgX, avgY);
+            if (idx >= 0) {
+                maxAreaPoint = idx;
+                nextA = idx; // Next a is this b
+            }
+            sampled[nbSampled++] = maxAreaPoint; // Pick this point from the bucket
+            a = nextA; // This a is the next a (chosen b)
+        }
+        sampled[nbSampled++] = dataLength - 1; // Always add last
+        var reduced = columns.select(sampled, nbSampled);
+        logger.debug(() -> "Series reduced from " + dataLength + " to " + reduced.size() + " samples.");
+        return reduced;
+    }
+
+    private static double zeroIfNaN(double value) {
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
     private double getYValue(XYChart.Data<ZonedDateTime, Double> sample) {
         if (Double.isNaN(sample.getYValue())) {
             return 0.0;
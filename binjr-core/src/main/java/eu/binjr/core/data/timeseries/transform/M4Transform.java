@@ -0,0 +1,163 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.transform;
+
+import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.kernels.DoubleKernels;
+import javafx.scene.chart.XYChart;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A time series transform that applies the <a href="https://www.vldb.org/pvldb/vol7/p797-jugel.pdf">M4 aggregation</a>
+ * to reduce the number of samples in a series.
+ * <p>
+ * The time range is split into as many groups as there are pixel columns to plot the series into, and only the first,
+ * last, smallest and largest samples of each group are kept, which guarantees that a line chart drawn from the reduced
+ * series is rasterized exactly as it would be from the full series.
+ * </p>
+ * <p>Input samples are expected to be sorted chronologically.</p>
+ *
+ * @author Frederic Thevenet
+ */
+public class M4Transform extends BaseTimeSeriesTransform<Double> {
+    private static final Logger logger = Logger.create(M4Transform.class);
+    private final int pixelWidth;
+    private final ZonedDateTime start;
+    private final ZonedDateTime end;
+
+    /**
+     * Initializes a new instance of the {@link M4Transform} class.
+     *
+     * @param pixelWidth the width in pixels of the area the series is plotted into.
+     * @param start      the start of the plotted time range, or null to use the timestamp of the first sample.
+     * @param end        the end of the plotted time range, or null to use the timestamp of the last sample.
+     */
+    public M4Transform(int pixelWidth, ZonedDateTime start, ZonedDateTime end) {
+        super("M4Transform");
+        this.pixelWidth = pixelWidth;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected List<XYChart.Data<ZonedDateTime, Double>> apply(List<XYChart.Data<ZonedDateTime, Double>> data) {
+        if (pixelWidth > 0 && data.size() > 4 * pixelWidth) {
+            var columns = DoubleColumns.fromData(data);
+            var indexes = selectIndexes(columns.getTimestamps(), columns.getValues(), columns.size());
+            List<XYChart.Data<ZonedDateTime, Double>> sampled = new ArrayList<>(indexes.length);
+            for (int i : indexes) {
+                sampled.add(data.get(i));
+            }
+            logger.debug(() -> "Series reduced from " + data.size() + " to " + sampled.size() + " samples.");
+            return sampled;
+        }
+        return data;
+    }
+
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        if (pixelWidth > 0 && columns.size() > 4 * pixelWidth) {
+            var indexes = selectIndexes(columns.getTimestamps(), columns.getValues(), columns.size());
+            var sampled = columns.select(indexes, indexes.length);
+            logger.debug(() -> "Series reduced from " + columns.size() + " to " + sampled.size() + " samples.");
+            return sampled;
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the indexes, in ascending order, of the first, last, smallest and largest samples of each pixel column.
+     *
+     * @param timestamps the timestamps of the samples, in epoch nanoseconds.
+     * @param values     the values of the samples.
+     * @param size       the number of samples.
+     * @return the indexes of the samples to keep.
+     */
+    private int[] selectIndexes(long[] timestamps, double[] values, int size) {
+        var kernels = DoubleKernels.getInstance();
+        long origin = start != null ? DoubleColumns.toEpochNanos(start) : timestamps[0];
+        long span = (end != null ? DoubleColumns.toEpochNanos(end) : timestamps[size - 1]) - origin;
+        double pixelsPerNano = pixelWidth / (double) Math.max(1L, span);
+        // Samples outside the range fall into one group before and one group after the pixel columns
+        int[] selected = new int[Math.min(size, 4 * (pixelWidth + 3))];
+        int nbSelected = 0;
+        int[] group = new int[4];
+        int from = 0;
+        while (from < size) {
+            long column = columnOf(timestamps[from], origin, span, pixelsPerNano);
+            int to = endOfColumn(timestamps, from, size, column, origin, span, pixelsPerNano);
+            group[0] = from;
+            group[1] = kernels.indexOfMin(values, from, to);
+            group[2] = kernels.indexOfMax(values, from, to);
+            group[3] = to - 1;
+            Arrays.sort(group);
+            int last = -1;
+            for (int idx : group) {
+                if (idx > last) {
+                    if (nbSelected == selected.length) {
+                        selected = Arrays.copyOf(selected, selected.length * 2);
+                    }
+                    selected[nbSelected++] = idx;
+                    last = idx;
+                }
+            }
+            from = to;
+        }
+        return Arrays.copyOf(selected, nbSelected);
+    }
+
+    /**
+     * Returns the index of the first sample following {@code from} that does not belong to the specified column,
+     * using an exponential search so that both sparse and dense columns are found in logarithmic time.
+     */
+    private int endOfColumn(long[] timestamps, int from, int size, long column, long origin, long span, double pixelsPerNano) {
+        int low = from;
+        int step = 1;
+        int high = from + 1;
+        while (high < size && columnOf(timestamps[high], origin, span, pixelsPerNano) <= column) {
+            low = high;
+            step <<= 1;
+            high = (int) Math.min(size, (long) from + step);
+        }
+        // The first sample beyond the column lies in (low, high]
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (columnOf(timestamps[mid], origin, span, pixelsPerNano) <= column) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    private long columnOf(long timestamp, long origin, long span, double pixelsPerNano) {
+        long offset = timestamp - origin;
+        if (offset < 0) {
+            return -1;
+        }
+        if (offset > span) {
+            return pixelWidth + 1L;
+        }
+        return Math.min(pixelWidth, (long) (offset * pixelsPerNano));
+    }
+}
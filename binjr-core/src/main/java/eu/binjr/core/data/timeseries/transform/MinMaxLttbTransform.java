@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.transform;
+
+import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.kernels.DoubleKernels;
+import javafx.scene.chart.XYChart;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A variant of the {@link LargestTriangleThreeBucketsTransform} that first reduces the series to a small multiple of
+ * the threshold by only keeping the smallest and largest samples of equally sized partitions, and then applies the
+ * exact LTTB algorithm on the preselected samples.
+ * <p>
+ * Unlike the LTTB algorithm itself, in which the choice of a point depends on the one chosen in the previous bucket,
+ * partitions are independent of each other and are processed in parallel for large series.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ * @see <a href="https://arxiv.org/abs/2305.00332">MinMaxLTTB: Leveraging MinMax-Preselection to Scale LTTB</a>
+ */
+public class MinMaxLttbTransform extends LargestTriangleThreeBucketsTransform {
+    private static final Logger logger = Logger.create(MinMaxLttbTransform.class);
+    /**
+     * The default ratio between the number of preselected samples and the threshold.
+     */
+    public static final int DEFAULT_PRESELECTION_RATIO = 4;
+    private static final int MIN_PARALLEL_SIZE = 1 << 16;
+    private final int preselectionRatio;
+
+    /**
+     * Initializes a new instance of the {@link MinMaxLttbTransform} class.
+     *
+     * @param threshold the maximum number of points to keep following the reduction.
+     */
+    public MinMaxLttbTransform(final int threshold) {
+        this(threshold, DEFAULT_PRESELECTION_RATIO);
+    }
+
+    /**
+     * Initializes a new instance of the {@link MinMaxLttbTransform} class.
+     *
+     * @param threshold         the maximum number of points to keep following the reduction.
+     * @param preselectionRatio the ratio between the number of samples kept by the preselection and the threshold.
+     */
+    public MinMaxLttbTransform(final int threshold, final int preselectionRatio) {
+        super("MinMaxLttbTransform", threshold);
+        this.preselectionRatio = Math.max(1, preselectionRatio);
+    }
+
+    @Override
+    protected List<XYChart.Data<ZonedDateTime, Double>> apply(List<XYChart.Data<ZonedDateTime, Double>> data) {
+        if (needsPreselection(data.size())) {
+            var indexes = preselect(DoubleColumns.fromData(data));
+            List<XYChart.Data<ZonedDateTime, Double>> preselected = new ArrayList<>(indexes.length);
+            for (int i : indexes) {
+                preselected.add(data.get(i));
+            }
+            logger.debug(() -> "Preselected " + preselected.size() + " out of " + data.size() + " samples.");
+            return super.apply(preselected);
+        }
+        return super.apply(data);
+    }
+
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        if (needsPreselection(columns.size())) {
+            var indexes = preselect(columns);
+            var preselected = columns.select(indexes, indexes.length);
+            logger.debug(() -> "Preselected " + preselected.size() + " out of " + columns.size() + " samples.");
+            return super.apply(preselected);
+        }
+        return super.apply(columns);
+    }
+
+    private boolean needsPreselection(int size) {
+        return threshold > 2 && size > (long) threshold * preselectionRatio;
+    }
+
+    /**
+     * Returns the indexes, in ascending order, of the first and last samples and of the smallest and largest samples
+     * of each partition of the series.
+     *
+     * @param columns the columns holding the samples to preselect.
+     * @return the indexes of the preselected samples.
+     */
+    private int[] preselect(DoubleColumns columns) {
+        var kernels = DoubleKernels.getInstance();
+        var values = columns.getValues();
+        int size = columns.size();
+        int nbPartitions = Math.max(1, threshold * preselectionRatio / 2);
+        // First and last samples are left out of partitions, as LTTB always keeps them.
+        double every = (double) (size - 2) / nbPartitions;
+        int[] indexes = new int[nbPartitions * 2 + 2];
+        var partitions = IntStream.range(0, nbPartitions);
+        if (size >= MIN_PARALLEL_SIZE) {
+            partitions = partitions.parallel();
+        }
+        partitions.forEach(p -> {
+            int from = (int) (p * every) + 1;
+            int to = p == nbPartitions - 1 ? size - 1 : (int) ((p + 1) * every) + 1;
+            int min = kernels.indexOfMin(values, from, to);
+            int max = kernels.indexOfMax(values, from, to);
+            if (min < 0) {
+                // Only NaN values in partition: keep its first sample so that the gap is preserved.
+                min = max = from;
+            }
+            indexes[p * 2 + 1] = Math.min(min, max);
+            indexes[p * 2 + 2] = Math.max(min, max);
+        });
+        indexes[indexes.length - 1] = size - 1;
+        // Remove duplicates found when min and max are the same sample
+        int count = 1;
+        for (int i = 1; i < indexes.length; i++) {
+            if (indexes[i] != indexes[count - 1]) {
+                indexes[count++] = indexes[i];
+            }
+        }
+        return count == indexes.length ? indexes : Arrays.copyOf(indexes, count);
+    }
+}
@@ -16,6 +16,7 @@
 
 package eu.binjr.core.data.timeseries.transform;
 
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -43,4 +44,15 @@ public class NanToZeroTransform extends BaseTimeSeriesTransform<Double> {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        var values = columns.getValues();
+        for (int i = 0; i < columns.size(); i++) {
+            if (Double.isNaN(values[i])) {
+                values[i] = 0.0;
+            }
+        }
+        return columns;
+    }
+
 }
@@ -16,6 +16,7 @@
 
 package eu.binjr.core.data.timeseries.transform;
 
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -27,6 +28,11 @@ public class NoOpTransform<T> implements TimeSeriesTransform<T> {
         return data;
     }
 
+    @Override
+    public DoubleColumns transform(DoubleColumns columns) {
+        return columns;
+    }
+
     @Override
     public String getName() {
         return "NoOpTransform";
@@ -16,6 +16,8 @@
 
 package eu.binjr.core.data.timeseries.transform;
 
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.kernels.DoubleKernels;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -38,4 +40,10 @@ public class PruneNanTransform extends BaseTimeSeriesTransform<Double> {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        columns.truncate(DoubleKernels.getInstance().pruneNaN(columns.getTimestamps(), columns.getValues(), columns.size()));
+        return columns;
+    }
+
 }
@@ -17,6 +17,8 @@
 package eu.binjr.core.data.timeseries.transform;
 
 import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.kernels.DoubleKernels;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -62,6 +64,22 @@ public class SecondPassLttbTransform extends BaseTimeSeriesTransform<Double> {
         return data;
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        if (threshold > 0 && columns.size() > threshold) {
+            int[] indexes = new int[columns.size()];
+            int count = 0;
+            for (int i = 0; i < columns.size(); i++) {
+                if (whiteList[i]) {
+                    indexes[count++] = i;
+                }
+            }
+            var filtered = columns.select(indexes, count);
+            logger.debug(() -> "Series reduced from " + columns.size() + " to " + filtered.size() + " samples.");
+            return filtered;
+        }
+        return columns;
+    }
 
     /**
      * <p>Method implementing the Largest-Triangle-Three-Buckets algorithm.</p>
@@ -69,9 +87,8 @@ public class SecondPassLttbTransform extends BaseTimeSeriesTransform<Double> {
      *
      * @return a white list of samples indexes to retain after a reduction
      */
-    private boolean[] computeWhiteList(ZonedDateTime[] data, List<Double[]> seriesValues, int threshold) {
+    private boolean[] computeWhiteList(long[] data, List<double[]> seriesValues, int threshold) {
         int dataLength = data.length;
-        int nbDim = seriesValues.size();
         boolean[] whiteList = new boolean[dataLength];
         // Bucket size. Leave room for start and end data points
         double every = (double) (dataLength - 2) / (threshold - 2);
@@ -79,45 +96,36 @@ public class SecondPassLttbTransform extends BaseTimeSeriesTransform<Double> {
         int nextA = 0;
         int maxAreaPointIdx = a;
         whiteList[a] = true;// Always add the first point
+        var kernels = DoubleKernels.getInstance();
         for (int i = 0; i < threshold - 2; i++) {
-            // Calculate point average for next bucket (containing c)
-            double avgX = 0;
-            double[] avgY = new double[nbDim];
+            // Calculate point average for next bucket (containing c), relative to point a
             int avgRangeStart = (int) (Math.floor((i + 1) * every) + 1);
             int avgRangeEnd = (int) (Math.floor((i + 2) * every) + 1);
             avgRangeEnd = Math.min(avgRangeEnd, dataLength);
             int avgRangeLength = avgRangeEnd - avgRangeStart;
-            for (; avgRangeStart < avgRangeEnd; avgRangeStart++) {
-                avgX += data[avgRangeStart].toInstant().toEpochMilli();
-                for (int j = 0; j < nbDim; j++) {
-                    avgY[j] += seriesValues.get(j)[avgRangeStart];
-                }
-            }
-            avgX /= avgRangeLength;
-            for (int j = 0; j < nbDim; j++) {
-                avgY[j] = avgY[j] / avgRangeLength;
-            }
+            double avgX = kernels.sumOfOffsets(data, avgRangeStart, avgRangeEnd, data[a]) / avgRangeLength;
             // Get the range for this bucket
             int rangeOffs = (int) (Math.floor((i) * every) + 1);
             int rangeTo = (int) (Math.floor((i + 1) * every) + 1);
-
-            // Point a
-            double pointAx = data[a].toInstant().toEpochMilli();
-            double maxArea = -1;//
-            for (; rangeOffs < rangeTo; rangeOffs++) {
-                // Calculate triangle area over three buckets
-                double[] area = new double[nbDim];
-                for (int j = 0; j < nbDim; j++) {
-                    area[j] = Math.abs((pointAx - avgX) * (seriesValues.get(j)[rangeOffs] - seriesValues.get(j)[a]) -
-                            (pointAx - data[rangeOffs].toInstant().toEpochMilli()) * (avgY[j] - seriesValues.get(j)[a])
-                    ) * 0.5;
-                    if (area[j] > maxArea) {
-                        maxArea = area[j];
-                        maxAreaPointIdx = rangeOffs;
-                        nextA = rangeOffs; // Next a is this b
+            // Find the point with the largest triangle area over three buckets across all series,
+            // retaining the earliest one in case of a tie.
+            double maxArea = -1;
+            int bucketMaxIdx = -1;
+            for (var values : seriesValues) {
+                double avgY = kernels.sum(values, avgRangeStart, avgRangeEnd) / avgRangeLength;
+                int idx = kernels.indexOfLargestTriangle(data, values, rangeOffs, rangeTo, data[a], values[a], avgX, avgY);
+                if (idx >= 0) {
+                    double area = DoubleKernels.triangleArea(values[a], (double) (data[idx] - data[a]), values[idx], avgX, avgY);
+                    if (area > maxArea || (area == maxArea && idx < bucketMaxIdx)) {
+                        maxArea = area;
+                        bucketMaxIdx = idx;
                     }
                 }
             }
+            if (bucketMaxIdx >= 0) {
+                maxAreaPointIdx = bucketMaxIdx;
+                nextA = bucketMaxIdx; // Next a is this b
+            }
             whiteList[maxAreaPointIdx] = true; // Pick this point from the bucket
             a = nextA; // This a is the next a (chosen b)
         }
@@ -16,6 +16,7 @@
 
 package eu.binjr.core.data.timeseries.transform;
 
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -37,4 +38,10 @@ public class SortTransform<T> extends BaseTimeSeriesTransform<T> {
         return data;
     }
 
+    @Override
+    protected DoubleColumns apply(DoubleColumns columns) {
+        columns.sortByTimestamp();
+        return columns;
+    }
+
 }
@@ -16,6 +16,7 @@
 
 package eu.binjr.core.data.timeseries.transform;
 
+import eu.binjr.core.data.timeseries.DoubleColumns;
 import javafx.scene.chart.XYChart;
 
 import java.time.ZonedDateTime;
@@ -30,6 +31,22 @@ public interface TimeSeriesTransform<T> {
      */
     List<XYChart.Data<ZonedDateTime, T>> transform(List<XYChart.Data<ZonedDateTime, T>> data);
 
+    /**
+     * Applies the transform function to a numeric series held in primitive columns.
+     * <p>
+     * The default implementation goes through a list of {@link XYChart.Data} instances and should be overridden by
+     * transforms that can operate on primitive columns directly.
+     * </p>
+     *
+     * @param columns The columns on which the transform should be applied; they may be modified in place.
+     * @return The transformed columns.
+     */
+    @SuppressWarnings("unchecked")
+    default DoubleColumns transform(DoubleColumns columns) {
+        var result = transform((List<XYChart.Data<ZonedDateTime, T>>) (List<?>) columns.toDataList());
+        return DoubleColumns.fromData((List<XYChart.Data<ZonedDateTime, Double>>) (List<?>) result);
+    }
+
     /**
      * Gets the name of the transform function
      *
@@ -16,13 +16,18 @@
 
 package eu.binjr.core.data.workspace;
 
+import eu.binjr.common.function.CheckedSupplier;
 import eu.binjr.common.io.IOUtils;
 import eu.binjr.common.logging.Logger;
 import eu.binjr.core.controllers.TimelineDisplayMode;
 import eu.binjr.core.data.adapters.DataAdapter;
+import eu.binjr.core.data.adapters.FetchResolution;
+import eu.binjr.core.data.adapters.FetchSink;
 import eu.binjr.core.data.adapters.Reloadable;
 import eu.binjr.core.data.adapters.ReloadPolicy;
-import eu.binjr.core.data.async.AsyncTaskManager;
+import eu.binjr.core.data.async.CancellationToken;
+import eu.binjr.core.data.async.FetchScheduler;
+import eu.binjr.core.data.async.TaskPriority;
 import eu.binjr.core.data.dirtyable.ChangeWatcher;
 import eu.binjr.core.data.dirtyable.Dirtyable;
 import eu.binjr.core.data.dirtyable.IsDirtyable;
@@ -33,17 +38,23 @@ import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
 import eu.binjr.core.data.timeseries.transform.AlignBoundariesTransform;
 import eu.binjr.core.data.timeseries.transform.NanToZeroTransform;
 import eu.binjr.core.data.timeseries.transform.SortTransform;
+import eu.binjr.core.preferences.DownSamplingAlgorithm;
 import eu.binjr.core.preferences.UserPreferences;
 import jakarta.xml.bind.annotation.*;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -196,6 +207,36 @@ public class Chart implements Dirtyable, AutoCloseable, Rangeable<Double> {
      */
     public void fetchDataFromSources(ZonedDateTime startTime, ZonedDateTime endTime, boolean bypassCache, ReloadPolicy reloadPolicy)
             throws DataAdapterException {
+        fetchDataFromSources(startTime, endTime, bypassCache, reloadPolicy, userPref.downSamplingAlgorithm.get(), 0,
+                TaskPriority.VISIBLE_INTERACTIVE, CancellationToken.NONE, FetchSink.none());
+    }
+
+    /**
+     * Fills up the backend for all {@link TimeSeriesInfo} in the chart by querying the relevant data adapters
+     * for the specified time interval.
+     *
+     * @param startTime   the start of the time interval
+     * @param endTime     the end of the time interval
+     * @param bypassCache set to true to forcefully bypass any cache on the adapter.
+     * @param algorithm   the algorithm used to reduce the number of samples.
+     * @param pixelWidth  the width in pixels of the plot area, or 0 if unknown.
+     * @param priority    the priority with which requests to the adapters are scheduled.
+     * @param cancellation a token signaling that the data is no longer needed; series are left untouched once cancelled.
+     * @param partialResults a sink receiving the samples retrieved so far for series whose adapter delivers them
+     *                     progressively, with all transforms applied; series are not bound to these.
+     * @throws DataAdapterException  if an error occurs while retrieving data from the adapter
+     * @throws CancellationException if the token was cancelled before all the data could be retrieved.
+     */
+    public void fetchDataFromSources(ZonedDateTime startTime,
+                                     ZonedDateTime endTime,
+                                     boolean bypassCache,
+                                     ReloadPolicy reloadPolicy,
+                                     DownSamplingAlgorithm algorithm,
+                                     int pixelWidth,
+                                     TaskPriority priority,
+                                     CancellationToken cancellation,
+                                     FetchSink<Double> partialResults)
+            throws DataAdapterException {
         // prune series from closed adapters
         series.removeIf(seriesInfo -> {
             if (seriesInfo.getBinding().getAdapter().isClosed()) {
@@ -218,96 +259,291 @@ public class Chart implements Dirtyable, AutoCloseable, Rangeable<Double> {
         // Group all bindings by common adapters
         var bindingsByAdapters = getSeries().stream()
                 .collect(groupingBy(o -> o.getBinding().getAdapter()));
-        for (var byAdapterEntry : bindingsByAdapters.entrySet()) {
-            // Define the transforms to apply
-            var reduce = userPref.downSamplingAlgorithm.get().instantiateTransform(getChartType(),
-                    userPref.downSamplingThreshold.get().intValue());
-            reduce.setEnabled(userPref.downSamplingEnabled.get());
-            DataAdapter<Double> adapter = byAdapterEntry.getKey();
-            SortTransform<Double> sort = new SortTransform<>();
-            sort.setEnabled(adapter.isSortingRequired());
-            // Group all queries with the same adapter and path
-            var bindingsByPath = byAdapterEntry.getValue().stream()
-                    .collect(groupingBy(o -> o.getBinding().getPath()));
-            var latch = new CountDownLatch(bindingsByPath.entrySet().size());
-            var errors = new ArrayList<Throwable>();
-            for (var byPathEntry : bindingsByPath.entrySet()) {
-                AsyncTaskManager.getInstance().submitSubTask(
-                        () -> {
+        // Fetches for all adapters are issued at once and only joined at the end, so that the time taken to
+        // fetch data for the whole chart is that of the slowest adapter rather than the sum of them all.
+        // The scheduler caps the number of requests in flight for any given adapter or host.
+        var fetches = new ArrayList<CompletableFuture<?>>();
+        var errors = new ConcurrentLinkedQueue<Throwable>();
+        // Sub-tasks are bound to a child token, which is closed when leaving this scope so that none of them
+        // outlives this method, e.g. when the deadline expires.
+        try (var subTasks = cancellation.createChild()) {
+            for (var byAdapterEntry : bindingsByAdapters.entrySet()) {
+                // Define the transforms to apply
+                var reduce = algorithm.instantiateTransform(getChartType(),
+                        userPref.downSamplingThreshold.get().intValue(), pixelWidth, startTime, endTime);
+                reduce.setEnabled(userPref.downSamplingEnabled.get());
+                DataAdapter<Double> adapter = byAdapterEntry.getKey();
+                SortTransform<Double> sort = new SortTransform<>();
+                sort.setEnabled(adapter.isSortingRequired());
+                // Samples retrieved for a previous fetch can be reused, unless a refresh was explicitly requested
+                boolean useLodCache = userPref.levelOfDetailCacheEnabled.get() && !bypassCache && reloadPolicy == ReloadPolicy.UNLOADED;
+                long lodBucketWidth = getLevelOfDetailBucketWidth(startTime, endTime, pixelWidth);
+                var resolution = getFetchResolution(pixelWidth, algorithm);
+                boolean averaged = resolution.aggregation() == FetchResolution.Aggregation.AVERAGE;
+                // Partial results go through the same transforms as the final ones, so that they look alike on screen
+                FetchSink<Double> sink = (partial, progress) -> {
+                    if (subTasks.isCancelled()) {
+                        return;
+                    }
+                    var partialReduce = algorithm.instantiateTransform(getChartType(),
+                            userPref.downSamplingThreshold.get().intValue(), pixelWidth, startTime, endTime);
+                    partialReduce.setEnabled(userPref.downSamplingEnabled.get());
+                    Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> transformed = new HashMap<>();
+                    partial.forEach((info, proc) -> {
+                        if (proc.size() > 0) {
+                            proc.applyTransforms(clean, sort, partialReduce);
+                            transformed.put(info, proc);
+                        }
+                    });
+                    transformed.values().forEach(proc -> proc.applyTransforms(partialReduce.getNextPassTransform(), align));
+                    if (!transformed.isEmpty() && !subTasks.isCancelled()) {
+                        logger.perf(() -> "Publishing partial result for " + transformed.size() + " series up to " + progress);
+                        partialResults.publish(transformed, progress);
+                    }
+                };
+                // Group all queries with the same adapter and path
+                var bindingsByPath = byAdapterEntry.getValue().stream()
+                        .collect(groupingBy(o -> o.getBinding().getPath()));
+                for (var byPathEntry : bindingsByPath.entrySet()) {
+                    fetches.add(FetchScheduler.getInstance().submit(priority, adapter, adapter.getSourceHost(), () -> {
+                        if (subTasks.isCancelled()) {
+                            return;
+                        }
+                        try {
+                            String path = byPathEntry.getKey();
+                            logger.trace("Fetch sub-task '" + path + "' started");
+                            // Get data from the adapter
+                            Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data = null;
+                            LoadingStatus status = LoadingStatus.OK;
                             try {
-                                String path = byPathEntry.getKey();
-                                logger.trace("Fetch sub-task '" + path + "' started");
-                                // Get data from the adapter
-                                Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data;
-                                LoadingStatus status = LoadingStatus.OK;
-                                try {
-                                    if (adapter instanceof Reloadable<Double> reloadable) {
-                                        reloadable.reload(path, byPathEntry.getValue(), reloadPolicy, null, new SimpleObjectProperty<>(ReloadStatus.OK));
+                                if (useLodCache) {
+                                    var lodCache = LevelOfDetailCache.getInstance();
+                                    data = lodCache.get(byPathEntry.getValue(),
+                                            startTime,
+                                            endTime,
+                                            lodBucketWidth,
+                                            averaged);
+                                    // Only retrieve the intervals missing from the cache, if any of the range is in it
+                                    if (data == null && adapter.isFullResolution(resolution) &&
+                                            fetchMissingRanges(adapter, path, byPathEntry.getValue(), startTime, endTime, bypassCache, reloadPolicy, resolution, subTasks)) {
+                                        data = lodCache.get(byPathEntry.getValue(),
+                                                startTime,
+                                                endTime,
+                                                lodBucketWidth,
+                                                averaged);
                                     }
-                                    data = adapter.fetchData(
-                                            path,
-                                            startTime.toInstant(),
-                                            endTime.toInstant(),
-                                            byPathEntry.getValue(),
-                                            bypassCache);
-
-                                } catch (DataAdapterException e) {
-                                    logger.error("An error occurred while fetching data from source - " + e.getMessage());
-                                    if (logger.isDebugEnabled()) {
-                                        logger.debug("Stack traces", e);
-                                    }
-                                    data = new HashMap<>();
-                                    status = LoadingStatus.error(e);
                                 }
-                                if (data.isEmpty()) {
-                                    // initialize processors with at least boundaries samples in it
-                                    for (var info : byPathEntry.getValue()) {
-                                        info.setLoadingStatus(status);
-                                        var proc = new DoubleTimeSeriesProcessor(2);
-                                        proc.addSample(startTime, Double.NaN);
-                                        proc.addSample(endTime, Double.NaN);
-                                        data.put(info, proc);
+                                if (data == null) {
+                                    data = fetchFromAdapter(adapter, path, byPathEntry.getValue(),
+                                            startTime, endTime, bypassCache, reloadPolicy, resolution, subTasks, sink);
+                                    if (userPref.levelOfDetailCacheEnabled.get() && !data.isEmpty()) {
+                                        LevelOfDetailCache.getInstance().put(data, startTime, endTime, adapter.isFullResolution(resolution), averaged);
                                     }
                                 }
-                                data.entrySet().parallelStream().forEach(entry -> {
-                                    var info = entry.getKey();
-                                    var proc = entry.getValue();
-                                    //bind proc to timeSeries info
-                                    info.setProcessor(proc);
-                                    // Applying sample transforms
-                                    proc.applyTransforms(clean, sort, reduce);
-                                });
-                                // Run second pass transforms and time frame alignment
-                                data.entrySet().parallelStream().forEach(entry -> {
-                                    entry.getValue().applyTransforms(reduce.getNextPassTransform(), align);
-                                });
-                            } catch (Throwable t) {
-                                logger.error(t);
-                                errors.add(t);
-                            } finally {
-                                logger.trace("Fetch sub-task 'for path'" + byPathEntry.getKey() + "' done");
-                                latch.countDown();
+                            } catch (DataAdapterException e) {
+                                logger.error("An error occurred while fetching data from source - " + e.getMessage());
+                                if (logger.isDebugEnabled()) {
+                                    logger.debug("Stack traces", e);
+                                }
+                                data = new HashMap<>();
+                                status = LoadingStatus.error(e);
                             }
-                        });
+                            // Errors caused by the request being aborted must not be reported
+                            subTasks.throwIfCancelled();
+                            if (data.isEmpty()) {
+                                // initialize processors with at least boundaries samples in it
+                                for (var info : byPathEntry.getValue()) {
+                                    info.setLoadingStatus(status);
+                                    var proc = new DoubleTimeSeriesProcessor(2);
+                                    proc.addSample(startTime, Double.NaN);
+                                    proc.addSample(endTime, Double.NaN);
+                                    data.put(info, proc);
+                                }
+                            }
+                            data.entrySet().parallelStream().forEach(entry -> {
+                                // Applying sample transforms
+                                subTasks.run(() -> entry.getValue().applyTransforms(clean, sort, reduce));
+                            });
+                            // Run second pass transforms and time frame alignment
+                            data.entrySet().parallelStream().forEach(entry -> {
+                                var proc = entry.getValue();
+                                subTasks.run(() -> proc.applyTransforms(reduce.getNextPassTransform(), align));
+                                subTasks.throwIfCancelled();
+                                // Only bind proc to timeSeries info once complete, so that readers of the
+                                // previous one are never held up by the transforms
+                                entry.getKey().setProcessor(proc);
+                            });
+                        } catch (CancellationException e) {
+                            logger.debug(() -> "Fetch sub-task for path '" + byPathEntry.getKey() + "' cancelled");
+                        } catch (Throwable t) {
+                            logger.error(t);
+                            errors.add(t);
+                        } finally {
+                            logger.trace("Fetch sub-task 'for path'" + byPathEntry.getKey() + "' done");
+                        }
+                    }));
+                }
             }
             try {
-                if (!latch.await(userPref.asyncTasksTimeOutMs.get().longValue(), TimeUnit.MILLISECONDS)) {
-                    throw new DataAdapterException("Waiting for fetch sub-tasks to complete aborted");
+                CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new))
+                        .get(userPref.asyncTasksTimeOutMs.get().longValue(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new DataAdapterException("Waiting for fetch sub-tasks to complete aborted");
+            } catch (ExecutionException e) {
+                throw new DataAdapterException("Unexpected error while retrieving data from adapter: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                throw new DataAdapterException("Async fetch task interrupted", e);
+            }
+        }
+        cancellation.throwIfCancelled();
+        if (!errors.isEmpty()) {
+            for (var t : errors) {
+                //FIXME only first exception is rethrown
+                if (t instanceof DataAdapterException dataAdapterException) {
+                    throw dataAdapterException;
+                } else {
+                    throw new DataAdapterException("Unexpected error while retrieving data from adapter: " + t.getMessage(), t);
                 }
-                if (!errors.isEmpty()) {
-                    for (var t : errors) {
-                        //FIXME only first exception is rethrown
-                        if (t instanceof DataAdapterException dataAdapterException) {
-                            throw dataAdapterException;
-                        } else {
-                            throw new DataAdapterException("Unexpected error while retrieving data from adapter: " + t.getMessage(), t);
+            }
+        }
+    }
+
+    /**
+     * Retrieves samples for all {@link TimeSeriesInfo} in the chart over the specified time interval into the
+     * {@link LevelOfDetailCache}, in anticipation of that interval being plotted next.
+     * <p>
+     * Requests to the adapters are scheduled with {@link TaskPriority#MAINTENANCE} priority, so that they never hold
+     * back the retrieval of data actually being displayed. Series for which the cache already holds samples at the
+     * required level of detail are skipped, as are all series once the cache is filled beyond the share allotted to
+     * prefetched samples in the user preferences.
+     * </p>
+     *
+     * @param startTime    the start of the time interval
+     * @param endTime      the end of the time interval
+     * @param algorithm    the algorithm used to reduce the number of samples.
+     * @param pixelWidth   the width in pixels of the plot area, or 0 if unknown.
+     * @param cancellation a token signaling that the data is no longer needed.
+     * @return a {@link CompletableFuture} that completes once samples have been retrieved for all series.
+     */
+    public CompletableFuture<Void> prefetchDataFromSources(ZonedDateTime startTime,
+                                                           ZonedDateTime endTime,
+                                                           DownSamplingAlgorithm algorithm,
+                                                           int pixelWidth,
+                                                           CancellationToken cancellation) {
+        var lodCache = LevelOfDetailCache.getInstance();
+        long lodBucketWidth = getLevelOfDetailBucketWidth(startTime, endTime, pixelWidth);
+        var resolution = getFetchResolution(pixelWidth, algorithm);
+        boolean averaged = resolution.aggregation() == FetchResolution.Aggregation.AVERAGE;
+        var bindingsByAdapters = getSeries().stream()
+                .filter(seriesInfo -> !seriesInfo.getBinding().getAdapter().isClosed())
+                .collect(groupingBy(o -> o.getBinding().getAdapter()));
+        var fetches = new ArrayList<CompletableFuture<Void>>();
+        for (var byAdapterEntry : bindingsByAdapters.entrySet()) {
+            DataAdapter<Double> adapter = byAdapterEntry.getKey();
+            var bindingsByPath = byAdapterEntry.getValue().stream()
+                    .collect(groupingBy(o -> o.getBinding().getPath()));
+            for (var byPathEntry : bindingsByPath.entrySet()) {
+                fetches.add(FetchScheduler.getInstance().submit(TaskPriority.MAINTENANCE, adapter, adapter.getSourceHost(), () -> {
+                    String path = byPathEntry.getKey();
+                    if (cancellation.isCancelled() ||
+                            lodCache.getUsage() * 100 >= userPref.prefetchMaxCacheUsagePercent.get().doubleValue() ||
+                            lodCache.contains(byPathEntry.getValue(), startTime, endTime, lodBucketWidth, averaged)) {
+                        return;
+                    }
+                    try {
+                        if (!adapter.isFullResolution(resolution) ||
+                                !fetchMissingRanges(adapter, path, byPathEntry.getValue(), startTime, endTime, false, ReloadPolicy.UNLOADED, resolution, cancellation)) {
+                            var data = fetchFromAdapter(adapter, path, byPathEntry.getValue(),
+                                    startTime, endTime, false, ReloadPolicy.UNLOADED, resolution, cancellation, FetchSink.none());
+                            if (!data.isEmpty()) {
+                                lodCache.put(data, startTime, endTime, adapter.isFullResolution(resolution), averaged);
+                            }
                         }
+                        logger.perf(() -> "Prefetched path '" + path + "' from " + startTime + " to " + endTime);
+                    } catch (CancellationException e) {
+                        logger.debug(() -> "Prefetch for path '" + path + "' cancelled");
+                    } catch (DataAdapterException e) {
+                        logger.debug(() -> "Failed to prefetch data for path '" + path + "': " + e.getMessage(), e);
                     }
-                }
-            } catch (InterruptedException e) {
-                throw new DataAdapterException("Async fetch task interrupted", e);
+                }));
+            }
+        }
+        return CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new));
+    }
+
+    private long getLevelOfDetailBucketWidth(ZonedDateTime startTime, ZonedDateTime endTime, int pixelWidth) {
+        return userPref.downSamplingEnabled.get() ?
+                Math.max(1L, Duration.between(startTime, endTime).toNanos() /
+                        Math.max(userPref.downSamplingThreshold.get().longValue(), 4L * pixelWidth)) : 1L;
+    }
+
+    /**
+     * Returns the level of detail at which samples are going to be displayed, for adapters able to aggregate samples
+     * at the source.
+     */
+    private FetchResolution getFetchResolution(int pixelWidth, DownSamplingAlgorithm algorithm) {
+        if (!userPref.downSamplingEnabled.get()) {
+            return FetchResolution.FULL;
+        }
+        return new FetchResolution(pixelWidth,
+                Math.max(userPref.downSamplingThreshold.get().intValue(), 4 * pixelWidth),
+                algorithm == DownSamplingAlgorithm.AVERAGE ?
+                        FetchResolution.Aggregation.AVERAGE :
+                        FetchResolution.Aggregation.EXTREMES);
+    }
+
+    /**
+     * Retrieves the intervals of the specified range missing from the {@link LevelOfDetailCache} and stitches them to
+     * the cached samples, provided some of the range is in the cache.
+     *
+     * @return true if some of the range was in the cache, false if nothing was retrieved.
+     */
+    private boolean fetchMissingRanges(DataAdapter<Double> adapter,
+                                       String path,
+                                       List<TimeSeriesInfo<Double>> seriesInfo,
+                                       ZonedDateTime startTime,
+                                       ZonedDateTime endTime,
+                                       boolean bypassCache,
+                                       ReloadPolicy reloadPolicy,
+                                       FetchResolution resolution,
+                                       CancellationToken cancellation) throws DataAdapterException {
+        var lodCache = LevelOfDetailCache.getInstance();
+        var missingRanges = lodCache.getMissingRanges(seriesInfo, startTime, endTime);
+        if (missingRanges == null) {
+            return false;
+        }
+        for (var missing : missingRanges) {
+            var fetched = fetchFromAdapter(adapter, path, seriesInfo,
+                    missing.getBeginning(), missing.getEnd(), bypassCache, reloadPolicy, resolution, cancellation, FetchSink.none());
+            lodCache.merge(fetched, missing.getBeginning(), missing.getEnd());
+        }
+        return true;
+    }
+
+    private Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> fetchFromAdapter(DataAdapter<Double> adapter,
+                                                                                     String path,
+                                                                                     List<TimeSeriesInfo<Double>> seriesInfo,
+                                                                                     ZonedDateTime startTime,
+                                                                                     ZonedDateTime endTime,
+                                                                                     boolean bypassCache,
+                                                                                     ReloadPolicy reloadPolicy,
+                                                                                     FetchResolution resolution,
+                                                                                     CancellationToken cancellation,
+                                                                                     FetchSink<Double> sink)
+            throws DataAdapterException {
+        // Bind the token to this thread, so that adapters can abort superseded requests
+        CheckedSupplier<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>, DataAdapterException> fetch = () -> cancellation.call(() -> {
+            if (adapter instanceof Reloadable<Double> reloadable) {
+                reloadable.reload(path, seriesInfo, reloadPolicy, null, new SimpleObjectProperty<>(ReloadStatus.OK));
             }
+            return adapter.fetchData(path, startTime.toInstant(), endTime.toInstant(), seriesInfo, bypassCache, resolution, sink);
+        });
+        if (reloadPolicy != ReloadPolicy.UNLOADED) {
+            return fetch.get();
         }
+        // Identical requests from other charts already in flight are waited for rather than sent again
+        return FetchCoalescer.getInstance().fetch(adapter, path, startTime.toInstant(), endTime.toInstant(),
+                seriesInfo, bypassCache, resolution, cancellation, fetch);
     }
 
     /**
@@ -0,0 +1,264 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.workspace;
+
+import eu.binjr.common.function.CheckedSupplier;
+import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.adapters.DataAdapter;
+import eu.binjr.core.data.adapters.FetchResolution;
+import eu.binjr.core.data.adapters.SourceBinding;
+import eu.binjr.core.data.async.CancellationToken;
+import eu.binjr.core.data.exceptions.DataAdapterException;
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.DoubleTimeSeriesProcessor;
+import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps track of requests to data adapters currently in flight, so that a request identical to, or covered by, one
+ * that is already in flight waits for its result instead of being sent to the source again.
+ * <p>
+ * This typically happens when worksheets with linked timelines, or several charts of the same worksheet, plot series
+ * from the same path over the same time range.
+ * A request is covered by an in-flight one if it is sent to the same adapter and path, for a subset of its series.
+ * When the adapter returns samples sorted by timestamp and at full resolution for both requests, the time range of
+ * the in-flight request may also be wider than the one requested; otherwise both the time range and the requested
+ * {@link FetchResolution} must be the same.
+ * </p>
+ * <p>
+ * Each waiting request is handed its own copy of the samples. Should the request it waits for be cancelled, the
+ * waiting request is sent to the source on its own.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public class FetchCoalescer {
+    private static final Logger logger = Logger.create(FetchCoalescer.class);
+    // Guarded by this
+    private final Map<FetchKey, List<InFlightFetch>> inFlight = new HashMap<>();
+
+    private FetchCoalescer() {
+    }
+
+    /**
+     * Returns the singleton instance for {@link FetchCoalescer}
+     *
+     * @return the singleton instance for {@link FetchCoalescer}
+     */
+    public static FetchCoalescer getInstance() {
+        return FetchCoalescerHolder.instance;
+    }
+
+    /**
+     * Returns the samples for the provided series over the specified time range, either by waiting for an in-flight
+     * request that covers it or by running the provided operation.
+     *
+     * @param adapter      the adapter to retrieve samples from.
+     * @param path         the path of the series within the adapter.
+     * @param begin        the start of the time range.
+     * @param end          the end of the time range.
+     * @param seriesInfo   the series to retrieve samples for.
+     * @param bypassCache  true if the samples must not come from the adapter's cache.
+     * @param resolution   the level of detail at which the samples are going to be displayed.
+     * @param cancellation a token signaling that the samples are no longer needed.
+     * @param fetch        the operation that sends the request to the adapter.
+     * @return the samples for the provided series.
+     * @throws DataAdapterException  if an error occurs while retrieving data from the adapter.
+     * @throws CancellationException if the token was cancelled before the samples could be retrieved.
+     */
+    public Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> fetch(
+            DataAdapter<Double> adapter,
+            String path,
+            Instant begin,
+            Instant end,
+            List<TimeSeriesInfo<Double>> seriesInfo,
+            boolean bypassCache,
+            FetchResolution resolution,
+            CancellationToken cancellation,
+            CheckedSupplier<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>, DataAdapterException> fetch)
+            throws DataAdapterException {
+        var key = new FetchKey(adapter, path);
+        long from = DoubleColumns.toEpochNanos(begin);
+        long to = DoubleColumns.toEpochNanos(end);
+        Set<SourceBinding<Double>> bindings = seriesInfo.stream()
+                .map(TimeSeriesInfo::getBinding)
+                .collect(Collectors.toSet());
+        boolean fullResolution = adapter.isFullResolution(resolution);
+        boolean allowCovering = fullResolution && !adapter.isSortingRequired();
+        while (true) {
+            InFlightFetch joined;
+            InFlightFetch led = null;
+            synchronized (this) {
+                var fetches = inFlight.computeIfAbsent(key, k -> new ArrayList<>());
+                joined = fetches.stream()
+                        .filter(f -> f.canServe(from, to, bindings, bypassCache, resolution, allowCovering))
+                        .findFirst()
+                        .orElse(null);
+                if (joined != null) {
+                    joined.waiters++;
+                } else {
+                    led = new InFlightFetch(from, to, bindings, bypassCache, resolution, fullResolution);
+                    fetches.add(led);
+                }
+            }
+            if (led != null) {
+                return lead(key, led, fetch);
+            }
+            logger.perf(() -> "Waiting for in-flight request to path '" + path + "'");
+            try {
+                return join(joined, seriesInfo, from, to, cancellation);
+            } catch (CancellationException e) {
+                if (cancellation.isCancelled()) {
+                    throw e;
+                }
+                logger.debug(() -> "In-flight request to path '" + path + "' was cancelled: sending a new one");
+            }
+        }
+    }
+
+    private Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> lead(
+            FetchKey key,
+            InFlightFetch led,
+            CheckedSupplier<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>, DataAdapterException> fetch)
+            throws DataAdapterException {
+        Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data = null;
+        Throwable failure = null;
+        try {
+            data = fetch.get();
+            return data;
+        } catch (DataAdapterException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            int waiters;
+            synchronized (this) {
+                var fetches = inFlight.get(key);
+                fetches.remove(led);
+                if (fetches.isEmpty()) {
+                    inFlight.remove(key);
+                }
+                waiters = led.waiters;
+            }
+            if (failure != null) {
+                led.result.completeExceptionally(failure);
+            } else if (waiters == 0) {
+                led.result.complete(Map.of());
+            } else {
+                // Take a copy of the samples before they are handed over to the caller, which may modify them
+                var samples = new HashMap<SourceBinding<Double>, DoubleColumns>();
+                data.forEach((info, proc) -> samples.put(info.getBinding(), proc instanceof DoubleTimeSeriesProcessor doubleProc ?
+                        doubleProc.getColumns() :
+                        DoubleColumns.fromData(proc.getData())));
+                led.result.complete(samples);
+                logger.perf(() -> "Shared result of request to path '" + key.path() + "' with " + waiters + " other request(s)");
+            }
+        }
+    }
+
+    private Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> join(InFlightFetch joined,
+                                                                          List<TimeSeriesInfo<Double>> seriesInfo,
+                                                                          long from,
+                                                                          long to,
+                                                                          CancellationToken cancellation)
+            throws DataAdapterException {
+        boolean sameRange = joined.from == from && joined.to == to;
+        var result = joined.result.thenApply(samples -> {
+            Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data = new HashMap<>();
+            for (var info : seriesInfo) {
+                var columns = samples.get(info.getBinding());
+                if (columns != null) {
+                    data.put(info, new DoubleTimeSeriesProcessor(sameRange ? columns.copy() : slice(columns, from, to)));
+                }
+            }
+            return data;
+        });
+        try (var registration = cancellation.onCancel(() -> result.cancel(true))) {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataAdapterException dataAdapterException) {
+                throw dataAdapterException;
+            }
+            if (e.getCause() instanceof CancellationException cancellationException) {
+                throw cancellationException;
+            }
+            throw new DataAdapterException("Unexpected error while waiting for in-flight request: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAdapterException("Interrupted while waiting for in-flight request", e);
+        }
+    }
+
+    /**
+     * Returns a copy of the samples within the specified range, along with the samples immediately before and after.
+     */
+    private static DoubleColumns slice(DoubleColumns columns, long from, long to) {
+        int first = Math.max(0, columns.upperBound(from - 1) - 1);
+        int last = Math.min(columns.size(), columns.upperBound(to) + 1);
+        return columns.slice(first, Math.max(first, last));
+    }
+
+    private record FetchKey(DataAdapter<Double> adapter, String path) {
+    }
+
+    private static class InFlightFetch {
+        private final long from;
+        private final long to;
+        private final Set<SourceBinding<Double>> bindings;
+        private final boolean bypassCache;
+        private final FetchResolution resolution;
+        private final boolean fullResolution;
+        private final CompletableFuture<Map<SourceBinding<Double>, DoubleColumns>> result = new CompletableFuture<>();
+        // Guarded by the enclosing FetchCoalescer instance
+        private int waiters = 0;
+
+        private InFlightFetch(long from,
+                              long to,
+                              Set<SourceBinding<Double>> bindings,
+                              boolean bypassCache,
+                              FetchResolution resolution,
+                              boolean fullResolution) {
+            this.from = from;
+            this.to = to;
+            this.bindings = bindings;
+            this.bypassCache = bypassCache;
+            this.resolution = resolution;
+            this.fullResolution = fullResolution;
+        }
+
+        private boolean canServe(long from, long to,
+                                 Set<SourceBinding<Double>> bindings,
+                                 boolean bypassCache,
+                                 FetchResolution resolution,
+                                 boolean allowCovering) {
+            return (this.bypassCache || !bypassCache) &&
+                    (allowCovering ?
+                            this.fullResolution && this.from <= from && this.to >= to :
+                            this.from == from && this.to == to && this.resolution.equals(resolution)) &&
+                    this.bindings.containsAll(bindings);
+        }
+    }
+
+    private static class FetchCoalescerHolder {
+        private static final FetchCoalescer instance = new FetchCoalescer();
+    }
+}
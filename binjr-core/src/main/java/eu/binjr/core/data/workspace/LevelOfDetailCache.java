@@ -0,0 +1,297 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.workspace;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import eu.binjr.common.javafx.controls.TimeRange;
+import eu.binjr.common.logging.Logger;
+import eu.binjr.core.data.memory.CacheMemoryConsumer;
+import eu.binjr.core.data.memory.MemoryBudget;
+import eu.binjr.core.data.memory.MemoryConsumer;
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.DoubleTimeSeriesProcessor;
+import eu.binjr.core.data.timeseries.LevelOfDetailPyramid;
+import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
+import eu.binjr.core.preferences.UserPreferences;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory cache of {@link LevelOfDetailPyramid} instances for recently plotted series, which lets charts be
+ * redrawn for a range that was already retrieved without querying the data adapter again.
+ * <p>
+ * Up to a few of the most recently fetched ranges are retained for each series, so that navigating back and forth
+ * through the history of a worksheet is also answered from the cache.
+ * Samples that were aggregated before being retrieved are only reused for the same kind of aggregation, since averages
+ * cannot stand for extremes, nor extremes for averages.
+ * When samples were retrieved at full resolution, a range that only partially overlaps the cached ones can be
+ * completed by retrieving the missing intervals alone, which are then stitched to the cached samples.
+ * Adapters that aggregate samples at the source or reduce them on request, such as index-backed or HTTP adapters,
+ * never return samples at full resolution while down-sampling is enabled: for those, a range is only answered from
+ * the cache when a single cached range covers it at a fine enough level of detail, and is retrieved whole otherwise.
+ * Entries are evicted when the series they belong to are no longer referenced, or when the combined size of all
+ * entries exceeds the size set in the user preferences.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public class LevelOfDetailCache {
+    private static final Logger logger = Logger.create(LevelOfDetailCache.class);
+    private static final int MAX_RANGES_PER_SERIES = 4;
+    private static final double RELOAD_COST = 2.0;
+    private final Cache<TimeSeriesInfo<Double>, List<LevelOfDetailPyramid>> cache;
+    private final MemoryConsumer memoryConsumer;
+
+    private LevelOfDetailCache() {
+        this.cache = Caffeine.newBuilder()
+                .recordStats()
+                .weakKeys()
+                .maximumWeight(UserPreferences.getInstance().levelOfDetailCacheMaxSizeMiB.get().longValue() * 1024)
+                .weigher((TimeSeriesInfo<Double> key, List<LevelOfDetailPyramid> value) ->
+                        (int) Math.min(Integer.MAX_VALUE, value.stream().mapToLong(LevelOfDetailPyramid::getSizeInBytes).sum() / 1024))
+                .build();
+        // Entries are weighed in KiB
+        this.memoryConsumer = new CacheMemoryConsumer<>("Level of detail cache", cache, 1024, RELOAD_COST);
+        MemoryBudget.getInstance().register(memoryConsumer);
+    }
+
+    /**
+     * Returns the singleton instance for {@link LevelOfDetailCache}
+     *
+     * @return the singleton instance for {@link LevelOfDetailCache}
+     */
+    public static LevelOfDetailCache getInstance() {
+        return LevelOfDetailCacheHolder.instance;
+    }
+
+    /**
+     * Returns processors holding the samples for all the provided series over the specified time range, or null if
+     * the cache cannot provide samples at the requested level of detail for all of them.
+     *
+     * @param series      the series to get samples for.
+     * @param start       the start of the time range.
+     * @param end         the end of the time range.
+     * @param bucketWidth the interval, in nanoseconds, below which samples may be aggregated.
+     * @param average     true to return the average value of aggregated samples, false to return the first, last,
+     *                    smallest and largest samples.
+     * @return processors holding the samples for all the provided series, or null if any of them is missing.
+     */
+    public Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> get(List<TimeSeriesInfo<Double>> series,
+                                                                        ZonedDateTime start,
+                                                                        ZonedDateTime end,
+                                                                        long bucketWidth,
+                                                                        boolean average) {
+        long from = DoubleColumns.toEpochNanos(start);
+        long to = DoubleColumns.toEpochNanos(end);
+        var pyramids = new HashMap<TimeSeriesInfo<Double>, LevelOfDetailPyramid>();
+        for (var info : series) {
+            var pyramid = findCovering(info, from, to, bucketWidth, average);
+            if (pyramid == null) {
+                logger.perf(() -> "Level of detail cache miss for " + info.getDisplayName());
+                return null;
+            }
+            pyramids.put(info, pyramid);
+        }
+        Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data = new HashMap<>();
+        pyramids.forEach((info, pyramid) ->
+                data.put(info, new DoubleTimeSeriesProcessor(pyramid.query(from, to, bucketWidth, average))));
+        logger.perf(() -> "Level of detail cache hit for " + series.size() + " series");
+        return data;
+    }
+
+    /**
+     * Returns true if the cache can provide samples at the requested level of detail for all the provided series over
+     * the specified time range.
+     *
+     * @param series      the series to get samples for.
+     * @param start       the start of the time range.
+     * @param end         the end of the time range.
+     * @param bucketWidth the interval, in nanoseconds, below which samples may be aggregated.
+     * @param average     true to get the average value of aggregated samples, false to get the first, last,
+     *                    smallest and largest samples.
+     * @return true if the cache can provide samples for all the provided series, false otherwise.
+     */
+    public boolean contains(List<TimeSeriesInfo<Double>> series,
+                            ZonedDateTime start,
+                            ZonedDateTime end,
+                            long bucketWidth,
+                            boolean average) {
+        long from = DoubleColumns.toEpochNanos(start);
+        long to = DoubleColumns.toEpochNanos(end);
+        return series.stream().allMatch(info -> findCovering(info, from, to, bucketWidth, average) != null);
+    }
+
+    /**
+     * Returns the fraction, between 0 and 1, of the maximum size of the cache currently in use.
+     *
+     * @return the fraction of the maximum size of the cache currently in use.
+     */
+    public double getUsage() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L) / (double) Math.max(1L, eviction.getMaximum()))
+                .orElse(0.0);
+    }
+
+    /**
+     * Adds the samples retrieved for the provided series over the specified time range to the cache.
+     *
+     * @param data           the samples retrieved for each series.
+     * @param start          the start of the time range.
+     * @param end            the end of the time range.
+     * @param fullResolution true if the samples are all the samples available within the range, false if they are an
+     *                       aggregated or downsampled subset.
+     * @param averaged       true if the samples were requested as the average values of aggregated samples, false if
+     *                       they were requested as their first, last, smallest and largest samples.
+     */
+    public void put(Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data,
+                    ZonedDateTime start,
+                    ZonedDateTime end,
+                    boolean fullResolution,
+                    boolean averaged) {
+        long from = DoubleColumns.toEpochNanos(start);
+        long to = DoubleColumns.toEpochNanos(end);
+        data.forEach((info, proc) ->
+                add(info, new LevelOfDetailPyramid(toColumns(proc), from, to, fullResolution, averaged)));
+    }
+
+    /**
+     * Returns the intervals of the specified time range that are not covered by samples retrieved at full resolution
+     * for all the provided series, or null if none of the range is.
+     * <p>
+     * Once samples for the returned intervals have been retrieved and passed to {@link #merge}, the cache can provide
+     * samples for the whole range.
+     * </p>
+     *
+     * @param series the series to get samples for.
+     * @param start  the start of the time range.
+     * @param end    the end of the time range.
+     * @return the intervals of the time range missing from the cache, or null if none of the range is covered.
+     */
+    public List<TimeRange> getMissingRanges(List<TimeSeriesInfo<Double>> series, ZonedDateTime start, ZonedDateTime end) {
+        long from = DoubleColumns.toEpochNanos(start);
+        long to = DoubleColumns.toEpochNanos(end);
+        long coveredFrom = from;
+        long coveredTo = to;
+        for (var info : series) {
+            var pyramid = findOverlapping(cache.getIfPresent(info), from, to);
+            if (pyramid == null) {
+                return null;
+            }
+            coveredFrom = Math.max(coveredFrom, pyramid.getStart());
+            coveredTo = Math.min(coveredTo, pyramid.getEnd());
+        }
+        if (series.isEmpty() || coveredFrom >= coveredTo) {
+            return null;
+        }
+        var missing = new ArrayList<TimeRange>(2);
+        if (from < coveredFrom) {
+            missing.add(TimeRange.of(start, toDateTime(coveredFrom, start)));
+        }
+        if (coveredTo < to) {
+            missing.add(TimeRange.of(toDateTime(coveredTo, end), end));
+        }
+        return missing;
+    }
+
+    /**
+     * Stitches the samples retrieved at full resolution for the provided series over the specified time range to the
+     * samples already cached for an overlapping or adjacent range, if any, or adds them to the cache otherwise.
+     *
+     * @param data  the samples retrieved for each series.
+     * @param start the start of the time range.
+     * @param end   the end of the time range.
+     */
+    public void merge(Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data,
+                      ZonedDateTime start,
+                      ZonedDateTime end) {
+        long from = DoubleColumns.toEpochNanos(start);
+        long to = DoubleColumns.toEpochNanos(end);
+        data.forEach((info, proc) -> {
+            var columns = toColumns(proc);
+            var cached = findOverlapping(cache.getIfPresent(info), from, to);
+            add(info, cached == null ?
+                    new LevelOfDetailPyramid(columns, from, to, true) :
+                    cached.merge(columns, from, to));
+        });
+        logger.perf(() -> "Level of detail cache stitched " + data.size() + " series");
+    }
+
+    private void add(TimeSeriesInfo<Double> info, LevelOfDetailPyramid pyramid) {
+        cache.asMap().compute(info, (key, previous) -> {
+            var pyramids = new ArrayList<LevelOfDetailPyramid>(MAX_RANGES_PER_SERIES);
+            pyramids.add(pyramid);
+            if (previous != null) {
+                // Ranges that are included in the new one are superseded by it
+                previous.stream()
+                        .filter(p -> p.getStart() < pyramid.getStart() || p.getEnd() > pyramid.getEnd() ||
+                                (p.isFullResolution() && !pyramid.isFullResolution()))
+                        .limit(MAX_RANGES_PER_SERIES - 1)
+                        .forEach(pyramids::add);
+            }
+            return List.copyOf(pyramids);
+        });
+    }
+
+    private LevelOfDetailPyramid findCovering(TimeSeriesInfo<Double> info, long from, long to, long bucketWidth, boolean average) {
+        var candidates = cache.getIfPresent(info);
+        return candidates == null ? null : candidates.stream()
+                .filter(p -> p.covers(from, to, bucketWidth, average))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Returns the full resolution pyramid sharing the widest interval with the specified range, including pyramids
+     * that are only adjacent to it, or null if there are none.
+     */
+    private static LevelOfDetailPyramid findOverlapping(List<LevelOfDetailPyramid> candidates, long from, long to) {
+        if (candidates == null) {
+            return null;
+        }
+        return candidates.stream()
+                .filter(p -> p.isFullResolution() && p.getStart() <= to && p.getEnd() >= from)
+                .max(Comparator.comparingLong(p -> Math.min(to, p.getEnd()) - Math.max(from, p.getStart())))
+                .orElse(null);
+    }
+
+    private static DoubleColumns toColumns(TimeSeriesProcessor<Double> proc) {
+        return proc instanceof DoubleTimeSeriesProcessor doubleProc ?
+                doubleProc.getColumns() :
+                DoubleColumns.fromData(proc.getData());
+    }
+
+    private static ZonedDateTime toDateTime(long epochNanos, ZonedDateTime reference) {
+        return DoubleColumns.toInstant(epochNanos).atZone(reference.getZone());
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static class LevelOfDetailCacheHolder {
+        private static final LevelOfDetailCache instance = new LevelOfDetailCache();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.workspace;
+
+import eu.binjr.common.javafx.controls.TimeRange;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides which time windows around the one on display are worth retrieving ahead of time, based on the direction
+ * in which the user has recently been navigating.
+ * <p>
+ * The windows of the same width immediately before and after the one on display are proposed, along with a window
+ * twice as wide centered on it. Windows in the direction of recent moves come first, and windows that start in the
+ * future, or only shortly before the present, are left out.
+ * </p>
+ *
+ * @author Frederic Thevenet
+ */
+public class PrefetchPlanner {
+    private static final int MAX_TREND = 3;
+    private ZonedDateTime lastStart;
+    private ZonedDateTime lastEnd;
+    // Positive when recent moves were mostly forward in time, negative when they were mostly backward
+    private int trend = 0;
+    private boolean zoomingOut = false;
+
+    /**
+     * Records the time window now on display and returns the windows to retrieve ahead of time, most likely
+     * to be displayed next first.
+     *
+     * @param start the start of the time window on display.
+     * @param end   the end of the time window on display.
+     * @return the windows to retrieve ahead of time.
+     */
+    public synchronized List<TimeRange> plan(ZonedDateTime start, ZonedDateTime end) {
+        var width = Duration.between(start, end);
+        if (width.isZero() || width.isNegative()) {
+            return List.of();
+        }
+        if (lastStart != null) {
+            long lastWidthMs = Duration.between(lastStart, lastEnd).toMillis();
+            long deltaMs = width.toMillis() - lastWidthMs;
+            if (Math.abs(deltaMs) <= lastWidthMs / 100) {
+                // Same width: the window was moved
+                int direction = Long.signum(Duration.between(lastStart, start).toMillis());
+                trend = Math.max(-MAX_TREND, Math.min(MAX_TREND, trend + direction));
+                if (direction != 0) {
+                    zoomingOut = false;
+                }
+            } else {
+                zoomingOut = deltaMs > 0;
+            }
+        }
+        lastStart = start;
+        lastEnd = end;
+        var previous = TimeRange.of(start.minus(width), start);
+        var next = TimeRange.of(end, end.plus(width));
+        var zoomOut = TimeRange.of(start.minus(width.dividedBy(2)), end.plus(width.dividedBy(2)));
+        var windows = new ArrayList<TimeRange>(3);
+        if (zoomingOut) {
+            windows.add(zoomOut);
+        }
+        if (trend < 0) {
+            windows.add(previous);
+            windows.add(next);
+        } else {
+            windows.add(next);
+            windows.add(previous);
+        }
+        if (!zoomingOut) {
+            windows.add(zoomOut);
+        }
+        // Skip windows that would hold little to no samples yet
+        var cutoff = ZonedDateTime.now().minus(width.dividedBy(10));
+        windows.removeIf(w -> !w.getBeginning().isBefore(cutoff));
+        return windows;
+    }
+}
@@ -28,6 +28,7 @@ import eu.binjr.core.data.adapters.VisualizationType;
 import eu.binjr.core.data.dirtyable.ChangeWatcher;
 import eu.binjr.core.data.dirtyable.IsDirtyable;
 import eu.binjr.core.data.exceptions.DataAdapterException;
+import eu.binjr.core.preferences.DownSamplingAlgorithm;
 import eu.binjr.core.preferences.UserPreferences;
 import jakarta.xml.bind.annotation.*;
 import javafx.beans.property.*;
@@ -69,6 +70,8 @@ public class XYChartsWorksheet extends Worksheet<Double> implements Syncable, Ra
     private final DoubleProperty dividerPosition;
     @IsDirtyable
     private final DoubleProperty minChartHeight;
+    @IsDirtyable
+    private final Property<DownSamplingAlgorithm> downSamplingAlgorithm;
 
 
     //  private Class<? extends WorksheetController> controllerClass = XYChartsWorksheetController.class;
@@ -120,6 +123,7 @@ public class XYChartsWorksheet extends Worksheet<Double> implements Syncable, Ra
                 initWorksheet.isTimeRangeLinked(),
                 initWorksheet.isEditModeEnabled()
         );
+        this.downSamplingAlgorithm.setValue(initWorksheet.getDownSamplingAlgorithm());
     }
 
     /**
@@ -180,6 +184,7 @@ public class XYChartsWorksheet extends Worksheet<Double> implements Syncable, Ra
         this.selectedChart = new SimpleObjectProperty<>(0);
         this.dividerPosition = new SimpleDoubleProperty(0.7);
         this.minChartHeight = new SimpleDoubleProperty(UserPreferences.getInstance().minChartHeight.get().doubleValue());
+        this.downSamplingAlgorithm = new SimpleObjectProperty<>(null);
         // Change watcher must be initialized after dirtyable properties or they will not be tracked.
         this.status = new ChangeWatcher(this);
     }
@@ -408,6 +413,36 @@ public class XYChartsWorksheet extends Worksheet<Double> implements Syncable, Ra
         this.minChartHeight.set(minChartHeight);
     }
 
+    /**
+     * Returns the algorithm used to reduce the number of samples plotted on the worksheet's charts,
+     * or null if the one defined in the user preferences should be used.
+     *
+     * @return the algorithm used to reduce the number of samples plotted on the worksheet's charts.
+     */
+    @XmlAttribute
+    public DownSamplingAlgorithm getDownSamplingAlgorithm() {
+        return downSamplingAlgorithm.getValue();
+    }
+
+    /**
+     * Sets the algorithm used to reduce the number of samples plotted on the worksheet's charts,
+     * or null to use the one defined in the user preferences.
+     *
+     * @param downSamplingAlgorithm the algorithm used to reduce the number of samples plotted on the worksheet's charts.
+     */
+    public void setDownSamplingAlgorithm(DownSamplingAlgorithm downSamplingAlgorithm) {
+        this.downSamplingAlgorithm.setValue(downSamplingAlgorithm);
+    }
+
+    /**
+     * The downSamplingAlgorithm property.
+     *
+     * @return the downSamplingAlgorithm property.
+     */
+    public Property<DownSamplingAlgorithm> downSamplingAlgorithmProperty() {
+        return downSamplingAlgorithm;
+    }
+
     @Override
     @XmlAttribute
     public Boolean isTimeRangeLinked() {
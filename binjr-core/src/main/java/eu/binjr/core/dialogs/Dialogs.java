@@ -31,6 +31,7 @@ import impl.org.controlsfx.skin.NotificationBar;
 import javafx.application.Platform;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Worker;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -254,6 +255,40 @@ public class Dialogs {
                 .owner(null).show());
     }
 
+    /**
+     * Display a notification that reports the progress of a background task and offers to cancel it.
+     * <p>The notification is dismissed once the task is done.</p>
+     *
+     * @param title  the title for the notification
+     * @param worker the task to report the progress of.
+     */
+    public static void notifyProgress(String title, Worker<?> worker) {
+        var progressBar = new ProgressBar();
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.setPrefHeight(10.0);
+        progressBar.prefWidth(Region.USE_COMPUTED_SIZE);
+        progressBar.progressProperty().bind(worker.progressProperty());
+        var label = new Label();
+        label.textProperty().bind(worker.messageProperty());
+        worker.stateProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue == Worker.State.SUCCEEDED || newValue == Worker.State.FAILED || newValue == Worker.State.CANCELLED) {
+                dismissParentNotificationPopup(progressBar);
+            }
+        });
+        var pane = new VBox();
+        pane.setFillWidth(true);
+        pane.getChildren().addAll(progressBar, label);
+        VBox.setMargin(progressBar, new Insets(10, 0, 10, 0));
+        runOnFXThread(() -> Notifications.create()
+                .title(title)
+                .hideCloseButton()
+                .graphic(pane)
+                .action(new Action("Cancel", event -> worker.cancel()))
+                .hideAfter(Duration.INDEFINITE)
+                .position(Pos.BOTTOM_RIGHT)
+                .owner(null).show());
+    }
+
     public static void notifyRestartNeeded(String title, Node owner) {
         notifyRestartNeeded(title, "Changes will take effect the next time binjr is started", owner);
     }
@@ -19,7 +19,7 @@ package eu.binjr.core.preferences;
 import eu.binjr.core.data.timeseries.transform.*;
 import eu.binjr.core.data.workspace.ChartType;
 
-import java.util.function.BiFunction;
+import java.time.ZonedDateTime;
 
 /**
  * An enumeration of supported sample reducing transformation.
@@ -27,17 +27,27 @@ import java.util.function.BiFunction;
  * @author Frederic Thevenet
  */
 public enum DownSamplingAlgorithm {
-    AUTO("Automatic", (type, threshold) ->
-            type == ChartType.STACKED ? new FirstPassLttbTransform(threshold) : new LargestTriangleThreeBucketsTransform(threshold)),
-    DECIMATION("Decimation", (type, threshold) -> new DecimationTransform(threshold)),
-    LTTB("Largest Triangle Three Buckets", (type, threshold) -> new LargestTriangleThreeBucketsTransform(threshold)),
-    TWO_PASS_LTTB("Two-pass Largest Triangle Three Buckets", (type, threshold)-> new FirstPassLttbTransform(threshold)),
-    AVERAGE("Average resampling", ((type, threshold) -> new AverageResamplingTransform(threshold)));
+    AUTO("Automatic", (type, threshold, pixelWidth, start, end) -> {
+        if (type == ChartType.STACKED) {
+            return new FirstPassLttbTransform(threshold);
+        }
+        if (pixelWidth > 0) {
+            return new M4Transform(pixelWidth, start, end);
+        }
+        return new MinMaxLttbTransform(threshold);
+    }),
+    DECIMATION("Decimation", (type, threshold, pixelWidth, start, end) -> new DecimationTransform(threshold)),
+    LTTB("Largest Triangle Three Buckets", (type, threshold, pixelWidth, start, end) -> new LargestTriangleThreeBucketsTransform(threshold)),
+    MINMAX_LTTB("MinMax-preselected Largest Triangle Three Buckets", (type, threshold, pixelWidth, start, end) -> new MinMaxLttbTransform(threshold)),
+    TWO_PASS_LTTB("Two-pass Largest Triangle Three Buckets", (type, threshold, pixelWidth, start, end) -> new FirstPassLttbTransform(threshold)),
+    AVERAGE("Average resampling", (type, threshold, pixelWidth, start, end) -> new AverageResamplingTransform(threshold)),
+    M4("M4 (pixel exact)", (type, threshold, pixelWidth, start, end) ->
+            new M4Transform(pixelWidth > 0 ? pixelWidth : Math.max(1, threshold / 4), start, end));
 
     private final String name;
-    private final BiFunction<ChartType, Integer, TimeSeriesTransform<Double>> factory;
+    private final TransformFactory factory;
 
-    DownSamplingAlgorithm(String name, BiFunction<ChartType, Integer, TimeSeriesTransform<Double>> factory) {
+    DownSamplingAlgorithm(String name, TransformFactory factory) {
         this.name = name;
         this.factory = factory;
     }
@@ -47,7 +57,29 @@ public enum DownSamplingAlgorithm {
     }
 
     public TimeSeriesTransform<Double> instantiateTransform(ChartType chartType, Integer threshold) {
-        return factory.apply(chartType, threshold);
+        return instantiateTransform(chartType, threshold, 0, null, null);
+    }
+
+    /**
+     * Returns a new instance of the reducing transformation.
+     *
+     * @param chartType  the type of chart the reduced series is plotted on.
+     * @param threshold  the maximum number of samples to keep.
+     * @param pixelWidth the width in pixels of the plot area, or 0 if unknown.
+     * @param start      the start of the plotted time range, or null if unknown.
+     * @param end        the end of the plotted time range, or null if unknown.
+     * @return a new instance of the reducing transformation.
+     */
+    public TimeSeriesTransform<Double> instantiateTransform(ChartType chartType,
+                                                            Integer threshold,
+                                                            int pixelWidth,
+                                                            ZonedDateTime start,
+                                                            ZonedDateTime end) {
+        return factory.create(chartType, threshold, pixelWidth, start, end);
     }
-}
 
+    @FunctionalInterface
+    private interface TransformFactory {
+        TimeSeriesTransform<Double> create(ChartType chartType, int threshold, int pixelWidth, ZonedDateTime start, ZonedDateTime end);
+    }
+}
@@ -193,7 +193,7 @@ public class UserPreferences extends ObservablePreferenceFactory {
     public final ObservablePreference<Number> maxAsyncTasksParallelism = integerPreference("maxAsyncTasksParallelism", 4);
 
     /**
-     * The maximum number of thread to allocate to the sub-tasks thread pool.
+     * The maximum number of thread to allocate to the sub-tasks thread pool (ignored by the VIRTUAL policy).
      */
     public final ObservablePreference<Number> maxSubTasksParallelism = integerPreference("maxSubTasksParallelism", 4);
 
@@ -207,7 +207,7 @@ public class UserPreferences extends ObservablePreferenceFactory {
      * The threading policy used by the sub-tasks thread pool.
      */
     public final ObservablePreference<ThreadPoolPolicy> subTasksThreadPoolPolicy =
-            enumPreference(ThreadPoolPolicy.class, "subTasksThreadPoolPolicy", ThreadPoolPolicy.WORK_STEALING);
+            enumPreference(ThreadPoolPolicy.class, "subTasksThreadPoolPolicy", ThreadPoolPolicy.VIRTUAL);
 
     /**
      * Records the last position of the application window before closing.
@@ -293,6 +293,8 @@ public class UserPreferences extends ObservablePreferenceFactory {
 
     public final ObservablePreference<Number> hitsPerPage = integerPreference("hitsPerPage", 10000);
 
+    public final ObservablePreference<Number> maxLocateScannedHits = integerPreference("maxLocateScannedHits", 100000);
+
     public final ObservablePreference<IndexDirectoryLocation> indexLocation =
             enumPreference(IndexDirectoryLocation.class, "indexLocation", IndexDirectoryLocation.FILES_SYSTEM);
 
@@ -459,6 +461,38 @@ public class UserPreferences extends ObservablePreferenceFactory {
 
     public final ObservablePreference<Boolean> showOutlineOnDurationCharts = booleanPreference("showOutlineOnDurationCharts", true);
 
+    public final ObservablePreference<Boolean> enableIndexWarmUp = booleanPreference("enableIndexWarmUp", true);
+
+    public final ObservablePreference<Number> backgroundTaskYieldPollMs = integerPreference("backgroundTaskYieldPollMs", 100);
+
+    public final ObservablePreference<Boolean> useVectorizedKernels = booleanPreference("useVectorizedKernels", true);
+
+    public final ObservablePreference<Boolean> levelOfDetailCacheEnabled = booleanPreference("levelOfDetailCacheEnabled", true);
+
+    public final ObservablePreference<Number> levelOfDetailCacheMaxSizeMiB = integerPreference("levelOfDetailCacheMaxSizeMiB", 256);
+
+    public final ObservablePreference<Number> maxConcurrentFetchesPerAdapter = integerPreference("maxConcurrentFetchesPerAdapter", 4);
+
+    public final ObservablePreference<Number> maxConcurrentFetchesPerHost = integerPreference("maxConcurrentFetchesPerHost", 6);
+
+    public final ObservablePreference<Number> maxConcurrentFetches = integerPreference("maxConcurrentFetches", 64);
+
+    public final ObservablePreference<Boolean> prefetchAdjacentWindows = booleanPreference("prefetchAdjacentWindows", true);
+
+    public final ObservablePreference<Number> prefetchIdleDelayMs = integerPreference("prefetchIdleDelayMs", 750);
+
+    public final ObservablePreference<Number> prefetchMaxCacheUsagePercent = integerPreference("prefetchMaxCacheUsagePercent", 50);
+
+    public final ObservablePreference<Boolean> progressiveRenderingEnabled = booleanPreference("progressiveRenderingEnabled", true);
+
+    public final ObservablePreference<Number> progressiveRenderingIntervalMs = integerPreference("progressiveRenderingIntervalMs", 250);
+
+    public final ObservablePreference<Boolean> memoryBudgetEnabled = booleanPreference("memoryBudgetEnabled", true);
+
+    public final ObservablePreference<Number> memoryBudgetPercentOfMaxHeap = integerPreference("memoryBudgetPercentOfMaxHeap", 50);
+
+    public final ObservablePreference<Number> memoryBudgetCheckIntervalMs = integerPreference("memoryBudgetCheckIntervalMs", 1000);
+
     public static class UserFavorites extends MruFactory {
 
         public final MostRecentlyUsedList<String> favoriteLogFilters =
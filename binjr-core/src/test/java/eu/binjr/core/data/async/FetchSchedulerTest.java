@@ -0,0 +1,172 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.async;
+
+import eu.binjr.core.preferences.UserPreferences;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetchSchedulerTest {
+    private static final long TIMEOUT_SEC = 10;
+    private final FetchScheduler scheduler = FetchScheduler.getInstance();
+    private final UserPreferences userPref = UserPreferences.getInstance();
+
+    private interface SchedulerTest {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs a test with the specified concurrency limits, restoring the previous ones afterwards.
+     */
+    private void withLimits(int maxRunning, int maxPerAdapter, int maxPerHost, SchedulerTest test) throws Exception {
+        var previous = List.of(userPref.maxConcurrentFetches.get(),
+                userPref.maxConcurrentFetchesPerAdapter.get(),
+                userPref.maxConcurrentFetchesPerHost.get());
+        userPref.maxConcurrentFetches.set(maxRunning);
+        userPref.maxConcurrentFetchesPerAdapter.set(maxPerAdapter);
+        userPref.maxConcurrentFetchesPerHost.set(maxPerHost);
+        try {
+            test.run();
+        } finally {
+            userPref.maxConcurrentFetches.set(previous.get(0));
+            userPref.maxConcurrentFetchesPerAdapter.set(previous.get(1));
+            userPref.maxConcurrentFetchesPerHost.set(previous.get(2));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for latch");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> futures) throws Exception {
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(TIMEOUT_SEC, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void adaptersAreServedInTurn() throws Exception {
+        withLimits(1, 1, 1, () -> {
+            var gate = new CountDownLatch(1);
+            var order = Collections.synchronizedList(new ArrayList<String>());
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            // Hold the only slot while tasks are queued
+            futures.add(scheduler.submit(TaskPriority.HIDDEN, "blocker", null, () -> await(gate)));
+            for (int i = 1; i <= 5; i++) {
+                var name = "A" + i;
+                futures.add(scheduler.submit(TaskPriority.HIDDEN, "A", null, () -> order.add(name)));
+            }
+            for (int i = 1; i <= 2; i++) {
+                var name = "B" + i;
+                futures.add(scheduler.submit(TaskPriority.HIDDEN, "B", null, () -> order.add(name)));
+            }
+            assertEquals(7, scheduler.getQueuedTasks());
+            gate.countDown();
+            awaitAll(futures);
+            // A reference round robin: each adapter with queued tasks gets one slot in turn
+            assertEquals(List.of("A1", "B1", "A2", "B2", "A3", "A4", "A5"), order);
+        });
+    }
+
+    @Test
+    public void higherPrioritiesAreStartedFirst() throws Exception {
+        withLimits(1, 1, 1, () -> {
+            var gate = new CountDownLatch(1);
+            var order = Collections.synchronizedList(new ArrayList<String>());
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            futures.add(scheduler.submit(TaskPriority.MAINTENANCE, "blocker", null, () -> await(gate)));
+            futures.add(scheduler.submit(TaskPriority.MAINTENANCE, "A", null, () -> order.add("maintenance")));
+            futures.add(scheduler.submit(TaskPriority.HIDDEN, "A", null, () -> order.add("hidden")));
+            futures.add(scheduler.submit(TaskPriority.VISIBLE_BACKGROUND, "B", null, () -> order.add("background")));
+            futures.add(scheduler.submit(TaskPriority.VISIBLE_INTERACTIVE, "C", null, () -> order.add("interactive")));
+            gate.countDown();
+            awaitAll(futures);
+            assertEquals(List.of("interactive", "background", "hidden", "maintenance"), order);
+        });
+    }
+
+    @Test
+    public void concurrentTasksAreCapped() throws Exception {
+        withLimits(4, 2, 3, () -> {
+            var gate = new CountDownLatch(1);
+            var started = new CountDownLatch(4);
+            Map<String, Integer> running = new HashMap<>();
+            Map<String, Integer> peaks = new HashMap<>();
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            String[][] sources = {{"A", "h1"}, {"B", "h1"}, {"C", "h2"}, {"D", null}};
+            for (var source : sources) {
+                for (int i = 0; i < 5; i++) {
+                    var keys = source[1] == null ? List.of("all", source[0]) : List.of("all", source[0], source[1]);
+                    futures.add(scheduler.submit(TaskPriority.VISIBLE_BACKGROUND, source[0], source[1], () -> {
+                        synchronized (running) {
+                            keys.forEach(k -> peaks.merge(k, running.merge(k, 1, Integer::sum), Math::max));
+                        }
+                        started.countDown();
+                        await(gate);
+                        synchronized (running) {
+                            keys.forEach(k -> running.merge(k, -1, Integer::sum));
+                        }
+                    }));
+                }
+            }
+            // Two tasks for A, one for B (host h1 is then full), one for C
+            assertEquals(4, scheduler.getRunningTasks());
+            assertEquals(16, scheduler.getQueuedTasks());
+            await(started);
+            gate.countDown();
+            awaitAll(futures);
+            synchronized (running) {
+                assertEquals(4, (int) peaks.get("all"));
+                for (var adapter : List.of("A", "B", "C", "D")) {
+                    assertTrue(peaks.get(adapter) <= 2, "Too many tasks for adapter " + adapter);
+                }
+                assertTrue(peaks.get("h1") <= 3, "Too many tasks for host h1");
+            }
+            assertEquals(0, scheduler.getQueuedTasks());
+        });
+    }
+
+    @Test
+    public void failedTasksReleaseTheirSlot() throws Exception {
+        withLimits(1, 1, 1, () -> {
+            var failed = scheduler.submit(TaskPriority.VISIBLE_INTERACTIVE, "A", "h1", () -> {
+                throw new IllegalStateException("Expected failure");
+            });
+            var next = scheduler.submit(TaskPriority.VISIBLE_INTERACTIVE, "A", "h1", () -> {
+            });
+            var thrown = assertThrows(ExecutionException.class, () -> failed.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+            assertTrue(thrown.getCause() instanceof IllegalStateException);
+            assertDoesNotThrow(() -> next.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        });
+    }
+}
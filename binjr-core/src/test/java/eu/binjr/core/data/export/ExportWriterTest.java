@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportWriterTest {
+    private static final String TIMESTAMP = "2026-01-01T00:00:00Z";
+
+    private static List<String> export(ExportFormat format, Object[]... records) throws IOException {
+        var target = Files.createTempFile("binjr-export", "." + format.getExtension());
+        try {
+            try (var writer = new ExportWriter(format, target, "timestamp", "series", "value")) {
+                for (var record : records) {
+                    writer.write(record);
+                }
+            }
+            return Files.readAllLines(target, StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    public void nonFiniteValuesAreWrittenAsJsonNull() throws IOException {
+        var lines = export(ExportFormat.NDJSON,
+                new Object[]{TIMESTAMP, "cpu", 1.5},
+                new Object[]{TIMESTAMP, "cpu", Double.NaN},
+                new Object[]{TIMESTAMP, "cpu", Double.POSITIVE_INFINITY},
+                new Object[]{TIMESTAMP, "cpu", Float.NEGATIVE_INFINITY},
+                new Object[]{TIMESTAMP, null, 2.0});
+        assertEquals(List.of(
+                "{\"timestamp\":\"" + TIMESTAMP + "\",\"series\":\"cpu\",\"value\":1.5}",
+                "{\"timestamp\":\"" + TIMESTAMP + "\",\"series\":\"cpu\",\"value\":null}",
+                "{\"timestamp\":\"" + TIMESTAMP + "\",\"series\":\"cpu\",\"value\":null}",
+                "{\"timestamp\":\"" + TIMESTAMP + "\",\"series\":\"cpu\",\"value\":null}",
+                "{\"timestamp\":\"" + TIMESTAMP + "\",\"series\":null,\"value\":2.0}"), lines);
+    }
+
+    @Test
+    public void textRecordsAreTabSeparated() throws IOException {
+        var lines = export(ExportFormat.TEXT,
+                new Object[]{TIMESTAMP, "cpu", 1.5},
+                new Object[]{TIMESTAMP, "cpu", Double.NaN});
+        assertEquals(List.of(TIMESTAMP + "\tcpu\t1.5", TIMESTAMP + "\tcpu\tNaN"), lines);
+    }
+}
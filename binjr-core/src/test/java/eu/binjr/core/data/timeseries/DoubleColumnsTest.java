@@ -0,0 +1,199 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoubleColumnsTest {
+
+    private record Sample(long timestamp, double value) {
+    }
+
+    /**
+     * Builds samples made of the specified number of ascending runs, with a few duplicate timestamps.
+     * Values hold the insertion order, so that stability can be checked.
+     */
+    private static List<Sample> makeRuns(Random rnd, int count, int nbRuns) {
+        var samples = new ArrayList<Sample>(count);
+        int runLength = Math.max(1, count / nbRuns);
+        long t = 0;
+        for (int i = 0; i < count; i++) {
+            if (i % runLength == 0) {
+                t = rnd.nextInt(1_000);
+            }
+            t += rnd.nextInt(4);
+            samples.add(new Sample(t, i));
+        }
+        return samples;
+    }
+
+    private static DoubleColumns toColumns(List<Sample> samples) {
+        var columns = new DoubleColumns();
+        samples.forEach(s -> columns.add(s.timestamp(), s.value()));
+        return columns;
+    }
+
+    private static void assertSameSamples(List<Sample> expected, DoubleColumns actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).timestamp(), actual.getTimestamp(i), "Timestamp at index " + i);
+            assertEquals(expected.get(i).value(), actual.getValue(i), 0.0, "Value at index " + i);
+        }
+    }
+
+    private static void assertSortedLikeReference(List<Sample> samples) {
+        var columns = toColumns(samples);
+        // List.sort is stable: samples with the same timestamp keep their insertion order
+        var expected = new ArrayList<>(samples);
+        expected.sort(Comparator.comparingLong(Sample::timestamp));
+        columns.sortByTimestamp();
+        assertTrue(columns.isSorted());
+        assertSameSamples(expected, columns);
+    }
+
+    @Test
+    public void fewRunsAreMergedLikeReference() {
+        var rnd = new Random(1);
+        for (int nbRuns : new int[]{1, 2, 3, 7, 16}) {
+            for (int count : new int[]{128, 1_000, 4_099}) {
+                assertSortedLikeReference(makeRuns(rnd, count, nbRuns));
+            }
+        }
+    }
+
+    @Test
+    public void manyShortRunsAreSortedLikeReference() {
+        var rnd = new Random(2);
+        for (int count : new int[]{2, 3, 17, 1_000, 10_001}) {
+            // Runs shorter than the minimum average length fall back to a full sort
+            assertSortedLikeReference(makeRuns(rnd, count, Math.max(1, count / 3)));
+            var shuffled = new ArrayList<Sample>(count);
+            for (int i = 0; i < count; i++) {
+                shuffled.add(new Sample(rnd.nextInt(count / 2 + 1), i));
+            }
+            assertSortedLikeReference(shuffled);
+        }
+    }
+
+    @Test
+    public void sortedAndDescendingInputsAreSortedLikeReference() {
+        var ascending = new ArrayList<Sample>();
+        var descending = new ArrayList<Sample>();
+        for (int i = 0; i < 1_000; i++) {
+            ascending.add(new Sample(i / 3, i));
+            descending.add(new Sample(1_000 - i / 3, i));
+        }
+        assertSortedLikeReference(ascending);
+        assertSortedLikeReference(descending);
+        assertSortedLikeReference(List.of());
+        assertSortedLikeReference(List.of(new Sample(42, 1)));
+    }
+
+    @Test
+    public void appendedPagesAreMergedLikeReference() {
+        var rnd = new Random(3);
+        var all = new ArrayList<Sample>();
+        var columns = new DoubleColumns();
+        for (int page = 0; page < 5; page++) {
+            var samples = makeRuns(rnd, 500, 1);
+            var pageColumns = new DoubleColumns();
+            for (var s : samples) {
+                var sample = new Sample(s.timestamp(), all.size());
+                all.add(sample);
+                pageColumns.add(sample.timestamp(), sample.value());
+            }
+            columns.addAll(pageColumns);
+        }
+        all.sort(Comparator.comparingLong(Sample::timestamp));
+        columns.sortByTimestamp();
+        assertSameSamples(all, columns);
+    }
+
+    @Test
+    public void upperBoundMatchesLinearScan() {
+        var rnd = new Random(4);
+        var samples = makeRuns(rnd, 2_000, 1);
+        var columns = toColumns(samples);
+        long last = samples.get(samples.size() - 1).timestamp();
+        for (long t = -2; t <= last + 2; t++) {
+            int expected = 0;
+            while (expected < samples.size() && samples.get(expected).timestamp() <= t) {
+                expected++;
+            }
+            assertEquals(expected, columns.upperBound(t), "Upper bound of " + t);
+        }
+        assertEquals(0, new DoubleColumns().upperBound(0));
+        assertEquals(0, columns.upperBound(Long.MIN_VALUE));
+        assertEquals(columns.size(), columns.upperBound(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void sliceCopiesRangeAndChecksBounds() {
+        var samples = makeRuns(new Random(5), 100, 1);
+        var columns = toColumns(samples);
+        var slice = columns.slice(10, 60);
+        assertSameSamples(samples.subList(10, 60), slice);
+        // The slice is a copy
+        slice.setValue(0, -1.0);
+        assertEquals(samples.get(10).value(), columns.getValue(10), 0.0);
+        assertEquals(0, columns.slice(100, 100).size());
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.slice(-1, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.slice(50, 101));
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.slice(60, 10));
+    }
+
+    @Test
+    public void viewsAreNotAffectedByAppends() {
+        var samples = makeRuns(new Random(6), 20, 1);
+        var columns = toColumns(samples);
+        var view = columns.view();
+        var list = columns.asDataList();
+        for (int i = 0; i < 1_000; i++) {
+            columns.add(10_000 + i, -i);
+        }
+        assertSameSamples(samples, view);
+        assertEquals(samples.size(), list.size());
+        for (int i = 0; i < samples.size(); i++) {
+            assertEquals(columns.getDateTime(i), list.get(i).getXValue());
+            assertEquals(samples.get(i).value(), list.get(i).getYValue(), 0.0);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(samples.size()));
+    }
+
+    @Test
+    public void trimToSizeReleasesUnusedRoom() {
+        var samples = makeRuns(new Random(7), 100, 1);
+        var columns = new DoubleColumns(1_000);
+        samples.forEach(s -> columns.add(s.timestamp(), s.value()));
+        assertEquals(1_000 * 16L, columns.getSizeInBytes());
+        assertEquals(900 * 16L, columns.trimToSize());
+        assertEquals(100 * 16L, columns.getSizeInBytes());
+        assertEquals(0, columns.trimToSize());
+        assertSameSamples(samples, columns);
+        // Samples can still be added once trimmed
+        columns.add(Long.MAX_VALUE, 1.0);
+        assertEquals(101, columns.size());
+        assertTrue(columns.isSorted());
+    }
+}
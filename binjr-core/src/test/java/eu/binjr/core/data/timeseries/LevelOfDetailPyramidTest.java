@@ -0,0 +1,248 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static eu.binjr.core.data.timeseries.TestSamples.assertSameSamples;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelOfDetailPyramidTest {
+    private static final long STEP = 1_000L;
+    private static final int SIZE = 10_000;
+
+    private static DoubleColumns makeSamples(long seed) {
+        var rnd = new Random(seed);
+        var samples = new DoubleColumns(SIZE);
+        long t = 1_000_000L;
+        for (int i = 0; i < SIZE; i++) {
+            // Leave a few gaps so that some buckets are empty
+            t += (i % 1000 == 0) ? STEP * 200 : STEP;
+            samples.add(t, (i % 97 == 0) ? Double.NaN : rnd.nextGaussian() * 100);
+        }
+        return samples;
+    }
+
+    private static LevelOfDetailPyramid makePyramid(DoubleColumns samples) {
+        return new LevelOfDetailPyramid(samples.copy(), samples.getTimestamp(0),
+                samples.getTimestamp(samples.size() - 1), true);
+    }
+
+    @Test
+    public void rawQueryMatchesSlice() {
+        var samples = makeSamples(1);
+        var pyramid = makePyramid(samples);
+        long from = samples.getTimestamp(100) + 1;
+        long to = samples.getTimestamp(200) - 1;
+        assertSameSamples(samples.slice(100, 201), pyramid.query(from, to, 0, false));
+    }
+
+    @Test
+    public void queriesBeforeSamplesDoNotFail() {
+        var samples = makeSamples(2);
+        var pyramid = makePyramid(samples);
+        long first = samples.getTimestamp(0);
+        for (long width : new long[]{0, STEP * 8, STEP * 64, STEP * 1024, Long.MAX_VALUE / 4}) {
+            for (boolean average : new boolean[]{false, true}) {
+                var result = assertDoesNotThrow(() -> pyramid.query(first - STEP * 10_000, first - STEP * 5_000, width, average));
+                assertSortedSubset(samples, result, average);
+                assertTrue(result.size() <= (average ? 1 : 4));
+            }
+        }
+    }
+
+    @Test
+    public void queriesAfterSamplesDoNotFail() {
+        var samples = makeSamples(3);
+        var pyramid = makePyramid(samples);
+        long last = samples.getTimestamp(samples.size() - 1);
+        for (long width : new long[]{0, STEP * 8, STEP * 64, STEP * 1024, Long.MAX_VALUE / 4}) {
+            for (boolean average : new boolean[]{false, true}) {
+                var result = assertDoesNotThrow(() -> pyramid.query(last + STEP * 5_000, last + STEP * 10_000, width, average));
+                assertSortedSubset(samples, result, average);
+            }
+        }
+    }
+
+    @Test
+    public void queriesAcrossSamplesKeepExtremes() {
+        var samples = makeSamples(4);
+        var pyramid = makePyramid(samples);
+        long first = samples.getTimestamp(0);
+        long last = samples.getTimestamp(samples.size() - 1);
+        long[][] ranges = {
+                {first - STEP * 500, first + STEP * 500},
+                {first + STEP * 1234, last - STEP * 4321},
+                {last - STEP * 500, last + STEP * 500},
+                {first - STEP * 10_000, last + STEP * 10_000}
+        };
+        for (var range : ranges) {
+            for (long width : new long[]{STEP * 8, STEP * 64, STEP * 1024}) {
+                var result = pyramid.query(range[0], range[1], width, false);
+                assertSortedSubset(samples, result, false);
+                int lo = samples.upperBound(range[0] - 1);
+                int hi = samples.upperBound(range[1]);
+                double min = Double.NaN;
+                double max = Double.NaN;
+                for (int i = lo; i < hi; i++) {
+                    double v = samples.getValue(i);
+                    if (!Double.isNaN(v)) {
+                        min = Double.isNaN(min) ? v : Math.min(min, v);
+                        max = Double.isNaN(max) ? v : Math.max(max, v);
+                    }
+                }
+                // Buckets at the edges may span beyond the range, so their extremes can only be wider
+                assertTrue(min(result) <= min, "Missing minimum for width " + width);
+                assertTrue(max(result) >= max, "Missing maximum for width " + width);
+                if (width >= STEP * 64) {
+                    assertTrue(result.size() < (hi - lo) / 4, "Query was not reduced for width " + width);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void averageQueryMatchesReference() {
+        var samples = makeSamples(5);
+        var pyramid = makePyramid(samples);
+        var result = pyramid.query(samples.getTimestamp(0), samples.getTimestamp(samples.size() - 1), STEP * 1000, true);
+        // Levels use power of two bucket widths: the result must match the bucket averages for one of them
+        boolean matched = false;
+        for (long width = 1; width <= STEP * 1000 && !matched; width *= 2) {
+            matched = matchesAverages(samples, result, width);
+        }
+        assertTrue(matched, "Averages do not match any bucket width");
+    }
+
+    @Test
+    public void mergeMatchesReference() {
+        var samples = makeSamples(6);
+        var pyramid = makePyramid(samples);
+        long freshStart = samples.getTimestamp(SIZE / 2);
+        long freshEnd = samples.getTimestamp(SIZE - 1) + STEP * 1000;
+        var fresh = new DoubleColumns();
+        for (long t = freshStart; t <= freshEnd; t += STEP * 3) {
+            fresh.add(t, -1.0);
+        }
+        var merged = pyramid.merge(fresh.copy(), freshStart, freshEnd);
+        assertEquals(samples.getTimestamp(0), merged.getStart());
+        assertEquals(freshEnd, merged.getEnd());
+
+        var reference = new DoubleColumns();
+        for (int i = 0; i < samples.size() && samples.getTimestamp(i) < freshStart; i++) {
+            reference.add(samples.getTimestamp(i), samples.getValue(i));
+        }
+        reference.addAll(fresh);
+        assertSameSamples(reference, merged.query(Long.MIN_VALUE / 4, Long.MAX_VALUE / 4, 0, false));
+    }
+
+    @Test
+    public void smallPyramidHasNoLevels() {
+        var samples = new DoubleColumns(new long[]{10, 20, 30}, new double[]{1, 2, 3}, 3, TestSamples.UTC);
+        var pyramid = new LevelOfDetailPyramid(samples, 0, 40, false);
+        assertEquals(3, pyramid.query(0, 40, 1_000, false).size());
+        assertEquals(1, pyramid.query(35, 40, 1_000, false).size());
+        assertEquals(0, new LevelOfDetailPyramid(new DoubleColumns(), 0, 40, true).query(0, 40, 1_000, false).size());
+    }
+
+    @Test
+    public void reducedPyramidsOnlyCoverTheSameAggregation() {
+        var samples = new DoubleColumns(new long[]{10, 20, 30}, new double[]{1, 2, 3}, 3, TestSamples.UTC);
+        var extremes = new LevelOfDetailPyramid(samples.copy(), 0, 40, false);
+        assertTrue(extremes.covers(0, 40, 20, false));
+        assertFalse(extremes.covers(0, 40, 20, true));
+        assertFalse(extremes.covers(0, 40, 5, false));
+        var averages = new LevelOfDetailPyramid(samples.copy(), 0, 40, false, true);
+        assertTrue(averages.covers(0, 40, 20, true));
+        assertFalse(averages.covers(0, 40, 20, false));
+        var full = new LevelOfDetailPyramid(samples.copy(), 0, 40, true, true);
+        assertTrue(full.covers(0, 40, 1, true));
+        assertTrue(full.covers(0, 40, 1, false));
+        assertFalse(full.covers(0, 50, 1, false));
+    }
+
+    private static void assertSortedSubset(DoubleColumns samples, DoubleColumns result, boolean average) {
+        Map<Long, Double> byTimestamp = new HashMap<>();
+        for (int i = 0; i < samples.size(); i++) {
+            byTimestamp.put(samples.getTimestamp(i), samples.getValue(i));
+        }
+        for (int i = 0; i < result.size(); i++) {
+            if (i > 0) {
+                assertTrue(result.getTimestamp(i - 1) <= result.getTimestamp(i), "Samples are not sorted");
+            }
+            if (!average) {
+                assertTrue(byTimestamp.containsKey(result.getTimestamp(i)), "Unknown timestamp " + result.getTimestamp(i));
+                assertEquals(byTimestamp.get(result.getTimestamp(i)), result.getValue(i), 0.0);
+            }
+        }
+    }
+
+    private static boolean matchesAverages(DoubleColumns samples, DoubleColumns result, long width) {
+        long origin = Math.floorDiv(samples.getTimestamp(0), width) * width;
+        int r = 0;
+        int i = 0;
+        while (i < samples.size()) {
+            long bucket = Math.floorDiv(samples.getTimestamp(i) - origin, width);
+            long firstTs = samples.getTimestamp(i);
+            long lastTs = firstTs;
+            double sum = 0;
+            int count = 0;
+            for (; i < samples.size() && Math.floorDiv(samples.getTimestamp(i) - origin, width) == bucket; i++) {
+                lastTs = samples.getTimestamp(i);
+                if (!Double.isNaN(samples.getValue(i))) {
+                    sum += samples.getValue(i);
+                    count++;
+                }
+            }
+            long middle = Math.min(lastTs, Math.max(firstTs, origin + bucket * width + width / 2));
+            if (r >= result.size() || result.getTimestamp(r) != middle) {
+                return false;
+            }
+            double expected = count > 0 ? sum / count : Double.NaN;
+            if (Double.isNaN(expected) != Double.isNaN(result.getValue(r)) ||
+                    (!Double.isNaN(expected) && Math.abs(expected - result.getValue(r)) > 1e-9)) {
+                return false;
+            }
+            r++;
+        }
+        return r == result.size();
+    }
+
+    private static double min(DoubleColumns columns) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < columns.size(); i++) {
+            if (!Double.isNaN(columns.getValue(i))) {
+                min = Math.min(min, columns.getValue(i));
+            }
+        }
+        return min;
+    }
+
+    private static double max(DoubleColumns columns) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < columns.size(); i++) {
+            if (!Double.isNaN(columns.getValue(i))) {
+                max = Math.max(max, columns.getValue(i));
+            }
+        }
+        return max;
+    }
+}
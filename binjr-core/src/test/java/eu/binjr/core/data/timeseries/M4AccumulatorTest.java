@@ -0,0 +1,265 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class M4AccumulatorTest {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final long START = 1_000_000L;
+    private static final long END = 2_000_000L;
+    private static final int NB_BUCKETS = 50;
+
+    private record Sample(long timestamp, double value) {
+    }
+
+    private static List<Sample> makeSamples(long seed, int count, double nanRate) {
+        var rnd = new Random(seed);
+        var samples = new ArrayList<Sample>(count);
+        // Unique timestamps, some of them before and after the accumulated range
+        long step = (END - START + 200_000) / count;
+        for (int i = 0; i < count; i++) {
+            long timestamp = START - 100_000 + i * step;
+            samples.add(new Sample(timestamp, rnd.nextDouble() < nanRate ? Double.NaN : rnd.nextGaussian() * 10));
+        }
+        Collections.shuffle(samples, rnd);
+        return samples;
+    }
+
+    private static int bucketOf(long timestamp) {
+        if (timestamp < START) {
+            return 0;
+        }
+        if (timestamp > END) {
+            return NB_BUCKETS + 1;
+        }
+        return 1 + (int) Math.min(NB_BUCKETS - 1, (long) ((timestamp - START) * (NB_BUCKETS / (double) (END - START))));
+    }
+
+    /**
+     * A straightforward M4 reduction over a list of samples, in the order they were added.
+     */
+    private static List<Sample> reference(List<Sample> samples) {
+        List<List<Sample>> buckets = new ArrayList<>();
+        for (int i = 0; i < NB_BUCKETS + 2; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (var sample : samples) {
+            buckets.get(bucketOf(sample.timestamp())).add(sample);
+        }
+        var result = new ArrayList<Sample>();
+        for (var bucket : buckets) {
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            var first = bucket.stream().min(Comparator.comparingLong(Sample::timestamp)).orElseThrow();
+            var last = bucket.stream().max(Comparator.comparingLong(Sample::timestamp)).orElseThrow();
+            // Extremes ignore NaN values, unless there is nothing else, and ties go to the earliest sample
+            var numbers = bucket.stream().filter(s -> !Double.isNaN(s.value())).toList();
+            var min = numbers.isEmpty() ? bucket.get(0) : numbers.stream()
+                    .min(Comparator.comparingDouble(Sample::value).thenComparingLong(Sample::timestamp)).orElseThrow();
+            var max = numbers.isEmpty() ? bucket.get(0) : numbers.stream()
+                    .max(Comparator.comparingDouble(Sample::value).thenComparing(Sample::timestamp, Comparator.reverseOrder())).orElseThrow();
+            List.of(first, min, max, last).stream()
+                    .distinct()
+                    .sorted(Comparator.comparingLong(Sample::timestamp))
+                    .forEach(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * The average of each bucket within the range, with the closest samples before and after it.
+     */
+    private static List<Sample> referenceAverages(List<Sample> samples) {
+        List<List<Sample>> buckets = new ArrayList<>();
+        for (int i = 0; i < NB_BUCKETS + 2; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (var sample : samples) {
+            buckets.get(bucketOf(sample.timestamp())).add(sample);
+        }
+        var result = new ArrayList<Sample>();
+        buckets.get(0).stream().max(Comparator.comparingLong(Sample::timestamp)).ifPresent(result::add);
+        for (int b = 1; b <= NB_BUCKETS; b++) {
+            var bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            long first = bucket.stream().mapToLong(Sample::timestamp).min().orElseThrow();
+            long last = bucket.stream().mapToLong(Sample::timestamp).max().orElseThrow();
+            long middle = START + (long) ((b - 0.5) / (NB_BUCKETS / (double) (END - START)));
+            double average = bucket.stream()
+                    .mapToDouble(Sample::value)
+                    .filter(v -> !Double.isNaN(v))
+                    .average()
+                    .orElse(Double.NaN);
+            result.add(new Sample(Math.min(last, Math.max(first, middle)), average));
+        }
+        buckets.get(NB_BUCKETS + 1).stream().min(Comparator.comparingLong(Sample::timestamp)).ifPresent(result::add);
+        return result;
+    }
+
+    private static void assertSameSamples(List<Sample> expected, DoubleColumns actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).timestamp(), actual.getTimestamp(i), "Timestamp at index " + i);
+            assertEquals(expected.get(i).value(), actual.getValue(i), 0.0, "Value at index " + i);
+        }
+    }
+
+    @Test
+    public void reductionMatchesReference() {
+        for (long seed = 0; seed < 20; seed++) {
+            var samples = makeSamples(seed, 5_000, 0.02);
+            var acc = new M4Accumulator(START, END, NB_BUCKETS);
+            samples.forEach(s -> acc.add(s.timestamp(), s.value()));
+            assertEquals(samples.size(), acc.getCount());
+            assertSameSamples(reference(samples), acc.toColumns(UTC));
+        }
+    }
+
+    @Test
+    public void sparseSamplesAreKept() {
+        var samples = makeSamples(42, 30, 0.2);
+        var acc = new M4Accumulator(START, END, NB_BUCKETS);
+        samples.forEach(s -> acc.add(s.timestamp(), s.value()));
+        assertSameSamples(reference(samples), acc.toColumns(UTC));
+        assertEquals(samples.size(), acc.toColumns(UTC).size());
+    }
+
+    @Test
+    public void tiesGoToEarliestSample() {
+        var acc = new M4Accumulator(START, END, 1);
+        acc.add(START + 500, 1.0);
+        acc.add(START + 300, 5.0);
+        acc.add(START + 100, 5.0);
+        acc.add(START + 400, -2.0);
+        acc.add(START + 200, -2.0);
+        acc.add(START + 600, 0.0);
+        var reduced = acc.toColumns(UTC);
+        // The first sample is also the largest one
+        assertEquals(3, reduced.size());
+        assertArrayEquals(new long[]{START + 100, START + 200, START + 600},
+                new long[]{reduced.getTimestamp(0), reduced.getTimestamp(1), reduced.getTimestamp(2)});
+        assertEquals(5.0, reduced.getValue(0), 0.0);
+        assertEquals(-2.0, reduced.getValue(1), 0.0);
+    }
+
+    @Test
+    public void mergeMatchesSingleAccumulator() {
+        for (long seed = 0; seed < 20; seed++) {
+            var samples = makeSamples(seed, 10_000, 0.05);
+            var single = new M4Accumulator(START, END, NB_BUCKETS);
+            samples.forEach(s -> single.add(s.timestamp(), s.value()));
+            var parts = new M4Accumulator[4];
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new M4Accumulator(START, END, NB_BUCKETS);
+            }
+            for (int i = 0; i < samples.size(); i++) {
+                parts[i % parts.length].add(samples.get(i).timestamp(), samples.get(i).value());
+            }
+            var merged = new M4Accumulator(START, END, NB_BUCKETS);
+            for (var part : parts) {
+                merged.merge(part);
+            }
+            assertEquals(single.getCount(), merged.getCount());
+            var expected = single.toColumns(UTC);
+            var actual = merged.toColumns(UTC);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.getTimestamp(i), actual.getTimestamp(i));
+                assertEquals(expected.getValue(i), actual.getValue(i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void averagesMatchReference() {
+        for (long seed = 0; seed < 20; seed++) {
+            var samples = makeSamples(seed, 5_000, 0.02);
+            var acc = new M4Accumulator(START, END, NB_BUCKETS);
+            samples.forEach(s -> acc.add(s.timestamp(), s.value()));
+            var expected = referenceAverages(samples);
+            var actual = acc.toColumns(UTC, true);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).timestamp(), actual.getTimestamp(i), "Timestamp at index " + i);
+                assertEquals(expected.get(i).value(), actual.getValue(i), 1e-9, "Value at index " + i);
+            }
+            assertTrue(actual.isSorted());
+        }
+    }
+
+    @Test
+    public void mergedAveragesMatchSingleAccumulator() {
+        var samples = makeSamples(3, 10_000, 0.05);
+        var single = new M4Accumulator(START, END, NB_BUCKETS);
+        samples.forEach(s -> single.add(s.timestamp(), s.value()));
+        var left = new M4Accumulator(START, END, NB_BUCKETS);
+        var right = new M4Accumulator(START, END, NB_BUCKETS);
+        for (int i = 0; i < samples.size(); i++) {
+            (i % 2 == 0 ? left : right).add(samples.get(i).timestamp(), samples.get(i).value());
+        }
+        left.merge(right);
+        var expected = single.toColumns(UTC, true);
+        var actual = left.toColumns(UTC, true);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getTimestamp(i), actual.getTimestamp(i));
+            assertEquals(expected.getValue(i), actual.getValue(i), 1e-9);
+        }
+    }
+
+    @Test
+    public void bucketsOfNaNAverageToNaN() {
+        var acc = new M4Accumulator(START, END, 2);
+        acc.add(START + 100, Double.NaN);
+        acc.add(START + 200, Double.NaN);
+        acc.add(END - 100, 4.0);
+        acc.add(END - 200, 2.0);
+        var averaged = acc.toColumns(UTC, true);
+        assertEquals(2, averaged.size());
+        assertTrue(Double.isNaN(averaged.getValue(0)));
+        assertEquals(3.0, averaged.getValue(1), 0.0);
+        // The middle of the second bucket is before its first sample
+        assertEquals(END - 200, averaged.getTimestamp(1));
+    }
+
+    @Test
+    public void mergeRejectsDifferentBuckets() {
+        var acc = new M4Accumulator(START, END, NB_BUCKETS);
+        assertThrows(IllegalArgumentException.class, () -> acc.merge(new M4Accumulator(START, END, NB_BUCKETS + 1)));
+        assertThrows(IllegalArgumentException.class, () -> acc.merge(new M4Accumulator(START, END + 1, NB_BUCKETS)));
+    }
+
+    @Test
+    public void sizeIsBoundedByBuckets() {
+        var acc = new M4Accumulator(START, END, NB_BUCKETS);
+        makeSamples(7, 100_000, 0.0).forEach(s -> acc.add(s.timestamp(), s.value()));
+        assertTrue(acc.toColumns(UTC).size() <= (NB_BUCKETS + 2) * 4);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeriesSummaryTest {
+    private static final double[] QUANTILES = {0.0, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1.0};
+
+    private static double[] makeValues(int count, DoubleSupplier generator) {
+        var values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = generator.getAsDouble();
+        }
+        return values;
+    }
+
+    /**
+     * The exact value at the rank the summary estimates, i.e. the nearest rank below the quantile.
+     */
+    private static double reference(double[] sorted, double quantile) {
+        return sorted[(int) (quantile * (sorted.length - 1))];
+    }
+
+    private static void assertWithinAccuracy(double[] values, SeriesSummary summary, double... quantiles) {
+        var sorted = Arrays.stream(values).filter(v -> !Double.isNaN(v)).sorted().toArray();
+        for (double q : quantiles) {
+            double expected = reference(sorted, q);
+            double actual = summary.getQuantile(q);
+            assertTrue(Math.abs(actual - expected) <= SeriesSummary.RELATIVE_ACCURACY * Math.abs(expected) * (1 + 1e-9),
+                    "Quantile " + q + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    @Test
+    public void quantilesAreWithinRelativeAccuracy() {
+        var rnd = new Random(1);
+        DoubleSupplier[] distributions = {
+                () -> Math.exp(rnd.nextGaussian() * 3),
+                () -> -Math.exp(rnd.nextGaussian() * 3),
+                () -> rnd.nextGaussian() * 1000,
+                () -> rnd.nextInt(5) - 2.0,
+                () -> rnd.nextDouble() < 0.3 ? 0.0 : rnd.nextDouble() < 0.1 ? Double.NaN : rnd.nextGaussian(),
+                () -> 1e6 + rnd.nextInt(100)
+        };
+        for (var distribution : distributions) {
+            for (int count : new int[]{1, 2, 10, 1_000, 100_000}) {
+                var values = makeValues(count, distribution);
+                var summary = SeriesSummary.of(values, 0, values.length);
+                if (summary.getCount() > 0) {
+                    assertWithinAccuracy(values, summary, QUANTILES);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void collapsedBucketsOnlyAffectSmallestMagnitudes() {
+        var rnd = new Random(2);
+        // A few values far below the others span more buckets than a summary keeps
+        var values = makeValues(100_000, () -> rnd.nextDouble() < 0.05 ?
+                Math.pow(10, -200 + rnd.nextDouble() * 100) : 1 + rnd.nextDouble() * 1000);
+        var summary = SeriesSummary.of(values, 0, values.length);
+        assertWithinAccuracy(values, summary, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0);
+        assertEquals(Arrays.stream(values).min().orElseThrow(), summary.getQuantile(0), 0.0);
+        // Negative values are stored by magnitude, so the collapsed buckets are those closest to zero
+        var negated = Arrays.stream(values).map(v -> -v).toArray();
+        assertWithinAccuracy(negated, SeriesSummary.of(negated, 0, negated.length), 0.0, 0.01, 0.1, 0.5, 0.9);
+    }
+
+    @Test
+    public void statisticsMatchReference() {
+        var rnd = new Random(3);
+        var values = makeValues(10_000, () -> rnd.nextDouble() < 0.01 ? Double.NaN : rnd.nextGaussian() * 50);
+        var summary = SeriesSummary.of(values, 100, 9_000);
+        var range = Arrays.stream(values, 100, 9_000).filter(v -> !Double.isNaN(v)).toArray();
+        assertEquals(range.length, summary.getCount());
+        assertEquals(Arrays.stream(range).sum(), summary.getSum(), 1e-9 * range.length * 50);
+        assertEquals(Arrays.stream(range).min().orElseThrow(), summary.getMin(), 0.0);
+        assertEquals(Arrays.stream(range).max().orElseThrow(), summary.getMax(), 0.0);
+        assertEquals(Arrays.stream(range).average().orElseThrow(), summary.getAverage(), 1e-9 * 50);
+    }
+
+    @Test
+    public void mergeMatchesSingleSummary() {
+        var rnd = new Random(4);
+        var values = makeValues(50_000, () -> rnd.nextDouble() < 0.1 ? 0.0 : Math.exp(rnd.nextGaussian() * 5) * (rnd.nextBoolean() ? 1 : -1));
+        var single = SeriesSummary.of(values, 0, values.length);
+        var merged = new SeriesSummary();
+        for (int from = 0; from < values.length; from += 7_000) {
+            merged.merge(SeriesSummary.of(values, from, Math.min(values.length, from + 7_000)));
+        }
+        merged.merge(new SeriesSummary());
+        assertEquals(single.getCount(), merged.getCount());
+        assertEquals(single.getMin(), merged.getMin(), 0.0);
+        assertEquals(single.getMax(), merged.getMax(), 0.0);
+        assertEquals(single.getSum(), merged.getSum(), 1e-9 * Math.abs(single.getSum()) + 1e-6);
+        for (double q : QUANTILES) {
+            assertEquals(single.getQuantile(q), merged.getQuantile(q), 0.0, "Quantile " + q);
+        }
+        assertWithinAccuracy(values, merged, QUANTILES);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        var summary = SeriesSummary.of(new double[]{1, 2, 3}, 0, 3);
+        var copy = summary.copy();
+        copy.add(100);
+        assertEquals(3, summary.getCount());
+        assertEquals(3.0, summary.getMax(), 0.0);
+        assertEquals(4, copy.getCount());
+        assertEquals(100.0, copy.getMax(), 0.0);
+    }
+
+    @Test
+    public void emptySummaryHasNoStatistics() {
+        var summary = SeriesSummary.of(new double[]{Double.NaN, Double.NaN}, 0, 2);
+        assertEquals(0, summary.getCount());
+        assertTrue(Double.isNaN(summary.getMin()));
+        assertTrue(Double.isNaN(summary.getMax()));
+        assertTrue(Double.isNaN(summary.getAverage()));
+        assertTrue(Double.isNaN(summary.getQuantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> summary.getQuantile(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> summary.getQuantile(1.1));
+    }
+}
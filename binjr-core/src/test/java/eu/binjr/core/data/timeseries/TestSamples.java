@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sample series and assertions shared by the tests of series reductions.
+ *
+ * @author Frederic Thevenet
+ */
+public final class TestSamples {
+    public static final ZoneId UTC = ZoneId.of("UTC");
+
+    private TestSamples() {
+    }
+
+    /**
+     * Builds samples sorted by timestamp, with random intervals between them and small random integer values, so that
+     * sums and averages are computed the same way regardless of the order of additions.
+     *
+     * @param seed     the seed of the random number generator.
+     * @param count    the number of samples.
+     * @param origin   the timestamp the interval before the first sample starts from, in epoch nanoseconds.
+     * @param minStep  the shortest interval between two samples, in nanoseconds; 0 allows duplicate timestamps.
+     * @param maxStep  the longest interval between two samples, in nanoseconds.
+     * @param minValue the smallest value, inclusive.
+     * @param maxValue the largest value, exclusive.
+     * @param nanRate  the fraction of samples with a NaN value.
+     * @return the samples.
+     */
+    public static DoubleColumns makeSamples(long seed, int count, long origin, int minStep, int maxStep,
+                                            int minValue, int maxValue, double nanRate) {
+        var rnd = new Random(seed);
+        var timestamps = new long[count];
+        var values = new double[count];
+        long t = origin;
+        for (int i = 0; i < count; i++) {
+            t += minStep + rnd.nextInt(maxStep - minStep + 1);
+            timestamps[i] = t;
+            values[i] = rnd.nextDouble() < nanRate ? Double.NaN : minValue + rnd.nextInt(maxValue - minValue);
+        }
+        return new DoubleColumns(timestamps, values, count, UTC);
+    }
+
+    /**
+     * Asserts that a reduction returned exactly the expected samples, in order.
+     *
+     * @param samples  the samples that were reduced.
+     * @param expected the indexes of the expected samples within {@code samples}.
+     * @param actual   the samples returned by the reduction.
+     */
+    public static void assertSelected(DoubleColumns samples, List<Integer> expected, DoubleColumns actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(samples.getTimestamp(expected.get(i)), actual.getTimestamp(i), "Timestamp at index " + i);
+            assertEquals(samples.getValue(expected.get(i)), actual.getValue(i), 0.0, "Value at index " + i);
+        }
+    }
+
+    /**
+     * Asserts that two series hold the same samples, in the same order.
+     *
+     * @param expected the expected samples.
+     * @param actual   the actual samples.
+     */
+    public static void assertSameSamples(DoubleColumns expected, DoubleColumns actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getTimestamp(i), actual.getTimestamp(i), "Timestamp at index " + i);
+            assertEquals(expected.getValue(i), actual.getValue(i), 0.0, "Value at index " + i);
+        }
+    }
+}
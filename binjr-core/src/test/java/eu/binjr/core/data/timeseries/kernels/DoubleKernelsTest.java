@@ -0,0 +1,162 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.kernels;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DoubleKernelsTest {
+    // Lengths around common lane counts, so that both full vectors and leftover elements are exercised
+    private static final int[] LENGTHS = {0, 1, 2, 3, 5, 7, 8, 9, 15, 16, 17, 31, 33, 63, 65, 127, 1001, 4099};
+    private final ScalarDoubleKernels scalar = new ScalarDoubleKernels();
+    private final VectorDoubleKernels vector = VectorDoubleKernels.create();
+
+    private static double[] makeValues(Random rnd, int length, double nanRate, int distinct) {
+        var values = new double[length];
+        for (int i = 0; i < length; i++) {
+            // A small number of distinct values makes ties between extremes likely
+            values[i] = rnd.nextDouble() < nanRate ? Double.NaN :
+                    distinct > 0 ? rnd.nextInt(distinct) - distinct / 2.0 : rnd.nextGaussian() * 1000;
+        }
+        return values;
+    }
+
+    private static long[] makeTimestamps(Random rnd, int length) {
+        var timestamps = new long[length];
+        long t = 1_700_000_000_000_000_000L;
+        for (int i = 0; i < length; i++) {
+            t += 1 + rnd.nextInt(1_000_000);
+            timestamps[i] = t;
+        }
+        return timestamps;
+    }
+
+    private interface RangeCheck {
+        void check(double[] values, long[] timestamps, int from, int to);
+    }
+
+    private void forAllInputs(RangeCheck check) {
+        assumeTrue(vector != null, "Vector kernels are not supported on this platform");
+        var rnd = new Random(1234);
+        for (int length : LENGTHS) {
+            for (double nanRate : new double[]{0.0, 0.1, 0.5, 1.0}) {
+                for (int distinct : new int[]{0, 3}) {
+                    var values = makeValues(rnd, length, nanRate, distinct);
+                    var timestamps = makeTimestamps(rnd, length);
+                    check.check(values, timestamps, 0, length);
+                    if (length > 2) {
+                        // Ranges that don't start on a vector boundary
+                        check.check(values, timestamps, 1, length - 1);
+                        check.check(values, timestamps, length / 3, length);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void minAndMaxAreIdentical() {
+        forAllInputs((values, timestamps, from, to) -> {
+            assertEquals(scalar.min(values, from, to), vector.min(values, from, to), 0.0);
+            assertEquals(scalar.max(values, from, to), vector.max(values, from, to), 0.0);
+        });
+    }
+
+    @Test
+    public void indexesOfExtremesAreIdentical() {
+        forAllInputs((values, timestamps, from, to) -> {
+            assertEquals(scalar.indexOfMin(values, from, to), vector.indexOfMin(values, from, to));
+            assertEquals(scalar.indexOfMax(values, from, to), vector.indexOfMax(values, from, to));
+        });
+    }
+
+    @Test
+    public void tiesGoToEarliestIndex() {
+        assumeTrue(vector != null, "Vector kernels are not supported on this platform");
+        for (int length : LENGTHS) {
+            if (length < 2) {
+                continue;
+            }
+            var values = new double[length];
+            Arrays.fill(values, Double.NaN);
+            // Same extremes at the end of a range, in a later vector and in the leftover elements
+            for (int i : new int[]{length - 1, length / 2, 1}) {
+                values[i] = 42.0;
+            }
+            values[0] = Double.NaN;
+            assertEquals(1, scalar.indexOfMax(values, 0, length));
+            assertEquals(1, vector.indexOfMax(values, 0, length));
+            assertEquals(1, vector.indexOfMin(values, 0, length));
+            var timestamps = new long[length];
+            var zeros = new double[length];
+            // Every sample forms the same triangle when all points are aligned
+            assertEquals(scalar.indexOfLargestTriangle(timestamps, zeros, 0, length, 0, 0, 1, 0),
+                    vector.indexOfLargestTriangle(timestamps, zeros, 0, length, 0, 0, 1, 0));
+            assertEquals(0, vector.indexOfLargestTriangle(timestamps, zeros, 0, length, 0, 0, 1, 0));
+        }
+    }
+
+    @Test
+    public void sumsAndCountsAreIdentical() {
+        forAllInputs((values, timestamps, from, to) -> {
+            assertEquals(scalar.countNonNaN(values, from, to), vector.countNonNaN(values, from, to));
+            // Additions happen in a different order, so results may only differ by rounding errors
+            double expectedSum = scalar.sum(values, from, to);
+            assertEquals(expectedSum, vector.sum(values, from, to), 1e-9 * Math.max(1.0, Math.abs(expectedSum)) * (to - from + 1));
+            if (to > from) {
+                double expectedOffsets = scalar.sumOfOffsets(timestamps, from, to, timestamps[from]);
+                assertEquals(expectedOffsets, vector.sumOfOffsets(timestamps, from, to, timestamps[from]),
+                        1e-12 * Math.max(1.0, Math.abs(expectedOffsets)) * (to - from + 1));
+            }
+        });
+    }
+
+    @Test
+    public void largestTrianglesAreIdentical() {
+        forAllInputs((values, timestamps, from, to) -> {
+            if (to > from) {
+                long ax = timestamps[from] - 1000;
+                double avgX = (double) (timestamps[to - 1] - ax) + 5000;
+                assertEquals(scalar.indexOfLargestTriangle(timestamps, values, from, to, ax, 1.5, avgX, -3.0),
+                        vector.indexOfLargestTriangle(timestamps, values, from, to, ax, 1.5, avgX, -3.0));
+            }
+        });
+    }
+
+    @Test
+    public void pruneNaNIsIdentical() {
+        forAllInputs((values, timestamps, from, to) -> {
+            if (from != 0) {
+                return;
+            }
+            var scalarValues = values.clone();
+            var scalarTimestamps = timestamps.clone();
+            var vectorValues = values.clone();
+            var vectorTimestamps = timestamps.clone();
+            int scalarKept = scalar.pruneNaN(scalarTimestamps, scalarValues, to);
+            int vectorKept = vector.pruneNaN(vectorTimestamps, vectorValues, to);
+            assertEquals(scalarKept, vectorKept);
+            assertArrayEquals(Arrays.copyOf(scalarTimestamps, scalarKept), Arrays.copyOf(vectorTimestamps, vectorKept));
+            assertArrayEquals(Arrays.copyOf(scalarValues, scalarKept), Arrays.copyOf(vectorValues, vectorKept));
+        });
+    }
+}
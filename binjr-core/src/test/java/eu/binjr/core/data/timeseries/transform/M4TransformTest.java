@@ -0,0 +1,151 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.transform;
+
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.TestSamples;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static eu.binjr.core.data.timeseries.TestSamples.UTC;
+import static eu.binjr.core.data.timeseries.TestSamples.assertSelected;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class M4TransformTest {
+    private static final int WIDTH = 100;
+    // A power of two number of nanoseconds per pixel keeps the transform's floating point arithmetic exact
+    private static final long NANOS_PER_PIXEL = 1024;
+    private static final long START = 1_000_000_000L;
+    private static final long END = START + WIDTH * NANOS_PER_PIXEL;
+
+    /**
+     * Builds sorted samples, some of them before and after the plotted range, with a few duplicate timestamps,
+     * NaN values and ties between extremes.
+     */
+    private static DoubleColumns makeSamples(long seed, int count, double nanRate) {
+        int step = (int) ((END - START + 40 * NANOS_PER_PIXEL) / count);
+        return TestSamples.makeSamples(seed, count, START - 20 * NANOS_PER_PIXEL, 0, 2 * step, 0, 20, nanRate);
+    }
+
+    private static ZonedDateTime toDateTime(long epochNanos) {
+        return ZonedDateTime.ofInstant(DoubleColumns.toInstant(epochNanos), UTC);
+    }
+
+    /**
+     * A straightforward M4 selection: samples are grouped by pixel column using exact integer arithmetic,
+     * with one extra group before and one after the plotted range.
+     */
+    private static List<Integer> reference(DoubleColumns samples, long start, long end) {
+        var groups = new TreeMap<Long, List<Integer>>();
+        for (int i = 0; i < samples.size(); i++) {
+            long offset = samples.getTimestamp(i) - start;
+            long column = offset < 0 ? -1 : offset > end - start ? WIDTH + 1 :
+                    Math.min(WIDTH, offset * WIDTH / (end - start));
+            groups.computeIfAbsent(column, c -> new ArrayList<>()).add(i);
+        }
+        var result = new ArrayList<Integer>();
+        for (var group : groups.values()) {
+            var kept = new TreeMap<Integer, Integer>();
+            kept.put(group.get(0), 0);
+            kept.put(group.get(group.size() - 1), 0);
+            int min = -1;
+            int max = -1;
+            for (int i : group) {
+                // Extremes ignore NaN values and ties go to the earliest sample
+                double v = samples.getValue(i);
+                if (!Double.isNaN(v)) {
+                    if (min < 0 || v < samples.getValue(min)) {
+                        min = i;
+                    }
+                    if (max < 0 || v > samples.getValue(max)) {
+                        max = i;
+                    }
+                }
+            }
+            if (min >= 0) {
+                kept.put(min, 0);
+                kept.put(max, 0);
+            }
+            result.addAll(kept.keySet());
+        }
+        return result;
+    }
+
+    @Test
+    public void selectionMatchesReference() {
+        for (long seed = 0; seed < 20; seed++) {
+            for (int count : new int[]{4 * WIDTH + 1, 5_000, 100_000}) {
+                var samples = makeSamples(seed, count, 0.05);
+                var transform = new M4Transform(WIDTH, toDateTime(START), toDateTime(END));
+                assertSelected(samples, reference(samples, START, END), transform.transform(samples.copy()));
+            }
+        }
+    }
+
+    @Test
+    public void openRangeUsesFirstAndLastSamples() {
+        var samples = makeSamples(42, 50_000, 0.0);
+        long first = samples.getTimestamp(0);
+        long last = first + WIDTH * NANOS_PER_PIXEL * 2;
+        // Drop the samples beyond the span that keeps the reference arithmetic exact
+        samples = samples.slice(0, samples.upperBound(last));
+        samples.add(last, 0.0);
+        var transform = new M4Transform(WIDTH, null, null);
+        assertSelected(samples, reference(samples, first, last), transform.transform(samples.copy()));
+    }
+
+    @Test
+    public void groupsOfNaNKeepFirstAndLastSamples() {
+        var samples = makeSamples(7, 10_000, 1.0);
+        var reduced = new M4Transform(WIDTH, toDateTime(START), toDateTime(END)).transform(samples.copy());
+        assertSelected(samples, reference(samples, START, END), reduced);
+        assertTrue(reduced.size() <= 2 * (WIDTH + 3));
+    }
+
+    @Test
+    public void listAndColumnsGiveSameSamples() {
+        var samples = makeSamples(3, 20_000, 0.1);
+        var transform = new M4Transform(WIDTH, toDateTime(START), toDateTime(END));
+        var fromColumns = transform.transform(samples.copy());
+        var fromList = transform.transform(samples.toDataList());
+        assertEquals(fromColumns.size(), fromList.size());
+        for (int i = 0; i < fromList.size(); i++) {
+            assertEquals(fromColumns.getTimestamp(i), DoubleColumns.toEpochNanos(fromList.get(i).getXValue()));
+            assertEquals(fromColumns.getValue(i), fromList.get(i).getYValue(), 0.0);
+        }
+    }
+
+    @Test
+    public void smallSeriesAreLeftUntouched() {
+        var samples = makeSamples(5, 4 * WIDTH, 0.1);
+        assertSame(samples, new M4Transform(WIDTH, toDateTime(START), toDateTime(END)).transform(samples));
+        assertSame(samples, new M4Transform(0, toDateTime(START), toDateTime(END)).transform(samples));
+        var list = samples.toDataList();
+        assertSame(list, new M4Transform(WIDTH, null, null).transform(list));
+    }
+
+    @Test
+    public void sizeIsBoundedByPixelWidth() {
+        var reduced = new M4Transform(WIDTH, toDateTime(START), toDateTime(END)).transform(makeSamples(9, 200_000, 0.0));
+        assertTrue(reduced.size() <= 4 * (WIDTH + 3));
+        assertTrue(reduced.isSorted());
+    }
+}
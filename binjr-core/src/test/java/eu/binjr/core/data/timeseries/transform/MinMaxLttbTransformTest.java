@@ -0,0 +1,170 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.timeseries.transform;
+
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.TestSamples;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static eu.binjr.core.data.timeseries.TestSamples.assertSelected;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinMaxLttbTransformTest {
+    private static final int THRESHOLD = 200;
+
+    private static DoubleColumns makeSamples(long seed, int count, double nanRate) {
+        return TestSamples.makeSamples(seed, count, 1_000_000_000L, 1, 10, -500, 500, nanRate);
+    }
+
+    /**
+     * Keeps the first and last samples, and the smallest and largest samples of each partition in between.
+     */
+    private static List<Integer> referencePreselection(DoubleColumns samples, int nbPartitions) {
+        var kept = new TreeSet<Integer>();
+        kept.add(0);
+        kept.add(samples.size() - 1);
+        double every = (double) (samples.size() - 2) / nbPartitions;
+        for (int p = 0; p < nbPartitions; p++) {
+            int from = (int) (p * every) + 1;
+            int to = p == nbPartitions - 1 ? samples.size() - 1 : (int) ((p + 1) * every) + 1;
+            int min = -1;
+            int max = -1;
+            for (int i = from; i < to; i++) {
+                double v = samples.getValue(i);
+                if (!Double.isNaN(v)) {
+                    if (min < 0 || v < samples.getValue(min)) {
+                        min = i;
+                    }
+                    if (max < 0 || v > samples.getValue(max)) {
+                        max = i;
+                    }
+                }
+            }
+            if (min < 0) {
+                // Partitions with only NaN values keep their first sample
+                kept.add(from);
+            } else {
+                kept.add(min);
+                kept.add(max);
+            }
+        }
+        return new ArrayList<>(kept);
+    }
+
+    /**
+     * A textbook LTTB reduction, with NaN values taken as zero and abscissas measured from point A.
+     */
+    private static List<Integer> referenceLttb(DoubleColumns samples, List<Integer> candidates, int threshold) {
+        int length = candidates.size();
+        var result = new ArrayList<Integer>();
+        if (length <= threshold) {
+            result.addAll(candidates);
+            return result;
+        }
+        double every = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+        result.add(candidates.get(0));
+        for (int i = 0; i < threshold - 2; i++) {
+            int avgFrom = (int) (Math.floor((i + 1) * every) + 1);
+            int avgTo = Math.min((int) (Math.floor((i + 2) * every) + 1), length);
+            long ax = samples.getTimestamp(candidates.get(a));
+            double ay = valueOf(samples, candidates.get(a));
+            double sumX = 0;
+            double sumY = 0;
+            for (int j = avgFrom; j < avgTo; j++) {
+                sumX += (double) (samples.getTimestamp(candidates.get(j)) - ax);
+                sumY += valueOf(samples, candidates.get(j));
+            }
+            double avgX = sumX / (avgTo - avgFrom);
+            double avgY = sumY / (avgTo - avgFrom);
+            double maxArea = -1;
+            int from = (int) (Math.floor(i * every) + 1);
+            int to = (int) (Math.floor((i + 1) * every) + 1);
+            for (int j = from; j < to; j++) {
+                double x = (double) (samples.getTimestamp(candidates.get(j)) - ax);
+                double y = valueOf(samples, candidates.get(j));
+                double area = Math.abs(-avgX * (y - ay) + x * (avgY - ay)) * 0.5;
+                if (area > maxArea) {
+                    maxArea = area;
+                    a = j;
+                }
+            }
+            result.add(candidates.get(a));
+        }
+        result.add(candidates.get(length - 1));
+        return result;
+    }
+
+    private static double valueOf(DoubleColumns samples, int index) {
+        return Double.isNaN(samples.getValue(index)) ? 0.0 : samples.getValue(index);
+    }
+
+    @Test
+    public void reductionMatchesReference() {
+        for (long seed = 0; seed < 10; seed++) {
+            for (int ratio : new int[]{1, 2, MinMaxLttbTransform.DEFAULT_PRESELECTION_RATIO, 7}) {
+                // Sizes above the parallel threshold exercise concurrent partitions
+                for (int count : new int[]{THRESHOLD * ratio + 1, 10_007, 100_000}) {
+                    var samples = makeSamples(seed, count, 0.01);
+                    var candidates = referencePreselection(samples, Math.max(1, THRESHOLD * ratio / 2));
+                    var reduced = new MinMaxLttbTransform(THRESHOLD, ratio).transform(samples.copy());
+                    assertSelected(samples, referenceLttb(samples, candidates, THRESHOLD), reduced);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void partitionsOfNaNAreKept() {
+        var samples = makeSamples(11, 50_000, 0.0);
+        for (int i = 10_000; i < 30_000; i++) {
+            samples.setValue(i, Double.NaN);
+        }
+        var candidates = referencePreselection(samples, THRESHOLD * MinMaxLttbTransform.DEFAULT_PRESELECTION_RATIO / 2);
+        var reduced = new MinMaxLttbTransform(THRESHOLD).transform(samples.copy());
+        assertSelected(samples, referenceLttb(samples, candidates, THRESHOLD), reduced);
+        assertEquals(THRESHOLD, reduced.size());
+        assertTrue(reduced.isSorted());
+    }
+
+    @Test
+    public void smallSeriesAreOnlyReducedByLttb() {
+        var samples = makeSamples(12, THRESHOLD * MinMaxLttbTransform.DEFAULT_PRESELECTION_RATIO, 0.05);
+        var all = new ArrayList<Integer>();
+        for (int i = 0; i < samples.size(); i++) {
+            all.add(i);
+        }
+        var reduced = new MinMaxLttbTransform(THRESHOLD).transform(samples.copy());
+        assertSelected(samples, referenceLttb(samples, all, THRESHOLD), reduced);
+        var unchanged = makeSamples(13, THRESHOLD, 0.05);
+        assertSame(unchanged, new MinMaxLttbTransform(THRESHOLD).transform(unchanged));
+    }
+
+    @Test
+    public void listKeepsFirstAndLastSamples() {
+        var samples = makeSamples(14, 20_000, 0.05);
+        var reduced = new MinMaxLttbTransform(THRESHOLD).transform(samples.toDataList());
+        assertEquals(THRESHOLD, reduced.size());
+        assertEquals(samples.getTimestamp(0), DoubleColumns.toEpochNanos(reduced.get(0).getXValue()));
+        assertEquals(samples.getTimestamp(samples.size() - 1),
+                DoubleColumns.toEpochNanos(reduced.get(THRESHOLD - 1).getXValue()));
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ *    Copyright 2026 Frederic Thevenet
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package eu.binjr.core.data.workspace;
+
+import eu.binjr.common.function.CheckedSupplier;
+import eu.binjr.core.data.adapters.BaseDataAdapter;
+import eu.binjr.core.data.adapters.FetchResolution;
+import eu.binjr.core.data.adapters.SourceBinding;
+import eu.binjr.core.data.adapters.TimeSeriesBinding;
+import eu.binjr.core.data.async.CancellationToken;
+import eu.binjr.core.data.exceptions.DataAdapterException;
+import eu.binjr.core.data.timeseries.DoubleColumns;
+import eu.binjr.core.data.timeseries.DoubleTimeSeriesProcessor;
+import eu.binjr.core.data.timeseries.TimeSeriesProcessor;
+import org.eclipse.fx.ui.controls.tree.FilterableTreeItem;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static eu.binjr.core.data.timeseries.TestSamples.assertSameSamples;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetchCoalescerTest {
+    private static final long TIMEOUT_SEC = 10;
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final String PATH = "/test";
+    private static final long STEP = 1_000_000_000L;
+    private static final Instant BEGIN = Instant.ofEpochSecond(0);
+    private static final Instant END = Instant.ofEpochSecond(1_000);
+    private static final FetchResolution RESOLUTION = new FetchResolution(800, 1_600, FetchResolution.Aggregation.EXTREMES);
+    private final FetchCoalescer coalescer = FetchCoalescer.getInstance();
+
+    private static class TestAdapter extends BaseDataAdapter<Double> {
+        private final boolean fullResolution;
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final List<DoubleColumns> produced = Collections.synchronizedList(new ArrayList<>());
+
+        private TestAdapter(boolean fullResolution) {
+            this.fullResolution = fullResolution;
+        }
+
+        @Override
+        public FilterableTreeItem<SourceBinding> getBindingTree() {
+            return null;
+        }
+
+        @Override
+        public Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> fetchData(String path,
+                                                                                  Instant begin,
+                                                                                  Instant end,
+                                                                                  List<TimeSeriesInfo<Double>> seriesInfo,
+                                                                                  boolean bypassCache) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isFullResolution(FetchResolution resolution) {
+            return fullResolution || resolution.isFull();
+        }
+
+        @Override
+        public String getEncoding() {
+            return "utf-8";
+        }
+
+        @Override
+        public ZoneId getTimeZoneId() {
+            return UTC;
+        }
+
+        @Override
+        public String getSourceName() {
+            return "Test";
+        }
+
+        @Override
+        public Map<String, String> getParams() {
+            return Map.of();
+        }
+
+        private TimeSeriesInfo<Double> series(String label) {
+            return TimeSeriesInfo.fromBinding(new TimeSeriesBinding.Builder()
+                    .withAdapter(this)
+                    .withLabel(label)
+                    .withPath(PATH)
+                    .build());
+        }
+
+        /**
+         * Returns an operation that counts the requests sent to the adapter and returns one sample per second over
+         * the requested range for each series, with values that identify the series.
+         */
+        private CheckedSupplier<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>, DataAdapterException> source(
+                List<TimeSeriesInfo<Double>> seriesInfo, Instant begin, Instant end) {
+            return () -> {
+                fetches.incrementAndGet();
+                Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data = new HashMap<>();
+                for (int s = 0; s < seriesInfo.size(); s++) {
+                    var samples = makeSamples(begin, end, s);
+                    produced.add(samples);
+                    data.put(seriesInfo.get(s), new DoubleTimeSeriesProcessor(samples));
+                }
+                return data;
+            };
+        }
+    }
+
+    private static DoubleColumns makeSamples(Instant begin, Instant end, int series) {
+        var columns = new DoubleColumns();
+        for (long t = DoubleColumns.toEpochNanos(begin); t <= DoubleColumns.toEpochNanos(end); t += STEP) {
+            columns.add(t, series * 10_000 + t / (double) STEP);
+        }
+        return columns;
+    }
+
+    /**
+     * Sends a request that is held in flight until the returned latch is released.
+     */
+    private CompletableFuture<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>> lead(
+            TestAdapter adapter,
+            List<TimeSeriesInfo<Double>> seriesInfo,
+            FetchResolution resolution,
+            CountDownLatch release,
+            CheckedSupplier<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>, DataAdapterException> source)
+            throws InterruptedException {
+        var entered = new CountDownLatch(1);
+        var result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return coalescer.fetch(adapter, PATH, BEGIN, END, seriesInfo, false, resolution, CancellationToken.NONE, () -> {
+                    entered.countDown();
+                    try {
+                        assertTrue(release.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new DataAdapterException(e);
+                    }
+                    return source.get();
+                });
+            } catch (DataAdapterException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        return result;
+    }
+
+    /**
+     * Sends a request from another thread, and waits until it either blocks on an in-flight request or completes.
+     */
+    private CompletableFuture<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>> follow(
+            TestAdapter adapter,
+            List<TimeSeriesInfo<Double>> seriesInfo,
+            Instant begin,
+            Instant end,
+            boolean bypassCache,
+            FetchResolution resolution,
+            CancellationToken cancellation) throws InterruptedException {
+        var result = new CompletableFuture<Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>>>();
+        var thread = new Thread(() -> {
+            try {
+                result.complete(coalescer.fetch(adapter, PATH, begin, end, seriesInfo, bypassCache, resolution,
+                        cancellation, adapter.source(seriesInfo, begin, end)));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SEC);
+        while (!result.isDone() && thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return result;
+    }
+
+    private static DoubleColumns columnsOf(Map<TimeSeriesInfo<Double>, TimeSeriesProcessor<Double>> data, TimeSeriesInfo<Double> info) {
+        return ((DoubleTimeSeriesProcessor) data.get(info)).getColumns();
+    }
+
+    @Test
+    public void identicalRequestsAreJoined() throws Exception {
+        var adapter = new TestAdapter(false);
+        var series = List.of(adapter.series("a"), adapter.series("b"));
+        var release = new CountDownLatch(1);
+        var leader = lead(adapter, series, RESOLUTION, release, adapter.source(series, BEGIN, END));
+        var follower = follow(adapter, List.of(series.get(1)), BEGIN, END, false, RESOLUTION, CancellationToken.NONE);
+        assertFalse(follower.isDone());
+        release.countDown();
+        leader.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        var joined = follower.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(1, adapter.fetches.get());
+        assertEquals(1, joined.size());
+        var expected = makeSamples(BEGIN, END, 1);
+        assertSameSamples(expected, columnsOf(joined, series.get(1)));
+        // Each request gets its own copy of the samples
+        adapter.produced.forEach(samples -> samples.setValue(0, Double.NaN));
+        assertSameSamples(expected, columnsOf(joined, series.get(1)));
+    }
+
+    @Test
+    public void narrowerRangeIsSlicedFromFullResolutionRequest() throws Exception {
+        var adapter = new TestAdapter(true);
+        var series = List.of(adapter.series("a"), adapter.series("b"));
+        var release = new CountDownLatch(1);
+        var leader = lead(adapter, series, RESOLUTION, release, adapter.source(series, BEGIN, END));
+        // Bounds that don't fall on a sample
+        var begin = Instant.ofEpochSecond(300, 500_000_000);
+        var end = Instant.ofEpochSecond(600, 500_000_000);
+        var follower = follow(adapter, List.of(series.get(1)), begin, end, false, RESOLUTION, CancellationToken.NONE);
+        assertFalse(follower.isDone());
+        release.countDown();
+        leader.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        var joined = follower.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(1, adapter.fetches.get());
+        // A reference slice: samples within the range, along with the ones immediately before and after
+        var all = makeSamples(BEGIN, END, 1);
+        var expected = new DoubleColumns();
+        for (int i = 0; i < all.size(); i++) {
+            boolean within = all.getTimestamp(i) >= DoubleColumns.toEpochNanos(begin) && all.getTimestamp(i) <= DoubleColumns.toEpochNanos(end);
+            boolean before = i + 1 < all.size() && all.getTimestamp(i + 1) >= DoubleColumns.toEpochNanos(begin) && all.getTimestamp(i) < DoubleColumns.toEpochNanos(begin);
+            boolean after = i > 0 && all.getTimestamp(i - 1) <= DoubleColumns.toEpochNanos(end) && all.getTimestamp(i) > DoubleColumns.toEpochNanos(end);
+            if (within || before || after) {
+                expected.add(all.getTimestamp(i), all.getValue(i));
+            }
+        }
+        assertSameSamples(expected, columnsOf(joined, series.get(1)));
+    }
+
+    @Test
+    public void uncoveredRequestsAreSentToSource() throws Exception {
+        var adapter = new TestAdapter(false);
+        var series = List.of(adapter.series("a"));
+        var release = new CountDownLatch(1);
+        var leader = lead(adapter, series, RESOLUTION, release, adapter.source(series, BEGIN, END));
+        // A narrower range can't be sliced from aggregated samples
+        var narrower = follow(adapter, series, BEGIN, END.minusSeconds(10), false, RESOLUTION, CancellationToken.NONE);
+        assertSameSamples(makeSamples(BEGIN, END.minusSeconds(10), 0),
+                columnsOf(narrower.get(TIMEOUT_SEC, TimeUnit.SECONDS), series.get(0)));
+        // A series that isn't part of the in-flight request
+        var other = List.of(adapter.series("c"));
+        follow(adapter, other, BEGIN, END, false, RESOLUTION, CancellationToken.NONE).get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        // A request bypassing the cache can't be served by one that doesn't
+        follow(adapter, series, BEGIN, END, true, RESOLUTION, CancellationToken.NONE).get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(3, adapter.fetches.get());
+        release.countDown();
+        leader.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(4, adapter.fetches.get());
+    }
+
+    @Test
+    public void onlyFullResolutionRequestsCoverNarrowerOnes() throws Exception {
+        var adapter = new TestAdapter(false);
+        var series = List.of(adapter.series("a"));
+        var release = new CountDownLatch(1);
+        var reduced = lead(adapter, series, RESOLUTION, release, adapter.source(series, BEGIN, END));
+        // A request for all samples can't be served by one for aggregated samples, whatever its range
+        var narrower = follow(adapter, series, BEGIN, END.minusSeconds(10), false, FetchResolution.FULL, CancellationToken.NONE);
+        assertSameSamples(makeSamples(BEGIN, END.minusSeconds(10), 0),
+                columnsOf(narrower.get(TIMEOUT_SEC, TimeUnit.SECONDS), series.get(0)));
+        follow(adapter, series, BEGIN, END, false, FetchResolution.FULL, CancellationToken.NONE).get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(2, adapter.fetches.get());
+        release.countDown();
+        reduced.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(3, adapter.fetches.get());
+        // It can be served by one for all samples over a wider range
+        var fullRelease = new CountDownLatch(1);
+        var full = lead(adapter, series, FetchResolution.FULL, fullRelease, adapter.source(series, BEGIN, END));
+        var covered = follow(adapter, series, BEGIN, END.minusSeconds(10), false, FetchResolution.FULL, CancellationToken.NONE);
+        assertFalse(covered.isDone());
+        fullRelease.countDown();
+        full.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        covered.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(4, adapter.fetches.get());
+    }
+
+    @Test
+    public void cancelledRequestIsSentAgain() throws Exception {
+        var adapter = new TestAdapter(false);
+        var series = List.of(adapter.series("a"));
+        var release = new CountDownLatch(1);
+        var leader = lead(adapter, series, RESOLUTION, release, () -> {
+            throw new CancellationException("Leader was cancelled");
+        });
+        var follower = follow(adapter, series, BEGIN, END, false, RESOLUTION, CancellationToken.NONE);
+        assertFalse(follower.isDone());
+        release.countDown();
+        var thrown = assertThrows(Exception.class, () -> leader.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof CancellationException);
+        // The follower wasn't cancelled itself, so it sends the request on its own
+        assertSameSamples(makeSamples(BEGIN, END, 0), columnsOf(follower.get(TIMEOUT_SEC, TimeUnit.SECONDS), series.get(0)));
+        assertEquals(1, adapter.fetches.get());
+    }
+
+    @Test
+    public void cancelledFollowerStopsWaiting() throws Exception {
+        var adapter = new TestAdapter(false);
+        var series = List.of(adapter.series("a"));
+        var release = new CountDownLatch(1);
+        var leader = lead(adapter, series, RESOLUTION, release, adapter.source(series, BEGIN, END));
+        var cancellation = CancellationToken.create();
+        var follower = follow(adapter, series, BEGIN, END, false, RESOLUTION, cancellation);
+        assertFalse(follower.isDone());
+        cancellation.cancel();
+        assertThrows(CancellationException.class, () -> follower.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        release.countDown();
+        assertSameSamples(makeSamples(BEGIN, END, 0), columnsOf(leader.get(TIMEOUT_SEC, TimeUnit.SECONDS), series.get(0)));
+        assertEquals(1, adapter.fetches.get());
+    }
+
+    @Test
+    public void failuresAreSharedWithFollowers() throws Exception {
+        var adapter = new TestAdapter(false);
+        var series = List.of(adapter.series("a"));
+        var release = new CountDownLatch(1);
+        var leader = lead(adapter, series, RESOLUTION, release, () -> {
+            throw new DataAdapterException("Expected failure");
+        });
+        var follower = follow(adapter, series, BEGIN, END, false, RESOLUTION, CancellationToken.NONE);
+        assertFalse(follower.isDone());
+        release.countDown();
+        assertThrows(Exception.class, () -> leader.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        var thrown = assertThrows(Exception.class, () -> follower.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof DataAdapterException);
+        assertEquals(0, adapter.fetches.get());
+    }
+}